@@ -0,0 +1,131 @@
+package com.ranull.graves.benchmark;
+
+import com.ranull.graves.manager.DataManager;
+import com.ranull.graves.manager.DatabaseIndexManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the grave and block lookups against an embedded H2 database holding 100k graves, with and without
+ * the secondary indexes of {@link DatabaseIndexManager}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DatabaseLookupBenchmark {
+    private static final int GRAVE_COUNT = 100_000;
+    private static final int OWNER_COUNT = 1000;
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"true", "false"})
+    public boolean indexed;
+
+    private Connection connection;
+    private PreparedStatement graveStatement;
+    private PreparedStatement blockStatement;
+    private List<String> ownerList;
+    private List<String> graveList;
+
+    @Setup(Level.Trial)
+    public void setup(GravesState state) throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:graves_benchmark_" + indexed + ";DB_CLOSE_DELAY=-1");
+        ownerList = new ArrayList<>();
+        graveList = new ArrayList<>();
+
+        for (int i = 0; i < OWNER_COUNT; i++) {
+            ownerList.add(UUID.randomUUID().toString());
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE TABLE grave (uuid_grave VARCHAR(255) PRIMARY KEY, "
+                    + "owner_uuid VARCHAR(255), location_death VARCHAR(255), time_creation BIGINT);");
+            statement.executeUpdate("CREATE TABLE block (location VARCHAR(255) PRIMARY KEY, "
+                    + "uuid_grave VARCHAR(255), replace_material VARCHAR(255), replace_data TEXT);");
+        }
+
+        connection.setAutoCommit(false);
+
+        try (PreparedStatement graveInsert = connection.prepareStatement("INSERT INTO grave "
+                + "(uuid_grave, owner_uuid, location_death, time_creation) VALUES (?, ?, ?, ?);");
+             PreparedStatement blockInsert = connection.prepareStatement("INSERT INTO block "
+                     + "(location, uuid_grave, replace_material, replace_data) VALUES (?, ?, ?, ?);")) {
+            for (int i = 0; i < GRAVE_COUNT; i++) {
+                String uuid = UUID.randomUUID().toString();
+                String location = "world|" + (i % 1000) * 16 + "|64|" + (i / 1000) * 16;
+
+                graveInsert.setString(1, uuid);
+                graveInsert.setString(2, ownerList.get(i % OWNER_COUNT));
+                graveInsert.setString(3, location);
+                graveInsert.setLong(4, System.currentTimeMillis());
+                graveInsert.addBatch();
+                blockInsert.setString(1, location);
+                blockInsert.setString(2, uuid);
+                blockInsert.setString(3, "AIR");
+                blockInsert.setString(4, "minecraft:air");
+                blockInsert.addBatch();
+                graveList.add(uuid);
+
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    graveInsert.executeBatch();
+                    blockInsert.executeBatch();
+                }
+            }
+        }
+
+        connection.commit();
+        connection.setAutoCommit(true);
+
+        if (indexed) {
+            new DatabaseIndexManager(state.plugin, DataManager.Type.H2)
+                    .setupIndexes(connection, Collections.emptyList());
+        }
+
+        graveStatement = connection.prepareStatement("SELECT uuid_grave FROM grave WHERE owner_uuid = ?;");
+        blockStatement = connection.prepareStatement("SELECT location FROM block WHERE uuid_grave = ?;");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS;");
+        }
+
+        connection.close();
+    }
+
+    @Benchmark
+    public int getGravesByOwner() throws SQLException {
+        graveStatement.setString(1, ownerList.get(ThreadLocalRandom.current().nextInt(OWNER_COUNT)));
+
+        return count(graveStatement);
+    }
+
+    @Benchmark
+    public int getBlocksByGrave() throws SQLException {
+        blockStatement.setString(1, graveList.get(ThreadLocalRandom.current().nextInt(GRAVE_COUNT)));
+
+        return count(blockStatement);
+    }
+
+    private static int count(PreparedStatement statement) throws SQLException {
+        int count = 0;
+
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+}
@@ -0,0 +1,36 @@
+package com.ranull.graves.benchmark;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import be.seeseemelk.mockbukkit.ServerMock;
+import be.seeseemelk.mockbukkit.WorldMock;
+import com.ranull.graves.Graves;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Starts a mock server with the plugin loaded, shared by the benchmarks of a trial. The libraries the plugin downloads
+ * on a real server are test dependencies here, so library loading is skipped and no network is needed.
+ */
+@State(Scope.Benchmark)
+public class GravesState {
+    public ServerMock server;
+    public WorldMock world;
+    public Graves plugin;
+
+    @Setup(Level.Trial)
+    public void setupServer() {
+        System.setProperty(Graves.LIBRARIES_PROVIDED_PROPERTY, "true");
+
+        server = MockBukkit.mock();
+        world = server.addSimpleWorld("world");
+        plugin = MockBukkit.load(Graves.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownServer() {
+        MockBukkit.unmock();
+    }
+}
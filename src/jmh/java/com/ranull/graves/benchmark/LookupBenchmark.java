@@ -0,0 +1,91 @@
+package com.ranull.graves.benchmark;
+
+import com.ranull.graves.data.ChunkData;
+import com.ranull.graves.type.Grave;
+import com.ranull.graves.util.StringUtil;
+import org.bukkit.Location;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.EntityType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the cache and config lookups done for every grave on every tick, placeholder and menu render.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LookupBenchmark {
+    private static final int OWNER_COUNT = 100;
+
+    @Param({"100", "10000"})
+    public int graveCount;
+
+    private GravesState state;
+    private List<UUID> ownerList;
+    private List<Location> locationList;
+    private List<String> permissionList;
+    private Grave grave;
+
+    @Setup(Level.Trial)
+    public void setup(GravesState state) {
+        this.state = state;
+        this.ownerList = new ArrayList<>();
+        this.locationList = new ArrayList<>();
+        this.permissionList = Arrays.asList("vip", "default");
+
+        for (int i = 0; i < OWNER_COUNT; i++) {
+            ownerList.add(UUID.randomUUID());
+        }
+
+        Map<UUID, Grave> graveMap = state.plugin.getCacheManager().getGraveMap();
+
+        graveMap.clear();
+
+        for (int i = 0; i < graveCount; i++) {
+            Grave grave = new Grave(UUID.randomUUID());
+            Location location = new Location(state.world, (i % 1000) * 16, 64, (i / 1000) * 16);
+
+            grave.setOwnerUUID(ownerList.get(i % OWNER_COUNT));
+            grave.setOwnerName("Owner" + (i % OWNER_COUNT));
+            grave.setOwnerNameDisplay("Owner" + (i % OWNER_COUNT));
+            grave.setOwnerType(EntityType.PLAYER);
+            grave.setLocationDeath(location);
+            grave.setPermissionList(permissionList);
+            graveMap.put(grave.getUUID(), grave);
+            locationList.add(location);
+            state.plugin.getDataManager().getChunkData(location);
+        }
+
+        grave = graveMap.values().iterator().next();
+    }
+
+    @Benchmark
+    public String parseString() {
+        return StringUtil.parseString("&7%owner_name% died at %world% %x% %y% %z% (%time_creation_formatted%)",
+                grave, state.plugin);
+    }
+
+    @Benchmark
+    public ConfigurationSection getConfig() {
+        return state.plugin.getConfig("hologram.enabled", EntityType.PLAYER, permissionList);
+    }
+
+    @Benchmark
+    public ChunkData getChunkData() {
+        return state.plugin.getDataManager()
+                .getChunkData(locationList.get(ThreadLocalRandom.current().nextInt(locationList.size())));
+    }
+
+    @Benchmark
+    public List<Grave> getGraveList() {
+        return state.plugin.getGraveManager()
+                .getGraveList(ownerList.get(ThreadLocalRandom.current().nextInt(OWNER_COUNT)));
+    }
+}
@@ -0,0 +1,95 @@
+package com.ranull.graves.benchmark;
+
+import com.ranull.graves.util.Base64Util;
+import com.ranull.graves.util.InventoryUtil;
+import com.ranull.graves.util.LocationUtil;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the grave inventory, item and location serialization used when saving and loading graves.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+    private GravesState state;
+    private Inventory inventory;
+    private String inventoryString;
+    private ItemStack itemStack;
+    private String itemStackString;
+    private Location location;
+    private String locationString;
+
+    @Setup(Level.Trial)
+    public void setup(GravesState state) {
+        itemStack = new ItemStack(Material.DIAMOND_SWORD);
+        ItemMeta itemMeta = itemStack.getItemMeta();
+
+        if (itemMeta != null) {
+            itemMeta.setDisplayName("Benchmark Sword");
+            itemMeta.setLore(Arrays.asList("First line", "Second line"));
+            itemMeta.addEnchant(Enchantment.SHARPNESS, 5, true);
+            itemStack.setItemMeta(itemMeta);
+        }
+
+        // A player inventory sized grave, half filled
+        inventory = state.server.createInventory(null, 54, "Grave");
+
+        for (int i = 0; i < 41; i += 2) {
+            inventory.setItem(i, i % 4 == 0 ? itemStack.clone() : new ItemStack(Material.COBBLESTONE, 64));
+        }
+
+        inventoryString = InventoryUtil.inventoryToString(inventory);
+        itemStackString = Base64Util.objectToBase64(itemStack);
+        location = new Location(state.world, 1024.5, 64, -2048.5);
+        locationString = LocationUtil.locationToString(location);
+        this.state = state;
+    }
+
+    @Benchmark
+    public String inventoryToString() {
+        return InventoryUtil.inventoryToString(inventory);
+    }
+
+    @Benchmark
+    public Inventory stringToInventory() {
+        return InventoryUtil.stringToInventory(null, inventoryString, "Grave", state.plugin);
+    }
+
+    @Benchmark
+    public String objectToBase64() {
+        return Base64Util.objectToBase64(itemStack);
+    }
+
+    @Benchmark
+    public Object base64ToObject() {
+        return Base64Util.base64ToObject(itemStackString);
+    }
+
+    @Benchmark
+    public String locationToString() {
+        return LocationUtil.locationToString(location);
+    }
+
+    @Benchmark
+    public Location stringToLocation() {
+        return LocationUtil.stringToLocation(locationString);
+    }
+
+    @Benchmark
+    public String chunkToString() {
+        return LocationUtil.chunkToString(location);
+    }
+}
@@ -40,6 +40,12 @@ import java.util.concurrent.Callable;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 public class Graves extends JavaPlugin {
+    /**
+     * System property that skips library loading when set to true, for environments that already have every library
+     * on the classpath.
+     */
+    public static final String LIBRARIES_PROVIDED_PROPERTY = "graves.libraries.provided";
+
     private VersionManager versionManager;
     private IntegrationManager integrationManager;
     private CacheManager cacheManager;
@@ -56,8 +62,16 @@ public class Graves extends JavaPlugin {
     private GraveManager graveManager;
     private GraveyardManager graveyardManager;
     private ParticleManager particleManager;
+    private EntityLODManager entityLODManager;
+    private PacketHologramManager packetHologramManager;
+    private MetricManager metricManager;
+    private ConfigReloadManager configReloadManager;
+    private LifecycleManager lifecycleManager;
     private Compatibility compatibility;
     private FileConfiguration fileConfiguration;
+    private final Map<File, FileConfiguration> configFileMap = new HashMap<>();
+    private final Map<File, Long> configFileStampMap = new HashMap<>();
+    private final Map<String, FileConfiguration> resourceDefaultsMap = new HashMap<>();
     private boolean wasReloaded = false;
     private boolean isDevelopmentBuild = false;
     private boolean isOutdatedBuild = false;
@@ -86,7 +100,9 @@ public class Graves extends JavaPlugin {
 
     @Override
     public void onEnable() {
+        lifecycleManager = new LifecycleManager(this);
         loadLibraries();
+        metricManager = new MetricManager(this);
         if (wasReloaded()) {
             compatibilityMessage("Server was reloaded with the /reload command. No support will be given if something breaks.");
         }
@@ -108,7 +124,11 @@ public class Graves extends JavaPlugin {
         graveManager = new GraveManager(this);
         graveyardManager = new GraveyardManager(this);
         particleManager = new ParticleManager(this);
+        entityLODManager = new EntityLODManager(this);
+        packetHologramManager = new PacketHologramManager(this);
+        configReloadManager = new ConfigReloadManager(this);
 
+        registerShutdownSteps();
         registerCommands();
         registerListeners();
         registerRecipes();
@@ -151,108 +171,120 @@ public class Graves extends JavaPlugin {
     }
 
     private void runShutdownTasks() {
-        getLogger().info("Shutting Down GravesX...");
-        try {
-            dataManager.closeConnection();
-        } catch (Exception e) {
-            getLogger().severe("Failed to close Database Connection. Cause:" + e.getCause());
-        }
-
-        getLogger().info("Unloading GraveManager...");
-        try {
-            graveManager.unload();
-            getLogger().info("Unloaded GraveManager Successfully.");
-        } catch (Exception e) {
-            getLogger().severe("Failed to unload GraveManager. Cause: " + e.getCause());
-        }
-
-        getLogger().info("Unloading GraveyardManager...");
-        try {
-            graveyardManager.unload();
-            getLogger().info("Unloaded GraveyardManager Successfully.");
-        } catch (Exception e) {
-            getLogger().severe("Failed to unload GraveyardManager. Cause: " + e.getCause());
+        if (lifecycleManager != null) {
+            lifecycleManager.shutdown();
         }
+    }
 
-        getLogger().info("Unloading IntegrationManager...");
-        try {
+    /**
+     * Adds the shutdown steps in dependency order. Everything that queues storage or schematic writes is unloaded
+     * before those writes are drained, and the database connection is closed last.
+     */
+    private void registerShutdownSteps() {
+        lifecycleManager.addStep("ConfigReloadManager", configReloadManager::unload);
+        lifecycleManager.addStep("GraveyardManager", graveyardManager::unload);
+        lifecycleManager.addStep("GraveManager", graveManager::unload);
+        lifecycleManager.addStep("ParticleManager", particleManager::unload);
+        lifecycleManager.addStep("EntityLODManager", entityLODManager::unload);
+        lifecycleManager.addStep("PacketHologramManager", packetHologramManager::unload);
+        lifecycleManager.addStep("IntegrationManager", () -> {
             integrationManager.unload();
             integrationManager.unloadNoReload();
-            getLogger().info("Unloaded IntegrationManager Successfully.");
-        } catch (Exception e) {
-            getLogger().severe("Failed to unload IntegrationManager. Cause: " + e.getCause());
-        }
-
-
-        if (recipeManager != null) {
-            getLogger().info("Unloading RecipeManager...");
-            try {
+        });
+        lifecycleManager.addStep("RecipeManager", () -> {
+            if (recipeManager != null) {
                 recipeManager.unload();
-                getLogger().info("Unloaded RecipeManager Successfully.");
-            } catch (Exception e) {
-                getLogger().severe("Failed to unload RecipeManager. Cause: " + e.getCause());
             }
-        }
-        getLogger().info("Shutdown Completed :)");
+        });
+        lifecycleManager.addDrainStep("storage", "schematic");
+        lifecycleManager.addStep("MetricManager", metricManager::unload);
+        lifecycleManager.addStep("Database Connection", dataManager::closeConnection);
     }
 
     private void loadLibraries() {
+        // Set when the libraries are already on the classpath, like in the benchmarks, nothing is downloaded then
+        if (Boolean.getBoolean(LIBRARIES_PROVIDED_PROPERTY)) {
+            getLogger().info("Libraries are provided by the classpath, skipping library loading.");
+
+            return;
+        }
+
         getLogger().info("Loading Libraries for GravesX");
 
         LibraryLoaderUtil libraryLoaderUtil = new LibraryLoaderUtil(this);
+        // Only the driver of the configured storage type is loaded, the storage type can't change without a restart
+        String storageType = getConfig().getString("settings.storage.type", "SQLITE").toUpperCase();
 
-        libraryLoaderUtil.loadLibrary("com{}zaxxer", "HikariCP", "6.0.0", "com{}zaxxer{}hikari", "com{}ranull{}graves{}libraries{}hikari", false);
-        libraryLoaderUtil.loadLibrary("org{}xerial", "sqlite-jdbc", "3.47.0.0", false);
+        libraryLoaderUtil.addLibrary("com{}zaxxer", "HikariCP", "6.0.0", "com{}zaxxer{}hikari", "com{}ranull{}graves{}libraries{}hikari", false);
+
+        // SQLite is also needed to migrate a leftover SQLite database to another storage type
+        if (storageType.equals("SQLITE") || new File(getDataFolder(), "data" + File.separator + "data.db").exists()) {
+            libraryLoaderUtil.addLibrary("org{}xerial", "sqlite-jdbc", "3.47.0.0", false);
+        }
 
         try {
             Class.forName("org.json.JSONObject");
         } catch (ClassNotFoundException e) {
-            libraryLoaderUtil.loadLibrary("org{}json", "json", "20240303");
+            libraryLoaderUtil.addLibrary("org{}json", "json", "20240303");
         }
 
         try {
             Class.forName("com.google.gson.Gson");
         } catch (ClassNotFoundException e) {
-            libraryLoaderUtil.loadLibrary("com{}google{}code{}gson", "gson", "2.10.1", false);
+            libraryLoaderUtil.addLibrary("com{}google{}code{}gson", "gson", "2.10.1", false);
         }
 
         try {
             Class.forName("com.google.common.collect.ImmutableList");
         } catch (ClassNotFoundException e) {
-            libraryLoaderUtil.loadLibrary("com{}google{}guava", "guava", "33.3.0-jre", false);
+            libraryLoaderUtil.addLibrary("com{}google{}guava", "guava", "33.3.0-jre", false);
         }
 
         try {
             Class.forName("oshi.SystemInfo");
             Class.forName("oshi.hardware.CentralProcessor");
         } catch (ClassNotFoundException e) {
-            libraryLoaderUtil.loadLibrary("com{}github{}oshi", "oshi-core", "6.6.4", false);
+            libraryLoaderUtil.addLibrary("com{}github{}oshi", "oshi-core", "6.6.4", false);
         }
 
-        libraryLoaderUtil.loadLibrary("org{}postgresql", "postgresql", "42.7.4", "org{}postgresql", "com{}ranull{}graves{}libraries{}postgresql", false);
-        libraryLoaderUtil.loadLibrary("org{}mariadb{}jdbc", "mariadb-java-client", "3.4.1", "org{}mariadb", "com{}ranull{}graves{}libraries{}mariadb", false);
-        libraryLoaderUtil.loadLibrary("com{}mysql", "mysql-connector-j", "9.1.0", "com{}mysql", "com{}ranull{}graves{}libraries{}mysql", false);
-        libraryLoaderUtil.loadLibrary("com{}h2database", "h2", "2.3.232", "org{}h2", "com{}ranull{}graves{}libraries{}h2", false);
-        //libraryLoaderUtil.loadLibrary("org{}slf4j", "slf4j-simple", "2.0.16", false);
-        libraryLoaderUtil.loadLibrary("net{}kyori", "adventure-api", "4.17.0", "net{}kyori", "com{}ranull{}graves{}libraries{}kyori", false);
-        libraryLoaderUtil.loadLibrary("net{}kyori", "adventure-text-minimessage", "4.17.0", "net{}kyori", "com{}ranull{}graves{}libraries{}kyori", false);
-        libraryLoaderUtil.loadLibrary("net{}kyori", "adventure-text-serializer-gson", "4.17.0", "net{}kyori", "com{}ranull{}graves{}libraries{}kyori", false);
-        libraryLoaderUtil.loadLibrary("net{}kyori", "adventure-platform-bukkit", "4.3.3", "net{}kyori", "com{}ranull{}graves{}libraries{}kyori", false);
-        libraryLoaderUtil.loadLibrary("de{}themoep", "minedown-adventure", "1.7.3-graves", "de{}themoep{}minedown", "com{}ranull{}graves{}libraries{}minedown", false, "https://repo.cwhead.dev/repository/maven-public/");
-        libraryLoaderUtil.loadLibrary("me{}imdanix", "MiniTranslator", "2.1-graves", "me{}imdanix{}text", "com{}ranull{}graves{}libraries{}imdanix{}text", false, "https://repo.cwhead.dev/repository/maven-public/", false);
-        libraryLoaderUtil.loadLibrary("com{}github{}puregero", "multilib", "1.2.4", "com{}github{}puregero{}multilib", "com{}ranull{}graves{}libraries{}multilib", false, "https://repo.clojars.org/");
-        libraryLoaderUtil.loadLibrary("org{}apache{}commons", "commons-text", "1.12.0", "org{}apache{}commons{}text", "com{}ranull{}graves{}libraries{}commonstext", false);
-        String jdbcVersion;
+        if (storageType.equals("POSTGRESQL")) {
+            libraryLoaderUtil.addLibrary("org{}postgresql", "postgresql", "42.7.4", "org{}postgresql", "com{}ranull{}graves{}libraries{}postgresql", false);
+        }
 
-        try {
-            Class.forName("java.nio.file.Files");
+        if (storageType.equals("MARIADB")) {
+            libraryLoaderUtil.addLibrary("org{}mariadb{}jdbc", "mariadb-java-client", "3.4.1", "org{}mariadb", "com{}ranull{}graves{}libraries{}mariadb", false);
+        }
 
-            jdbcVersion = "12.8.1.jre11";
-        } catch (ClassNotFoundException e) {
-            jdbcVersion = "12.8.1.jre8";
+        if (storageType.equals("MYSQL")) {
+            libraryLoaderUtil.addLibrary("com{}mysql", "mysql-connector-j", "9.1.0", "com{}mysql", "com{}ranull{}graves{}libraries{}mysql", false);
+        }
+
+        libraryLoaderUtil.addLibrary("com{}h2database", "h2", "2.3.232", "org{}h2", "com{}ranull{}graves{}libraries{}h2", false);
+        //libraryLoaderUtil.addLibrary("org{}slf4j", "slf4j-simple", "2.0.16", false);
+        libraryLoaderUtil.addLibrary("net{}kyori", "adventure-api", "4.17.0", "net{}kyori", "com{}ranull{}graves{}libraries{}kyori", false);
+        libraryLoaderUtil.addLibrary("net{}kyori", "adventure-text-minimessage", "4.17.0", "net{}kyori", "com{}ranull{}graves{}libraries{}kyori", false);
+        libraryLoaderUtil.addLibrary("net{}kyori", "adventure-text-serializer-gson", "4.17.0", "net{}kyori", "com{}ranull{}graves{}libraries{}kyori", false);
+        libraryLoaderUtil.addLibrary("net{}kyori", "adventure-platform-bukkit", "4.3.3", "net{}kyori", "com{}ranull{}graves{}libraries{}kyori", false);
+        libraryLoaderUtil.addLibrary("de{}themoep", "minedown-adventure", "1.7.3-graves", "de{}themoep{}minedown", "com{}ranull{}graves{}libraries{}minedown", false, "https://repo.cwhead.dev/repository/maven-public/");
+        libraryLoaderUtil.addLibrary("me{}imdanix", "MiniTranslator", "2.1-graves", "me{}imdanix{}text", "com{}ranull{}graves{}libraries{}imdanix{}text", false, "https://repo.cwhead.dev/repository/maven-public/", false);
+        libraryLoaderUtil.addLibrary("com{}github{}puregero", "multilib", "1.2.4", "com{}github{}puregero{}multilib", "com{}ranull{}graves{}libraries{}multilib", false, "https://repo.clojars.org/");
+        libraryLoaderUtil.addLibrary("org{}apache{}commons", "commons-text", "1.12.0", "org{}apache{}commons{}text", "com{}ranull{}graves{}libraries{}commonstext", false);
+
+        if (storageType.equals("MSSQL")) {
+            String jdbcVersion;
+
+            try {
+                Class.forName("java.nio.file.Files");
+
+                jdbcVersion = "12.8.1.jre11";
+            } catch (ClassNotFoundException e) {
+                jdbcVersion = "12.8.1.jre8";
+            }
+
+            libraryLoaderUtil.addLibrary("com{}microsoft{}sqlserver", "mssql-jdbc", jdbcVersion, "com{}microsoft", "com{}ranull{}graves{}libraries{}microsoft", false);
         }
 
-        libraryLoaderUtil.loadLibrary("com{}microsoft{}sqlserver", "mssql-jdbc", jdbcVersion, "com{}microsoft", "com{}ranull{}graves{}libraries{}microsoft", false);
+        libraryLoaderUtil.loadLibraries();
         getLogger().info("Finished Loading Libraries for GravesX.");
     }
 
@@ -284,21 +316,30 @@ public class Graves extends JavaPlugin {
     }
 
     public void reload() {
+        long start = System.nanoTime();
+
         saveDefaultConfig();
         saveTextFiles();
+        clearConfigFileCache();
         reloadConfig();
         updateConfig();
         unregisterListeners();
         registerListeners();
         // dataManager.reload();
         integrationManager.reload();
+        particleManager.reload();
+        entityLODManager.reload();
+        packetHologramManager.reload();
+        guiManager.reload();
+        metricManager.reload();
+        configReloadManager.reload();
         try {
             registerRecipes();
         } catch (Exception e) {
             recipeManager.reload();
         }
 
-        infoMessage(getName() + " reloaded.");
+        infoMessage(getName() + " reloaded in " + (System.nanoTime() - start) / 1_000_000L + "ms.");
     }
 
     public void saveTextFiles() {
@@ -434,6 +475,7 @@ public class Graves extends JavaPlugin {
         getServer().getPluginManager().registerEvents(new PlayerJoinListener(this), this);
         getServer().getPluginManager().registerEvents(new PlayerQuitListener(this), this);
         getServer().getPluginManager().registerEvents(new PlayerRespawnListener(this), this);
+        getServer().getPluginManager().registerEvents(new PlayerChangedWorldListener(this), this);
         getServer().getPluginManager().registerEvents(new PlayerTeleportListener(this), this);
         getServer().getPluginManager().registerEvents(new PlayerDropItemListener(this), this);
         getServer().getPluginManager().registerEvents(new PlayerDeathListener(this), this);
@@ -452,6 +494,8 @@ public class Graves extends JavaPlugin {
         getServer().getPluginManager().registerEvents(new InventoryOpenListener(this), this);
         getServer().getPluginManager().registerEvents(new CreatureSpawnListener(this), this);
         getServer().getPluginManager().registerEvents(new ExplosionPrimeListener(this), this);
+        getServer().getPluginManager().registerEvents(new ChunkLoadListener(this), this);
+        getServer().getPluginManager().registerEvents(new ChunkUnloadListener(this), this);
 
         if (!versionManager.is_v1_7()) {
             getServer().getPluginManager().registerEvents(new PlayerInteractAtEntityListener(this), this);
@@ -461,6 +505,10 @@ public class Graves extends JavaPlugin {
             getServer().getPluginManager().registerEvents(new BlockExplodeListener(this), this);
         }
 
+        if (versionManager.hasEntitiesLoadEvent()) {
+            getServer().getPluginManager().registerEvents(new EntitiesLoadListener(this), this);
+        }
+
         //getServer().getPluginManager().registerEvents(new GraveTestListener(this), this); // Test Listener
     }
 
@@ -841,6 +889,26 @@ public class Graves extends JavaPlugin {
         return particleManager;
     }
 
+    public EntityLODManager getEntityLODManager() {
+        return entityLODManager;
+    }
+
+    public PacketHologramManager getPacketHologramManager() {
+        return packetHologramManager;
+    }
+
+    public MetricManager getMetricManager() {
+        return metricManager;
+    }
+
+    public ConfigReloadManager getConfigReloadManager() {
+        return configReloadManager;
+    }
+
+    public LifecycleManager getLifecycleManager() {
+        return lifecycleManager;
+    }
+
     public Compatibility getCompatibility() {
         return compatibility;
     }
@@ -903,12 +971,28 @@ public class Graves extends JavaPlugin {
         return getConfig().getConfigurationSection("settings.default.default");
     }
 
+    /**
+     * Adds the defaults of a bundled config file. The bundled files never change while running, so each is only
+     * parsed once.
+     *
+     * @param fileConfiguration The configuration to add the defaults to.
+     * @param resource          The bundled config file.
+     */
     private void loadResourceDefaults(FileConfiguration fileConfiguration, String resource) {
-        InputStream inputStream = getResource(resource);
+        FileConfiguration resourceConfiguration = resourceDefaultsMap.get(resource);
+
+        if (resourceConfiguration == null && !resourceDefaultsMap.containsKey(resource)) {
+            InputStream inputStream = getResource(resource);
 
-        if (inputStream != null) {
-            fileConfiguration.addDefaults(YamlConfiguration
-                    .loadConfiguration(new InputStreamReader(inputStream, UTF_8)));
+            if (inputStream != null) {
+                resourceConfiguration = YamlConfiguration.loadConfiguration(new InputStreamReader(inputStream, UTF_8));
+            }
+
+            resourceDefaultsMap.put(resource, resourceConfiguration);
+        }
+
+        if (resourceConfiguration != null) {
+            fileConfiguration.addDefaults(resourceConfiguration);
         }
     }
 
@@ -970,14 +1054,12 @@ public class Graves extends JavaPlugin {
             for (File file : fileList) {
                 if (YAMLUtil.isValidYAML(file)) {
                     if (file.isDirectory()) {
-                        fileConfiguration.addDefaults(getConfigFiles(file));
+                        mergeConfigFile(fileConfiguration, getConfigFiles(file));
                     } else {
-                        FileConfiguration savedFileConfiguration = getConfigFile(file);
+                        FileConfiguration savedFileConfiguration = getCachedConfigFile(file);
 
                         if (savedFileConfiguration != null) {
-                            fileConfiguration.addDefaults(savedFileConfiguration);
-                            bakeDefaults(fileConfiguration);
-                            loadResourceDefaults(fileConfiguration, "config" + File.separator + file.getName());
+                            mergeConfigFile(fileConfiguration, savedFileConfiguration);
                         } else {
                             warningMessage("Unable to load config " + file.getName());
                         }
@@ -1003,6 +1085,57 @@ public class Graves extends JavaPlugin {
         return fileConfiguration;
     }
 
+    /**
+     * Copies the settings of a config file into the plugin config. Settings an earlier file already set are kept, so
+     * the main config wins, then the other files in name order.
+     *
+     * @param fileConfiguration      The plugin config being built.
+     * @param savedFileConfiguration The config file, with its bundled defaults baked in.
+     */
+    private void mergeConfigFile(FileConfiguration fileConfiguration, FileConfiguration savedFileConfiguration) {
+        for (String key : savedFileConfiguration.getKeys(true)) {
+            if (!savedFileConfiguration.isConfigurationSection(key) && !fileConfiguration.isSet(key)) {
+                fileConfiguration.set(key, savedFileConfiguration.get(key));
+            }
+        }
+    }
+
+    /**
+     * Gets a config file of the config folder with its bundled defaults baked in, parsing and baking it only if it
+     * changed since it was last parsed. The returned configuration is shared and must not be modified, it is only
+     * merged into the plugin config.
+     *
+     * @param file The config file.
+     * @return The parsed config file, or null if it could not be parsed.
+     */
+    private FileConfiguration getCachedConfigFile(File file) {
+        long stamp = file.lastModified() * 31 + file.length();
+        Long cachedStamp = configFileStampMap.get(file);
+
+        if (cachedStamp != null && cachedStamp == stamp) {
+            return configFileMap.get(file);
+        }
+
+        FileConfiguration fileConfiguration = getConfigFile(file);
+
+        if (fileConfiguration != null) {
+            loadResourceDefaults(fileConfiguration, "config" + File.separator + file.getName());
+            bakeDefaults(fileConfiguration);
+            configFileMap.put(file, fileConfiguration);
+            configFileStampMap.put(file, stamp);
+        }
+
+        return fileConfiguration;
+    }
+
+    /**
+     * Forgets the parsed config files, so the next config reload parses every file again.
+     */
+    public void clearConfigFileCache() {
+        configFileMap.clear();
+        configFileStampMap.clear();
+    }
+
     public final File getConfigFolder() {
         return new File(getDataFolder(), "config");
     }
@@ -1031,7 +1164,7 @@ public class Graves extends JavaPlugin {
         return 12849; // https://bstats.org/plugin/bukkit/Graves/12849
     }
 
-    public void logStackTrace(Exception e) {
+    public void logStackTrace(Throwable e) {
         for (StackTraceElement element : e.getStackTrace()) {
             getLogger().severe(element.toString());
         }
@@ -0,0 +1,43 @@
+package com.ranull.graves.compatibility;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Display;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.TextDisplay;
+
+/**
+ * Handles TextDisplay entities, which only exist on 1.19.4 and newer. This class must only be used after
+ * {@link com.ranull.graves.manager.VersionManager#hasDisplayEntities()} returned true, so older servers never load it.
+ */
+public class CompatibilityTextDisplay {
+
+    /**
+     * Spawns a text display that always faces the player.
+     * @param location The location to spawn the text display at.
+     * @param text The text of the display, lines separated by a newline.
+     * @return The spawned text display.
+     */
+    public static Entity spawn(Location location, String text) {
+        TextDisplay textDisplay = location.getWorld().spawn(location, TextDisplay.class);
+
+        textDisplay.setBillboard(Display.Billboard.CENTER);
+        textDisplay.setText(text);
+
+        return textDisplay;
+    }
+
+    /**
+     * Sets the text of a text display, does nothing if the entity is not a text display.
+     * @param entity The text display.
+     * @param text The text of the display, lines separated by a newline.
+     */
+    public static void setText(Entity entity, String text) {
+        if (entity instanceof TextDisplay) {
+            TextDisplay textDisplay = (TextDisplay) entity;
+
+            if (!text.equals(textDisplay.getText())) {
+                textDisplay.setText(text);
+            }
+        }
+    }
+}
@@ -174,4 +174,16 @@ public class ChunkData implements Serializable {
     public void removeEntityData(EntityData entityData) {
         entityDataMap.remove(entityData.getUUIDEntity());
     }
-}
\ No newline at end of file
+
+    /**
+     * Re-keys entity data after its entity was spawned again with a new UUID.
+     *
+     * @param entityData The entity data to re-key.
+     * @param uuidEntity The new UUID of the entity.
+     */
+    public void updateEntityUUID(EntityData entityData, UUID uuidEntity) {
+        entityDataMap.remove(entityData.getUUIDEntity());
+        entityData.setUUIDEntity(uuidEntity);
+        entityDataMap.put(uuidEntity, entityData);
+    }
+}
@@ -23,7 +23,7 @@ public class EntityData implements Serializable {
      * This {@link UUID} identifies the specific entity that is linked to this grave.
      * </p>
      */
-    private final UUID uuidEntity;
+    private UUID uuidEntity;
 
     /**
      * The unique identifier of the grave.
@@ -41,6 +41,14 @@ public class EntityData implements Serializable {
      */
     private final Type type;
 
+    /**
+     * Whether the entity is currently despawned by view-distance LOD.
+     * <p>
+     * A dormant entity keeps its data and location so it can be spawned again when a player comes into range.
+     * </p>
+     */
+    private transient boolean dormant;
+
     /**
      * Constructs a new EntityData instance.
      *
@@ -74,6 +82,33 @@ public class EntityData implements Serializable {
         return uuidEntity;
     }
 
+    /**
+     * Sets the UUID of the entity. Used when a dormant entity is spawned again with a new UUID.
+     *
+     * @param uuidEntity The new UUID of the entity.
+     */
+    public void setUUIDEntity(UUID uuidEntity) {
+        this.uuidEntity = uuidEntity;
+    }
+
+    /**
+     * Checks if the entity is currently despawned by view-distance LOD.
+     *
+     * @return True if the entity is dormant, false otherwise.
+     */
+    public boolean isDormant() {
+        return dormant;
+    }
+
+    /**
+     * Sets whether the entity is currently despawned by view-distance LOD.
+     *
+     * @param dormant True if the entity is dormant, false otherwise.
+     */
+    public void setDormant(boolean dormant) {
+        this.dormant = dormant;
+    }
+
     /**
      * Gets the UUID of the associated grave.
      *
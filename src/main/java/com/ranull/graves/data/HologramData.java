@@ -8,6 +8,11 @@ import java.util.UUID;
  * Represents data for a hologram entity associated with a grave, including its line number.
  */
 public class HologramData extends EntityData {
+    /**
+     * The line number stored for a text display hologram, which holds every line of a grave in one entity.
+     */
+    public static final int TEXT_DISPLAY_LINE = -1;
+
     /**
      * Represents the line number or index associated with a specific context.
      * <p>
@@ -39,4 +44,13 @@ public class HologramData extends EntityData {
     public int getLine() {
         return line;
     }
+
+    /**
+     * Checks if the hologram is a single text display holding every line.
+     *
+     * @return True if the hologram is a text display, otherwise false.
+     */
+    public boolean isTextDisplay() {
+        return line == TEXT_DISPLAY_LINE;
+    }
 }
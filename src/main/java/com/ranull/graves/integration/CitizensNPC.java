@@ -64,19 +64,27 @@ public final class CitizensNPC extends EntityDataManager {
     }
 
     /**
-     * Creates NPC corpses based on the cached entity data.
+     * Creates NPC corpses based on the cached entity data of loaded chunks. Corpses in chunks that load later are
+     * created by the chunk load listener.
      */
     public void createCorpses() {
-        for (ChunkData chunkData : plugin.getCacheManager().getChunkMap().values()) {
-            for (EntityData entityData : chunkData.getEntityDataMap().values()) {
-                if (entityData.getType() == EntityData.Type.CITIZENSNPC) {
-                    if (plugin.getCacheManager().getGraveMap().containsKey(entityData.getUUIDGrave())) {
-                        Grave grave = plugin.getCacheManager().getGraveMap().get(entityData.getUUIDGrave());
-
-                        if (grave != null) {
-                            createCorpse(entityData.getUUIDEntity(), entityData.getLocation(), grave, false);
-                        }
-                    }
+        for (ChunkData chunkData : new ArrayList<>(plugin.getCacheManager().getLoadedChunkMap().values())) {
+            createCorpses(chunkData);
+        }
+    }
+
+    /**
+     * Creates NPC corpses based on the cached entity data of a chunk.
+     *
+     * @param chunkData The chunk data.
+     */
+    public void createCorpses(ChunkData chunkData) {
+        for (EntityData entityData : chunkData.getEntityDataMap().values()) {
+            if (entityData.getType() == EntityData.Type.CITIZENSNPC) {
+                Grave grave = plugin.getCacheManager().getGraveMap().get(entityData.getUUIDGrave());
+
+                if (grave != null) {
+                    createCorpse(entityData.getUUIDEntity(), entityData.getLocation(), grave, false);
                 }
             }
         }
@@ -107,7 +115,8 @@ public final class CitizensNPC extends EntityDataManager {
                 Player player = plugin.getServer().getPlayer(grave.getOwnerUUID());
                 Location npcLocation = location.clone();
 
-                if (player != null && npcLocation.getWorld() != null) {
+                if (player != null && npcLocation.getWorld() != null
+                        && getNPCByName(getNPCNameFromLocation(npcLocation)) == null) {
                     location.getBlock().setType(Material.AIR);
 
                     // Create NPC name from location
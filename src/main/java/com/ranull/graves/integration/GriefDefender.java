@@ -26,11 +26,15 @@ public final class GriefDefender {
     private final PermissionManager permissionManager;
     private final Flag createFlag;
     private final Flag teleportFlag;
+    private final RegionQueryCache regionQueryCache;
 
     /**
      * Constructs a GriefDefender instance and registers custom flags.
+     *
+     * @param regionQueryCache The cache of claim query results.
      */
-    public GriefDefender() {
+    public GriefDefender(RegionQueryCache regionQueryCache) {
+        this.regionQueryCache = regionQueryCache;
         core = com.griefdefender.api.GriefDefender.getCore();
         registry = com.griefdefender.api.GriefDefender.getRegistry();
         permissionManager = com.griefdefender.api.GriefDefender.getPermissionManager();
@@ -78,6 +82,12 @@ public final class GriefDefender {
      * @return True if the player can create a grave, false otherwise.
      */
     public boolean canCreateGrave(Player player, Location location) {
+        return location.getWorld() != null && regionQueryCache.get("griefdefender", location.getWorld(),
+                location.getBlockX(), location.getBlockY(), location.getBlockZ(), "create|" + player.getUniqueId(),
+                () -> queryCanCreateGrave(player, location));
+    }
+
+    private boolean queryCanCreateGrave(Player player, Location location) {
         if (location.getWorld() != null) {
             PlayerData playerData = core.getPlayerData(location.getWorld().getUID(), player.getUniqueId());
 
@@ -1,6 +1,7 @@
 package com.ranull.graves.integration;
 
 import com.ranull.graves.Graves;
+import com.ranull.graves.metric.Histogram;
 import com.ranull.graves.type.Grave;
 import com.ranull.graves.util.ExperienceUtil;
 import com.ranull.graves.util.StringUtil;
@@ -23,6 +24,7 @@ import java.util.function.Function;
 public final class PlaceholderAPI extends PlaceholderExpansion implements Relational {
     private final Graves plugin;
     private final Map<String, Function<String, String>> placeholderHandlers;
+    private final Histogram renderHistogram;
 
     /**
      * Constructs a new PlaceholderAPI instance with the specified Graves plugin.
@@ -32,6 +34,8 @@ public final class PlaceholderAPI extends PlaceholderExpansion implements Relati
     public PlaceholderAPI(Graves plugin) {
         this.plugin = plugin;
         this.placeholderHandlers = initializePlaceholderHandlers();
+        this.renderHistogram = plugin.getMetricManager().getHistogram("graves_placeholder_render_seconds",
+                "Time spent resolving PlaceholderAPI placeholders.");
     }
 
     @Override
@@ -71,7 +75,23 @@ public final class PlaceholderAPI extends PlaceholderExpansion implements Relati
      */
     @Override
     public String onPlaceholderRequest(Player player, @NotNull String identifier) {
-        identifier = identifier.toLowerCase();
+        long startTime = System.nanoTime();
+
+        try {
+            return getPlaceholder(player, identifier.toLowerCase());
+        } finally {
+            renderHistogram.recordSince(startTime);
+        }
+    }
+
+    /**
+     * Resolves a placeholder.
+     *
+     * @param player     The player requesting the placeholder (may be null).
+     * @param identifier The lower case identifier of the placeholder.
+     * @return The value of the placeholder, or null if the placeholder is unknown.
+     */
+    private String getPlaceholder(Player player, String identifier) {
 
         // Handle player-specific placeholder
         if (player != null && identifier.equals("count")) {
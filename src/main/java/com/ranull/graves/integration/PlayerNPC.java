@@ -63,19 +63,27 @@ public final class PlayerNPC extends EntityDataManager {
     }
 
     /**
-     * Creates NPC corpses based on the cached entity data.
+     * Creates NPC corpses based on the cached entity data of loaded chunks. Corpses in chunks that load later are
+     * created by the chunk load listener.
      */
     public void createCorpses() {
-        for (ChunkData chunkData : plugin.getCacheManager().getChunkMap().values()) {
-            for (EntityData entityData : chunkData.getEntityDataMap().values()) {
-                if (entityData.getType() == EntityData.Type.PLAYERNPC) {
-                    if (plugin.getCacheManager().getGraveMap().containsKey(entityData.getUUIDGrave())) {
-                        Grave grave = plugin.getCacheManager().getGraveMap().get(entityData.getUUIDGrave());
-
-                        if (grave != null) {
-                            createCorpse(entityData.getUUIDEntity(), entityData.getLocation(), grave, false);
-                        }
-                    }
+        for (ChunkData chunkData : new ArrayList<>(plugin.getCacheManager().getLoadedChunkMap().values())) {
+            createCorpses(chunkData);
+        }
+    }
+
+    /**
+     * Creates NPC corpses based on the cached entity data of a chunk.
+     *
+     * @param chunkData The chunk data.
+     */
+    public void createCorpses(ChunkData chunkData) {
+        for (EntityData entityData : chunkData.getEntityDataMap().values()) {
+            if (entityData.getType() == EntityData.Type.PLAYERNPC) {
+                Grave grave = plugin.getCacheManager().getGraveMap().get(entityData.getUUIDGrave());
+
+                if (grave != null) {
+                    createCorpse(entityData.getUUIDEntity(), entityData.getLocation(), grave, false);
                 }
             }
         }
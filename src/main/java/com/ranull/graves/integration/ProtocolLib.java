@@ -4,18 +4,27 @@ import com.comphenix.protocol.PacketType;
 import com.comphenix.protocol.ProtocolLibrary;
 import com.comphenix.protocol.ProtocolManager;
 import com.comphenix.protocol.events.PacketContainer;
+import com.comphenix.protocol.utility.MinecraftVersion;
 import com.comphenix.protocol.wrappers.BlockPosition;
 import com.comphenix.protocol.wrappers.WrappedBlockData;
+import com.comphenix.protocol.wrappers.WrappedChatComponent;
+import com.comphenix.protocol.wrappers.WrappedDataValue;
+import com.comphenix.protocol.wrappers.WrappedDataWatcher;
 import com.ranull.graves.Graves;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.block.Block;
+import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 /**
- * Provides integration with ProtocolLib to manage block changes and updates.
+ * Provides integration with ProtocolLib to manage block changes and updates, and client-side hologram armor stands.
  */
 public final class ProtocolLib {
     private final Graves plugin;
@@ -53,6 +62,124 @@ public final class ProtocolLib {
         sendServerPacket(player, createBlockChangePacket(block, WrappedBlockData.createData(block.getBlockData())));
     }
 
+    /**
+     * Checks if client-side hologram packets are supported. The packets used need the data value metadata format
+     * introduced in 1.19.3.
+     *
+     * @return True if packet holograms are supported, otherwise false.
+     */
+    public boolean hasPacketHologramSupport() {
+        try {
+            return MinecraftVersion.FEATURE_PREVIEW_UPDATE.atOrAbove();
+        } catch (NoSuchFieldError | NoClassDefFoundError ignored) {
+            return false;
+        }
+    }
+
+    /**
+     * Spawns a client-side hologram line armor stand for a player.
+     *
+     * @param player   The player to show the line to.
+     * @param entityId The client-side entity id of the line.
+     * @param uuid     The client-side UUID of the line.
+     * @param location The location of the line.
+     * @param text     The text of the line.
+     * @param marker   Whether the armor stand is a marker.
+     */
+    public void spawnHologramLine(Player player, int entityId, UUID uuid, Location location, String text,
+                                  boolean marker) {
+        PacketContainer spawnPacket = protocolManager.createPacket(PacketType.Play.Server.SPAWN_ENTITY);
+
+        spawnPacket.getIntegers().write(0, entityId);
+        spawnPacket.getUUIDs().write(0, uuid);
+        spawnPacket.getEntityTypeModifier().write(0, EntityType.ARMOR_STAND);
+        spawnPacket.getDoubles()
+                .write(0, location.getX())
+                .write(1, location.getY())
+                .write(2, location.getZ());
+
+        List<WrappedDataValue> dataValueList = new ArrayList<>();
+
+        dataValueList.add(new WrappedDataValue(0, WrappedDataWatcher.Registry.get(Byte.class), (byte) 0x20)); // Invisible
+        dataValueList.add(createCustomNameDataValue(text));
+        dataValueList.add(new WrappedDataValue(3, WrappedDataWatcher.Registry.get(Boolean.class), true)); // Custom name visible
+        dataValueList.add(new WrappedDataValue(5, WrappedDataWatcher.Registry.get(Boolean.class), true)); // No gravity
+        dataValueList.add(new WrappedDataValue(15, WrappedDataWatcher.Registry.get(Byte.class),
+                (byte) (0x01 | (marker ? 0x10 : 0)))); // Small, marker
+
+        sendHologramPacket(player, spawnPacket);
+        sendHologramPacket(player, createMetadataPacket(entityId, dataValueList));
+    }
+
+    /**
+     * Updates the text of a client-side hologram line with a metadata-only packet.
+     *
+     * @param player   The player viewing the line.
+     * @param entityId The client-side entity id of the line.
+     * @param text     The new text of the line.
+     */
+    public void updateHologramLine(Player player, int entityId, String text) {
+        List<WrappedDataValue> dataValueList = new ArrayList<>();
+
+        dataValueList.add(createCustomNameDataValue(text));
+        sendHologramPacket(player, createMetadataPacket(entityId, dataValueList));
+    }
+
+    /**
+     * Destroys client-side entities for a player.
+     *
+     * @param player       The player to destroy the entities for.
+     * @param entityIdList The client-side entity ids to destroy.
+     */
+    public void destroyEntities(Player player, List<Integer> entityIdList) {
+        PacketContainer packetContainer = protocolManager.createPacket(PacketType.Play.Server.ENTITY_DESTROY);
+
+        packetContainer.getIntLists().write(0, entityIdList);
+        sendHologramPacket(player, packetContainer);
+    }
+
+    /**
+     * Creates the custom name data value of an entity.
+     *
+     * @param text The legacy formatted custom name.
+     * @return The custom name data value.
+     */
+    private WrappedDataValue createCustomNameDataValue(String text) {
+        return new WrappedDataValue(2, WrappedDataWatcher.Registry.getChatComponentSerializer(true),
+                Optional.of(WrappedChatComponent.fromLegacyText(text).getHandle()));
+    }
+
+    /**
+     * Creates an entity metadata packet.
+     *
+     * @param entityId      The entity id.
+     * @param dataValueList The data values to send.
+     * @return The PacketContainer for the metadata packet.
+     */
+    private PacketContainer createMetadataPacket(int entityId, List<WrappedDataValue> dataValueList) {
+        PacketContainer packetContainer = protocolManager.createPacket(PacketType.Play.Server.ENTITY_METADATA);
+
+        packetContainer.getIntegers().write(0, entityId);
+        packetContainer.getDataValueCollectionModifier().write(0, dataValueList);
+
+        return packetContainer;
+    }
+
+    /**
+     * Sends a hologram packet to a player, logging instead of throwing on failure.
+     *
+     * @param player          The player to send the packet to.
+     * @param packetContainer The packet to send.
+     */
+    private void sendHologramPacket(Player player, PacketContainer packetContainer) {
+        try {
+            sendServerPacket(player, packetContainer);
+        } catch (InvocationTargetException exception) {
+            plugin.debugMessage("Failed to send hologram packet to " + player.getName(), 2);
+            plugin.logStackTrace(exception);
+        }
+    }
+
     /**
      * Creates a PacketContainer for a block change packet.
      *
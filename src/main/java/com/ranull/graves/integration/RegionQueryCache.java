@@ -0,0 +1,217 @@
+package com.ranull.graves.integration;
+
+import com.ranull.graves.Graves;
+import com.ranull.graves.metric.Counter;
+import org.bukkit.World;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Caches the results of region and claim queries of the protection integrations.
+ * <p>
+ * Results are keyed by provider, world, position and query. The position is whatever the provider resolves regions
+ * at, a block for WorldGuard and GriefDefender, a town block for Towny. Providers with change events invalidate their
+ * results through {@link #invalidate(String)}, every result also expires after
+ * {@code settings.integration.region-cache.ttl} milliseconds so changes without events are picked up.
+ * </p>
+ */
+public final class RegionQueryCache {
+    /**
+     * The number of results kept before expired results are dropped.
+     */
+    private static final int MAX_SIZE = 8192;
+
+    private final Graves plugin;
+    private final Map<Key, Result> resultMap;
+    private final Map<String, Counter[]> counterMap;
+
+    /**
+     * Initializes an empty cache.
+     *
+     * @param plugin The Graves plugin instance.
+     */
+    public RegionQueryCache(Graves plugin) {
+        this.plugin = plugin;
+        this.resultMap = new ConcurrentHashMap<>();
+        this.counterMap = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Gets a cached query result, running the query on a miss.
+     *
+     * @param provider The integration the query belongs to.
+     * @param world    The world of the query.
+     * @param x        The x of the position the provider resolves regions at.
+     * @param y        The y of the position, 0 if the provider ignores it.
+     * @param z        The z of the position.
+     * @param query    The query, including anything else the result depends on such as the player.
+     * @param supplier The query.
+     * @param <T>      The type of the result, must not be modified by callers.
+     * @return The result.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String provider, World world, int x, int y, int z, String query, Supplier<T> supplier) {
+        long ttl = plugin.getConfig().getLong("settings.integration.region-cache.ttl", 2000L);
+
+        if (ttl <= 0) {
+            return supplier.get();
+        }
+
+        Key key = new Key(provider, world.getUID(), x, y, z, query);
+        Result result = resultMap.get(key);
+        long now = System.currentTimeMillis();
+        Counter[] counters = getCounters(provider);
+
+        if (result != null && result.expiry > now) {
+            counters[0].increment();
+
+            return (T) result.value;
+        }
+
+        counters[1].increment();
+
+        T value = supplier.get();
+
+        if (resultMap.size() >= MAX_SIZE) {
+            resultMap.values().removeIf(cachedResult -> cachedResult.expiry <= now);
+
+            if (resultMap.size() >= MAX_SIZE) {
+                resultMap.clear();
+            }
+        }
+
+        resultMap.put(key, new Result(value, now + ttl));
+
+        return value;
+    }
+
+    /**
+     * Drops every result of a provider.
+     *
+     * @param provider The integration.
+     */
+    public void invalidate(String provider) {
+        resultMap.keySet().removeIf(key -> key.provider.equals(provider));
+    }
+
+    /**
+     * Drops every result.
+     */
+    public void invalidateAll() {
+        resultMap.clear();
+    }
+
+    /**
+     * Gets the share of queries of a provider answered from the cache.
+     *
+     * @param provider The integration.
+     * @return The hit rate between 0 and 1, or 0 if there were no queries.
+     */
+    public double getHitRate(String provider) {
+        Counter[] counters = counterMap.get(provider);
+
+        if (counters == null) {
+            return 0;
+        }
+
+        long hits = counters[0].get();
+        long total = hits + counters[1].get();
+
+        return total > 0 ? (double) hits / total : 0;
+    }
+
+    /**
+     * Gets a line per provider with its hits, misses and hit rate, for the server dump.
+     *
+     * @return The summary lines.
+     */
+    public List<String> getSummaryList() {
+        List<String> summaryList = new ArrayList<>();
+
+        for (String provider : new TreeSet<>(counterMap.keySet())) {
+            Counter[] counters = counterMap.get(provider);
+
+            summaryList.add(provider + ": " + counters[0].get() + " hits, " + counters[1].get() + " misses, "
+                    + String.format(Locale.ROOT, "%.1f%%", getHitRate(provider) * 100));
+        }
+
+        summaryList.add("cached results: " + resultMap.size());
+
+        return summaryList;
+    }
+
+    /**
+     * Gets the hit and miss counters of a provider, registered with the metrics once they are available.
+     *
+     * @param provider The integration.
+     * @return The hit and miss counters.
+     */
+    private Counter[] getCounters(String provider) {
+        return counterMap.computeIfAbsent(provider, key -> plugin.getMetricManager() != null
+                ? new Counter[]{
+                plugin.getMetricManager().getCounter("graves_region_cache_" + key + "_hits_total",
+                        "Region queries of " + key + " answered from the cache."),
+                plugin.getMetricManager().getCounter("graves_region_cache_" + key + "_misses_total",
+                        "Region queries of " + key + " sent to the plugin.")}
+                : new Counter[]{new Counter(), new Counter()});
+    }
+
+    /**
+     * The key of a cached query.
+     */
+    private static final class Key {
+        private final String provider;
+        private final UUID worldUUID;
+        private final int x;
+        private final int y;
+        private final int z;
+        private final String query;
+        private final int hash;
+
+        private Key(String provider, UUID worldUUID, int x, int y, int z, String query) {
+            this.provider = provider;
+            this.worldUUID = worldUUID;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.query = query;
+            this.hash = Objects.hash(provider, worldUUID, x, y, z, query);
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (this == object) {
+                return true;
+            }
+
+            if (!(object instanceof Key)) {
+                return false;
+            }
+
+            Key key = (Key) object;
+
+            return x == key.x && y == key.y && z == key.z && provider.equals(key.provider)
+                    && worldUUID.equals(key.worldUUID) && query.equals(key.query);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * A cached result and when it expires.
+     */
+    private static final class Result {
+        private final Object value;
+        private final long expiry;
+
+        private Result(Object value, long expiry) {
+            this.value = value;
+            this.expiry = expiry;
+        }
+    }
+}
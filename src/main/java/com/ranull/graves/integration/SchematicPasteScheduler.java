@@ -0,0 +1,346 @@
+package com.ranull.graves.integration;
+
+import com.ranull.graves.Graves;
+import com.ranull.graves.metric.Histogram;
+import com.sk89q.worldedit.WorldEditException;
+import com.sk89q.worldedit.bukkit.BukkitAdapter;
+import com.sk89q.worldedit.extent.clipboard.Clipboard;
+import com.sk89q.worldedit.extent.transform.BlockTransformExtent;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.math.transform.Transform;
+import com.sk89q.worldedit.util.SideEffectSet;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import com.sk89q.worldedit.world.block.BlockState;
+import org.bukkit.World;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.*;
+
+/**
+ * Pastes grave schematics without stalling the main thread, and records what they replace so the
+ * {@link SchematicUndoStore} can put it back when the grave is removed.
+ * <p>
+ * The blocks of a paste are computed off the main thread from the loaded clipboard, with the rotation applied and
+ * sorted by chunk. They are then set on the main thread within {@code settings.integration.worldedit.paste-budget}
+ * milliseconds per tick, shared by every queued paste. Before a block is set, the full original block, including its
+ * block entity data, is recorded in the undo store. Blocks with block entity data, such as signs and containers, are
+ * set through WorldEdit in the same pass so their data is applied, the others through Bukkit. The grave blocks are
+ * placed before the schematic and are never recorded, the {@link com.ranull.graves.manager.BlockManager} puts back
+ * what they replaced.
+ * </p>
+ */
+public final class SchematicPasteScheduler {
+    /**
+     * Whether the vectors of this WorldEdit version have the record style accessors.
+     */
+    private static final boolean RECORD_ACCESSORS = hasMethod("x");
+
+    private final Graves plugin;
+    private final SchematicUndoStore undoStore;
+    private final Map<UUID, PasteJob> jobMap;
+    private final Deque<PasteJob> jobQueue;
+    private final Histogram pasteHistogram;
+    private BukkitTask pasteTask;
+    private volatile int queuedBlockCount;
+
+    /**
+     * Initializes the scheduler.
+     *
+     * @param plugin    The Graves plugin instance.
+     * @param undoStore The store the replaced blocks are recorded in.
+     */
+    public SchematicPasteScheduler(Graves plugin, SchematicUndoStore undoStore) {
+        this.plugin = plugin;
+        this.undoStore = undoStore;
+        this.jobMap = new HashMap<>();
+        this.jobQueue = new ArrayDeque<>();
+        this.pasteHistogram = plugin.getMetricManager().getHistogram("graves_schematic_paste_seconds",
+                "Time from queueing a schematic paste to its last block.");
+
+        plugin.getMetricManager().registerGauge("graves_schematic_paste_queued_blocks",
+                "Schematic blocks waiting to be pasted.", () -> queuedBlockCount);
+    }
+
+    /**
+     * Queues a paste. Must be called on the main thread. A paste already queued for the grave is cancelled.
+     *
+     * @param graveUUID     The UUID of the grave the paste belongs to.
+     * @param name          The name of the schematic, for logging.
+     * @param world         The world to paste in.
+     * @param clipboard     The clipboard to paste.
+     * @param transform     The transform of the clipboard.
+     * @param position      The paste position.
+     * @param ignoreAir     Whether to skip the air blocks of the clipboard.
+     * @param graveBlockSet The positions of the grave blocks, which are not recorded.
+     */
+    public void queue(UUID graveUUID, String name, World world, Clipboard clipboard, Transform transform,
+                      BlockVector3 position, boolean ignoreAir, Set<BlockVector3> graveBlockSet) {
+        cancel(graveUUID);
+
+        PasteJob pasteJob = new PasteJob(graveUUID, name, world, undoStore.record(world));
+
+        jobMap.put(graveUUID, pasteJob);
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                prepare(pasteJob, clipboard, transform, position, ignoreAir, graveBlockSet);
+            } catch (RuntimeException exception) {
+                plugin.getLogger().severe("Error preparing schematic " + name + ": " + exception.getMessage());
+                plugin.logStackTrace(exception);
+
+                return;
+            }
+
+            plugin.getServer().getScheduler().runTask(plugin, () -> start(pasteJob));
+        });
+    }
+
+    /**
+     * Cancels the paste of a grave. Blocks already placed are recorded in the undo store, so they can be restored.
+     * Must be called on the main thread.
+     *
+     * @param graveUUID The UUID of the grave.
+     */
+    public void cancel(UUID graveUUID) {
+        PasteJob pasteJob = jobMap.remove(graveUUID);
+
+        if (pasteJob != null) {
+            pasteJob.cancelled = true;
+            jobQueue.remove(pasteJob);
+            updateQueuedBlockCount();
+            undoStore.save(graveUUID, pasteJob.recorder);
+            plugin.debugMessage("Cancelled paste of schematic " + pasteJob.name + " for grave " + graveUUID
+                    + " after " + pasteJob.index + " blocks", 1);
+        }
+    }
+
+    /**
+     * Gets the number of queued pastes, including the ones still being prepared.
+     *
+     * @return The number of pastes.
+     */
+    public int getQueuedPasteCount() {
+        return jobMap.size();
+    }
+
+    /**
+     * Gets the number of prepared blocks that are not placed yet.
+     *
+     * @return The number of blocks.
+     */
+    public int getQueuedBlockCount() {
+        return queuedBlockCount;
+    }
+
+    /**
+     * Stops pasting. Queued pastes are cancelled and their placed blocks recorded.
+     */
+    public void unload() {
+        for (UUID graveUUID : new ArrayList<>(jobMap.keySet())) {
+            cancel(graveUUID);
+        }
+
+        if (pasteTask != null) {
+            pasteTask.cancel();
+            pasteTask = null;
+        }
+    }
+
+    /**
+     * Computes the world position and block of every block of the clipboard, sorted by chunk. Blocks with block
+     * entity data get their own palette entry. Runs off the main thread, the clipboard is only read.
+     */
+    private void prepare(PasteJob pasteJob, Clipboard clipboard, Transform transform, BlockVector3 position,
+                         boolean ignoreAir, Set<BlockVector3> graveBlockSet) {
+        BlockVector3 origin = clipboard.getOrigin();
+        Map<BlockState, Integer> paletteMap = new HashMap<>();
+        List<int[]> blockList = new ArrayList<>();
+
+        for (BlockVector3 point : clipboard.getRegion()) {
+            BaseBlock baseBlock = clipboard.getFullBlock(point);
+
+            if (ignoreAir && baseBlock.getBlockType().getMaterial().isAir()) {
+                continue;
+            }
+
+            BlockVector3 target = transform.apply(point.subtract(origin).toVector3()).toBlockPoint().add(position);
+            Integer index;
+
+            if (baseBlock.hasNbtData()) {
+                index = pasteJob.paletteList.size();
+                pasteJob.paletteList.add(BlockTransformExtent.transform(baseBlock, transform));
+            } else {
+                BlockState blockState = BlockTransformExtent.transform(baseBlock.toImmutableState(), transform);
+
+                index = paletteMap.get(blockState);
+
+                if (index == null) {
+                    index = pasteJob.paletteList.size();
+                    paletteMap.put(blockState, index);
+                    pasteJob.paletteList.add(blockState.toBaseBlock());
+                }
+            }
+
+            blockList.add(new int[]{getX(target), getY(target), getZ(target), index,
+                    graveBlockSet.contains(target) ? 0 : 1});
+        }
+
+        // Group by chunk so each chunk is touched once, bottom up within a chunk so supported blocks come last
+        blockList.sort(Comparator.<int[]>comparingInt(block -> block[0] >> 4)
+                .thenComparingInt(block -> block[2] >> 4)
+                .thenComparingInt(block -> block[1]));
+        pasteJob.blocks = blockList.toArray(new int[0][]);
+        pasteJob.size = pasteJob.blocks.length;
+    }
+
+    private void start(PasteJob pasteJob) {
+        if (pasteJob.cancelled) {
+            return;
+        }
+
+        pasteJob.blockData = new BlockData[pasteJob.paletteList.size()];
+
+        for (int i = 0; i < pasteJob.blockData.length; i++) {
+            pasteJob.blockData[i] = BukkitAdapter.adapt(pasteJob.paletteList.get(i));
+        }
+
+        jobQueue.add(pasteJob);
+        updateQueuedBlockCount();
+        plugin.debugMessage("Queued " + pasteJob.size + " blocks of schematic " + pasteJob.name + " for grave "
+                + pasteJob.graveUUID + ", " + getQueuedBlockCount() + " blocks queued", 2);
+
+        if (pasteTask == null) {
+            pasteTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::processPastes, 0L, 1L);
+        }
+    }
+
+    private void processPastes() {
+        long deadline = System.nanoTime() + Math.max(1L, plugin.getConfig()
+                .getLong("settings.integration.worldedit.paste-budget", 2L)) * 1_000_000L;
+
+        while (!jobQueue.isEmpty() && System.nanoTime() < deadline) {
+            PasteJob pasteJob = jobQueue.peek();
+
+            // Check the clock every few blocks, reading it on every block costs more than most block updates
+            for (int i = 0; i < 64 && pasteJob.index < pasteJob.size; i++, pasteJob.index++) {
+                pasteBlock(pasteJob, pasteJob.blocks[pasteJob.index]);
+            }
+
+            if (pasteJob.index >= pasteJob.size) {
+                jobQueue.poll();
+                complete(pasteJob);
+            }
+        }
+
+        for (PasteJob pasteJob : jobQueue) {
+            pasteJob.ticks++;
+        }
+
+        updateQueuedBlockCount();
+
+        if (jobQueue.isEmpty() && pasteTask != null) {
+            pasteTask.cancel();
+            pasteTask = null;
+        }
+    }
+
+    /**
+     * Records and sets one block, unless the world already has it.
+     */
+    private void pasteBlock(PasteJob pasteJob, int[] block) {
+        BaseBlock baseBlock = pasteJob.paletteList.get(block[3]);
+        BlockVector3 target = BlockVector3.at(block[0], block[1], block[2]);
+        BaseBlock originalBlock = pasteJob.weWorld.getFullBlock(target);
+
+        if (baseBlock.getNbt() == null && originalBlock.getNbt() == null
+                && baseBlock.toImmutableState().equals(originalBlock.toImmutableState())) {
+            return;
+        }
+
+        if (block[4] == 1) {
+            pasteJob.recorder.add(block[0], block[1], block[2], originalBlock);
+        }
+
+        if (baseBlock.getNbt() != null) {
+            try {
+                pasteJob.weWorld.setBlock(target, baseBlock, SideEffectSet.none());
+            } catch (WorldEditException exception) {
+                plugin.getLogger().severe("Error pasting schematic " + pasteJob.name + ": " + exception.getMessage());
+                plugin.logStackTrace(exception);
+            }
+        } else {
+            pasteJob.world.getBlockAt(block[0], block[1], block[2]).setBlockData(pasteJob.blockData[block[3]], false);
+        }
+    }
+
+    private void complete(PasteJob pasteJob) {
+        jobMap.remove(pasteJob.graveUUID, pasteJob);
+        undoStore.save(pasteJob.graveUUID, pasteJob.recorder);
+        pasteHistogram.recordSince(pasteJob.startNanos);
+        plugin.debugMessage("Pasted schematic " + pasteJob.name + " for grave " + pasteJob.graveUUID + ": "
+                + pasteJob.size + " blocks, " + pasteJob.recorder.size()
+                + " changed, in " + ((System.nanoTime() - pasteJob.startNanos) / 1_000_000L) + "ms over "
+                + (pasteJob.ticks + 1) + " ticks", 1);
+    }
+
+    private void updateQueuedBlockCount() {
+        int count = 0;
+
+        for (PasteJob pasteJob : jobQueue) {
+            count += pasteJob.size - pasteJob.index;
+        }
+
+        queuedBlockCount = count;
+    }
+
+    private static int getX(BlockVector3 blockVector3) {
+        return RECORD_ACCESSORS ? blockVector3.x() : blockVector3.getBlockX();
+    }
+
+    private static int getY(BlockVector3 blockVector3) {
+        return RECORD_ACCESSORS ? blockVector3.y() : blockVector3.getBlockY();
+    }
+
+    private static int getZ(BlockVector3 blockVector3) {
+        return RECORD_ACCESSORS ? blockVector3.z() : blockVector3.getBlockZ();
+    }
+
+    private static boolean hasMethod(String name) {
+        try {
+            BlockVector3.class.getMethod(name);
+
+            return true;
+        } catch (NoSuchMethodException exception) {
+            return false;
+        }
+    }
+
+    /**
+     * A queued paste.
+     */
+    private static final class PasteJob {
+        private final UUID graveUUID;
+        private final String name;
+        private final World world;
+        private final com.sk89q.worldedit.world.World weWorld;
+        private final SchematicUndoStore.Recorder recorder;
+        private final long startNanos;
+        private final List<BaseBlock> paletteList;
+        private int[][] blocks;
+        private BlockData[] blockData;
+        private int size;
+        private int index;
+        private int ticks;
+        private volatile boolean cancelled;
+
+        private PasteJob(UUID graveUUID, String name, World world, SchematicUndoStore.Recorder recorder) {
+            this.graveUUID = graveUUID;
+            this.name = name;
+            this.world = world;
+            this.weWorld = BukkitAdapter.adapt(world);
+            this.recorder = recorder;
+            this.startNanos = System.nanoTime();
+            this.paletteList = new ArrayList<>();
+        }
+    }
+}
@@ -0,0 +1,574 @@
+package com.ranull.graves.integration;
+
+import com.ranull.graves.Graves;
+import com.sk89q.worldedit.WorldEditException;
+import com.sk89q.worldedit.bukkit.BukkitAdapter;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.util.SideEffectSet;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import org.bukkit.World;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.scheduler.BukkitTask;
+import org.enginehub.linbus.stream.LinBinaryIO;
+import org.enginehub.linbus.tree.LinCompoundTag;
+import org.enginehub.linbus.tree.LinRootEntry;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the blocks a grave schematic replaced, so they can be put back when the grave is removed.
+ * <p>
+ * The {@link SchematicPasteScheduler} records the full original block of every position it changes, including the
+ * block entity data of containers, signs and other tile entities. The blocks are palette encoded and written to a
+ * file per grave, so nothing is held on the heap while the grave exists and the undo survives a restart. Restores run
+ * on the main thread in slices bounded by {@code settings.integration.worldedit.restore-budget} milliseconds per tick.
+ * </p>
+ */
+public final class SchematicUndoStore {
+    private static final int FORMAT_VERSION = 2;
+    private static final String FILE_EXTENSION = ".undo";
+
+    private final Graves plugin;
+    private final File folder;
+    private final Map<UUID, Diff> pendingMap;
+    private final Map<UUID, Long> diskBytesMap;
+    private final Deque<Restore> restoreQueue;
+    private BukkitTask restoreTask;
+
+    /**
+     * Initializes the store.
+     *
+     * @param plugin The Graves plugin instance.
+     */
+    public SchematicUndoStore(Graves plugin) {
+        this.plugin = plugin;
+        this.folder = new File(plugin.getDataFolder(), "data" + File.separator + "schematic");
+        this.pendingMap = new HashMap<>();
+        this.diskBytesMap = new HashMap<>();
+        this.restoreQueue = new ArrayDeque<>();
+
+        loadDiskSizes();
+    }
+
+    /**
+     * Starts recording the blocks a paste replaces.
+     *
+     * @param world The world of the paste.
+     * @return The recorder.
+     */
+    public Recorder record(World world) {
+        return new Recorder(world.getUID());
+    }
+
+    /**
+     * Stores the blocks recorded during a paste. The file is written asynchronously.
+     *
+     * @param graveUUID The UUID of the grave the paste belongs to.
+     * @param recorder  The recorded blocks.
+     */
+    public void save(UUID graveUUID, Recorder recorder) {
+        Diff diff = recorder.diff;
+
+        if (diff.size == 0) {
+            return;
+        }
+
+        synchronized (this) {
+            pendingMap.put(graveUUID, diff);
+        }
+
+        plugin.getLifecycleManager().runAsync("schematic", () -> write(graveUUID, diff));
+    }
+
+    /**
+     * Puts back the blocks replaced by the schematic of a grave, spread over as many ticks as the budget needs.
+     *
+     * @param graveUUID The UUID of the grave.
+     */
+    public void restore(UUID graveUUID) {
+        Diff diff;
+
+        synchronized (this) {
+            diff = pendingMap.get(graveUUID);
+
+            if (diff != null) {
+                diff.restoring = true;
+            }
+        }
+
+        if (diff != null) {
+            queueRestore(graveUUID, diff);
+        } else if (getFile(graveUUID).exists()) {
+            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+                try {
+                    Diff loadedDiff = read(getFile(graveUUID));
+
+                    loadedDiff.restoring = true;
+
+                    synchronized (this) {
+                        pendingMap.put(graveUUID, loadedDiff);
+                    }
+
+                    plugin.getServer().getScheduler().runTask(plugin, () -> queueRestore(graveUUID, loadedDiff));
+                } catch (IOException exception) {
+                    plugin.getLogger().severe("Failed to read schematic undo of grave " + graveUUID + ": "
+                            + exception.getMessage());
+                    plugin.logStackTrace(exception);
+                }
+            });
+        } else {
+            plugin.debugMessage("No schematic undo found for grave " + graveUUID, 1);
+        }
+    }
+
+    /**
+     * Gets the estimated heap used by the undo of a grave. Undos are only on the heap between the paste and the end
+     * of the write, and while being restored.
+     *
+     * @param graveUUID The UUID of the grave.
+     * @return The estimated heap bytes.
+     */
+    public synchronized long getHeapBytes(UUID graveUUID) {
+        Diff diff = pendingMap.get(graveUUID);
+
+        return diff != null ? diff.getHeapBytes() : 0;
+    }
+
+    /**
+     * Gets the size of the undo file of a grave.
+     *
+     * @param graveUUID The UUID of the grave.
+     * @return The file size in bytes, or 0 if there is no file.
+     */
+    public synchronized long getDiskBytes(UUID graveUUID) {
+        return diskBytesMap.getOrDefault(graveUUID, 0L);
+    }
+
+    /**
+     * Gets the estimated heap used by every undo.
+     *
+     * @return The estimated heap bytes.
+     */
+    public synchronized long getTotalHeapBytes() {
+        long bytes = 0;
+
+        for (Diff diff : pendingMap.values()) {
+            bytes += diff.getHeapBytes();
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Gets the size of every undo file.
+     *
+     * @return The total file size in bytes.
+     */
+    public synchronized long getTotalDiskBytes() {
+        long bytes = 0;
+
+        for (long diskBytes : diskBytesMap.values()) {
+            bytes += diskBytes;
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Gets the number of graves with an undo.
+     *
+     * @return The number of undos.
+     */
+    public synchronized int getUndoCount() {
+        Set<UUID> uuidSet = new HashSet<>(diskBytesMap.keySet());
+
+        uuidSet.addAll(pendingMap.keySet());
+
+        return uuidSet.size();
+    }
+
+    /**
+     * Stops the restore task. Undos that were not fully restored keep their file and are restored on the next start.
+     */
+    public void unload() {
+        if (restoreTask != null) {
+            restoreTask.cancel();
+            restoreTask = null;
+        }
+
+        restoreQueue.clear();
+    }
+
+    private void queueRestore(UUID graveUUID, Diff diff) {
+        World world = plugin.getServer().getWorld(diff.worldUUID);
+
+        if (world == null) {
+            plugin.debugMessage("World of schematic undo of grave " + graveUUID + " is not loaded", 1);
+
+            synchronized (this) {
+                pendingMap.remove(graveUUID, diff);
+            }
+
+            return;
+        }
+
+        Restore restore = new Restore(graveUUID, diff, world);
+
+        parsePalette(restore);
+        restoreQueue.add(restore);
+
+        if (restoreTask == null) {
+            restoreTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::processRestores, 1L, 1L);
+        }
+    }
+
+    private void processRestores() {
+        long deadline = System.nanoTime() + Math.max(1L, plugin.getConfig()
+                .getLong("settings.integration.worldedit.restore-budget", 2L)) * 1_000_000L;
+
+        while (!restoreQueue.isEmpty() && System.nanoTime() < deadline) {
+            Restore restore = restoreQueue.peek();
+
+            // Check the clock every few blocks, reading it on every block costs more than most block updates
+            for (int i = 0; i < 64 && restore.index < restore.diff.size; i++, restore.index++) {
+                int index = restore.diff.palette[restore.index];
+                BlockData blockData = restore.blockData[index];
+
+                if (restore.baseBlock[index] != null) {
+                    setBlockEntity(restore, restore.baseBlock[index]);
+                } else if (blockData != null) {
+                    restore.world.getBlockAt(restore.diff.x[restore.index], restore.diff.y[restore.index],
+                            restore.diff.z[restore.index]).setBlockData(blockData, false);
+                }
+            }
+
+            if (restore.index >= restore.diff.size) {
+                restoreQueue.poll();
+                complete(restore.graveUUID, restore.diff);
+            }
+        }
+
+        if (restoreQueue.isEmpty() && restoreTask != null) {
+            restoreTask.cancel();
+            restoreTask = null;
+        }
+    }
+
+    private void complete(UUID graveUUID, Diff diff) {
+        synchronized (this) {
+            diff.restored = true;
+            pendingMap.remove(graveUUID, diff);
+            diskBytesMap.remove(graveUUID);
+        }
+
+        plugin.getLifecycleManager().runAsync("schematic", () -> deleteFile(graveUUID));
+        plugin.debugMessage("Restored " + diff.size + " blocks replaced by the schematic of grave " + graveUUID, 1);
+    }
+
+    private void setBlockEntity(Restore restore, BaseBlock baseBlock) {
+        try {
+            restore.weWorld.setBlock(BlockVector3.at(restore.diff.x[restore.index], restore.diff.y[restore.index],
+                    restore.diff.z[restore.index]), baseBlock, SideEffectSet.none());
+        } catch (WorldEditException exception) {
+            plugin.getLogger().severe("Failed to restore block entity of schematic undo of grave "
+                    + restore.graveUUID + ": " + exception.getMessage());
+            plugin.logStackTrace(exception);
+        }
+    }
+
+    private void parsePalette(Restore restore) {
+        List<String> paletteList = restore.diff.paletteList;
+
+        for (int i = 0; i < paletteList.size(); i++) {
+            try {
+                restore.blockData[i] = plugin.getServer().createBlockData(paletteList.get(i));
+            } catch (IllegalArgumentException exception) {
+                plugin.debugMessage("Skipping unknown block " + paletteList.get(i) + " in schematic undo", 1);
+
+                continue;
+            }
+
+            LinCompoundTag nbt = restore.diff.nbtList.get(i);
+
+            if (nbt != null) {
+                restore.baseBlock[i] = BukkitAdapter.adapt(restore.blockData[i]).toBaseBlock(nbt);
+            }
+        }
+    }
+
+    private void write(UUID graveUUID, Diff diff) {
+        File file = getFile(graveUUID);
+        File tempFile = new File(file.getPath() + ".tmp");
+
+        try {
+            if (!folder.exists() && !folder.mkdirs()) {
+                throw new IOException("Unable to create " + folder.getPath());
+            }
+
+            try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(new FileOutputStream(tempFile))))) {
+                outputStream.writeInt(FORMAT_VERSION);
+                outputStream.writeLong(diff.worldUUID.getMostSignificantBits());
+                outputStream.writeLong(diff.worldUUID.getLeastSignificantBits());
+                outputStream.writeInt(diff.paletteList.size());
+
+                for (int i = 0; i < diff.paletteList.size(); i++) {
+                    LinCompoundTag nbt = diff.nbtList.get(i);
+
+                    outputStream.writeUTF(diff.paletteList.get(i));
+                    outputStream.writeBoolean(nbt != null);
+
+                    if (nbt != null) {
+                        LinBinaryIO.write(outputStream, new LinRootEntry("", nbt));
+                    }
+                }
+
+                outputStream.writeInt(diff.size);
+
+                for (int i = 0; i < diff.size; i++) {
+                    outputStream.writeInt(diff.x[i]);
+                    outputStream.writeInt(diff.y[i]);
+                    outputStream.writeInt(diff.z[i]);
+                    outputStream.writeInt(diff.palette[i]);
+                }
+            }
+
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException exception) {
+            plugin.getLogger().severe("Failed to write schematic undo of grave " + graveUUID + ": "
+                    + exception.getMessage());
+            plugin.logStackTrace(exception);
+
+            return; // Keep the undo on the heap, it can still be restored this session
+        }
+
+        boolean restored;
+
+        synchronized (this) {
+            restored = diff.restored;
+
+            if (!restored) {
+                diskBytesMap.put(graveUUID, file.length());
+
+                if (!diff.restoring) {
+                    pendingMap.remove(graveUUID, diff);
+                }
+            }
+        }
+
+        if (restored) {
+            deleteFile(graveUUID); // Restored before the write finished
+        } else {
+            plugin.debugMessage("Saved schematic undo of grave " + graveUUID + ": " + diff.size + " blocks, "
+                    + diff.getHeapBytes() + " heap bytes, " + file.length() + " disk bytes", 2);
+        }
+    }
+
+    private Diff read(File file) throws IOException {
+        try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(new FileInputStream(file))))) {
+            int version = inputStream.readInt();
+
+            if (version < 1 || version > FORMAT_VERSION) {
+                throw new IOException("Unsupported schematic undo version " + version);
+            }
+
+            Diff diff = new Diff(new UUID(inputStream.readLong(), inputStream.readLong()));
+            int paletteSize = inputStream.readInt();
+
+            for (int i = 0; i < paletteSize; i++) {
+                diff.paletteList.add(inputStream.readUTF());
+                // Version 1 undos only kept the block data
+                diff.nbtList.add(version > 1 && inputStream.readBoolean()
+                        ? LinBinaryIO.readUsing(inputStream, LinRootEntry::readFrom).value() : null);
+            }
+
+            int size = inputStream.readInt();
+
+            for (int i = 0; i < size; i++) {
+                diff.add(inputStream.readInt(), inputStream.readInt(), inputStream.readInt(), inputStream.readInt());
+            }
+
+            return diff;
+        }
+    }
+
+    private void deleteFile(UUID graveUUID) {
+        File file = getFile(graveUUID);
+
+        if (file.exists() && !file.delete()) {
+            plugin.debugMessage("Unable to delete schematic undo " + file.getPath(), 1);
+        }
+    }
+
+    private File getFile(UUID graveUUID) {
+        return new File(folder, graveUUID + FILE_EXTENSION);
+    }
+
+    private synchronized void loadDiskSizes() {
+        File[] files = folder.listFiles((dir, name) -> name.endsWith(FILE_EXTENSION));
+
+        if (files != null) {
+            for (File file : files) {
+                try {
+                    diskBytesMap.put(UUID.fromString(file.getName().replace(FILE_EXTENSION, "")), file.length());
+                } catch (IllegalArgumentException ignored) {
+                }
+            }
+        }
+    }
+
+    /**
+     * Restores the undos of graves that no longer exist, left behind when the server stopped during a restore. Must
+     * be called after the graves are loaded.
+     */
+    public void restoreOrphans() {
+        List<UUID> orphanList = new ArrayList<>();
+
+        synchronized (this) {
+            for (UUID graveUUID : diskBytesMap.keySet()) {
+                if (!plugin.getCacheManager().getGraveMap().containsKey(graveUUID)) {
+                    orphanList.add(graveUUID);
+                }
+            }
+        }
+
+        for (UUID graveUUID : orphanList) {
+            plugin.debugMessage("Restoring schematic undo of removed grave " + graveUUID, 1);
+            restore(graveUUID);
+        }
+    }
+
+    /**
+     * Records the original blocks changed by a paste.
+     */
+    public static final class Recorder {
+        private final Diff diff;
+        private final Map<String, Integer> paletteMap;
+
+        private Recorder(UUID worldUUID) {
+            this.diff = new Diff(worldUUID);
+            this.paletteMap = new HashMap<>();
+        }
+
+        /**
+         * Records a block before it is changed. Blocks with block entity data get their own palette entry.
+         *
+         * @param x         The block x.
+         * @param y         The block y.
+         * @param z         The block z.
+         * @param baseBlock The block before the change, with its block entity data.
+         */
+        public void add(int x, int y, int z, BaseBlock baseBlock) {
+            String string = baseBlock.toImmutableState().getAsString();
+            LinCompoundTag nbt = baseBlock.getNbt();
+            Integer index = nbt == null ? paletteMap.get(string) : null;
+
+            if (index == null) {
+                index = diff.paletteList.size();
+                diff.paletteList.add(string);
+                diff.nbtList.add(nbt);
+
+                if (nbt == null) {
+                    paletteMap.put(string, index);
+                }
+            }
+
+            diff.add(x, y, z, index);
+        }
+
+        /**
+         * Gets the number of recorded blocks.
+         *
+         * @return The number of blocks.
+         */
+        public int size() {
+            return diff.size;
+        }
+    }
+
+    /**
+     * The changed blocks of a paste, as positions and indexes into a palette of block data strings and their block
+     * entity data, if any.
+     */
+    private static final class Diff {
+        private final UUID worldUUID;
+        private final List<String> paletteList;
+        private final List<LinCompoundTag> nbtList;
+        private int[] x;
+        private int[] y;
+        private int[] z;
+        private int[] palette;
+        private int size;
+        private boolean restoring;
+        private boolean restored;
+
+        private Diff(UUID worldUUID) {
+            this.worldUUID = worldUUID;
+            this.paletteList = new ArrayList<>();
+            this.nbtList = new ArrayList<>();
+            this.x = new int[64];
+            this.y = new int[64];
+            this.z = new int[64];
+            this.palette = new int[64];
+        }
+
+        private void add(int blockX, int blockY, int blockZ, int index) {
+            if (size == x.length) {
+                x = Arrays.copyOf(x, size * 2);
+                y = Arrays.copyOf(y, size * 2);
+                z = Arrays.copyOf(z, size * 2);
+                palette = Arrays.copyOf(palette, size * 2);
+            }
+
+            x[size] = blockX;
+            y[size] = blockY;
+            z[size] = blockZ;
+            palette[size] = index;
+            size++;
+        }
+
+        private long getHeapBytes() {
+            long bytes = 4L * 4 * x.length;
+
+            for (String string : paletteList) {
+                bytes += 40 + string.length();
+            }
+
+            for (LinCompoundTag nbt : nbtList) {
+                if (nbt != null) {
+                    bytes += 256; // Rough size of a sign or a small container
+                }
+            }
+
+            return bytes;
+        }
+    }
+
+    /**
+     * A restore in progress.
+     */
+    private static final class Restore {
+        private final UUID graveUUID;
+        private final Diff diff;
+        private final World world;
+        private final com.sk89q.worldedit.world.World weWorld;
+        private final BlockData[] blockData;
+        private final BaseBlock[] baseBlock;
+        private int index;
+
+        private Restore(UUID graveUUID, Diff diff, World world) {
+            this.graveUUID = graveUUID;
+            this.diff = diff;
+            this.world = world;
+            this.weWorld = BukkitAdapter.adapt(world);
+            this.blockData = new BlockData[diff.paletteList.size()];
+            this.baseBlock = new BaseBlock[diff.paletteList.size()];
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.palmergames.bukkit.towny.exceptions.TownyException;
 import com.palmergames.bukkit.towny.object.*;
 import com.ranull.graves.Graves;
 import com.ranull.graves.listener.integration.towny.TownBlockTypeRegisterListener;
+import com.ranull.graves.listener.integration.towny.TownyRegionChangeListener;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.event.HandlerList;
@@ -13,6 +14,7 @@ import org.bukkit.plugin.Plugin;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Provides integration with Towny to manage town blocks and graveyard types.
@@ -22,19 +24,24 @@ public final class Towny {
     private final Plugin townyPlugin;
     private final TownyAPI townyAPI;
     private final TownBlockTypeRegisterListener townBlockTypeRegisterListener;
+    private final TownyRegionChangeListener townyRegionChangeListener;
+    private final RegionQueryCache regionQueryCache;
     private TownBlockType graveyardBlockType;
 
     /**
      * Constructs a new Towny integration instance with the specified Graves plugin and Towny plugin.
      *
-     * @param plugin        The main Graves plugin instance.
-     * @param townyPlugin   The Towny plugin instance.
+     * @param plugin           The main Graves plugin instance.
+     * @param townyPlugin      The Towny plugin instance.
+     * @param regionQueryCache The cache of region query results.
      */
-    public Towny(Graves plugin, Plugin townyPlugin) {
+    public Towny(Graves plugin, Plugin townyPlugin, RegionQueryCache regionQueryCache) {
         this.plugin = plugin;
         this.townyPlugin = townyPlugin;
         this.townyAPI = TownyAPI.getInstance();
+        this.regionQueryCache = regionQueryCache;
         this.townBlockTypeRegisterListener = new TownBlockTypeRegisterListener(this);
+        this.townyRegionChangeListener = new TownyRegionChangeListener(regionQueryCache);
 
         reload();
         registerGraveyardBlockType();
@@ -84,6 +91,7 @@ public final class Towny {
      */
     public void registerListeners() {
         plugin.getServer().getPluginManager().registerEvents(townBlockTypeRegisterListener, plugin);
+        plugin.getServer().getPluginManager().registerEvents(townyRegionChangeListener, plugin);
     }
 
     /**
@@ -91,6 +99,7 @@ public final class Towny {
      */
     public void unregisterListeners() {
         HandlerList.unregisterAll(townBlockTypeRegisterListener);
+        HandlerList.unregisterAll(townyRegionChangeListener);
     }
 
     /**
@@ -224,9 +233,11 @@ public final class Towny {
      * @return {@code true} if the location is inside the plot, otherwise {@code false}.
      */
     public boolean isInsidePlot(Location location, String name) {
-        TownBlock townBlock = townyAPI.getTownBlock(location);
+        return getCached(location, "plot|" + name, () -> {
+            TownBlock townBlock = townyAPI.getTownBlock(location);
 
-        return townBlock != null && townBlock.getName().equals(name);
+            return townBlock != null && townBlock.getName().equals(name);
+        });
     }
 
     /**
@@ -236,9 +247,31 @@ public final class Towny {
      * @return {@code true} if the location is of the graveyard block type, otherwise {@code false}.
      */
     public boolean isLocationGraveyardBlockType(Location location) {
-        TownBlock townBlock = townyAPI.getTownBlock(location);
+        return getCached(location, "graveyard", () -> {
+            TownBlock townBlock = townyAPI.getTownBlock(location);
+
+            return townBlock != null && townBlock.getType() == graveyardBlockType;
+        });
+    }
+
+    /**
+     * Gets a cached query result for the town block at a location.
+     *
+     * @param location The location.
+     * @param query    The query.
+     * @param supplier The query.
+     * @param <T>      The type of the result.
+     * @return The result.
+     */
+    private <T> T getCached(Location location, String query, Supplier<T> supplier) {
+        if (location.getWorld() == null) {
+            return supplier.get();
+        }
+
+        WorldCoord worldCoord = WorldCoord.parseWorldCoord(location);
 
-        return townBlock != null && townBlock.getType() == graveyardBlockType;
+        return regionQueryCache.get("towny", location.getWorld(), worldCoord.getX(), 0, worldCoord.getZ(), query,
+                supplier);
     }
 
     /**
@@ -1,13 +1,11 @@
 package com.ranull.graves.integration;
 
 import com.ranull.graves.Graves;
+import com.ranull.graves.data.BlockData;
 import com.ranull.graves.type.Grave;
 import com.ranull.graves.util.BlockFaceUtil;
 import com.ranull.graves.util.ResourceUtil;
-import com.sk89q.worldedit.EditSession;
-import com.sk89q.worldedit.MaxChangedBlocksException;
 import com.sk89q.worldedit.WorldEditException;
-import com.sk89q.worldedit.bukkit.BukkitAdapter;
 import com.sk89q.worldedit.extent.clipboard.Clipboard;
 import com.sk89q.worldedit.extent.clipboard.io.ClipboardFormat;
 import com.sk89q.worldedit.extent.clipboard.io.ClipboardFormats;
@@ -18,7 +16,6 @@ import com.sk89q.worldedit.math.transform.AffineTransform;
 import com.sk89q.worldedit.regions.Region;
 import com.sk89q.worldedit.session.ClipboardHolder;
 import com.sk89q.worldedit.session.PasteBuilder;
-import com.sk89q.worldedit.world.block.BlockState;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
@@ -28,11 +25,13 @@ import org.bukkit.plugin.Plugin;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
-import java.util.UUID;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.TimeUnit;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Provides integration with WorldEdit for schematic operations.
@@ -41,12 +40,13 @@ public final class WorldEdit {
     private final Graves plugin;
     private final Plugin worldEditPlugin;
     private final com.sk89q.worldedit.WorldEdit worldEdit;
-    private final Map<String, Clipboard> stringClipboardMap;
-    private final Map<UUID, EditSession> graveEditSessions;
-    private final Map<UUID, Map<BlockVector3, BlockState>> graveBlockStates = new HashMap<>();
+    private volatile CompletableFuture<Map<String, Clipboard>> clipboardFuture;
+    private final SchematicUndoStore undoStore;
+    private final SchematicPasteScheduler pasteScheduler;
 
     /**
-     * Constructs a new WorldEdit integration instance with the specified plugin and WorldEdit plugin.
+     * Constructs a new WorldEdit integration instance with the specified plugin and WorldEdit plugin. Schematics are
+     * not read until {@link #loadData(Executor)} is called.
      *
      * @param plugin          The Graves plugin instance.
      * @param worldEditPlugin The WorldEdit plugin instance.
@@ -55,11 +55,49 @@ public final class WorldEdit {
         this.plugin = plugin;
         this.worldEditPlugin = worldEditPlugin;
         this.worldEdit = com.sk89q.worldedit.WorldEdit.getInstance();
-        this.stringClipboardMap = new HashMap<>();
-        this.graveEditSessions = new HashMap<>();
-
+        this.clipboardFuture = CompletableFuture.completedFuture(Collections.emptyMap());
+        this.undoStore = new SchematicUndoStore(plugin);
+        this.pasteScheduler = new SchematicPasteScheduler(plugin, undoStore);
+
+        plugin.getMetricManager().registerGauge("graves_schematic_undo_heap_bytes",
+                "Estimated heap used by schematic undos.", () -> undoStore.getTotalHeapBytes());
+        plugin.getMetricManager().registerGauge("graves_schematic_undo_disk_bytes",
+                "Disk used by schematic undos.", () -> undoStore.getTotalDiskBytes());
         saveData();
-        loadData();
+    }
+
+    /**
+     * Stops pasting and restoring schematics. Blocks placed by unfinished pastes are recorded, unfinished restores
+     * continue on the next start.
+     */
+    public void unload() {
+        pasteScheduler.unload();
+        undoStore.unload();
+    }
+
+    /**
+     * Gets the store of the blocks replaced by grave schematics.
+     *
+     * @return The schematic undo store.
+     */
+    public SchematicUndoStore getUndoStore() {
+        return undoStore;
+    }
+
+    /**
+     * Gets the scheduler of schematic pastes.
+     *
+     * @return The schematic paste scheduler.
+     */
+    public SchematicPasteScheduler getPasteScheduler() {
+        return pasteScheduler;
+    }
+
+    /**
+     * Restores the blocks replaced by schematics of graves that were removed while a restore was unfinished.
+     */
+    public void restoreOrphanedSchematics() {
+        undoStore.restoreOrphans();
     }
 
     /**
@@ -74,11 +112,27 @@ public final class WorldEdit {
     }
 
     /**
-     * Loads WorldEdit schematics from the Graves plugin's data folder into memory.
+     * Loads WorldEdit schematics from the Graves plugin's data folder into memory. Schematics are read on the given
+     * executor, lookups made before reading finished find no schematic.
+     *
+     * @param executor The executor to read the schematics on.
+     * @return A future completed with the number of loaded schematics.
      */
-    public void loadData() {
-        stringClipboardMap.clear();
+    public CompletableFuture<Integer> loadData(Executor executor) {
+        CompletableFuture<Map<String, Clipboard>> future = CompletableFuture.supplyAsync(this::readSchematics, executor);
+
+        clipboardFuture = future;
 
+        return future.thenApply(Map::size);
+    }
+
+    /**
+     * Reads every schematic in the Graves plugin's data folder. Does not use the Bukkit API.
+     *
+     * @return The clipboards by schematic name.
+     */
+    private Map<String, Clipboard> readSchematics() {
+        Map<String, Clipboard> stringClipboardMap = new HashMap<>();
         File schematicsFile = new File(plugin.getDataFolder() + File.separator + "schematics");
         File[] listFiles = schematicsFile.listFiles();
 
@@ -93,7 +147,7 @@ public final class WorldEdit {
                         try (ClipboardReader clipboardReader = clipboardFormat.getReader(new FileInputStream(file))) {
                             stringClipboardMap.put(name, clipboardReader.read());
                             plugin.debugMessage("Loading schematic " + name, 1);
-                        } catch (IOException exception) {
+                        } catch (IOException | RuntimeException exception) {
                             plugin.logStackTrace(exception);
                         }
                     } else {
@@ -102,26 +156,26 @@ public final class WorldEdit {
                 }
             }
         }
-    }
 
-    // Method to create and store an EditSession tied to a grave UUID
-    private EditSession createEditSessionForGrave(UUID graveUUID, World world) {
-        EditSession editSession = worldEdit.newEditSession(BukkitAdapter.adapt(world));
-        graveEditSessions.put(graveUUID, editSession);
-        return editSession;
+        return stringClipboardMap;
     }
 
-    // Method to retrieve an EditSession for a grave UUID
-    private EditSession getEditSessionForGrave(UUID graveUUID) {
-        return graveEditSessions.get(graveUUID);
-    }
+    /**
+     * Gets the loaded schematics. Lookups run on the main thread, so this does not wait for schematics that are still
+     * being read and returns an empty map instead.
+     *
+     * @return The clipboards by schematic name.
+     */
+    private Map<String, Clipboard> getClipboardMap() {
+        Map<String, Clipboard> clipboardMap = clipboardFuture.getNow(null);
 
-    // Method to clear and remove the EditSession for a grave UUID
-    private void clearEditSessionForGrave(UUID graveUUID) {
-        EditSession editSession = graveEditSessions.remove(graveUUID);
-        if (editSession != null) {
-            editSession.close(); // Make sure to close the EditSession
+        if (clipboardMap == null) {
+            plugin.debugMessage("Schematics are still loading, skipping schematic lookup.", 1);
+
+            return Collections.emptyMap();
         }
+
+        return clipboardMap;
     }
 
     /**
@@ -159,8 +213,9 @@ public final class WorldEdit {
      */
     public boolean canBuildSchematic(Location location, BlockFace blockFace, String name) {
         if (location.getWorld() != null) {
-            if (stringClipboardMap.containsKey(name)) {
-                Clipboard clipboard = stringClipboardMap.get(name);
+            Clipboard clipboard = getClipboardMap().get(name);
+
+            if (clipboard != null) {
                 BlockVector3 offset = clipboard.getOrigin();
                 Region region = clipboard.getRegion();
                 int width = region.getWidth();
@@ -215,7 +270,7 @@ public final class WorldEdit {
      * @return {@code true} if the schematic exists, otherwise {@code false}.
      */
     public boolean hasSchematic(String string) {
-        return stringClipboardMap.containsKey(string.toLowerCase().replace(".schem", ""));
+        return getClipboardMap().containsKey(string.toLowerCase().replace(".schem", ""));
     }
 
     public void getAreaSchematic(Location location, float yaw, File file) {
@@ -249,43 +304,21 @@ public final class WorldEdit {
     public Clipboard pasteSchematic(Location location, float yaw, String name, Grave grave, boolean ignoreAirBlocks) {
         if (location.getWorld() != null) {
             if (hasSchematic(name)) {
-                Clipboard clipboard = getSchematic(location, yaw, name, grave);
-
-                // Create or retrieve the EditSession for the grave UUID
-                EditSession editSession = createEditSessionForGrave(grave.getUUID(), location.getWorld());
-
-                // Create a latch to wait for the block state save
-                CountDownLatch latch = new CountDownLatch(1);
-
-                // Save the current state of blocks using the EditSession
-                new Thread(() -> {
-                    saveCurrentBlockState(location, editSession, grave);
-                    latch.countDown();  // Signal that saving is complete
-                }).start();
+                ClipboardHolder clipboardHolder = new ClipboardHolder(getSchematic(name));
+                clipboardHolder.setTransform(clipboardHolder.getTransform().combine(getYawTransform(yaw)));
 
-                try {
-                    // Wait for the save operation to complete with a timeout of 5 seconds
-                    boolean completed = latch.await(5, TimeUnit.SECONDS);
-
-                    if (!completed) {
-                        plugin.getLogger().warning("Timeout while waiting for block state save. Proceeding with schematic paste.");
-                    }
+                Set<BlockVector3> graveBlockSet = new HashSet<>();
 
-                    // Use ClipboardHolder to manage clipboard data
-                    ClipboardHolder clipboardHolder = new ClipboardHolder(clipboard);
-                    clipboardHolder.setTransform(clipboardHolder.getTransform().combine(getYawTransform(yaw)));
+                for (BlockData blockData : plugin.getBlockManager().getBlockDataList(grave)) {
+                    graveBlockSet.add(locationToBlockVector3(blockData.getLocation()));
+                }
 
-                    // Perform the paste operation
-                    Operations.complete(clipboardHolder.createPaste(editSession)
-                            .to(locationToBlockVector3(location))
-                            .ignoreAirBlocks(ignoreAirBlocks)
-                            .build());
+                // Blocks are placed over the next ticks, the scheduler records what they replace for the undo
+                pasteScheduler.queue(grave.getUUID(), name, location.getWorld(), clipboardHolder.getClipboard(),
+                        clipboardHolder.getTransform(), locationToBlockVector3(location), ignoreAirBlocks,
+                        graveBlockSet);
 
-                    return clipboardHolder.getClipboard();
-                } catch (InterruptedException | WorldEditException exception) {
-                    plugin.getLogger().severe("Error pasting schematic: " + exception.getMessage());
-                    plugin.logStackTrace(exception);
-                }
+                return clipboardHolder.getClipboard();
             } else {
                 plugin.getLogger().warning("Can't find schematic " + name);
             }
@@ -294,117 +327,27 @@ public final class WorldEdit {
         return null;
     }
 
-    private void saveCurrentBlockState(Location location, EditSession editSession, Grave grave) {
-        World world = location.getWorld();
-        if (world != null) {
-            // Define the dimensions of the area to save
-            int radius = plugin.getConfig("schematic.radius", grave).getInt("schematic.radius"); // Define the radius or dimensions of the area to save
-            int minX = location.getBlockX() - radius;
-            int minY = location.getBlockY() - radius;
-            int minZ = location.getBlockZ() - radius;
-            int maxX = location.getBlockX() + radius;
-            int maxY = location.getBlockY() + radius;
-            int maxZ = location.getBlockZ() + radius;
-
-            Map<BlockVector3, com.sk89q.worldedit.world.block.BlockState> blockStates = new HashMap<>();
-
-            for (int x = minX; x <= maxX; x++) {
-                for (int y = minY; y <= maxY; y++) {
-                    for (int z = minZ; z <= maxZ; z++) {
-                        BlockVector3 pos = BlockVector3.at(x, y, z);
-                        com.sk89q.worldedit.world.block.BlockState state = editSession.getBlock(pos);
-                        plugin.debugMessage("BlockVector3: " + pos.toString(), 1);
-                        plugin.debugMessage("BlockState: " + state, 1);
-                        blockStates.put(pos, state);
-                    }
-                }
-            }
-
-            graveBlockStates.put(grave.getUUID(), blockStates);
-        }
-    }
-
-    private Clipboard getSchematic(Location location, float yaw, String name, Grave grave) {
-        return getSchematic(location, yaw, name, plugin.getConfig("schematic.ignore-air", grave).getBoolean("schematic.ignore-air"));
-    }
-
-
     /**
-     * Retrieves a Clipboard for the specified schematic at the given location with rotation based on yaw.
+     * Gets the loaded clipboard of a schematic.
      *
-     * @param location The location to paste the schematic.
-     * @param yaw      The yaw rotation for the schematic.
-     * @param name     The name of the schematic.
-     * @param ignoreAirBlocks Whether to ignore air blocks when pasting.
-     * @return A Clipboard for the schematic, or {@code null} if the schematic could not be found.
+     * @param name The name of the schematic.
+     * @return The clipboard, or null if the schematic is not loaded.
      */
-    private Clipboard getSchematic(Location location, float yaw, String name, boolean ignoreAirBlocks) {
-        if (location.getWorld() == null) {
-            plugin.getLogger().warning("World is null for location: " + location);
-            return null;
-        }
-
-        Clipboard clipboard = stringClipboardMap.get(name);
-        if (clipboard == null) {
-            plugin.getLogger().warning("Schematic not found: " + name);
-            return null;
-        }
-
-        try {
-            // Create a ClipboardHolder for transformations
-            ClipboardHolder clipboardHolder = new ClipboardHolder(clipboard);
-            clipboardHolder.setTransform(clipboardHolder.getTransform().combine(getYawTransform(yaw)));
-
-            // Configure an EditSession for the location
-            EditSession editSession = getEditSession(location.getWorld());
-            BlockVector3 position = locationToBlockVector3(location);
-
-            // Perform the paste operation to set up the clipboard
-            Operations.complete(clipboardHolder.createPaste(editSession)
-                    .to(position)
-                    .ignoreAirBlocks(ignoreAirBlocks)
-                    .build());
-
-            return clipboardHolder.getClipboard();
-        } catch (WorldEditException e) {
-            plugin.getLogger().severe("Error setting up Clipboard: " + e.getMessage());
-            plugin.logStackTrace(e);
-        }
-
-        return null;
-    }
-
-    public void clearSchematic(Grave grave) {  //TODO fix to where it actually clears the schematic. Needs triage.
-        UUID graveUUID = grave.getUUID();
-        Location location = grave.getLocationDeath();
-        EditSession editSession = getEditSessionForGrave(graveUUID);
-        if (editSession != null) {
-            try {
-                // Restore the previous block state using the EditSession
-                restoreBlockState(editSession, grave);
-
-                plugin.debugMessage("Restored block state for grave " + graveUUID + " at location " + location, 1);
-            } catch (Exception e) {
-                plugin.getLogger().severe("Failed to restore block state from " + graveUUID + " at location " + location);
-                plugin.logStackTrace(e);
-            } finally {
-                // Clear and close the EditSession
-                clearEditSessionForGrave(graveUUID);
-            }
-        } else {
-            plugin.debugMessage("No EditSession found for grave " + graveUUID + " to clear at location " + location, 1);
-        }
+    private Clipboard getSchematic(String name) {
+        return getClipboardMap().get(name.toLowerCase().replace(".schem", ""));
     }
 
-    private void restoreBlockState(EditSession editSession, Grave grave) throws MaxChangedBlocksException {
-        Map<BlockVector3, com.sk89q.worldedit.world.block.BlockState> blockStates = graveBlockStates.get(grave.getUUID());
-        if (blockStates != null) {
-            for (Map.Entry<BlockVector3, com.sk89q.worldedit.world.block.BlockState> entry : blockStates.entrySet()) {
-                BlockVector3 pos = entry.getKey();
-                com.sk89q.worldedit.world.block.BlockState state = entry.getValue();
-                editSession.setBlock(pos, state);
-            }
-        }
+    /**
+     * Restores the blocks replaced by the schematic of a grave, stopping its paste if it is still running. The
+     * restore is spread over several ticks for large schematics.
+     *
+     * @param grave The removed grave.
+     */
+    public void clearSchematic(Grave grave) {
+        plugin.debugMessage("Restoring blocks replaced by the schematic of grave " + grave.getUUID() + " at location "
+                + grave.getLocationDeath(), 1);
+        pasteScheduler.cancel(grave.getUUID());
+        undoStore.restore(grave.getUUID());
     }
 
     /**
@@ -454,8 +397,4 @@ public final class WorldEdit {
         }
         return Vector3ToLocation;
     }
-
-    private EditSession getEditSession(World world) {
-        return worldEdit.newEditSession(BukkitAdapter.adapt(world));
-    }
 }
\ No newline at end of file
@@ -22,6 +22,7 @@ import org.bukkit.plugin.java.JavaPlugin;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Provides integration with WorldGuard for managing regions and flags related to graves.
@@ -32,14 +33,17 @@ public final class WorldGuard {
     private final StateFlag createFlag;
     private final StateFlag teleportFlag;
     private final StateFlag graveyardFlag;
+    private final RegionQueryCache regionQueryCache;
 
     /**
      * Constructs a new WorldGuard integration instance with the specified plugin.
      *
-     * @param plugin The JavaPlugin instance.
+     * @param plugin           The JavaPlugin instance.
+     * @param regionQueryCache The cache of region query results.
      */
-    public WorldGuard(JavaPlugin plugin) {
+    public WorldGuard(JavaPlugin plugin, RegionQueryCache regionQueryCache) {
         this.plugin = plugin;
+        this.regionQueryCache = regionQueryCache;
         this.worldGuard = com.sk89q.worldguard.WorldGuard.getInstance();
         this.createFlag = getFlag("graves-create", true);
         this.teleportFlag = getFlag("graves-teleport", true);
@@ -103,6 +107,10 @@ public final class WorldGuard {
     }
 
     public boolean isInGraveyardRegion(Player player) {
+        return getCached(player.getLocation(), "graveyard", () -> queryInGraveyardRegion(player));
+    }
+
+    private boolean queryInGraveyardRegion(Player player) {
         RegionContainer container = worldGuard.getPlatform().getRegionContainer();
         RegionManager regionManager = container.get(BukkitAdapter.adapt(player.getWorld()));
 
@@ -144,6 +152,10 @@ public final class WorldGuard {
      * @return {@code true} if grave creation is allowed, otherwise {@code false}.
      */
     public boolean hasCreateGrave(Location location) {
+        return getCached(location, "has-create", () -> queryHasCreateGrave(location));
+    }
+
+    private boolean queryHasCreateGrave(Location location) {
         if (location.getWorld() != null && createFlag != null) {
             RegionManager regionManager = worldGuard.getPlatform().getRegionContainer()
                     .get(BukkitAdapter.adapt(location.getWorld()));
@@ -173,8 +185,9 @@ public final class WorldGuard {
      */
     public boolean canCreateGrave(Entity entity, Location location) {
         return entity instanceof Player && createFlag != null
-                && worldGuard.getPlatform().getRegionContainer().createQuery().testState(BukkitAdapter.adapt(location),
-                WorldGuardPlugin.inst().wrapPlayer((Player) entity), createFlag);
+                && getCached(location, "create|" + entity.getUniqueId(), () -> worldGuard.getPlatform().getRegionContainer()
+                .createQuery().testState(BukkitAdapter.adapt(location),
+                WorldGuardPlugin.inst().wrapPlayer((Player) entity), createFlag));
     }
 
     /**
@@ -185,8 +198,9 @@ public final class WorldGuard {
      */
     public boolean canCreateGrave(Location location) {
         return createFlag != null
-                && worldGuard.getPlatform().getRegionContainer().createQuery().testState(BukkitAdapter.adapt(location),
-                (RegionAssociable) null, createFlag);
+                && getCached(location, "create", () -> worldGuard.getPlatform().getRegionContainer()
+                .createQuery().testState(BukkitAdapter.adapt(location),
+                (RegionAssociable) null, createFlag));
     }
 
     /**
@@ -198,8 +212,9 @@ public final class WorldGuard {
      */
     public boolean canTeleport(Entity entity, Location location) {
         return entity instanceof Player && teleportFlag != null
-                && worldGuard.getPlatform().getRegionContainer().createQuery().testState(BukkitAdapter.adapt(location),
-                WorldGuardPlugin.inst().wrapPlayer((Player) entity), teleportFlag);
+                && getCached(location, "teleport|" + entity.getUniqueId(), () -> worldGuard.getPlatform().getRegionContainer()
+                .createQuery().testState(BukkitAdapter.adapt(location),
+                WorldGuardPlugin.inst().wrapPlayer((Player) entity), teleportFlag));
     }
 
     /**
@@ -210,8 +225,9 @@ public final class WorldGuard {
      */
     public boolean canTeleport(Location location) {
         return teleportFlag != null
-                && worldGuard.getPlatform().getRegionContainer().createQuery().testState(BukkitAdapter.adapt(location),
-                (RegionAssociable) null, teleportFlag);
+                && getCached(location, "teleport", () -> worldGuard.getPlatform().getRegionContainer()
+                .createQuery().testState(BukkitAdapter.adapt(location),
+                (RegionAssociable) null, teleportFlag));
     }
 
     /**
@@ -259,6 +275,10 @@ public final class WorldGuard {
      * @return {@code true} if the location is inside the region, otherwise {@code false}.
      */
     public boolean isInsideRegion(Location location, String region) {
+        return getCached(location, "inside|" + region, () -> queryInsideRegion(location, region));
+    }
+
+    private boolean queryInsideRegion(Location location, String region) {
         if (location.getWorld() != null) {
             RegionManager regionManager = worldGuard.getPlatform().getRegionContainer()
                     .get(BukkitAdapter.adapt(location.getWorld()));
@@ -327,6 +347,10 @@ public final class WorldGuard {
      * @return A list of region keys.
      */
     public List<String> getRegionKeyList(Location location) {
+        return new ArrayList<>(getCached(location, "keys", () -> queryRegionKeyList(location)));
+    }
+
+    private List<String> queryRegionKeyList(Location location) {
         List<String> regionNameList = new ArrayList<>();
 
         if (location.getWorld() != null) {
@@ -358,4 +382,18 @@ public final class WorldGuard {
         }
         return regionNames;
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets a cached region query result for the block at a location.
+     *
+     * @param location The location.
+     * @param query    The query, including the player if the result depends on them.
+     * @param supplier The query.
+     * @param <T>      The type of the result.
+     * @return The result.
+     */
+    private <T> T getCached(Location location, String query, Supplier<T> supplier) {
+        return location.getWorld() != null ? regionQueryCache.get("worldguard", location.getWorld(),
+                location.getBlockX(), location.getBlockY(), location.getBlockZ(), query, supplier) : supplier.get();
+    }
+}
@@ -3,6 +3,7 @@ package com.ranull.graves.inventory;
 import com.ranull.graves.type.Grave;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
@@ -11,10 +12,34 @@ import java.util.UUID;
 /**
  * Represents a list of graves that can be displayed in an inventory.
  * Implements InventoryHolder to manage inventory display.
+ * Lists that do not fit in a double chest are split into pages of {@link #PAGE_SIZE} graves, with the bottom row
+ * used for page navigation.
  */
 public class GraveList implements InventoryHolder {
+    /**
+     * The largest inventory size, lists with more graves are paged.
+     */
+    public static final int MAX_SIZE = 54;
+
+    /**
+     * The number of graves on a page of a paged list.
+     */
+    public static final int PAGE_SIZE = 45;
+
+    /**
+     * The slot of the previous page item.
+     */
+    public static final int PREVIOUS_PAGE_SLOT = 45;
+
+    /**
+     * The slot of the next page item.
+     */
+    public static final int NEXT_PAGE_SLOT = 53;
+
     private final UUID uuid;
-    private final List<Grave> graveList;
+    private List<Grave> graveList;
+    private int page;
+    private ItemStack[] slotItemStacks;
     private Inventory inventory;
 
     /**
@@ -26,6 +51,8 @@ public class GraveList implements InventoryHolder {
     public GraveList(UUID uuid, List<Grave> graveList) {
         this.uuid = uuid;
         this.graveList = graveList;
+        this.page = 0;
+        this.slotItemStacks = new ItemStack[MAX_SIZE];
     }
 
     /**
@@ -57,6 +84,99 @@ public class GraveList implements InventoryHolder {
         return uuid;
     }
 
+    /**
+     * Gets the graves in this GraveList.
+     *
+     * @return The list of graves.
+     */
+    public List<Grave> getGraveList() {
+        return graveList;
+    }
+
+    /**
+     * Replaces the graves in this GraveList, moving to the last page if the current page no longer exists.
+     *
+     * @param graveList The list of graves.
+     */
+    public void setGraveList(List<Grave> graveList) {
+        this.graveList = graveList;
+        this.page = Math.min(page, getPageCount() - 1);
+    }
+
+    /**
+     * Checks if this GraveList is split into pages.
+     *
+     * @return True if the graves do not fit in one inventory.
+     */
+    public boolean isPaged() {
+        return graveList.size() > MAX_SIZE;
+    }
+
+    /**
+     * Gets the current page, starting at 0.
+     *
+     * @return The current page.
+     */
+    public int getPage() {
+        return page;
+    }
+
+    /**
+     * Sets the current page, clamped to the existing pages.
+     *
+     * @param page The page, starting at 0.
+     */
+    public void setPage(int page) {
+        this.page = Math.max(0, Math.min(page, getPageCount() - 1));
+    }
+
+    /**
+     * Gets the number of pages.
+     *
+     * @return The number of pages, at least 1.
+     */
+    public int getPageCount() {
+        return isPaged() ? (graveList.size() + PAGE_SIZE - 1) / PAGE_SIZE : 1;
+    }
+
+    /**
+     * Gets the index in the grave list of the first grave on the current page.
+     *
+     * @return The index of the first visible grave.
+     */
+    public int getPageOffset() {
+        return isPaged() ? page * PAGE_SIZE : 0;
+    }
+
+    /**
+     * Gets the number of grave slots on the current page.
+     *
+     * @return The number of grave slots.
+     */
+    public int getPageSize() {
+        return isPaged() ? PAGE_SIZE : MAX_SIZE;
+    }
+
+    /**
+     * Gets the item stack last placed in a slot, used to skip slots whose item did not change.
+     *
+     * @param slot The slot index.
+     * @return The item stack, or null if the slot was left empty.
+     */
+    public ItemStack getSlotItemStack(int slot) {
+        return slotItemStacks[slot];
+    }
+
+    /**
+     * Sets the item stack last placed in a slot.
+     *
+     * @param slot      The slot index.
+     * @param itemStack The item stack, or null if the slot is empty.
+     */
+    public void setSlotItemStack(int slot, ItemStack itemStack) {
+        slotItemStacks[slot] = itemStack;
+    }
+
     /**
      * Gets the Grave object at the specified slot in the grave list.
      *
@@ -64,6 +184,8 @@ public class GraveList implements InventoryHolder {
      * @return The Grave object at the specified slot, or null if the slot is invalid.
      */
     public Grave getGrave(int slot) {
-        return slot >= 0 && graveList.size() > slot ? graveList.get(slot) : null;
+        int index = getPageOffset() + slot;
+
+        return slot >= 0 && slot < getPageSize() && graveList.size() > index ? graveList.get(index) : null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,55 @@
+package com.ranull.graves.listener;
+
+import com.ranull.graves.Graves;
+import com.ranull.graves.data.ChunkData;
+import org.bukkit.Chunk;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+
+/**
+ * Listener for handling ChunkLoadEvent to track loaded chunks that hold grave data.
+ */
+public class ChunkLoadListener implements Listener {
+    private final Graves plugin;
+
+    /**
+     * Constructs a ChunkLoadListener with the specified Graves plugin.
+     *
+     * @param plugin The Graves plugin instance.
+     */
+    public ChunkLoadListener(Graves plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Handles the ChunkLoadEvent. If the chunk holds grave data it is added to the loaded chunk map and its NPC
+     * corpses are created. On versions where entities load together with the chunk, the grave entities of the chunk
+     * are validated right away.
+     *
+     * @param event The ChunkLoadEvent to handle.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent event) {
+        Chunk chunk = event.getChunk();
+        String chunkString = chunk.getWorld().getName() + "|" + chunk.getX() + "|" + chunk.getZ();
+        ChunkData chunkData = plugin.getCacheManager().getChunkMap().get(chunkString);
+
+        if (chunkData != null) {
+            plugin.getCacheManager().getLoadedChunkMap().put(chunkString, chunkData);
+
+            if (!plugin.getVersionManager().hasEntitiesLoadEvent()) {
+                plugin.getGraveManager().validateChunk(chunk);
+            }
+
+            if (plugin.getIntegrationManager().hasPlayerNPC()) {
+                plugin.getIntegrationManager().getPlayerNPC().createCorpses(chunkData);
+            }
+
+            if (plugin.getIntegrationManager().hasCitizensNPC()) {
+                plugin.getIntegrationManager().getCitizensNPC().createCorpses(chunkData);
+            }
+        }
+    }
+}
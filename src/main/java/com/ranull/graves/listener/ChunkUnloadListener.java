@@ -0,0 +1,37 @@
+package com.ranull.graves.listener;
+
+import com.ranull.graves.Graves;
+import org.bukkit.Chunk;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkUnloadEvent;
+
+/**
+ * Listener for handling ChunkUnloadEvent to track loaded chunks that hold grave data.
+ */
+public class ChunkUnloadListener implements Listener {
+    private final Graves plugin;
+
+    /**
+     * Constructs a ChunkUnloadListener with the specified Graves plugin.
+     *
+     * @param plugin The Graves plugin instance.
+     */
+    public ChunkUnloadListener(Graves plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Handles the ChunkUnloadEvent. The chunk is removed from the loaded chunk map.
+     *
+     * @param event The ChunkUnloadEvent to handle.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        Chunk chunk = event.getChunk();
+
+        plugin.getCacheManager().getLoadedChunkMap()
+                .remove(chunk.getWorld().getName() + "|" + chunk.getX() + "|" + chunk.getZ());
+    }
+}
@@ -0,0 +1,39 @@
+package com.ranull.graves.listener;
+
+import com.ranull.graves.Graves;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.EntitiesLoadEvent;
+
+/**
+ * Listener for handling EntitiesLoadEvent to validate grave entities and convert armor stand holograms to text
+ * display holograms.
+ */
+public class EntitiesLoadListener implements Listener {
+    private final Graves plugin;
+
+    /**
+     * Constructs an EntitiesLoadListener with the specified Graves plugin.
+     *
+     * @param plugin The Graves plugin instance.
+     */
+    public EntitiesLoadListener(Graves plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Handles the EntitiesLoadEvent. Once the entities of the chunk are loaded, armor stand holograms of graves in
+     * the chunk are replaced by a single text display per grave and the grave entities are validated.
+     *
+     * @param event The EntitiesLoadEvent to handle.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntitiesLoad(EntitiesLoadEvent event) {
+        if (plugin.getVersionManager().hasDisplayEntities()) {
+            plugin.getHologramManager().migrateHolograms(event.getChunk());
+        }
+
+        plugin.getGraveManager().validateChunk(event.getChunk());
+    }
+}
@@ -4,6 +4,7 @@ import com.ranull.graves.Graves;
 import com.ranull.graves.data.BlockData;
 import com.ranull.graves.event.*;
 import com.ranull.graves.integration.WorldGuard;
+import com.ranull.graves.metric.Counter;
 import com.ranull.graves.type.Grave;
 import com.ranull.graves.type.Graveyard;
 import com.ranull.graves.util.*;
@@ -30,6 +31,7 @@ import java.util.*;
  */
 public class EntityDeathListener implements Listener {
     private final Graves plugin;
+    private final Counter createdCounter;
 
     /**
      * Constructs an EntityDeathListener with the specified Graves plugin.
@@ -38,6 +40,7 @@ public class EntityDeathListener implements Listener {
      */
     public EntityDeathListener(Graves plugin) {
         this.plugin = plugin;
+        this.createdCounter = plugin.getMetricManager().getCounter("graves_created_total", "Graves created.");
     }
 
     /**
@@ -615,31 +618,26 @@ public class EntityDeathListener implements Listener {
         boolean isGraveyardEnabled = plugin.getConfig("graveyard.enabled", grave).getBoolean("graveyard.enabled");
 
         if (plugin.getIntegrationManager().hasWorldGuard()) {
-            WorldGuard worldGuard = new WorldGuard(plugin);
+            WorldGuard worldGuard = plugin.getIntegrationManager().getWorldGuard();
 
             if (isGraveyardEnabled && worldGuard.isInGraveyardRegion((Player) livingEntity)) {
                 Graveyard graveyard = plugin.getGraveyardManager().getClosestGraveyard(grave.getLocationDeath(), livingEntity);
                 if (graveyard != null) {
-                    Map<Location, BlockFace> graveyardFreeSpaces = plugin.getGraveyardManager().getGraveyardFreeSpaces(graveyard);
-                    if (!graveyardFreeSpaces.isEmpty()) {
-                        for (Map.Entry<Location, BlockFace> entry : graveyardFreeSpaces.entrySet()) {
-                            Location graveyardLocation = entry.getKey();
-                            if (graveyardLocation != null && !plugin.getDataManager().hasGraveAtLocation(graveyardLocation)) {
-                                plugin.debugMessage("Graveyard Location found at " + graveyardLocation, 1);
-                                grave.setLocationDeath(graveyardLocation);
-                                grave.getLocationDeath().setYaw(grave.getYaw());
-                                grave.getLocationDeath().setPitch(grave.getPitch());
-                                graveyardLocation.setYaw(plugin.getConfig().getBoolean("settings.graveyard.facing") ? BlockFaceUtil.getBlockFaceYaw(entry.getValue()) : grave.getYaw());
-                                graveyardLocation.setPitch(grave.getPitch());
-                                locationMap.put(graveyardLocation, BlockData.BlockType.GRAVEYARD);
-                                break;
-                            } else {
-                                plugin.debugMessage("Graveyard Location is null", 1);
-                                grave.setLocationDeath(safeLocation != null ? safeLocation : location);
-                                grave.getLocationDeath().setYaw(grave.getYaw());
-                                grave.getLocationDeath().setPitch(grave.getPitch());
-                            }
-                        }
+                    Location graveyardLocation = plugin.getGraveyardManager().claimGraveyardLocation(graveyard, grave);
+                    if (graveyardLocation != null) {
+                        BlockFace blockFace = graveyard.getGraveLocationMap().get(graveyardLocation);
+                        plugin.debugMessage("Graveyard Location found at " + graveyardLocation, 1);
+                        grave.setLocationDeath(graveyardLocation.clone());
+                        grave.getLocationDeath().setYaw(grave.getYaw());
+                        grave.getLocationDeath().setPitch(grave.getPitch());
+                        graveyardLocation.setYaw(plugin.getConfig().getBoolean("settings.graveyard.facing") && blockFace != null ? BlockFaceUtil.getBlockFaceYaw(blockFace) : grave.getYaw());
+                        graveyardLocation.setPitch(grave.getPitch());
+                        locationMap.put(graveyardLocation, BlockData.BlockType.GRAVEYARD);
+                    } else {
+                        plugin.debugMessage("Graveyard " + graveyard.getName() + " has no free locations", 1);
+                        grave.setLocationDeath(safeLocation != null ? safeLocation : location);
+                        grave.getLocationDeath().setYaw(grave.getYaw());
+                        grave.getLocationDeath().setPitch(grave.getPitch());
                     }
                 } else {
                     grave.setLocationDeath(safeLocation != null ? safeLocation : location);
@@ -776,6 +774,7 @@ public class EntityDeathListener implements Listener {
         plugin.getEntityManager().sendMessage("message.death", livingEntity, grave.getLocationDeath(), grave);
         plugin.getEntityManager().runCommands("event.command.create", livingEntity, grave.getLocationDeath(), grave);
         plugin.getDataManager().addGrave(grave);
+        createdCounter.increment();
         if (plugin.getIntegrationManager().hasMultiPaper()) {
             plugin.getIntegrationManager().getMultiPaper().notifyGraveCreation(grave);
         }
@@ -844,22 +843,4 @@ public class EntityDeathListener implements Listener {
             plugin.getEntityManager().sendMessage("message.failure", livingEntity, location, grave);
         }
     }
-
-    private Location findGraveLocation(Grave grave, LivingEntity livingEntity, Location location) {
-        if (plugin.getConfig("graveyard.enabled", grave).getBoolean("graveyard.enabled")) {
-            Graveyard graveyard = plugin.getGraveyardManager().getClosestGraveyard(location, livingEntity);
-            if (graveyard != null) {
-                Map<Location, BlockFace> graveyardFreeSpaces = plugin.getGraveyardManager().getGraveyardFreeSpaces(graveyard);
-                for (Map.Entry<Location, BlockFace> entry : graveyardFreeSpaces.entrySet()) {
-                    Location graveyardLocation = entry.getKey();
-                    if (!plugin.getDataManager().hasGraveAtLocation(graveyardLocation)) {
-                        graveyardLocation.setYaw(plugin.getConfig().getBoolean("settings.graveyard.facing") ? BlockFaceUtil.getBlockFaceYaw(entry.getValue()) : livingEntity.getLocation().getYaw());
-                        graveyardLocation.setPitch(livingEntity.getLocation().getPitch());
-                        return graveyardLocation;
-                    }
-                }
-            }
-        }
-        return plugin.getLocationManager().getSafeGraveLocation(livingEntity, location, grave);
-    }
-}
\ No newline at end of file
+}
@@ -287,7 +287,17 @@ public class InventoryClickListener implements Listener {
      * @param graveList The GraveList inventory holder.
      */
     private void handleGraveListClick(InventoryClickEvent event, Player player, GraveList graveList) {
-        Grave grave = graveList.getGrave(event.getSlot());
+        if (graveList.isPaged() && event.getRawSlot() == GraveList.PREVIOUS_PAGE_SLOT) {
+            plugin.getGUIManager().setGraveListPage(graveList, player, graveList.getPage() - 1);
+            event.setCancelled(true);
+            return;
+        } else if (graveList.isPaged() && event.getRawSlot() == GraveList.NEXT_PAGE_SLOT) {
+            plugin.getGUIManager().setGraveListPage(graveList, player, graveList.getPage() + 1);
+            event.setCancelled(true);
+            return;
+        }
+
+        Grave grave = graveList.getGrave(event.getRawSlot());
 
         if (grave != null) {
             if (event.getClick() == ClickType.SHIFT_LEFT) {
@@ -298,7 +308,7 @@ public class InventoryClickListener implements Listener {
             // Run function associated with the clicked slot in GraveList
             plugin.getEntityManager().runFunction(player, plugin.getConfig("gui.menu.list.function", grave)
                     .getString("gui.menu.list.function", "menu"), grave);
-            plugin.getGUIManager().setGraveListItems(graveList.getInventory(), graveList.getUUID());
+            plugin.getGUIManager().refreshGraveList(graveList, player);
         }
 
         event.setCancelled(true);
@@ -36,6 +36,11 @@ public class InventoryCloseListener implements Listener {
      */
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onInventoryClose(InventoryCloseEvent event) {
+        if (isPlayer(event.getPlayer())) {
+            plugin.getGUIManager().removeViewer((Player) event.getPlayer(),
+                    CompatibilityInventoryView.getTopInventory(event).getHolder());
+        }
+
         if (isGraveInventory(event) && isPlayer(event.getPlayer())) {
             Player player = (Player) event.getPlayer();
             Entity entity = event.getPlayer();
@@ -47,6 +52,9 @@ public class InventoryCloseListener implements Listener {
 
             if (grave != null && isEmptyGrave(grave)) {
                 handleEmptyGrave(event, player, grave, entity);
+            } else if (grave != null) {
+                // Items may have been taken, refresh the menus showing the grave
+                plugin.getGUIManager().refreshGrave(grave);
             }
 
             // Play a sound effect related to closing the inventory
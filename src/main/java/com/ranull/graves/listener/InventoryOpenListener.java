@@ -43,6 +43,20 @@ public class InventoryOpenListener implements Listener {
         }
     }
 
+    /**
+     * Registers the player as a viewer when a grave list or grave menu was opened, so the menu is refreshed when
+     * its graves change.
+     *
+     * @param event The InventoryOpenEvent to handle.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onGraveMenuOpen(InventoryOpenEvent event) {
+        if (event.getPlayer() instanceof Player) {
+            plugin.getGUIManager().addViewer((Player) event.getPlayer(),
+                    CompatibilityInventoryView.getTopInventory(event).getHolder());
+        }
+    }
+
     /**
      * Checks if the inventory holder is a Grave.
      *
@@ -0,0 +1,36 @@
+package com.ranull.graves.listener;
+
+import com.ranull.graves.Graves;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+
+/**
+ * Listener for handling PlayerChangedWorldEvent to reset client-side grave holograms.
+ */
+public class PlayerChangedWorldListener implements Listener {
+    private final Graves plugin;
+
+    /**
+     * Constructs a PlayerChangedWorldListener with the specified Graves plugin.
+     *
+     * @param plugin The Graves plugin instance.
+     */
+    public PlayerChangedWorldListener(Graves plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Handles the PlayerChangedWorldEvent by forgetting the packet holograms the player was shown, the client
+     * discarded them when the world changed.
+     *
+     * @param event The PlayerChangedWorldEvent to handle.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        if (plugin.getPacketHologramManager() != null) {
+            plugin.getPacketHologramManager().removeViewer(event.getPlayer());
+        }
+    }
+}
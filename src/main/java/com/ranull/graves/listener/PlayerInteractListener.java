@@ -214,7 +214,7 @@ public class PlayerInteractListener implements Listener {
                                     GraveParticleEvent graveParticleEvent = new GraveParticleEvent(player, grave);
                                     plugin.getServer().getPluginManager().callEvent(graveParticleEvent);
                                     if (!graveParticleEvent.isCancelled()) {
-                                        plugin.getParticleManager().startParticleTrail(player.getLocation(), grave.getLocationDeath(), Particle.valueOf(Objects.requireNonNull(plugin.getConfig("compass.particles.particle", grave).getString("compass.particles.particle")).toUpperCase()), plugin.getConfig("compass.particles.count", grave).getInt("compass.particles.count", 5), plugin.getConfig("compass.particles.speed", grave).getDouble("compass.particles.speed", 0.3), plugin.getConfig("compass.particles.duration", grave).getInt("compass.particles.duration"), player.getUniqueId());
+                                        plugin.getParticleManager().startParticleTrail(player.getLocation(), grave.getLocationDeath(), grave, player.getUniqueId());
                                     }
                                 }
                             }
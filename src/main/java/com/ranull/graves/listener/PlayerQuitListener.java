@@ -27,8 +27,8 @@ public class PlayerQuitListener implements Listener {
     /**
      * Handles the PlayerQuitEvent to clean up player-related data upon their departure.
      *
-     * This method removes the player's last solid location and stops any ongoing modification
-     * of graveyards if the player was modifying one at the time of quitting.
+     * This method removes the player's last solid location, forgets their cached graveyard memberships and stops
+     * any ongoing modification of graveyards if the player was modifying one at the time of quitting.
      *
      * @param event The PlayerQuitEvent to handle.
      */
@@ -38,6 +38,19 @@ public class PlayerQuitListener implements Listener {
 
         removeLastSolidLocation(player);
         stopModifyingGraveyardIfNecessary(player);
+        removeHologramViewer(player);
+        plugin.getGraveyardManager().removeMembershipCache(player);
+    }
+
+    /**
+     * Forgets the packet holograms the player was shown.
+     *
+     * @param player The player who quit.
+     */
+    private void removeHologramViewer(Player player) {
+        if (plugin.getPacketHologramManager() != null) {
+            plugin.getPacketHologramManager().removeViewer(player);
+        }
     }
 
     /**
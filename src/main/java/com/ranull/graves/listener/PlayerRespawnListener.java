@@ -33,6 +33,7 @@ public class PlayerRespawnListener implements Listener {
      * Handles the PlayerRespawnEvent to perform actions related to graves when a player respawns.
      *
      * This method:
+     * - Forgets the packet holograms the player was shown, the client discarded them on respawn.
      * - Runs a scheduled task to execute a function configured for respawn events.
      * - Checks if a compass should be given to the player based on the respawn time and config settings.
      * - Applies a potion effect if the player respawns within the allowed time.
@@ -45,6 +46,8 @@ public class PlayerRespawnListener implements Listener {
         List<String> permissionList = plugin.getPermissionList(player);
         List<Grave> graveList = plugin.getGraveManager().getGraveList(player);
 
+        removeHologramViewer(player);
+
         if (!graveList.isEmpty()) {
             Grave grave = graveList.get(graveList.size() - 1);
 
@@ -61,6 +64,17 @@ public class PlayerRespawnListener implements Listener {
         }
     }
 
+    /**
+     * Forgets the packet holograms the player was shown, so the next update sends them again.
+     *
+     * @param player The player who respawned.
+     */
+    private void removeHologramViewer(Player player) {
+        if (plugin.getPacketHologramManager() != null) {
+            plugin.getPacketHologramManager().removeViewer(player);
+        }
+    }
+
     /**
      * Applies a potion effect to the player if they respawn within the allowed time.
      *
@@ -0,0 +1,66 @@
+package com.ranull.graves.listener.integration.towny;
+
+import com.palmergames.bukkit.towny.event.DeleteTownEvent;
+import com.palmergames.bukkit.towny.event.PlotChangeTypeEvent;
+import com.palmergames.bukkit.towny.event.TownClaimEvent;
+import com.palmergames.bukkit.towny.event.town.TownUnclaimEvent;
+import com.ranull.graves.integration.RegionQueryCache;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+
+/**
+ * Listens for Towny claim and plot changes to drop cached Towny region query results.
+ */
+public class TownyRegionChangeListener implements Listener {
+    private final RegionQueryCache regionQueryCache;
+
+    /**
+     * Constructs a new TownyRegionChangeListener with the specified cache.
+     *
+     * @param regionQueryCache The cache of region query results.
+     */
+    public TownyRegionChangeListener(RegionQueryCache regionQueryCache) {
+        this.regionQueryCache = regionQueryCache;
+    }
+
+    /**
+     * Handles TownClaimEvent. Drops the cached Towny results.
+     *
+     * @param event The TownClaimEvent to handle.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTownClaim(TownClaimEvent event) {
+        regionQueryCache.invalidate("towny");
+    }
+
+    /**
+     * Handles TownUnclaimEvent. Drops the cached Towny results.
+     *
+     * @param event The TownUnclaimEvent to handle.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTownUnclaim(TownUnclaimEvent event) {
+        regionQueryCache.invalidate("towny");
+    }
+
+    /**
+     * Handles PlotChangeTypeEvent. Drops the cached Towny results, a plot may have become a graveyard.
+     *
+     * @param event The PlotChangeTypeEvent to handle.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlotChangeType(PlotChangeTypeEvent event) {
+        regionQueryCache.invalidate("towny");
+    }
+
+    /**
+     * Handles DeleteTownEvent. Drops the cached Towny results.
+     *
+     * @param event The DeleteTownEvent to handle.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onDeleteTown(DeleteTownEvent event) {
+        regionQueryCache.invalidate("towny");
+    }
+}
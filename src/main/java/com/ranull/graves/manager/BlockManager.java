@@ -11,7 +11,6 @@ import org.bukkit.block.Block;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 /**
  * The BlockManager class is responsible for managing block data and operations related to graves.
@@ -120,7 +119,8 @@ public final class BlockManager {
     }
 
     /**
-     * Gets a list of BlockData associated with the given grave.
+     * Gets a list of BlockData associated with the given grave, including blocks in unloaded chunks. The chunk cache
+     * holds every persisted block row, so this does not query the database.
      *
      * @param grave The grave to get the BlockData list for.
      * @return A list of BlockData associated with the grave.
@@ -128,8 +128,8 @@ public final class BlockManager {
     public List<BlockData> getBlockDataList(Grave grave) {
         List<BlockData> blockDataList = new ArrayList<>();
 
-        for (Map.Entry<String, ChunkData> chunkDataEntry : plugin.getCacheManager().getChunkMap().entrySet()) {
-            for (BlockData blockData : new ArrayList<>(chunkDataEntry.getValue().getBlockDataMap().values())) {
+        for (ChunkData chunkData : new ArrayList<>(plugin.getCacheManager().getChunkMap().values())) {
+            for (BlockData blockData : new ArrayList<>(chunkData.getBlockDataMap().values())) {
                 if (grave.getUUID().equals(blockData.getGraveUUID())) {
                     blockDataList.add(blockData);
                 }
@@ -140,7 +140,7 @@ public final class BlockManager {
     }
 
     /**
-     * Gets a list of locations of blocks associated with the given grave.
+     * Gets a list of locations of blocks associated with the given grave, including blocks in unloaded chunks.
      *
      * @param grave The grave to get the block locations for.
      * @return A list of locations of blocks associated with the grave.
@@ -148,30 +148,23 @@ public final class BlockManager {
     public List<Location> getBlockList(Grave grave) {
         List<Location> locationList = new ArrayList<>();
 
-        for (Map.Entry<String, ChunkData> chunkDataEntry : plugin.getCacheManager().getChunkMap().entrySet()) {
-            for (BlockData blockData : new ArrayList<>(chunkDataEntry.getValue().getBlockDataMap().values())) {
-                if (grave.getUUID().equals(blockData.getGraveUUID())) {
-                    locationList.add(blockData.getLocation());
-                }
-            }
+        for (BlockData blockData : getBlockDataList(grave)) {
+            locationList.add(blockData.getLocation());
         }
 
         return locationList;
     }
 
     /**
-     * Removes all blocks associated with the given grave.
+     * Removes all blocks associated with the given grave in loaded chunks.
      *
      * @param grave The grave to remove the blocks for.
      */
     public void removeBlock(Grave grave) {
-        for (ChunkData chunkData : plugin.getCacheManager().getChunkMap().values()) {
-
-            if (chunkData.isLoaded()) {
-                for (BlockData blockData : new ArrayList<>(chunkData.getBlockDataMap().values())) {
-                    if (grave.getUUID().equals(blockData.getGraveUUID())) {
-                        removeBlock(blockData);
-                    }
+        for (ChunkData chunkData : new ArrayList<>(plugin.getCacheManager().getLoadedChunkMap().values())) {
+            for (BlockData blockData : new ArrayList<>(chunkData.getBlockDataMap().values())) {
+                if (grave.getUUID().equals(blockData.getGraveUUID())) {
+                    removeBlock(blockData);
                 }
             }
         }
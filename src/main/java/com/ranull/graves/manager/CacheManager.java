@@ -30,6 +30,15 @@ public final class CacheManager {
      */
     private final Map<String, ChunkData> chunkMap;
 
+    /**
+     * A map of chunk identifiers to the {@link ChunkData} of chunks that are currently loaded.
+     * <p>
+     * This {@link Map} holds the loaded subset of the chunk map. It is kept up to date from chunk load and unload
+     * events, so periodic tasks only visit chunks that are loaded.
+     * </p>
+     */
+    private final Map<String, ChunkData> loadedChunkMap;
+
     /**
      * A map of entity UUIDs to their last known {@link Location}.
      * <p>
@@ -75,6 +84,7 @@ public final class CacheManager {
     public CacheManager() {
         this.graveMap = new HashMap<>();
         this.chunkMap = new HashMap<>();
+        this.loadedChunkMap = new HashMap<>();
         this.lastLocationMap = new HashMap<>();
         this.removedItemStackMap = new HashMap<>();
         this.graveyardMap = new HashMap<>();
@@ -140,6 +150,14 @@ public final class CacheManager {
         return chunkMap;
     }
 
+    /**
+     * Returns the map of chunk identifiers to the {@link ChunkData} of loaded chunks.
+     * @return the map of loaded chunk data
+     */
+    public Map<String, ChunkData> getLoadedChunkMap() {
+        return loadedChunkMap;
+    }
+
     /**
      * Returns the map of entity UUIDs to their last known {@link Location}.
      * @return the map of last known locations
@@ -0,0 +1,556 @@
+package com.ranull.graves.manager;
+
+import com.ranull.graves.Graves;
+import com.ranull.graves.data.BlockData;
+import com.ranull.graves.data.ChunkData;
+import com.ranull.graves.data.EntityData;
+import com.ranull.graves.data.HologramData;
+import com.ranull.graves.type.Grave;
+import com.ranull.graves.util.Base64Util;
+import com.ranull.graves.util.InventoryUtil;
+import com.ranull.graves.util.LocationUtil;
+import org.apache.commons.lang3.StringUtils;
+import org.bukkit.Location;
+import org.bukkit.entity.EntityType;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Snapshot of the grave, block and entity caches, written on a clean shutdown and read on the next start instead of
+ * loading every table.
+ * <p>
+ * The snapshot carries a watermark of the database, row counts and aggregates of the tables it covers, and the sum of
+ * the grave revisions, which every grave update raises. It is only used if the database still has the same watermark,
+ * and it is deleted once read so a crash never leaves a stale snapshot behind. The file is read into the heap in one
+ * go and closed before it is parsed, so it can be deleted on every platform.
+ * </p>
+ */
+public final class CacheSnapshot {
+    private static final int MAGIC = 0x47525653;
+    private static final int VERSION = 1;
+
+    /**
+     * The main plugin instance associated with Graves.
+     * <p>
+     * This {@link Graves} instance represents the core plugin that this Graves is part of. It provides access
+     * to the plugin's functionality, configuration, and other services.
+     * </p>
+     */
+    private final Graves plugin;
+
+    private final DataManager dataManager;
+    private final File file;
+
+    /**
+     * How long loading the caches from the database took in milliseconds, or -1 if they were not loaded from it.
+     */
+    private long databaseLoadTime;
+
+    /**
+     * Initializes the snapshot of the data folder.
+     *
+     * @param plugin      The Graves plugin instance.
+     * @param dataManager The data manager the watermark is read with.
+     */
+    public CacheSnapshot(Graves plugin, DataManager dataManager) {
+        this.plugin = plugin;
+        this.dataManager = dataManager;
+        this.file = new File(plugin.getDataFolder(), "data" + File.separator + "cache.snapshot");
+        this.databaseLoadTime = -1;
+    }
+
+    /**
+     * Sets how long loading the caches from the database took, it is kept in the next snapshot for comparison.
+     *
+     * @param databaseLoadTime The time in milliseconds.
+     */
+    public void setDatabaseLoadTime(long databaseLoadTime) {
+        this.databaseLoadTime = databaseLoadTime;
+    }
+
+    /**
+     * Loads the caches from the snapshot if there is one and it matches the database. The snapshot is deleted either
+     * way.
+     *
+     * @return True if the caches were loaded, false if they have to be loaded from the database.
+     */
+    public boolean load() {
+        if (!file.isFile()) {
+            return false;
+        }
+
+        long start = System.nanoTime();
+
+        try {
+            ByteBuffer byteBuffer = readFile();
+
+            if (byteBuffer.getInt() != MAGIC || byteBuffer.getInt() != VERSION) {
+                plugin.debugMessage("Ignoring cache snapshot of another version.", 1);
+
+                return false;
+            }
+
+            long previousDatabaseLoadTime = byteBuffer.getLong();
+            Map<String, Long> watermarkMap = new TreeMap<>();
+            int watermarkCount = byteBuffer.getInt();
+
+            for (int i = 0; i < watermarkCount; i++) {
+                watermarkMap.put(readString(byteBuffer), byteBuffer.getLong());
+            }
+
+            if (!watermarkMap.equals(getDatabaseWatermark())) {
+                plugin.infoMessage("Database changed since the cache snapshot was written, loading from the database.");
+
+                return false;
+            }
+
+            long checksum = byteBuffer.getLong();
+            CRC32 crc32 = new CRC32();
+
+            crc32.update(byteBuffer.duplicate());
+
+            if (crc32.getValue() != checksum) {
+                plugin.warningMessage("Cache snapshot is corrupt, loading from the database.");
+
+                return false;
+            }
+
+            Map<UUID, Grave> graveMap = new HashMap<>();
+            List<BlockData> blockDataList = new ArrayList<>();
+            List<EntityData> entityDataList = new ArrayList<>();
+            int graveCount = byteBuffer.getInt();
+
+            for (int i = 0; i < graveCount; i++) {
+                Grave grave = readGrave(byteBuffer);
+
+                graveMap.put(grave.getUUID(), grave);
+            }
+
+            int blockCount = byteBuffer.getInt();
+
+            for (int i = 0; i < blockCount; i++) {
+                Location location = LocationUtil.stringToLocation(readString(byteBuffer));
+
+                blockDataList.add(new BlockData(location, UUID.fromString(readString(byteBuffer)),
+                        readString(byteBuffer), readString(byteBuffer)));
+            }
+
+            int entityCount = byteBuffer.getInt();
+
+            for (int i = 0; i < entityCount; i++) {
+                EntityData.Type type = EntityData.Type.valueOf(readString(byteBuffer));
+                Location location = LocationUtil.stringToLocation(readString(byteBuffer));
+                UUID uuidEntity = UUID.fromString(readString(byteBuffer));
+                UUID uuidGrave = UUID.fromString(readString(byteBuffer));
+                int line = byteBuffer.getInt();
+
+                entityDataList.add(type == EntityData.Type.HOLOGRAM
+                        ? new HologramData(location, uuidEntity, uuidGrave, line)
+                        : new EntityData(location, uuidEntity, uuidGrave, type));
+            }
+
+            plugin.getCacheManager().getGraveMap().clear();
+            plugin.getCacheManager().getGraveMap().putAll(graveMap);
+
+            if (plugin.getGraveyardManager() != null) {
+                for (Grave grave : graveMap.values()) {
+                    plugin.getGraveyardManager().occupyGraveyardLocation(grave);
+                }
+            }
+
+            for (BlockData blockData : blockDataList) {
+                dataManager.getChunkData(blockData.getLocation()).addBlockData(blockData);
+            }
+
+            for (EntityData entityData : entityDataList) {
+                dataManager.getChunkData(entityData.getLocation()).addEntityData(entityData);
+            }
+
+            plugin.getLogger().info("Loaded " + graveCount + " graves, " + blockCount + " blocks and " + entityCount
+                    + " entities from the cache snapshot in " + (System.nanoTime() - start) / 1_000_000L + "ms"
+                    + (previousDatabaseLoadTime >= 0 ? ", loading graves from the database took "
+                    + previousDatabaseLoadTime + "ms." : "."));
+
+            databaseLoadTime = previousDatabaseLoadTime;
+
+            return true;
+        } catch (IOException | SQLException | RuntimeException exception) {
+            plugin.warningMessage("Unable to read the cache snapshot, loading from the database: "
+                    + exception.getMessage());
+            plugin.logStackTrace(exception);
+
+            return false;
+        } finally {
+            // A snapshot is only valid for the start after the shutdown that wrote it. Never delete it on exit, that
+            // would delete the snapshot written by this shutdown.
+            if (file.exists() && !file.delete()) {
+                plugin.warningMessage("Unable to delete the cache snapshot, it is replaced on shutdown.");
+            }
+        }
+    }
+
+    /**
+     * Reads the snapshot file into a heap buffer. The channel is closed before returning and the file is never
+     * mapped, a mapped file cannot be deleted on Windows until the mapping is garbage collected.
+     *
+     * @return The contents of the file.
+     */
+    private ByteBuffer readFile() throws IOException {
+        try (FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = fileChannel.size();
+
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("cache snapshot is too large (" + size + " bytes)");
+            }
+
+            ByteBuffer byteBuffer = ByteBuffer.allocate((int) size);
+
+            while (byteBuffer.hasRemaining() && fileChannel.read(byteBuffer) >= 0) {
+                // Read until the buffer is full
+            }
+
+            byteBuffer.flip();
+
+            return byteBuffer;
+        }
+    }
+
+    /**
+     * Writes the snapshot if the caches match the database. Must be called after every write reached the database
+     * and before the connection is closed.
+     */
+    public void save() {
+        long start = System.nanoTime();
+
+        try {
+            Map<String, Long> watermarkMap = getDatabaseWatermark();
+            Map<String, Long> cacheWatermarkMap = getCacheWatermark();
+
+            // The caches do not track revisions, the database revision is only stored to compare it on the next start
+            cacheWatermarkMap.put("grave.revision", watermarkMap.get("grave.revision"));
+
+            if (!watermarkMap.equals(cacheWatermarkMap)) {
+                plugin.debugMessage("Not writing a cache snapshot, the caches do not match the database.", 1);
+
+                return;
+            }
+
+            ByteArrayOutputStream payloadStream = new ByteArrayOutputStream();
+            DataOutputStream dataOutputStream = new DataOutputStream(payloadStream);
+            Collection<Grave> graveCollection = plugin.getCacheManager().getGraveMap().values();
+
+            dataOutputStream.writeInt(graveCollection.size());
+
+            for (Grave grave : graveCollection) {
+                writeGrave(dataOutputStream, grave);
+            }
+
+            List<BlockData> blockDataList = new ArrayList<>();
+            List<EntityData> entityDataList = new ArrayList<>();
+
+            for (ChunkData chunkData : plugin.getCacheManager().getChunkMap().values()) {
+                blockDataList.addAll(chunkData.getBlockDataMap().values());
+                entityDataList.addAll(chunkData.getEntityDataMap().values());
+            }
+
+            dataOutputStream.writeInt(blockDataList.size());
+
+            for (BlockData blockData : blockDataList) {
+                writeString(dataOutputStream, LocationUtil.locationToString(blockData.getLocation()));
+                writeString(dataOutputStream, blockData.getGraveUUID().toString());
+                writeString(dataOutputStream, blockData.getReplaceMaterial());
+                writeString(dataOutputStream, blockData.getReplaceData());
+            }
+
+            dataOutputStream.writeInt(entityDataList.size());
+
+            for (EntityData entityData : entityDataList) {
+                writeString(dataOutputStream, entityData.getType().name());
+                writeString(dataOutputStream, LocationUtil.locationToString(entityData.getLocation()));
+                writeString(dataOutputStream, entityData.getUUIDEntity().toString());
+                writeString(dataOutputStream, entityData.getUUIDGrave().toString());
+                dataOutputStream.writeInt(entityData instanceof HologramData ? ((HologramData) entityData).getLine() : 0);
+            }
+
+            dataOutputStream.flush();
+
+            byte[] payload = payloadStream.toByteArray();
+            CRC32 crc32 = new CRC32();
+
+            crc32.update(payload);
+
+            ByteArrayOutputStream headerStream = new ByteArrayOutputStream();
+            DataOutputStream headerOutputStream = new DataOutputStream(headerStream);
+
+            headerOutputStream.writeInt(MAGIC);
+            headerOutputStream.writeInt(VERSION);
+            headerOutputStream.writeLong(databaseLoadTime);
+            headerOutputStream.writeInt(watermarkMap.size());
+
+            for (Map.Entry<String, Long> entry : watermarkMap.entrySet()) {
+                writeString(headerOutputStream, entry.getKey());
+                headerOutputStream.writeLong(entry.getValue());
+            }
+
+            headerOutputStream.writeLong(crc32.getValue());
+            headerOutputStream.flush();
+
+            File temporaryFile = new File(file.getParentFile(), file.getName() + ".tmp");
+
+            try (FileChannel fileChannel = FileChannel.open(temporaryFile.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer[] byteBuffers = {ByteBuffer.wrap(headerStream.toByteArray()), ByteBuffer.wrap(payload)};
+
+                while (byteBuffers[1].hasRemaining()) {
+                    fileChannel.write(byteBuffers);
+                }
+
+                fileChannel.force(true);
+            }
+
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            plugin.debugMessage("Wrote cache snapshot with " + graveCollection.size() + " graves in "
+                    + (System.nanoTime() - start) / 1_000_000L + "ms.", 1);
+        } catch (IOException | SQLException | RuntimeException exception) {
+            plugin.warningMessage("Unable to write the cache snapshot: " + exception.getMessage());
+            plugin.logStackTrace(exception);
+        }
+    }
+
+    /**
+     * Gets the watermark of the tables the snapshot covers from the database.
+     *
+     * @return The watermark values by name.
+     */
+    Map<String, Long> getDatabaseWatermark() throws SQLException {
+        Map<String, Long> watermarkMap = new TreeMap<>();
+
+        try (Connection connection = dataManager.getConnection()) {
+            if (connection == null) {
+                throw new SQLException("no database connection");
+            }
+
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("SELECT COUNT(*), MAX(time_creation), "
+                         + "SUM(is_abandoned), SUM(protection), SUM(revision) FROM grave")) {
+                resultSet.next();
+                watermarkMap.put("grave.count", resultSet.getLong(1));
+                watermarkMap.put("grave.time_creation", resultSet.getLong(2));
+                watermarkMap.put("grave.is_abandoned", resultSet.getLong(3));
+                watermarkMap.put("grave.protection", resultSet.getLong(4));
+                // Inventory, experience, timer and owner updates change no count, the revision catches them
+                watermarkMap.put("grave.revision", resultSet.getLong(5));
+            }
+
+            watermarkMap.put("block.count", getRowCount(connection, "block"));
+
+            for (EntityData.Type type : EntityData.Type.values()) {
+                watermarkMap.put(dataManager.entityDataTypeTable(type) + ".count",
+                        getRowCount(connection, dataManager.entityDataTypeTable(type)));
+            }
+        }
+
+        if (dataManager.getGraveChangeFeed() != null) {
+            // Updates of other servers do not change the counts, the newest change id catches them
+            watermarkMap.put("grave_change.id", dataManager.getGraveChangeFeed().getMaxId());
+        }
+
+        return watermarkMap;
+    }
+
+    /**
+     * Gets the watermark of the caches, matching the database watermark if they are in sync.
+     *
+     * @return The watermark values by name.
+     */
+    private Map<String, Long> getCacheWatermark() {
+        Map<String, Long> watermarkMap = new TreeMap<>();
+        Collection<Grave> graveCollection = plugin.getCacheManager().getGraveMap().values();
+
+        watermarkMap.put("grave.count", (long) graveCollection.size());
+        watermarkMap.put("grave.time_creation", graveCollection.stream().mapToLong(Grave::getTimeCreation)
+                .max().orElse(0));
+        watermarkMap.put("grave.is_abandoned", graveCollection.stream().filter(Grave::isAbandoned).count());
+        watermarkMap.put("grave.protection", graveCollection.stream().filter(Grave::getProtection).count());
+
+        long blockCount = 0;
+        Map<EntityData.Type, Long> entityCountMap = new EnumMap<>(EntityData.Type.class);
+
+        for (ChunkData chunkData : plugin.getCacheManager().getChunkMap().values()) {
+            blockCount += chunkData.getBlockDataMap().size();
+
+            for (EntityData entityData : chunkData.getEntityDataMap().values()) {
+                entityCountMap.merge(entityData.getType(), 1L, Long::sum);
+            }
+        }
+
+        watermarkMap.put("block.count", blockCount);
+
+        for (EntityData.Type type : EntityData.Type.values()) {
+            watermarkMap.put(dataManager.entityDataTypeTable(type) + ".count", entityCountMap.getOrDefault(type, 0L));
+        }
+
+        if (dataManager.getGraveChangeFeed() != null) {
+            watermarkMap.put("grave_change.id", dataManager.getGraveChangeFeed().getLastId());
+        }
+
+        return watermarkMap;
+    }
+
+    /**
+     * Counts the rows of a table, tables of integrations that were never enabled count as empty.
+     *
+     * @param connection The connection.
+     * @param table      The table.
+     * @return The number of rows.
+     */
+    private long getRowCount(Connection connection, String table) {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            return resultSet.next() ? resultSet.getLong(1) : 0;
+        } catch (SQLException exception) {
+            return 0;
+        }
+    }
+
+    private void writeGrave(DataOutputStream dataOutputStream, Grave grave) throws IOException {
+        writeString(dataOutputStream, grave.getUUID().toString());
+        writeString(dataOutputStream, grave.getOwnerType() != null ? grave.getOwnerType().name() : null);
+        writeString(dataOutputStream, grave.getOwnerName());
+        writeString(dataOutputStream, grave.getOwnerNameDisplay());
+        writeString(dataOutputStream, grave.getOwnerUUID() != null ? grave.getOwnerUUID().toString() : null);
+        writeString(dataOutputStream, grave.getOwnerTexture());
+        writeString(dataOutputStream, grave.getOwnerTextureSignature());
+        writeString(dataOutputStream, grave.getKillerType() != null ? grave.getKillerType().name() : null);
+        writeString(dataOutputStream, grave.getKillerName());
+        writeString(dataOutputStream, grave.getKillerNameDisplay());
+        writeString(dataOutputStream, grave.getKillerUUID() != null ? grave.getKillerUUID().toString() : null);
+        writeString(dataOutputStream, grave.getLocationDeath() != null
+                ? LocationUtil.locationToString(grave.getLocationDeath()) : null);
+        dataOutputStream.writeFloat(grave.getYaw());
+        dataOutputStream.writeFloat(grave.getPitch());
+        writeString(dataOutputStream, InventoryUtil.inventoryToString(grave.getInventory()));
+        writeString(dataOutputStream, Base64Util.objectToBase64(getEquipmentMap(grave)));
+        dataOutputStream.writeInt(grave.getExperience());
+        dataOutputStream.writeBoolean(grave.getProtection());
+        dataOutputStream.writeBoolean(grave.isAbandoned());
+        dataOutputStream.writeLong(grave.getTimeAlive());
+        dataOutputStream.writeLong(grave.getTimeProtection());
+        dataOutputStream.writeLong(grave.getTimeCreation());
+        writeString(dataOutputStream, grave.getPermissionList() != null && !grave.getPermissionList().isEmpty()
+                ? StringUtils.join(grave.getPermissionList(), "|") : null);
+    }
+
+    /**
+     * Gets the equipment of a grave keyed the way the grave table stores it. Graves loaded from the table already have
+     * their slots keyed by name.
+     *
+     * @param grave The grave.
+     * @return The equipment by slot name.
+     */
+    private static Map<String, ItemStack> getEquipmentMap(Grave grave) {
+        Map<String, ItemStack> equipmentMap = new HashMap<>();
+        Map<?, ItemStack> graveEquipmentMap = grave.getEquipmentMap();
+
+        for (Map.Entry<?, ItemStack> entry : graveEquipmentMap.entrySet()) {
+            if (entry.getValue() != null) {
+                Object slot = entry.getKey();
+
+                equipmentMap.put(slot instanceof Enum ? ((Enum<?>) slot).name() : String.valueOf(slot),
+                        entry.getValue());
+            }
+        }
+
+        return equipmentMap;
+    }
+
+    private Grave readGrave(ByteBuffer byteBuffer) {
+        Grave grave = new Grave(UUID.fromString(readString(byteBuffer)));
+        String ownerType = readString(byteBuffer);
+
+        grave.setOwnerType(ownerType != null ? EntityType.valueOf(ownerType) : null);
+        grave.setOwnerName(readString(byteBuffer));
+        grave.setOwnerNameDisplay(readString(byteBuffer));
+
+        String ownerUUID = readString(byteBuffer);
+
+        grave.setOwnerUUID(ownerUUID != null ? UUID.fromString(ownerUUID) : null);
+        grave.setOwnerTexture(readString(byteBuffer));
+        grave.setOwnerTextureSignature(readString(byteBuffer));
+
+        String killerType = readString(byteBuffer);
+
+        grave.setKillerType(killerType != null ? EntityType.valueOf(killerType) : null);
+        grave.setKillerName(readString(byteBuffer));
+        grave.setKillerNameDisplay(readString(byteBuffer));
+
+        String killerUUID = readString(byteBuffer);
+
+        grave.setKillerUUID(killerUUID != null ? UUID.fromString(killerUUID) : null);
+
+        String locationDeath = readString(byteBuffer);
+
+        grave.setLocationDeath(locationDeath != null ? LocationUtil.stringToLocation(locationDeath) : null);
+        grave.setYaw(byteBuffer.getFloat());
+        grave.setPitch(byteBuffer.getFloat());
+
+        String inventory = readString(byteBuffer);
+        String equipment = readString(byteBuffer);
+
+        grave.setExperience(byteBuffer.getInt());
+        grave.setProtection(byteBuffer.get() != 0);
+        grave.setAbandoned(byteBuffer.get() != 0);
+        grave.setTimeAlive(byteBuffer.getLong());
+        grave.setTimeProtection(byteBuffer.getLong());
+        grave.setTimeCreation(byteBuffer.getLong());
+
+        String permissions = readString(byteBuffer);
+
+        grave.setPermissionList(permissions != null
+                ? new ArrayList<>(Arrays.asList(permissions.split("\\|"))) : new ArrayList<>());
+        dataManager.setGraveInventory(grave, inventory, equipment);
+
+        return grave;
+    }
+
+    private static void writeString(DataOutputStream dataOutputStream, String string) throws IOException {
+        if (string == null) {
+            dataOutputStream.writeInt(-1);
+
+            return;
+        }
+
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+
+        dataOutputStream.writeInt(bytes.length);
+        dataOutputStream.write(bytes);
+    }
+
+    private static String readString(ByteBuffer byteBuffer) {
+        int length = byteBuffer.getInt();
+
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+
+        byteBuffer.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
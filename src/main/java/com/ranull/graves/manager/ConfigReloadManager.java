@@ -0,0 +1,305 @@
+package com.ranull.graves.manager;
+
+import com.ranull.graves.Graves;
+import com.ranull.graves.metric.Histogram;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Watches the config files and applies changes without a full reload.
+ * <p>
+ * Only the changed files are parsed again. The reloaded config is compared key by key with the previous one and only
+ * the parts of the plugin that read a changed key are reloaded. Everything else reads the config when it needs it and
+ * picks up the change by itself. {@code /graves reload} stays a full reload.
+ * </p>
+ */
+public final class ConfigReloadManager {
+    /**
+     * The main plugin instance associated with Graves.
+     * <p>
+     * This {@link Graves} instance represents the core plugin that this Graves is part of. It provides access
+     * to the plugin's functionality, configuration, and other services.
+     * </p>
+     */
+    private final Graves plugin;
+
+    /**
+     * The parts of the plugin that cache config values, in the order they are reloaded.
+     */
+    private final List<Dependent> dependentList;
+
+    private final Histogram reloadHistogram;
+    private WatchService watchService;
+    private Thread watchThread;
+
+    /**
+     * Initializes the ConfigReloadManager with the specified plugin instance and starts watching if enabled.
+     *
+     * @param plugin The Graves plugin instance.
+     */
+    public ConfigReloadManager(Graves plugin) {
+        this.plugin = plugin;
+        this.dependentList = new ArrayList<>();
+        this.reloadHistogram = plugin.getMetricManager().getHistogram("graves_config_reload_seconds",
+                "Time spent applying changed config files.");
+
+        // Grave settings can be set per permission and entity, they are matched without that prefix
+        addDependent("integrations", key -> key.startsWith("settings.integration."),
+                () -> plugin.getIntegrationManager().reload());
+        addDependent("holograms", key -> key.startsWith("settings.hologram."),
+                () -> plugin.getPacketHologramManager().reload());
+        addDependent("particles", key -> key.startsWith("settings.particle.") || getGraveKey(key).startsWith("particle."),
+                () -> plugin.getParticleManager().reload());
+        addDependent("entity lod", key -> key.startsWith("settings.lod."),
+                () -> plugin.getEntityLODManager().reload());
+        addDependent("recipes", key -> key.startsWith("settings.token."), () -> {
+            if (plugin.getRecipeManager() != null) {
+                plugin.getRecipeManager().reload();
+            }
+        });
+        addDependent("gui", key -> getGraveKey(key).startsWith("gui."),
+                () -> plugin.getGUIManager().reload());
+        addDependent("metrics", key -> key.startsWith("settings.metrics.prometheus."),
+                () -> plugin.getMetricManager().reload());
+        addDependent("storage", key -> key.startsWith("settings.storage."),
+                () -> plugin.warningMessage("Storage settings changed, restart the server to apply them."));
+        // The watcher is restarted on the next tick, after the batch that changed its settings was applied
+        addDependent("config watch", key -> key.startsWith("settings.config-watch."),
+                () -> plugin.getServer().getScheduler().runTask(plugin, this::reload));
+
+        reload();
+    }
+
+    /**
+     * Restarts the watcher with the current settings.
+     */
+    public void reload() {
+        unload();
+
+        if (plugin.getConfig().getBoolean("settings.config-watch.enabled", false)) {
+            try {
+                watchService = FileSystems.getDefault().newWatchService();
+
+                registerFolder(plugin.getConfigFolder());
+
+                if (new File(plugin.getDataFolder(), "config.yml").exists()) {
+                    registerFolder(plugin.getDataFolder()); // Single file config
+                }
+
+                long delay = Math.max(0, plugin.getConfig().getLong("settings.config-watch.delay", 1000));
+
+                watchThread = new Thread(() -> watch(watchService, delay), "GravesX Config Watcher");
+                watchThread.setDaemon(true);
+                watchThread.start();
+            } catch (IOException | UnsupportedOperationException exception) {
+                plugin.warningMessage("Unable to watch the config files, use /graves reload to apply changes: "
+                        + exception.getMessage());
+                unload();
+            }
+        }
+    }
+
+    /**
+     * Stops the watcher.
+     */
+    public void unload() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException ignored) {
+            }
+
+            watchService = null;
+        }
+
+        if (watchThread != null) {
+            watchThread.interrupt();
+            watchThread = null;
+        }
+    }
+
+    /**
+     * Reloads the config, parsing only the changed files, and reloads the parts of the plugin that depend on changed
+     * keys. Must be called on the main thread.
+     *
+     * @param changedFileSet The names of the changed files, for the log.
+     */
+    public void reloadChanged(Set<String> changedFileSet) {
+        long start = System.nanoTime();
+        Map<String, Object> previousMap = getValueMap(plugin.getConfig());
+
+        plugin.reloadConfig();
+
+        Map<String, Object> currentMap = getValueMap(plugin.getConfig());
+        Set<String> changedKeySet = new TreeSet<>();
+
+        for (Map.Entry<String, Object> entry : currentMap.entrySet()) {
+            if (!Objects.equals(entry.getValue(), previousMap.get(entry.getKey()))) {
+                changedKeySet.add(entry.getKey());
+            }
+        }
+
+        for (String key : previousMap.keySet()) {
+            if (!currentMap.containsKey(key)) {
+                changedKeySet.add(key);
+            }
+        }
+
+        if (changedKeySet.isEmpty()) {
+            plugin.debugMessage("Config files " + changedFileSet + " changed without changing any setting.", 2);
+
+            return;
+        }
+
+        List<String> reloadedList = new ArrayList<>();
+
+        for (Dependent dependent : dependentList) {
+            if (changedKeySet.stream().anyMatch(dependent.predicate)) {
+                try {
+                    dependent.reload.run();
+                    reloadedList.add(dependent.name);
+                } catch (RuntimeException exception) {
+                    plugin.warningMessage("Failed to reload " + dependent.name + " after a config change.");
+                    plugin.logStackTrace(exception);
+                }
+            }
+        }
+
+        reloadHistogram.recordSince(start);
+
+        for (String key : changedKeySet) {
+            plugin.debugMessage("Config key " + key + " changed.", 2);
+        }
+
+        plugin.infoMessage("Applied " + changedKeySet.size() + " changed config "
+                + (changedKeySet.size() == 1 ? "setting" : "settings") + " from " + String.join(", ", changedFileSet)
+                + " in " + String.format(Locale.ROOT, "%.2fms", (System.nanoTime() - start) / 1_000_000D)
+                + (reloadedList.isEmpty() ? "." : ", reloaded " + String.join(", ", reloadedList) + "."));
+    }
+
+    private void addDependent(String name, Predicate<String> predicate, Runnable reload) {
+        dependentList.add(new Dependent(name, predicate, reload));
+    }
+
+    /**
+     * Registers a folder and its sub folders with the watch service.
+     *
+     * @param folder The folder.
+     */
+    private void registerFolder(File folder) throws IOException {
+        if (!folder.isDirectory()) {
+            return;
+        }
+
+        folder.toPath().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+
+        File[] files = folder.listFiles(File::isDirectory);
+
+        if (files != null && !folder.equals(plugin.getDataFolder())) {
+            for (File file : files) {
+                registerFolder(file);
+            }
+        }
+    }
+
+    /**
+     * Waits for changed config files and reloads them on the main thread once no file changed for the delay, so an
+     * editor saving several times or several files only causes one reload.
+     *
+     * @param watchService The watch service.
+     * @param delay        The delay in milliseconds.
+     */
+    private void watch(WatchService watchService, long delay) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Set<String> changedFileSet = new TreeSet<>();
+                WatchKey watchKey = watchService.take();
+
+                while (watchKey != null) {
+                    Path folder = (Path) watchKey.watchable();
+
+                    for (WatchEvent<?> watchEvent : watchKey.pollEvents()) {
+                        if (watchEvent.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            changedFileSet.add("*");
+                        } else {
+                            String name = watchEvent.context().toString();
+
+                            if (name.endsWith(".yml") && !name.startsWith(".") && (!folder.toFile()
+                                    .equals(plugin.getDataFolder()) || name.equals("config.yml"))) {
+                                changedFileSet.add(name);
+                            }
+                        }
+                    }
+
+                    watchKey.reset();
+                    watchKey = watchService.poll(delay, TimeUnit.MILLISECONDS);
+                }
+
+                if (!changedFileSet.isEmpty() && plugin.isEnabled()) {
+                    plugin.getServer().getScheduler().runTask(plugin, () -> reloadChanged(changedFileSet));
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ignored) {
+        }
+    }
+
+    /**
+     * Gets every setting of a config, without the sections.
+     *
+     * @param configurationSection The config.
+     * @return The values by key.
+     */
+    private static Map<String, Object> getValueMap(ConfigurationSection configurationSection) {
+        Map<String, Object> valueMap = new HashMap<>();
+
+        for (Map.Entry<String, Object> entry : configurationSection.getValues(true).entrySet()) {
+            if (!(entry.getValue() instanceof ConfigurationSection)) {
+                valueMap.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        return valueMap;
+    }
+
+    /**
+     * Gets the grave setting a key belongs to, without the default, permission or entity prefix.
+     *
+     * @param key The key.
+     * @return The grave setting, or an empty string if the key is not a grave setting.
+     */
+    private static String getGraveKey(String key) {
+        if (key.startsWith("settings.default.default.")) {
+            return key.substring("settings.default.default.".length());
+        }
+
+        if (key.startsWith("settings.permission.") || key.startsWith("settings.entity.")) {
+            String[] parts = key.split("\\.", 4);
+
+            return parts.length == 4 ? parts[3] : "";
+        }
+
+        return "";
+    }
+
+    /**
+     * A part of the plugin that caches config values.
+     */
+    private static final class Dependent {
+        private final String name;
+        private final Predicate<String> predicate;
+        private final Runnable reload;
+
+        private Dependent(String name, Predicate<String> predicate, Runnable reload) {
+            this.name = name;
+            this.predicate = predicate;
+            this.reload = reload;
+        }
+    }
+}
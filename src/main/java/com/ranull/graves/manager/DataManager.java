@@ -5,6 +5,8 @@ import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import com.ranull.graves.Graves;
 import com.ranull.graves.data.*;
+import com.ranull.graves.metric.Counter;
+import com.ranull.graves.metric.Histogram;
 import com.ranull.graves.type.Grave;
 import com.ranull.graves.util.*;
 import org.apache.commons.lang3.StringUtils;
@@ -22,6 +24,8 @@ import java.sql.Date;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
@@ -29,6 +33,12 @@ import java.util.stream.Collectors;
  * Manages data storage and retrieval for the Graves plugin.
  */
 public final class DataManager {
+    /**
+     * The entity tables of integrations.
+     */
+    private static final List<String> INTEGRATION_TABLE_LIST = Collections.unmodifiableList(Arrays.asList(
+            "furniturelib", "furnitureengine", "itemsadder", "oraxen", "playernpc", "citizensnpc"));
+
     /**
      * The main plugin instance associated with Graves.
      * <p>
@@ -62,6 +72,40 @@ public final class DataManager {
      */
     private Server webServer;  // H2 Web Server
 
+    /**
+     * The latency of database writes.
+     */
+    private final Histogram writeHistogram;
+
+    /**
+     * The number of database writes that failed.
+     */
+    private final Counter writeErrorCounter;
+
+    /**
+     * The journal grave writes go through, or null if journaling is disabled.
+     */
+    private GraveJournal graveJournal;
+
+    /**
+     * The cache snapshot written on shutdown, or null if snapshots are disabled.
+     */
+    private CacheSnapshot cacheSnapshot;
+
+    /**
+     * The feed of grave changes shared with other servers, or null if it is disabled.
+     */
+    private GraveChangeFeed graveChangeFeed;
+
+    /**
+     * Writes waiting to be applied in order when the journal is not used.
+     */
+    private final Queue<Runnable> writeQueue;
+
+    /**
+     * Whether an async task is applying the write queue.
+     */
+    private final AtomicBoolean writeDraining;
 
     /**
      * Initializes the DataManager with the specified plugin instance and sets up the database connection.
@@ -69,7 +113,21 @@ public final class DataManager {
      * @param plugin the Graves plugin instance.
      */
     public DataManager(Graves plugin) {
-        this.plugin = plugin;
+        this(plugin, Type.INVALID, null);
+
+        registerMetrics();
+
+        if (plugin.getConfig().getBoolean("settings.storage.journal.enabled", true)) {
+            graveJournal = new GraveJournal(plugin, this);
+        }
+
+        if (plugin.getConfig().getBoolean("settings.storage.snapshot.enabled", true)) {
+            cacheSnapshot = new CacheSnapshot(plugin, this);
+        }
+
+        if (plugin.getConfig().getBoolean("settings.storage.change-feed.enabled", false)) {
+            graveChangeFeed = new GraveChangeFeed(plugin, this);
+        }
 
         String typeStr = plugin.getConfig().getString("settings.storage.type", "SQLITE");
         try {
@@ -91,7 +149,6 @@ public final class DataManager {
             case MARIADB:
                 loadType(this.type);
                 if (testDatabaseConnection()) {
-                    migrate();
                     load();
                     keepConnectionAlive(); // If we don't enable this, connection will close or time out :/
                 } else {
@@ -103,7 +160,6 @@ public final class DataManager {
                 loadType(Type.MSSQL);
                 if (testDatabaseConnection()) {
 
-                    migrate();
                     load();
                     keepConnectionAlive();
                 } else {
@@ -117,6 +173,26 @@ public final class DataManager {
         }
     }
 
+    /**
+     * Initializes the DataManager on an existing data source. Nothing is loaded and the journal, snapshot and change
+     * feed are disabled.
+     *
+     * @param plugin     the Graves plugin instance.
+     * @param type       the type of database.
+     * @param dataSource the data source, or null to set it up later.
+     */
+    DataManager(Graves plugin, Type type, HikariDataSource dataSource) {
+        this.plugin = plugin;
+        this.type = type;
+        this.dataSource = dataSource;
+        this.writeQueue = new ConcurrentLinkedQueue<>();
+        this.writeDraining = new AtomicBoolean();
+        this.writeHistogram = plugin.getMetricManager().getHistogram("graves_db_write_seconds",
+                "Latency of database writes.");
+        this.writeErrorCounter = plugin.getMetricManager().getCounter("graves_db_write_errors_total",
+                "Database writes that failed.");
+    }
+
     public String getType() {
         switch (type) {
             case H2:
@@ -207,18 +283,51 @@ public final class DataManager {
      */
     private void load() {
         plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            if (type != Type.SQLITE) {
+                migrate();
+            }
+
             try {
                 loadTables();
             } catch (SQLException e) {
                 throw new RuntimeException(e);
             }
 
-            loadGraveMap();
-            loadBlockMap();
+            int replayed = graveJournal != null ? graveJournal.start() : 0;
+            // Changes of other servers up to here are included in the graves loaded below
+            long changeId = graveChangeFeed != null ? graveChangeFeed.getMaxId() : 0;
+            // Replayed journal entries may have changed graves without changing the snapshot watermark
+            boolean fromSnapshot = cacheSnapshot != null && replayed == 0 && cacheSnapshot.load();
+
+            if (!fromSnapshot) {
+                long start = System.nanoTime();
+
+                loadGraveMap();
+
+                long loadTime = (System.nanoTime() - start) / 1_000_000L;
+
+                plugin.getLogger().info("Loaded graves from the database in " + loadTime + "ms.");
+
+                if (cacheSnapshot != null) {
+                    cacheSnapshot.setDatabaseLoadTime(loadTime);
+                }
+
+                loadBlockMap();
+            }
+
+            if (graveChangeFeed != null) {
+                graveChangeFeed.start(changeId);
+            }
+
             loadGraveyardsMap();
-            loadEntityMap("armorstand", EntityData.Type.ARMOR_STAND);
-            loadEntityMap("itemframe", EntityData.Type.ITEM_FRAME);
-            loadHologramMap();
+
+            if (!fromSnapshot) {
+                loadEntityMap("armorstand", EntityData.Type.ARMOR_STAND);
+                loadEntityMap("itemframe", EntityData.Type.ITEM_FRAME);
+                loadHologramMap();
+            } else {
+                plugin.getServer().getScheduler().runTask(plugin, this::onHologramsLoaded);
+            }
 
             Map<String, EntityData.Type> integrationMap = new HashMap<>();
             integrationMap.put("furniturelib", EntityData.Type.FURNITURELIB);
@@ -233,7 +342,10 @@ public final class DataManager {
                 EntityData.Type type = entry.getValue();
 
                 if (isIntegrationEnabled(integration)) {
-                    loadEntityDataMap(integration, type);
+                    if (!fromSnapshot) {
+                        loadEntityDataMap(integration, type);
+                    }
+
                     if (integration.equals("playernpc")) {
                         plugin.getIntegrationManager().getPlayerNPC().createCorpses();
                     } else if (integration.equals("citizensnpc")) {
@@ -241,6 +353,12 @@ public final class DataManager {
                     }
                 }
             }
+
+            if (plugin.getIntegrationManager().hasWorldEdit()) {
+                plugin.getServer().getScheduler().runTask(plugin, () -> plugin.getIntegrationManager()
+                        .getWorldEdit().restoreOrphanedSchematics());
+            }
+
         });
     }
 
@@ -269,39 +387,69 @@ public final class DataManager {
     }
 
     /**
-     * Loads database tables.
+     * Loads database tables. The schema version is read first and migrations only run when it is behind, so a
+     * startup on the latest version does not probe table metadata.
      *
      * @throws SQLException if an SQL error occurs.
      */
-    private void loadTables() throws SQLException {
-        setupGraveTable();
-        setupBlockTable();
-        setupHologramTable();
-        setupGraveyardsTable();
-        setupEntityTables();
+    void loadTables() throws SQLException {
+        SchemaManager schemaManager = new SchemaManager(plugin, type);
+
+        schemaManager.addMigration(1, "Create or update base tables", connection -> {
+            // Databases from before the version table may lack columns, so this step still probes them once
+            setupGraveTable(connection);
+            setupBlockTable(connection);
+            setupHologramTable(connection);
+            setupGraveyardsTable(connection);
+            setupEntityTable(connection, "armorstand");
+            setupEntityTable(connection, "itemframe");
+        });
+        schemaManager.addMigration(2, "Add secondary indexes", connection ->
+                new DatabaseIndexManager(plugin, type).setupIndexes(connection, getEntityTableList()));
+        schemaManager.addMigration(3, "Add graveyard plot table", this::setupGraveyardPlotTable);
+        schemaManager.addMigration(4, "Add grave change feed tables", this::setupGraveChangeTables);
+        schemaManager.addMigration(5, "Add integration entity tables", this::setupIntegrationTables);
+        schemaManager.addMigration(6, "Add grave revision column", connection ->
+                addColumnIfNotExists(connection, "grave", "revision", "BIGINT NOT NULL DEFAULT 0"));
+
+        try (Connection connection = getConnection()) {
+            if (connection == null || !schemaManager.migrate(connection)) {
+                throw new SQLException("Database schema could not be brought to version "
+                        + schemaManager.getLatestVersion() + ".");
+            }
+        }
     }
 
     /**
-     * Sets up entity tables.
+     * Sets up the entity tables of every integration, including their indexes. They are created whether or not the
+     * integration is enabled, so enabling an integration later does not need a table check on startup.
      *
+     * @param connection the connection of the migration.
      * @throws SQLException if an SQL error occurs.
      */
-    private void setupEntityTables() throws SQLException {
-        Map<String, Boolean> integrationMap = new HashMap<>();
-        integrationMap.put("armorstand", true);
-        integrationMap.put("itemframe", true);
-        integrationMap.put("furniturelib", plugin.getIntegrationManager().hasFurnitureLib());
-        integrationMap.put("furnitureengine", plugin.getIntegrationManager().hasFurnitureEngine());
-        integrationMap.put("itemsadder", plugin.getIntegrationManager().hasItemsAdder());
-        integrationMap.put("oraxen", plugin.getIntegrationManager().hasOraxen());
-        integrationMap.put("playernpc", plugin.getIntegrationManager().hasPlayerNPC());
-        integrationMap.put("citizensnpc", plugin.getIntegrationManager().hasCitizensNPC());
+    private void setupIntegrationTables(Connection connection) throws SQLException {
+        for (String integrationTable : INTEGRATION_TABLE_LIST) {
+            setupEntityTable(connection, integrationTable);
+        }
+
+        new DatabaseIndexManager(plugin, type).setupIndexes(connection, INTEGRATION_TABLE_LIST);
+    }
+
+    /**
+     * Gets the names of the entity tables in use.
+     *
+     * @return the armor stand and item frame tables and the tables of enabled integrations.
+     */
+    private List<String> getEntityTableList() {
+        List<String> entityTableList = new ArrayList<>(Arrays.asList("armorstand", "itemframe"));
 
-        for (Map.Entry<String, Boolean> entry : integrationMap.entrySet()) {
-            if (entry.getValue()) {
-                setupEntityTable(entry.getKey());
+        for (String integrationTable : INTEGRATION_TABLE_LIST) {
+            if (isIntegrationEnabled(integrationTable)) {
+                entityTableList.add(integrationTable);
             }
         }
+
+        return entityTableList;
     }
 
     /**
@@ -330,7 +478,6 @@ public final class DataManager {
             case MARIADB:
                 loadType(type);
                 if (testDatabaseConnection()) {
-                    migrate();
                     load();
                     keepConnectionAlive(); // If we don't enable this, connection will close or time out :/
                 } else {
@@ -341,7 +488,6 @@ public final class DataManager {
             case MSSQL:
                 loadType(Type.MSSQL);
                 if (testDatabaseConnection()) {
-                    migrate();
                     load();
                     keepConnectionAlive();
                 } else {
@@ -398,6 +544,25 @@ public final class DataManager {
         }
     }
 
+    /**
+     * Registers the gauges of the grave cache and the connection pool. The pool gauges read the current data source,
+     * so they follow a reconnect.
+     */
+    private void registerMetrics() {
+        MetricManager metricManager = plugin.getMetricManager();
+
+        metricManager.registerGauge("graves_graves_loaded", "Graves in the cache.",
+                () -> plugin.getCacheManager().getGraveMap().size());
+        metricManager.registerGauge("graves_db_pool_active_connections", "Database connections in use.",
+                () -> dataSource.getHikariPoolMXBean().getActiveConnections());
+        metricManager.registerGauge("graves_db_pool_idle_connections", "Idle database connections.",
+                () -> dataSource.getHikariPoolMXBean().getIdleConnections());
+        metricManager.registerGauge("graves_db_pool_pending_threads", "Threads waiting for a database connection.",
+                () -> dataSource.getHikariPoolMXBean().getThreadsAwaitingConnection());
+        metricManager.registerGauge("graves_db_pool_max_connections", "Maximum size of the database connection pool.",
+                () -> dataSource.getMaximumPoolSize());
+    }
+
     private void checkMariaDBasMySQL() {
         try (Connection connection = dataSource.getConnection();
              Statement statement = connection.createStatement()) {
@@ -448,7 +613,10 @@ public final class DataManager {
         String journal_mode = plugin.getConfig().getString("settings.storage.sqlite.journal-mode", "WAL");
         String synchronous = plugin.getConfig().getString("settings.storage.sqlite.synchronous", "OFF");
 
-        config.setJdbcUrl("jdbc:sqlite:" + plugin.getDataFolder() + File.separator + "data" + File.separator + "data.db");
+        String file = plugin.getConfig().getString("settings.storage.sqlite.file", "");
+
+        config.setJdbcUrl("jdbc:sqlite:" + (file != null && !file.isEmpty() ? file
+                : plugin.getDataFolder() + File.separator + "data" + File.separator + "data.db"));
         config.setConnectionTimeout(30000);
         config.setIdleTimeout(600000);
         config.setMaxLifetime(1800000);
@@ -536,14 +704,16 @@ public final class DataManager {
      * @param config the HikariConfig to configure.
      */
     private void configureH2(HikariConfig config) {
-        String filePath = plugin.getDataFolder() + File.separator + "data" + File.separator + "graves.data";
+        String file = plugin.getConfig().getString("settings.storage.h2.file", "");
+        String filePath = file != null && !file.isEmpty() ? file
+                : "./" + plugin.getDataFolder() + File.separator + "data" + File.separator + "graves.data";
         String username = plugin.getConfig().getString("settings.storage.h2.username", "sa");
         String password = plugin.getConfig().getString("settings.storage.h2.password", "");
         long maxLifetime = plugin.getConfig().getLong("settings.storage.h2.maxLifetime", 1800000);
         int maxConnections = plugin.getConfig().getInt("settings.storage.h2.maxConnections", 50); // Increased pool size
         long connectionTimeout = plugin.getConfig().getLong("settings.storage.h2.connectionTimeout", 30000);
 
-        config.setJdbcUrl("jdbc:h2:file:./" + filePath + ";AUTO_SERVER=TRUE");
+        config.setJdbcUrl("jdbc:h2:file:" + filePath + ";AUTO_SERVER=TRUE");
         config.setUsername(username);
         config.setPassword(password);
         config.addDataSourceProperty("autoReconnect", "true");
@@ -713,17 +883,42 @@ public final class DataManager {
         } else {
             chunkData = new ChunkData(location);
             plugin.getCacheManager().getChunkMap().put(chunkString, chunkData);
+            addLoadedChunkData(chunkString, chunkData);
         }
         return chunkData;
     }
 
+    /**
+     * Adds new chunk data to the loaded chunk map if its chunk is already loaded. Chunks loaded later are added by
+     * the chunk load listener. Chunk data created off the main thread is checked on the next tick.
+     *
+     * @param chunkString the chunk identifier.
+     * @param chunkData   the new chunk data.
+     */
+    private void addLoadedChunkData(String chunkString, ChunkData chunkData) {
+        if (plugin.getServer().isPrimaryThread()) {
+            if (chunkData.isLoaded()) {
+                plugin.getCacheManager().getLoadedChunkMap().put(chunkString, chunkData);
+            }
+        } else {
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                if (plugin.getCacheManager().getChunkMap().get(chunkString) == chunkData && chunkData.isLoaded()) {
+                    plugin.getCacheManager().getLoadedChunkMap().put(chunkString, chunkData);
+                }
+            });
+        }
+    }
+
     /**
      * Removes chunk data.
      *
      * @param chunkData the chunk data to remove.
      */
     public void removeChunkData(ChunkData chunkData) {
-        plugin.getCacheManager().getChunkMap().remove(LocationUtil.chunkToString(chunkData.getLocation()));
+        String chunkString = LocationUtil.chunkToString(chunkData.getLocation());
+
+        plugin.getCacheManager().getChunkMap().remove(chunkString);
+        plugin.getCacheManager().getLoadedChunkMap().remove(chunkString);
     }
 
     /**
@@ -733,8 +928,29 @@ public final class DataManager {
      * @return the list of columns.
      */
     public List<String> getColumnList(String tableName) {
+        try (Connection connection = getConnection()) {
+            if (connection != null) {
+                return getColumnList(connection, tableName);
+            }
+        } catch (SQLException exception) {
+            plugin.getLogger().severe("Error occurred while getting Column List: " + exception.getMessage());
+            plugin.logStackTrace(exception);
+        }
+
+        return new ArrayList<>();
+    }
+
+    /**
+     * Retrieves a list of columns for a specified table, using the given connection.
+     *
+     * @param connection the database connection.
+     * @param tableName  the table name.
+     * @return the list of columns.
+     * @throws SQLException if a database access error occurs.
+     */
+    private List<String> getColumnList(Connection connection, String tableName) throws SQLException {
         List<String> columnList = new ArrayList<>();
-        String query = null;
+        String query;
 
         // Determine the query based on the database type
         switch (type) {
@@ -759,27 +975,19 @@ public final class DataManager {
                 return columnList;
         }
 
-        try (Connection connection = getConnection();
-             Statement statement = connection != null ? connection.createStatement() : null;
-             ResultSet resultSet = statement != null ? statement.executeQuery(query) : null) {
-
-            if (resultSet != null) {
-                while (resultSet.next()) {
-                    String columnName;
-                    if (type == Type.MYSQL || type == Type.MARIADB) {
-                        columnName = resultSet.getString("Field");
-                    } else if (type == Type.SQLITE) {
-                        columnName = resultSet.getString("name");
-                    } else {
-                        columnName = resultSet.getString("COLUMN_NAME");
-                    }
-                    columnList.add(columnName);
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(query)) {
+            while (resultSet.next()) {
+                String columnName;
+                if (type == Type.MYSQL || type == Type.MARIADB) {
+                    columnName = resultSet.getString("Field");
+                } else if (type == Type.SQLITE) {
+                    columnName = resultSet.getString("name");
+                } else {
+                    columnName = resultSet.getString("COLUMN_NAME");
                 }
+                columnList.add(columnName);
             }
-        } catch (SQLException exception) {
-            plugin.getLogger().severe("Error occurred while getting Column List: " + exception.getMessage());
-            plugin.getLogger().severe("Query: " + query);
-            plugin.logStackTrace(exception);
         }
 
         return columnList;
@@ -792,8 +1000,26 @@ public final class DataManager {
      * @return true if the table exists, false otherwise.
      */
     public boolean tableExists(String tableName) {
-        ResultSet resultSet = null;
-        String query = null;
+        try (Connection connection = getConnection()) {
+            return connection != null && tableExists(connection, tableName);
+        } catch (SQLException exception) {
+            plugin.getLogger().severe("Error occurred while checking if table exists: " + exception.getMessage());
+            plugin.logStackTrace(exception);
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks if a table exists in the database, using the given connection.
+     *
+     * @param connection the database connection.
+     * @param tableName  the table name.
+     * @return true if the table exists, false otherwise.
+     * @throws SQLException if a database access error occurs.
+     */
+    private boolean tableExists(Connection connection, String tableName) throws SQLException {
+        String query;
 
         // Determine the query based on the database type
         switch (type) {
@@ -818,12 +1044,9 @@ public final class DataManager {
                 return false;
         }
 
-        try (Connection connection = getConnection();
-             Statement statement = connection != null ? connection.createStatement() : null) {
-            if (statement != null) {
-                resultSet = statement.executeQuery(query);
-            }
-            if (resultSet != null && resultSet.next()) {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(query)) {
+            if (resultSet.next()) {
                 // For PostgreSQL and H2, check if the result indicates the table exists
                 if (type == Type.POSTGRESQL) {
                     return resultSet.getBoolean(1);
@@ -835,20 +1058,6 @@ public final class DataManager {
                     return true; // For MySQL, MariaDB, and SQLite, table exists if the result is returned
                 }
             }
-        } catch (NullPointerException | SQLException exception) {
-            plugin.getLogger().severe("Error occurred while checking if table exists: " + exception.getMessage());
-            plugin.getLogger().severe("Query: " + query);
-            plugin.logStackTrace(exception);
-        } finally {
-            if (resultSet != null) {
-                try {
-                    resultSet.close();
-                } catch (SQLException exception) {
-                    plugin.getLogger().severe("Error occurred while closing resultSet: " + exception.getMessage());
-                    plugin.getLogger().severe("Result Set: " + resultSet);
-                    plugin.logStackTrace(exception);
-                }
-            }
         }
 
         return false;
@@ -857,13 +1066,15 @@ public final class DataManager {
     /**
      * Adds a column to a table if it does not exist.
      *
-     * @param tableName       the table name.
-     * @param columnName      the column name.
+     * @param connection       the database connection.
+     * @param tableName        the table name.
+     * @param columnName       the column name.
      * @param columnDefinition the column definition.
      * @throws SQLException if an SQL error occurs.
      */
-    private void addColumnIfNotExists(String tableName, String columnName, String columnDefinition) throws SQLException {
-        List<String> columnList = getColumnList(tableName);
+    private void addColumnIfNotExists(Connection connection, String tableName, String columnName,
+                                      String columnDefinition) throws SQLException {
+        List<String> columnList = getColumnList(connection, tableName);
 
         if (!columnList.contains(columnName)) {
             String query;
@@ -895,20 +1106,21 @@ public final class DataManager {
                     return;
             }
 
-            executeUpdate(query, new Object[0]);
+            executeSchemaUpdate(connection, query);
         }
     }
 
     /**
      * Sets up the grave table in the database.
      *
+     * @param connection the connection of the migration.
      * @throws SQLException if an SQL error occurs.
      */
-    public void setupGraveTable() throws SQLException {
+    public void setupGraveTable(Connection connection) throws SQLException {
         String name = "grave";
-        if (!tableExists(name)) {
+        if (!tableExists(connection, name)) {
             if (type == Type.H2 || type == Type.POSTGRESQL) {
-                executeUpdate("CREATE TABLE IF NOT EXISTS " + name + " (" +
+                executeSchemaUpdate(connection, "CREATE TABLE IF NOT EXISTS " + name + " (" +
                         "uuid VARCHAR(255) UNIQUE,\n" +
                         "owner_type VARCHAR(255),\n" +
                         "owner_name VARCHAR(255),\n" +
@@ -931,10 +1143,10 @@ public final class DataManager {
                         "time_alive BIGINT,\n" +
                         "time_protection BIGINT,\n" +
                         "time_creation BIGINT,\n" +
-                        "permissions TEXT);", new Object[0]);
+                        "permissions TEXT);");
             } else if (type == Type.MSSQL) {
-                // MS SQL table creation logic
-                executeUpdate("CREATE TABLE IF NOT EXISTS " + name + " (" +
+                // MS SQL table creation logic, MS SQL has no IF NOT EXISTS
+                executeSchemaUpdate(connection, "CREATE TABLE " + name + " (" +
                         "uuid NVARCHAR(255) UNIQUE,\n" +
                         "owner_type NVARCHAR(255),\n" +
                         "owner_name NVARCHAR(255),\n" +
@@ -957,9 +1169,9 @@ public final class DataManager {
                         "time_alive BIGINT,\n" +
                         "time_protection BIGINT,\n" +
                         "time_creation BIGINT,\n" +
-                        "permissions NVARCHAR(MAX));", new Object[0]);
+                        "permissions NVARCHAR(MAX));");
             } else {
-                executeUpdate("CREATE TABLE IF NOT EXISTS " + name + " (" +
+                executeSchemaUpdate(connection, "CREATE TABLE IF NOT EXISTS " + name + " (" +
                         "uuid VARCHAR(255) UNIQUE,\n" +
                         "owner_type VARCHAR(255),\n" +
                         "owner_name VARCHAR(255),\n" +
@@ -982,100 +1194,176 @@ public final class DataManager {
                         "time_alive BIGINT,\n" +
                         "time_protection BIGINT,\n" +
                         "time_creation BIGINT,\n" +
-                        "permissions TEXT);", new Object[0]);
-            }
-        }
-
-        addColumnIfNotExists(name, "uuid", "VARCHAR(255) UNIQUE");
-        addColumnIfNotExists(name, "owner_type", "VARCHAR(255)");
-        addColumnIfNotExists(name, "owner_name", "VARCHAR(255)");
-        addColumnIfNotExists(name, "owner_name_display", "VARCHAR(255)");
-        addColumnIfNotExists(name, "owner_uuid", "VARCHAR(255)");
-        addColumnIfNotExists(name, "owner_texture", "TEXT");
-        addColumnIfNotExists(name, "owner_texture_signature", "TEXT");
-        addColumnIfNotExists(name, "killer_type", "VARCHAR(255)");
-        addColumnIfNotExists(name, "killer_name", "VARCHAR(255)");
-        addColumnIfNotExists(name, "killer_name_display", "VARCHAR(255)");
-        addColumnIfNotExists(name, "killer_uuid", "VARCHAR(255)");
-        addColumnIfNotExists(name, "location_death", "VARCHAR(255)");
+                        "permissions TEXT);");
+            }
+        }
+
+        addColumnIfNotExists(connection, name, "uuid", "VARCHAR(255) UNIQUE");
+        addColumnIfNotExists(connection, name, "owner_type", "VARCHAR(255)");
+        addColumnIfNotExists(connection, name, "owner_name", "VARCHAR(255)");
+        addColumnIfNotExists(connection, name, "owner_name_display", "VARCHAR(255)");
+        addColumnIfNotExists(connection, name, "owner_uuid", "VARCHAR(255)");
+        addColumnIfNotExists(connection, name, "owner_texture", "TEXT");
+        addColumnIfNotExists(connection, name, "owner_texture_signature", "TEXT");
+        addColumnIfNotExists(connection, name, "killer_type", "VARCHAR(255)");
+        addColumnIfNotExists(connection, name, "killer_name", "VARCHAR(255)");
+        addColumnIfNotExists(connection, name, "killer_name_display", "VARCHAR(255)");
+        addColumnIfNotExists(connection, name, "killer_uuid", "VARCHAR(255)");
+        addColumnIfNotExists(connection, name, "location_death", "VARCHAR(255)");
         if (type == Type.POSTGRESQL || type == Type.H2) {
-            addColumnIfNotExists(name, "yaw", "REAL");
-            addColumnIfNotExists(name, "pitch", "REAL");
+            addColumnIfNotExists(connection, name, "yaw", "REAL");
+            addColumnIfNotExists(connection, name, "pitch", "REAL");
         } else if (type == Type.MSSQL) {
-            addColumnIfNotExists(name, "yaw", "FLOAT");
-            addColumnIfNotExists(name, "pitch", "FLOAT");
+            addColumnIfNotExists(connection, name, "yaw", "FLOAT");
+            addColumnIfNotExists(connection, name, "pitch", "FLOAT");
         } else {
-            addColumnIfNotExists(name, "yaw", "FLOAT(16)");
-            addColumnIfNotExists(name, "pitch", "FLOAT(16)");
+            addColumnIfNotExists(connection, name, "yaw", "FLOAT(16)");
+            addColumnIfNotExists(connection, name, "pitch", "FLOAT(16)");
         }
-        addColumnIfNotExists(name, "inventory", "TEXT");
-        addColumnIfNotExists(name, "equipment", "TEXT");
-        if (type == Type.POSTGRESQL || type == Type.H2) {
-            addColumnIfNotExists(name, "experience", "INT");
-            addColumnIfNotExists(name, "protection", "INT");
-            addColumnIfNotExists(name, "is_abandoned", "INT");
+        addColumnIfNotExists(connection, name, "inventory", "TEXT");
+        addColumnIfNotExists(connection, name, "equipment", "TEXT");
+        if (type == Type.POSTGRESQL || type == Type.H2 || type == Type.MSSQL) {
+            addColumnIfNotExists(connection, name, "experience", "INT");
+            addColumnIfNotExists(connection, name, "protection", "INT");
+            addColumnIfNotExists(connection, name, "is_abandoned", "INT");
         } else {
-            addColumnIfNotExists(name, "experience", "INT(16)");
-            addColumnIfNotExists(name, "protection", "INT(1)");
-            addColumnIfNotExists(name, "is_abandoned", "INT(1)");
+            addColumnIfNotExists(connection, name, "experience", "INT(16)");
+            addColumnIfNotExists(connection, name, "protection", "INT(1)");
+            addColumnIfNotExists(connection, name, "is_abandoned", "INT(1)");
         }
-        addColumnIfNotExists(name, "time_alive", "BIGINT");
-        addColumnIfNotExists(name, "time_protection", "BIGINT");
-        addColumnIfNotExists(name, "time_creation", "BIGINT");
-        addColumnIfNotExists(name, "permissions", "TEXT");
+        addColumnIfNotExists(connection, name, "time_alive", "BIGINT");
+        addColumnIfNotExists(connection, name, "time_protection", "BIGINT");
+        addColumnIfNotExists(connection, name, "time_creation", "BIGINT");
+        addColumnIfNotExists(connection, name, "permissions", "TEXT");
     }
 
     /**
      * Sets up the block table in the database.
      *
+     * @param connection the connection of the migration.
      * @throws SQLException if an SQL error occurs.
      */
-    public void setupBlockTable() throws SQLException {
+    public void setupBlockTable(Connection connection) throws SQLException {
         String name = "block";
 
         // Check if the table exists and create it if it does not
-        if (!tableExists(name)) {
+        if (!tableExists(connection, name)) {
             String createTableQuery = "CREATE TABLE " + name + " (" +
                     "location VARCHAR(255),\n" +
                     "uuid_grave VARCHAR(255),\n" +
                     "replace_material VARCHAR(255),\n" +
                     "replace_data TEXT);";
-            executeUpdate(createTableQuery, new Object[0]);
+            executeSchemaUpdate(connection, createTableQuery);
         }
 
         // Ensure all columns exist
-        addColumnIfNotExists(name, "location", "VARCHAR(255)");
-        addColumnIfNotExists(name, "uuid_grave", "VARCHAR(255)");
-        addColumnIfNotExists(name, "replace_material", "VARCHAR(255)");
-        addColumnIfNotExists(name, "replace_data", "TEXT");
+        addColumnIfNotExists(connection, name, "location", "VARCHAR(255)");
+        addColumnIfNotExists(connection, name, "uuid_grave", "VARCHAR(255)");
+        addColumnIfNotExists(connection, name, "replace_material", "VARCHAR(255)");
+        addColumnIfNotExists(connection, name, "replace_data", "TEXT");
     }
 
     /**
      * Sets up the graveyards table in the database.
      *
+     * @param connection the connection of the migration.
      * @throws SQLException if an SQL error occurs.
      */
-    private void setupGraveyardsTable() throws SQLException {
-        String createTableQuery = "CREATE TABLE IF NOT EXISTS graveyards (" +
-                "name VARCHAR(255) NOT NULL," +
+    private void setupGraveyardsTable(Connection connection) throws SQLException {
+        String columns = "name VARCHAR(255) NOT NULL," +
                 "world VARCHAR(255) NOT NULL," +
                 "type VARCHAR(255) NOT NULL," +
                 "serializedLocations TEXT," +
-                "PRIMARY KEY (name, world)" +
-                ");";
-        executeUpdate(createTableQuery, new Object[0]);
+                "PRIMARY KEY (name, world)";
+        String createTableQuery = type == Type.MSSQL
+                ? "IF OBJECT_ID('graveyards', 'U') IS NULL CREATE TABLE graveyards (" + columns + ");"
+                : "CREATE TABLE IF NOT EXISTS graveyards (" + columns + ");";
+        executeSchemaUpdate(connection, createTableQuery);
+    }
+
+    /**
+     * Sets up the graveyard plot table, one row per grave location of a graveyard.
+     *
+     * @param connection The database connection of the migration.
+     * @throws SQLException if an SQL error occurs.
+     */
+    private void setupGraveyardPlotTable(Connection connection) throws SQLException {
+        String columns = "graveyard VARCHAR(255) NOT NULL, " +
+                "world VARCHAR(255) NOT NULL, " +
+                "x INT NOT NULL, " +
+                "y INT NOT NULL, " +
+                "z INT NOT NULL, " +
+                "facing VARCHAR(16), " +
+                "PRIMARY KEY (graveyard, world, x, y, z)";
+        String createTableQuery = type == Type.MSSQL
+                ? "IF OBJECT_ID('graveyard_plot', 'U') IS NULL CREATE TABLE graveyard_plot (" + columns + ");"
+                : "CREATE TABLE IF NOT EXISTS graveyard_plot (" + columns + ");";
+
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate(createTableQuery);
+        }
+    }
+
+    /**
+     * Sets up the tables other servers sharing the database read grave changes from.
+     *
+     * @param connection the connection of the migration.
+     * @throws SQLException if an SQL error occurs.
+     */
+    private void setupGraveChangeTables(Connection connection) throws SQLException {
+        String idColumn;
+
+        switch (type) {
+            case MYSQL:
+            case MARIADB:
+                idColumn = "id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY";
+                break;
+            case SQLITE:
+                idColumn = "id INTEGER PRIMARY KEY AUTOINCREMENT";
+                break;
+            case POSTGRESQL:
+                idColumn = "id BIGSERIAL PRIMARY KEY";
+                break;
+            case MSSQL:
+                idColumn = "id BIGINT IDENTITY(1,1) PRIMARY KEY";
+                break;
+            default:
+                idColumn = "id BIGINT AUTO_INCREMENT PRIMARY KEY";
+        }
+
+        Map<String, String> tableMap = new LinkedHashMap<>();
+
+        tableMap.put("grave_change", idColumn + ", " +
+                "uuid_grave VARCHAR(255) NOT NULL, " +
+                "operation VARCHAR(16) NOT NULL, " +
+                "changed_columns VARCHAR(255), " +
+                "server_id VARCHAR(255) NOT NULL, " +
+                "time_created BIGINT NOT NULL");
+        tableMap.put("grave_change_node", "server_id VARCHAR(255) NOT NULL PRIMARY KEY, " +
+                "last_id BIGINT NOT NULL, " +
+                "time_seen BIGINT NOT NULL");
+
+        try (Statement statement = connection.createStatement()) {
+            for (Map.Entry<String, String> entry : tableMap.entrySet()) {
+                statement.executeUpdate(type == Type.MSSQL
+                        ? "IF OBJECT_ID('" + entry.getKey() + "', 'U') IS NULL CREATE TABLE " + entry.getKey()
+                        + " (" + entry.getValue() + ");"
+                        : "CREATE TABLE IF NOT EXISTS " + entry.getKey() + " (" + entry.getValue() + ");");
+            }
+        }
     }
 
     /**
      * Sets up the hologram table in the database.
      *
+     * @param connection the connection of the migration.
      * @throws SQLException if an SQL error occurs.
      */
-    public void setupHologramTable() throws SQLException {
+    public void setupHologramTable(Connection connection) throws SQLException {
         String name = "hologram";
 
         // Check if the table exists and create it if it does not
-        if (!tableExists(name)) {
+        if (!tableExists(connection, name)) {
             String createTableQuery;
 
             switch (type) {
@@ -1102,34 +1390,38 @@ public final class DataManager {
                             "line INTEGER,\n" +  // PostgreSQL and H2 use INTEGER
                             "location VARCHAR(255));";
                     break;
+                case MSSQL:
+                    // MS SQL has no IF NOT EXISTS
+                    createTableQuery = "IF OBJECT_ID('" + name + "', 'U') IS NULL CREATE TABLE " + name + " (" +
+                            "uuid_entity NVARCHAR(255),\n" +
+                            "uuid_grave NVARCHAR(255),\n" +
+                            "line INT,\n" +
+                            "location NVARCHAR(255));";
+                    break;
                 default:
                     plugin.getLogger().severe("Unsupported database type: " + type);
                     return;
             }
 
             // Execute the create table query
-            try {
-                executeUpdate(createTableQuery);
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Failed to create hologram table: " + e.getMessage());
-                throw e; // rethrowing the exception
-            }
+            executeSchemaUpdate(connection, createTableQuery);
         }
 
         // Ensure all columns exist with appropriate types
-        addColumnIfNotExists(name, "uuid_entity", "VARCHAR(255)");
-        addColumnIfNotExists(name, "uuid_grave", "VARCHAR(255)");
-        addColumnIfNotExists(name, "line", "INTEGER"); // Use INTEGER for consistency
-        addColumnIfNotExists(name, "location", "VARCHAR(255)");
+        addColumnIfNotExists(connection, name, "uuid_entity", "VARCHAR(255)");
+        addColumnIfNotExists(connection, name, "uuid_grave", "VARCHAR(255)");
+        addColumnIfNotExists(connection, name, "line", "INTEGER"); // Use INTEGER for consistency
+        addColumnIfNotExists(connection, name, "location", "VARCHAR(255)");
     }
 
     /**
      * Sets up an entity table in the database.
      *
+     * @param connection the connection of the migration.
      * @param name the name of the table.
      * @throws SQLException if an SQL error occurs.
      */
-    private void setupEntityTable(String name) throws SQLException {
+    private void setupEntityTable(Connection connection, String name) throws SQLException {
         // Create table if it does not exist
         String createTableQuery;
 
@@ -1154,23 +1446,25 @@ public final class DataManager {
                         "uuid_entity VARCHAR(255), " +
                         "uuid_grave VARCHAR(255));";
                 break;
+            case MSSQL:
+                // MS SQL has no IF NOT EXISTS
+                createTableQuery = "IF OBJECT_ID('" + name + "', 'U') IS NULL CREATE TABLE " + name + " (" +
+                        "location NVARCHAR(255), " +
+                        "uuid_entity NVARCHAR(255), " +
+                        "uuid_grave NVARCHAR(255));";
+                break;
             default:
                 plugin.getLogger().severe("Unsupported database type: " + type);
                 return;
         }
 
         // Execute the create table query
-        try {
-            executeUpdate(createTableQuery, new Object[0]);
-        } catch (SQLException e) {
-            plugin.getLogger().severe("Failed to create entity table: " + e.getMessage());
-            throw e; // rethrowing the exception
-        }
+        executeSchemaUpdate(connection, createTableQuery);
 
         // Ensure all columns exist with appropriate types
-        addColumnIfNotExists(name, "location", "VARCHAR(255)");
-        addColumnIfNotExists(name, "uuid_entity", "VARCHAR(255)");
-        addColumnIfNotExists(name, "uuid_grave", "VARCHAR(255)");
+        addColumnIfNotExists(connection, name, "location", "VARCHAR(255)");
+        addColumnIfNotExists(connection, name, "uuid_entity", "VARCHAR(255)");
+        addColumnIfNotExists(connection, name, "uuid_grave", "VARCHAR(255)");
     }
 
     /**
@@ -1223,84 +1517,108 @@ public final class DataManager {
 
     /**
      * Loads graveyards from the database into the provided map.
+     * <p>
+     * Grave locations are read from the graveyard_plot table. Graveyards that still have their locations in the legacy
+     * serializedLocations column are moved to the plot table once.
+     * </p>
      */
     public void loadGraveyardsMap() {
-        String query = "SELECT * FROM graveyards";  // Select only required columns
+        String query = "SELECT name, world, type, serializedLocations FROM graveyards";
         plugin.getLogger().info("Loading graveyards from the database...");
 
-        try (Connection connection = getConnection();
-             PreparedStatement statement = connection.prepareStatement(query);
-             ResultSet resultSet = statement.executeQuery()) {
+        try (Connection connection = getConnection()) {
+            Map<String, Map<Location, BlockFace>> plotMap = loadGraveyardPlotMap(connection);
+            Map<Graveyard, Map<Location, BlockFace>> legacyPlotMap = new HashMap<>();
 
-            while (resultSet.next()) {
-                String name = resultSet.getString("name");
-                String world = resultSet.getString("world");
-                String type = resultSet.getString("type");
-                String serializedLocations = resultSet.getString("serializedLocations");
+            try (PreparedStatement statement = connection.prepareStatement(query);
+                 ResultSet resultSet = statement.executeQuery()) {
 
-                // Ensure the world is not null before attempting to use it
-                World serverWorld = plugin.getServer().getWorld(world);
-                if (serverWorld == null) {
-                    plugin.getLogger().warning("World not found for graveyard '" + name + "': " + world);
-                    continue;
-                }
+                while (resultSet.next()) {
+                    String name = resultSet.getString("name");
+                    String world = resultSet.getString("world");
+                    String type = resultSet.getString("type");
+                    String serializedLocations = resultSet.getString("serializedLocations");
 
-                plugin.getLogger().info("Loading graveyard: " + name);
+                    // Ensure the world is not null before attempting to use it
+                    World serverWorld = plugin.getServer().getWorld(world);
+                    if (serverWorld == null) {
+                        plugin.getLogger().warning("World not found for graveyard '" + name + "': " + world);
+                        continue;
+                    }
 
-                Graveyard.Type graveyardType;
-                try {
-                    graveyardType = Graveyard.Type.valueOf(type.toUpperCase());
-                } catch (IllegalArgumentException e) {
-                    plugin.getLogger().warning("Unknown graveyard type for '" + name + "': " + type);
-                    continue;
-                }
+                    plugin.getLogger().info("Loading graveyard: " + name);
 
-                // Create the graveyard object
-                Graveyard graveyard = new Graveyard(name, serverWorld, graveyardType);
+                    Graveyard.Type graveyardType;
+                    try {
+                        graveyardType = Graveyard.Type.valueOf(type.toUpperCase());
+                    } catch (IllegalArgumentException e) {
+                        plugin.getLogger().warning("Unknown graveyard type for '" + name + "': " + type);
+                        continue;
+                    }
 
-                // Deserialize grave locations
-                Map<Location, BlockFace> locations = Graveyard.deserializeLocations(serializedLocations);
+                    // Create the graveyard object
+                    Graveyard graveyard = new Graveyard(name, serverWorld, graveyardType);
+                    Map<Location, BlockFace> locations = new LinkedHashMap<>();
 
-                Location spawnLocation = null;
+                    if (plotMap.containsKey(getGraveyardPlotKey(name, world))) {
+                        locations.putAll(plotMap.get(getGraveyardPlotKey(name, world)));
+                    }
 
-                // Loop through the grave locations
-                for (Map.Entry<Location, BlockFace> entry : locations.entrySet()) {
-                    Location graveLocation = entry.getKey();
-                    BlockFace graveFacing = entry.getValue();
+                    if (serializedLocations != null && !serializedLocations.isEmpty()) {
+                        try {
+                            Map<Location, BlockFace> legacyLocations = Graveyard.deserializeLocations(serializedLocations);
 
-                    // Set the first grave location as the spawn location (or apply custom logic)
-                    if (spawnLocation == null) {
-                        spawnLocation = graveLocation;
+                            legacyLocations.forEach((location, blockFace) -> locations.putIfAbsent(new Location(serverWorld,
+                                    location.getBlockX(), location.getBlockY(), location.getBlockZ()), blockFace));
+                            legacyPlotMap.put(graveyard, legacyLocations);
+                        } catch (IllegalArgumentException e) {
+                            plugin.getLogger().warning("Ignoring invalid legacy locations of graveyard '" + name + "'.");
+                        }
                     }
 
-                    // Add the grave location to the graveyard
-                    graveyard.addGraveLocation(graveLocation, graveFacing);
-                }
+                    Location spawnLocation = null;
 
-                // Set the spawn location if available
-                if (spawnLocation != null) {
-                    graveyard.setSpawnLocation(spawnLocation);
-                } else {
-                    plugin.getLogger().warning("No valid spawn location found for graveyard '" + name + "'.");
+                    // Loop through the grave locations
+                    for (Map.Entry<Location, BlockFace> entry : locations.entrySet()) {
+                        Location graveLocation = entry.getKey();
+                        BlockFace graveFacing = entry.getValue();
+
+                        // Set the first grave location as the spawn location (or apply custom logic)
+                        if (spawnLocation == null) {
+                            spawnLocation = graveLocation;
+                        }
+
+                        // Add the grave location to the graveyard
+                        graveyard.addGraveLocation(graveLocation, graveFacing);
+                    }
+
+                    // Set the spawn location if available
+                    if (spawnLocation != null) {
+                        graveyard.setSpawnLocation(spawnLocation);
+                    } else {
+                        plugin.getLogger().warning("No valid spawn location found for graveyard '" + name + "'.");
+                    }
+
+                    // Mark the grave locations that already have a grave, graves are loaded before graveyards
+                    graveyard.loadOccupancy(plugin.getCacheManager().getGraveMap().values());
+
+                    // Add to the cache
+                    plugin.getCacheManager().getGraveyardsMap().put(name, graveyard);
+                    plugin.getLogger().info("Graveyard '" + name + "' loaded with spawn location.");
                 }
+            }
+
+            for (Map.Entry<Graveyard, Map<Location, BlockFace>> entry : legacyPlotMap.entrySet()) {
+                migrateLegacyGraveyardPlots(connection, entry.getKey(), entry.getValue());
+            }
 
-                // Add to the cache
-                plugin.getCacheManager().getGraveyardsMap().put(name, graveyard);
-                plugin.getLogger().info("Graveyard '" + name + "' loaded with spawn location.");
+            if (plugin.getGraveyardManager() != null) {
+                plugin.getGraveyardManager().invalidateGraveyardIndex();
             }
 
             plugin.getLogger().info("All graveyards loaded.");
         } catch (SQLException e) {
-            String sqlState = e.getSQLState();
-            String message = e.getMessage().toLowerCase();
-            // Ignore errors related to existing tables or columns
-            if ("42701".equals(sqlState)
-                    || "42P07".equals(sqlState)
-                    || "42S01".equals(sqlState)
-                    || "42S04".equals(sqlState)
-                    || "X0Y32".equals(sqlState)
-                    || "42000".equals(sqlState)
-                    || (message.contains("duplicate column name") && "SQLITE_ERROR".equals(sqlState))) {
+            if (isExistsError(e)) {
                 plugin.getLogger().info("All graveyards loaded.");
             } else {
                 plugin.getLogger().severe("Failed to load graveyards: " + e.getMessage());
@@ -1310,33 +1628,209 @@ public final class DataManager {
     }
 
     /**
-     * Updates the graveyard location data in the database.
+     * Loads every graveyard plot.
      *
-     * @param graveyard The graveyard to update.
+     * @param connection The database connection to use.
+     * @return The grave locations and their facing, keyed by graveyard name and world.
+     * @throws SQLException if an SQL error occurs.
      */
-    public void updateGraveyardLocationData(Graveyard graveyard) {
-        // Serialize graveyard locations as JSON
-        String serializedLocations = Graveyard.serializeLocations(graveyard.getGraveLocationMap());
-        String query = "UPDATE graveyards SET serializedLocations = ? WHERE name = ? AND world = ?";
+    private Map<String, Map<Location, BlockFace>> loadGraveyardPlotMap(Connection connection) throws SQLException {
+        Map<String, Map<Location, BlockFace>> plotMap = new HashMap<>();
 
-        // Prepare parameters for the query
-        Object[] parameters = {
-                serializedLocations,
-                graveyard.getName(),
-                graveyard.getWorld().getName()
-        };
+        try (PreparedStatement statement = connection.prepareStatement("SELECT graveyard, world, x, y, z, facing FROM graveyard_plot");
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                String world = resultSet.getString("world");
+                World serverWorld = plugin.getServer().getWorld(world);
 
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                executeUpdate(query, parameters);
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Failed to update graveyard location data: " + e.getMessage());
-                plugin.logStackTrace(e);
-            }
-        });
-    }
+                if (serverWorld != null) {
+                    Location location = new Location(serverWorld, resultSet.getInt("x"), resultSet.getInt("y"),
+                            resultSet.getInt("z"));
 
-    /**
+                    plotMap.computeIfAbsent(getGraveyardPlotKey(resultSet.getString("graveyard"), world),
+                            key -> new LinkedHashMap<>()).put(location, getBlockFace(resultSet.getString("facing")));
+                }
+            }
+        }
+
+        return plotMap;
+    }
+
+    /**
+     * Moves the grave locations of a graveyard from the legacy serializedLocations column to the graveyard_plot table.
+     *
+     * @param connection The database connection to use.
+     * @param graveyard  The graveyard.
+     * @param locations  The legacy grave locations and their facing.
+     */
+    private void migrateLegacyGraveyardPlots(Connection connection, Graveyard graveyard, Map<Location, BlockFace> locations) {
+        try {
+            boolean autoCommit = connection.getAutoCommit();
+
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement plotStatement = connection.prepareStatement(getGraveyardPlotUpsertQuery());
+                 PreparedStatement graveyardStatement = connection.prepareStatement("UPDATE graveyards SET serializedLocations = NULL WHERE name = ? AND world = ?")) {
+                for (Map.Entry<Location, BlockFace> entry : locations.entrySet()) {
+                    setGraveyardPlotParameters(plotStatement, graveyard, entry.getKey(), entry.getValue());
+                    plotStatement.addBatch();
+                }
+
+                plotStatement.executeBatch();
+                graveyardStatement.setString(1, graveyard.getName());
+                graveyardStatement.setString(2, graveyard.getWorld().getName());
+                graveyardStatement.executeUpdate();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+
+            plugin.getLogger().info("Migrated " + locations.size() + " legacy grave locations of graveyard '"
+                    + graveyard.getName() + "' to the graveyard_plot table.");
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Failed to migrate legacy grave locations of graveyard '" + graveyard.getName()
+                    + "': " + e.getMessage());
+            plugin.logStackTrace(e);
+        }
+    }
+
+    /**
+     * Adds a grave location to a graveyard in the database.
+     *
+     * @param graveyard The graveyard.
+     * @param location  The grave location.
+     * @param blockFace The facing of the grave.
+     */
+    public void addGraveyardPlot(Graveyard graveyard, Location location, BlockFace blockFace) {
+        write("add graveyard location in " + graveyard.getName(), Collections.singletonList(
+                new GraveJournal.Statement(getGraveyardPlotUpsertQuery(),
+                        graveyard.getName(),
+                        graveyard.getWorld().getName(),
+                        location.getBlockX(),
+                        location.getBlockY(),
+                        location.getBlockZ(),
+                        blockFace != null ? blockFace.name() : BlockFace.SELF.name())));
+    }
+
+    /**
+     * Removes a grave location from a graveyard in the database.
+     *
+     * @param graveyard The graveyard.
+     * @param location  The grave location.
+     */
+    public void removeGraveyardPlot(Graveyard graveyard, Location location) {
+        write("remove graveyard location in " + graveyard.getName(), Collections.singletonList(
+                new GraveJournal.Statement("DELETE FROM graveyard_plot WHERE graveyard = ? AND world = ? AND x = ? "
+                        + "AND y = ? AND z = ?",
+                        graveyard.getName(),
+                        graveyard.getWorld().getName(),
+                        location.getBlockX(),
+                        location.getBlockY(),
+                        location.getBlockZ())));
+    }
+
+    /**
+     * Gets the key of a graveyard in the plot map.
+     *
+     * @param name  The graveyard name.
+     * @param world The world name.
+     * @return The key.
+     */
+    private String getGraveyardPlotKey(String name, String world) {
+        return name + "|" + world;
+    }
+
+    /**
+     * Parses a stored block face.
+     *
+     * @param facing The stored block face name.
+     * @return The block face, or {@link BlockFace#SELF} if it is missing or unknown.
+     */
+    private BlockFace getBlockFace(String facing) {
+        try {
+            return facing != null ? BlockFace.valueOf(facing) : BlockFace.SELF;
+        } catch (IllegalArgumentException ignored) {
+            return BlockFace.SELF;
+        }
+    }
+
+    /**
+     * Gets the upsert statement of the graveyard_plot table.
+     *
+     * @return The upsert statement.
+     */
+    private String getGraveyardPlotUpsertQuery() {
+        return getUpsertQuery("graveyard_plot", Arrays.asList("graveyard", "world", "x", "y", "z"),
+                Collections.singletonList("facing"));
+    }
+
+    /**
+     * Sets the parameters of the graveyard_plot upsert statement.
+     *
+     * @param statement The prepared upsert statement.
+     * @param graveyard The graveyard.
+     * @param location  The grave location.
+     * @param blockFace The facing of the grave.
+     * @throws SQLException if an SQL error occurs.
+     */
+    private void setGraveyardPlotParameters(PreparedStatement statement, Graveyard graveyard, Location location,
+                                            BlockFace blockFace) throws SQLException {
+        statement.setString(1, graveyard.getName());
+        statement.setString(2, graveyard.getWorld().getName());
+        statement.setInt(3, location.getBlockX());
+        statement.setInt(4, location.getBlockY());
+        statement.setInt(5, location.getBlockZ());
+        statement.setString(6, blockFace != null ? blockFace.name() : BlockFace.SELF.name());
+    }
+
+    /**
+     * Builds an insert statement that updates the existing row on a key conflict, in the syntax of the database type.
+     * Parameters are the key columns followed by the value columns.
+     *
+     * @param table           The table name.
+     * @param keyColumnList   The columns of the primary key.
+     * @param valueColumnList The other columns.
+     * @return The upsert statement.
+     */
+    private String getUpsertQuery(String table, List<String> keyColumnList, List<String> valueColumnList) {
+        List<String> columnList = new ArrayList<>(keyColumnList);
+        columnList.addAll(valueColumnList);
+
+        String columns = String.join(", ", columnList);
+        String placeholders = String.join(", ", Collections.nCopies(columnList.size(), "?"));
+
+        switch (type) {
+            case MYSQL:
+            case MARIADB:
+                return "INSERT INTO " + table + " (" + columns + ") VALUES (" + placeholders + ") ON DUPLICATE KEY UPDATE "
+                        + valueColumnList.stream().map(column -> column + " = VALUES(" + column + ")")
+                        .collect(Collectors.joining(", "));
+            case H2:
+                return "MERGE INTO " + table + " (" + columns + ") KEY (" + String.join(", ", keyColumnList)
+                        + ") VALUES (" + placeholders + ")";
+            case MSSQL:
+                return "MERGE INTO " + table + " AS target USING (VALUES (" + placeholders + ")) AS source (" + columns
+                        + ") ON " + keyColumnList.stream().map(column -> "target." + column + " = source." + column)
+                        .collect(Collectors.joining(" AND "))
+                        + " WHEN MATCHED THEN UPDATE SET " + valueColumnList.stream()
+                        .map(column -> column + " = source." + column).collect(Collectors.joining(", "))
+                        + " WHEN NOT MATCHED THEN INSERT (" + columns + ") VALUES ("
+                        + columnList.stream().map(column -> "source." + column).collect(Collectors.joining(", "))
+                        + ");";
+            case SQLITE:
+            case POSTGRESQL:
+            default:
+                return "INSERT INTO " + table + " (" + columns + ") VALUES (" + placeholders + ") ON CONFLICT ("
+                        + String.join(", ", keyColumnList) + ") DO UPDATE SET " + valueColumnList.stream()
+                        .map(column -> column + " = excluded." + column).collect(Collectors.joining(", "));
+        }
+    }
+
+    /**
      * Loads the block map from the database.
      */
     public void loadBlockMap() {
@@ -1507,9 +2001,26 @@ public final class DataManager {
                 plugin.getLogger().severe("Error occurred while loading Hologram Map: " + exception.getMessage());
                 plugin.logStackTrace(exception);
             }
+
+            plugin.getServer().getScheduler().runTask(plugin, this::onHologramsLoaded);
         });
     }
 
+    /**
+     * Finishes loading holograms on the main thread. Packet holograms are not stored, so they are created for graves
+     * that have no hologram entities, and armor stand holograms in chunks that were loaded before the hologram map
+     * are converted to text displays, since no EntitiesLoadEvent fires for them anymore.
+     */
+    private void onHologramsLoaded() {
+        if (plugin.getPacketHologramManager() != null) {
+            plugin.getPacketHologramManager().restoreHolograms();
+        }
+
+        if (plugin.getVersionManager().hasDisplayEntities()) {
+            plugin.getHologramManager().migrateLoadedHolograms();
+        }
+    }
+
     /**
      * Loads entity data from the database.
      *
@@ -1591,35 +2102,36 @@ public final class DataManager {
         // Set replace_data
         parameters[3] = blockData.getReplaceData();
 
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                executeUpdate(query, parameters);
-            } catch (SQLException exception) {
-                plugin.getLogger().severe("Failed to add block data: " + exception.getMessage());
-                plugin.logStackTrace(exception);
-            }
-        });
+        if (graveChangeFeed != null && blockData.getGraveUUID() != null) {
+            writeGrave("UPDATE", blockData.getGraveUUID(), "block", new GraveJournal.Statement(query, parameters));
+
+            return;
+        }
+
+        executeUpdate(query, parameters);
     }
 
     /**
-     * Removes block data from the database.
+     * Removes block data from the database. With the change feed enabled, block writes are recorded as a change of
+     * the "block" column of their grave, so other servers update their block cache.
      *
      * @param location the location of the block data to remove.
      */
     public void removeBlockData(Location location) {
+        BlockData blockData = getChunkData(location).getBlockDataMap().get(location);
+
         getChunkData(location).removeBlockData(location);
 
         String query = "DELETE FROM block WHERE location = ?";
         Object[] parameters = { LocationUtil.locationToString(location) };
 
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                executeUpdate(query, parameters);
-            } catch (SQLException exception) {
-                plugin.getLogger().severe("Failed to remove block data: " + exception.getMessage());
-                plugin.logStackTrace(exception);
-            }
-        });
+        if (graveChangeFeed != null && blockData != null && blockData.getGraveUUID() != null) {
+            writeGrave("UPDATE", blockData.getGraveUUID(), "block", new GraveJournal.Statement(query, parameters));
+
+            return;
+        }
+
+        executeUpdate(query, parameters);
     }
 
     /**
@@ -1638,14 +2150,7 @@ public final class DataManager {
                 LocationUtil.locationToString(hologramData.getLocation())
         };
 
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                executeUpdate(query, parameters);
-            } catch (SQLException exception) {
-                plugin.getLogger().severe("Failed to add hologram data: " + exception.getMessage());
-                plugin.logStackTrace(exception);
-            }
-        });
+        executeUpdate(query, parameters);
     }
 
     /**
@@ -1654,7 +2159,7 @@ public final class DataManager {
      * @param entityDataList the list of entity data to remove.
      */
     public void removeHologramData(List<EntityData> entityDataList) {
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+        plugin.getLifecycleManager().runAsync("storage", () -> {
             String sql = "DELETE FROM hologram WHERE uuid_entity = ?";
             try (Connection connection = getConnection();
                  PreparedStatement statement = connection != null ? connection.prepareStatement(sql) : null) {
@@ -1691,14 +2196,7 @@ public final class DataManager {
                 entityData.getUUIDGrave()
         };
 
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                executeUpdate(query, parameters);
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Failed to add entity data: " + e.getMessage());
-                plugin.logStackTrace(e);
-            }
-        });
+        executeUpdate(query, parameters);
     }
 
     /**
@@ -1716,7 +2214,7 @@ public final class DataManager {
      * @param entityDataList the list of entity data to remove.
      */
     public void removeEntityData(List<EntityData> entityDataList) {
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+        plugin.getLifecycleManager().runAsync("storage", () -> {
             try (Connection connection = getConnection();
                  Statement statement = connection != null ? connection.createStatement() : null) {
                 if (statement != null) {
@@ -1737,19 +2235,39 @@ public final class DataManager {
     }
 
     /**
-     * Saves a graveyard to the database.
+     * Updates the entity UUID of entity data after its entity was spawned again.
+     *
+     * @param entityData the entity data to update.
+     * @param uuidEntity the new UUID of the entity.
+     */
+    public void updateEntityDataUUID(EntityData entityData, UUID uuidEntity) {
+        UUID oldUUIDEntity = entityData.getUUIDEntity();
+
+        getChunkData(entityData.getLocation()).updateEntityUUID(entityData, uuidEntity);
+
+        String table = entityDataTypeTable(entityData.getType());
+        String query = "UPDATE " + table + " SET uuid_entity = ? WHERE uuid_entity = ?";
+        Object[] parameters = { uuidEntity, oldUUIDEntity };
+
+        executeUpdate(query, parameters);
+    }
+
+    /**
+     * Saves a graveyard to the database. Grave locations are written when they are added or removed, see
+     * {@link #addGraveyardPlot(Graveyard, Location, BlockFace)}.
      *
      * @param graveyard The graveyard to save.
      */
     public void saveGraveyard(Graveyard graveyard) {
-        String serializedLocations = Graveyard.serializeLocations(graveyard.getGraveLocationMap());
-        plugin.getLogger().info("Saving serialized locations: " + serializedLocations);
+        String query = getUpsertQuery("graveyards", Arrays.asList("name", "world"), Collections.singletonList("type"));
 
-        if (graveyardExists(graveyard.getName())) {
-            updateGraveyard(graveyard, serializedLocations);
-        } else {
-            insertGraveyard(graveyard, serializedLocations);
-        }
+        Object[] parameters = {
+                graveyard.getName(),
+                graveyard.getWorld().getName(),
+                graveyard.getType().toString()
+        };
+
+        executeUpdate(query, parameters);
     }
 
     /**
@@ -1779,58 +2297,6 @@ public final class DataManager {
         return false;
     }
 
-    /**
-     * Updates a graveyard in the database.
-     *
-     * @param graveyard           the graveyard to update.
-     * @param serializedLocations the new serialized locations for the graveyard.
-     */
-    private void updateGraveyard(Graveyard graveyard, String serializedLocations) {
-        String query = "UPDATE graveyards SET world = ?, type = ?, serializedLocations = ? WHERE name = ?";
-
-        Object[] parameters = {
-                graveyard.getWorld().getName(),
-                graveyard.getType().toString(),
-                serializedLocations,
-                graveyard.getName()
-        };
-
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                executeUpdate(query, parameters);
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Failed to update graveyard: " + e.getMessage());
-                plugin.logStackTrace(e);
-            }
-        });
-    }
-
-    /**
-     * Inserts a graveyard into the database.
-     *
-     * @param graveyard           the graveyard to insert.
-     * @param serializedLocations the serialized locations for the graveyard.
-     */
-    private void insertGraveyard(Graveyard graveyard, String serializedLocations) {
-        String query = "INSERT INTO graveyards (name, world, type, serializedLocations) VALUES (?, ?, ?, ?)";
-
-        Object[] parameters = {
-                graveyard.getName(),
-                graveyard.getWorld().getName(),
-                graveyard.getType().toString(),
-                serializedLocations
-        };
-
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                executeUpdate(query, parameters);
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Failed to insert graveyard: " + e.getMessage());
-                plugin.logStackTrace(e);
-            }
-        });
-    }
-
     /**
      * Retrieves a graveyard by its name.
      *
@@ -1861,8 +2327,23 @@ public final class DataManager {
                     Graveyard.Type graveyardType = Graveyard.Type.valueOf(type.toUpperCase());
                     Graveyard graveyard = new Graveyard(name, serverWorld, graveyardType);
 
-                    // Deserialize locations
-                    Map<Location, BlockFace> locations = Graveyard.deserializeLocations(serializedLocations);
+                    // Legacy locations are moved to the plot table on load, they are only read if that failed
+                    Map<Location, BlockFace> locations = serializedLocations != null && !serializedLocations.isEmpty()
+                            ? Graveyard.deserializeLocations(serializedLocations) : new HashMap<>();
+
+                    try (PreparedStatement plotStatement = connection.prepareStatement("SELECT x, y, z, facing FROM graveyard_plot WHERE graveyard = ? AND world = ?")) {
+                        plotStatement.setString(1, name);
+                        plotStatement.setString(2, world);
+
+                        try (ResultSet plotResultSet = plotStatement.executeQuery()) {
+                            while (plotResultSet.next()) {
+                                locations.put(new Location(serverWorld, plotResultSet.getInt("x"),
+                                        plotResultSet.getInt("y"), plotResultSet.getInt("z")),
+                                        getBlockFace(plotResultSet.getString("facing")));
+                            }
+                        }
+                    }
+
                     for (Map.Entry<Location, BlockFace> entry : locations.entrySet()) {
                         graveyard.addGraveLocation(entry.getKey(), entry.getValue());
                     }
@@ -1889,13 +2370,9 @@ public final class DataManager {
                 graveyard.getWorld().getName()
         };
 
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                executeUpdate(query, parameters);
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Failed to delete graveyard: " + e.getMessage());
-                plugin.logStackTrace(e);
-            }
+        plugin.getLifecycleManager().runAsync("storage", () -> {
+            executeUpdate(query, parameters);
+            executeUpdate("DELETE FROM graveyard_plot WHERE graveyard = ? AND world = ?", parameters);
         });
     }
 
@@ -1985,14 +2462,10 @@ public final class DataManager {
                 grave.getPermissionList() != null && !grave.getPermissionList().isEmpty() ? StringUtils.join(grave.getPermissionList(), "|") : null
         };
 
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                executeUpdate(query, parameters);
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Failed to add grave: " + e.getMessage());
-                plugin.logStackTrace(e);
-            }
-        });
+        // The delete makes the entry safe to apply again when the journal is replayed
+        writeGrave("ADD", grave.getUUID(), "*",
+                new GraveJournal.Statement("DELETE FROM grave WHERE uuid = ?", grave.getUUID()),
+                new GraveJournal.Statement(query, parameters));
     }
 
     /**
@@ -2007,41 +2480,30 @@ public final class DataManager {
     public void removeGrave(UUID uuid) {
         plugin.getCacheManager().getGraveMap().remove(uuid);
 
+        if (plugin.getGraveyardManager() != null) {
+            plugin.getGraveyardManager().releaseGraveyardLocation(uuid);
+        }
+
         String deleteQuery = "DELETE FROM grave WHERE uuid = ?";
         Object[] deleteParams = { uuid };
 
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                plugin.debugMessage("Attempting to remove grave for UUID: " + uuid, 1);
-
-                executeUpdate(deleteQuery, deleteParams);
-                plugin.debugMessage("Grave successfully removed for UUID: " + uuid, 1);
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Failed to remove grave: " + e.getMessage());
-                plugin.logStackTrace(e);
-            }
-        });
+        plugin.debugMessage("Attempting to remove grave for UUID: " + uuid, 1);
+        writeGrave("REMOVE", uuid, null, new GraveJournal.Statement(deleteQuery, deleteParams));
     }
 
     /**
-     * Updates a grave in the database.
+     * Updates a grave in the database. Every update raises the revision of the grave, so the cache snapshot notices
+     * it.
      *
      * @param grave  the grave to update.
      * @param column the column to update.
      * @param integer the new integer value for the column.
      */
     public void updateGrave(Grave grave, String column, int integer) {
-        String query = "UPDATE grave SET " + column + " = ? WHERE uuid = ?";
+        String query = "UPDATE grave SET " + column + " = ?, revision = revision + 1 WHERE uuid = ?";
         Object[] parameters = { integer, grave.getUUID() };
 
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                executeUpdate(query, parameters);
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Failed to update grave: " + e.getMessage());
-                plugin.logStackTrace(e);
-            }
-        });
+        writeGrave("UPDATE", grave.getUUID(), column, new GraveJournal.Statement(query, parameters));
     }
 
     /**
@@ -2052,17 +2514,129 @@ public final class DataManager {
      * @param string the new value for the column.
      */
     public void updateGrave(Grave grave, String column, String string) {
-        String query = "UPDATE grave SET " + column + " = ? WHERE uuid = ?";
+        String query = "UPDATE grave SET " + column + " = ?, revision = revision + 1 WHERE uuid = ?";
         Object[] parameters = { string, grave.getUUID() };
 
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                executeUpdate(query, parameters);
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Failed to update grave: " + e.getMessage());
-                plugin.logStackTrace(e);
+        writeGrave("UPDATE", grave.getUUID(), column, new GraveJournal.Statement(query, parameters));
+    }
+
+    /**
+     * Writes a grave through the journal, or directly if the journal is disabled or not started yet. The change is
+     * recorded for other servers in the same transaction.
+     *
+     * @param operation  the operation, ADD, UPDATE or REMOVE.
+     * @param uuid       the grave.
+     * @param columns    the changed columns, * for the whole grave.
+     * @param statements the statements of the write.
+     */
+    private void writeGrave(String operation, UUID uuid, String columns, GraveJournal.Statement... statements) {
+        List<GraveJournal.Statement> statementList = new ArrayList<>(Arrays.asList(statements));
+
+        if (graveChangeFeed != null) {
+            statementList.add(graveChangeFeed.getChangeStatement(uuid, operation, columns));
+        }
+
+        write("write grave " + uuid + " (" + operation + ")", statementList);
+    }
+
+    /**
+     * Writes statements in one transaction through the journal, or through the write queue if the journal is
+     * disabled or not started yet. Both apply writes one at a time in the order they were made.
+     *
+     * @param description   what is written, for the log.
+     * @param statementList the statements of the write.
+     */
+    private void write(String description, List<GraveJournal.Statement> statementList) {
+        if (graveJournal != null && graveJournal.append(statementList)) {
+            return;
+        }
+
+        writeQueue.add(() -> {
+            if (!applyJournalEntry(statementList)) {
+                plugin.getLogger().severe("Failed to " + description + ".");
             }
         });
+
+        if (writeDraining.compareAndSet(false, true)) {
+            plugin.getLifecycleManager().runAsync("storage", this::drainWriteQueue);
+        }
+    }
+
+    /**
+     * Applies queued writes until the queue is empty. Only one task drains the queue at a time.
+     */
+    private void drainWriteQueue() {
+        do {
+            Runnable runnable;
+
+            while ((runnable = writeQueue.poll()) != null) {
+                runnable.run();
+            }
+
+            writeDraining.set(false);
+        } while (!writeQueue.isEmpty() && writeDraining.compareAndSet(false, true));
+    }
+
+    /**
+     * Applies the statements of a journal entry in one transaction, on the calling thread.
+     *
+     * @param statementList the statements.
+     * @return true if the statements were applied.
+     */
+    boolean applyJournalEntry(List<GraveJournal.Statement> statementList) {
+        try {
+            applyStatements(statementList);
+
+            return true;
+        } catch (SQLException exception) {
+            plugin.getLogger().severe("Error applying grave journal entry: " + exception.getMessage());
+            plugin.logStackTrace(exception);
+
+            return false;
+        }
+    }
+
+    /**
+     * Applies statements in one transaction, on the calling thread.
+     *
+     * @param statementList the statements.
+     * @throws SQLException if there is no connection or a statement failed, nothing was applied then.
+     */
+    void applyStatements(List<GraveJournal.Statement> statementList) throws SQLException {
+        try (Connection connection = getConnection()) {
+            if (connection == null) {
+                throw new SQLTransientConnectionException("No database connection available.");
+            }
+
+            boolean autoCommit = connection.getAutoCommit();
+
+            connection.setAutoCommit(false);
+
+            try {
+                for (GraveJournal.Statement journalStatement : statementList) {
+                    try (PreparedStatement statement = connection.prepareStatement(journalStatement.getSql())) {
+                        setParameters(statement, journalStatement.getParameters());
+
+                        long startTime = System.nanoTime();
+
+                        statement.executeUpdate();
+                        writeHistogram.recordSince(startTime);
+                    }
+                }
+
+                connection.commit();
+            } catch (SQLException exception) {
+                connection.rollback();
+
+                throw exception;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException exception) {
+            writeErrorCounter.increment();
+
+            throw exception;
+        }
     }
 
     /**
@@ -2107,17 +2681,7 @@ public final class DataManager {
             grave.setTimeCreation(resultSet.getLong("time_creation"));
             grave.setPermissionList(resultSet.getString("permissions") != null
                     ? new ArrayList<>(Arrays.asList(resultSet.getString("permissions").split("\\|"))) : new ArrayList<>());
-            grave.setInventory(InventoryUtil.stringToInventory(grave, resultSet.getString("inventory"),
-                    StringUtil.parseString(plugin.getConfig("gui.grave.title", grave.getOwnerType(),
-                                    grave.getPermissionList())
-                            .getString("gui.grave.title"), grave.getLocationDeath(), grave, plugin), plugin));
-
-            if (resultSet.getString("equipment") != null) {
-                @SuppressWarnings("unchecked")
-                Map<EquipmentSlot, ItemStack> equipmentMap = (Map<EquipmentSlot, ItemStack>) Base64Util
-                        .base64ToObject(resultSet.getString("equipment"));
-                grave.setEquipmentMap(equipmentMap != null ? equipmentMap : new HashMap<>());
-            }
+            setGraveInventory(grave, resultSet.getString("inventory"), resultSet.getString("equipment"));
 
             return grave;
         } catch (SQLException exception) {
@@ -2127,6 +2691,36 @@ public final class DataManager {
         return null;
     }
 
+    /**
+     * Gets the feed of grave changes shared with other servers.
+     *
+     * @return the change feed, or null if it is disabled.
+     */
+    GraveChangeFeed getGraveChangeFeed() {
+        return graveChangeFeed;
+    }
+
+    /**
+     * Deserializes the inventory and equipment of a grave as they are stored in the grave table.
+     *
+     * @param grave     the grave, with its owner and permissions already set.
+     * @param inventory the serialized inventory.
+     * @param equipment the serialized equipment, may be null.
+     */
+    void setGraveInventory(Grave grave, String inventory, String equipment) {
+        grave.setInventory(InventoryUtil.stringToInventory(grave, inventory,
+                StringUtil.parseString(plugin.getConfig("gui.grave.title", grave.getOwnerType(),
+                                grave.getPermissionList())
+                        .getString("gui.grave.title"), grave.getLocationDeath(), grave, plugin), plugin));
+
+        if (equipment != null) {
+            @SuppressWarnings("unchecked")
+            Map<EquipmentSlot, ItemStack> equipmentMap = (Map<EquipmentSlot, ItemStack>) Base64Util
+                    .base64ToObject(equipment);
+            grave.setEquipmentMap(equipmentMap != null ? equipmentMap : new HashMap<>());
+        }
+    }
+
     /**
      * Checks if the database connection is active.
      *
@@ -2141,7 +2735,7 @@ public final class DataManager {
      *
      * @return the database connection.
      */
-    private Connection getConnection() {
+    Connection getConnection() {
         try {
             return dataSource.getConnection();
         } catch (SQLException exception) {
@@ -2219,6 +2813,17 @@ public final class DataManager {
      * Closes the database connection.
      */
     public void closeConnection() {
+        boolean journalApplied = graveJournal == null
+                || graveJournal.close(plugin.getConfig().getLong("settings.shutdown.drain-timeout", 10000));
+
+        if (graveChangeFeed != null && isConnected()) {
+            graveChangeFeed.stop();
+        }
+
+        if (cacheSnapshot != null && journalApplied && isConnected()) {
+            cacheSnapshot.save();
+        }
+
         if (dataSource != null && !dataSource.isClosed()) {
             dataSource.close();
         }
@@ -2248,6 +2853,40 @@ public final class DataManager {
         }
     }
 
+    /**
+     * Executes a schema SQL statement on the connection of a migration. Failures are not swallowed, so the migration
+     * is rolled back and not recorded.
+     *
+     * @param connection the connection of the migration.
+     * @param sql        the SQL statement.
+     * @throws SQLException if a database access error occurs.
+     */
+    private void executeSchemaUpdate(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate(sql);
+        }
+    }
+
+    /**
+     * Executes a schema SQL statement and waits for it to finish, so following statements see its result.
+     *
+     * @param sql the SQL statement.
+     */
+    private void executeSchemaUpdate(String sql) {
+        try (Connection connection = getConnection();
+             Statement statement = connection != null ? connection.createStatement() : null) {
+            if (statement != null) {
+                statement.executeUpdate(sql);
+            }
+        } catch (SQLException exception) {
+            if (!isExistsError(exception)) {
+                plugin.getLogger().severe("Error executing SQL update: " + exception.getMessage());
+                plugin.getLogger().severe("Failed SQL statement: " + sql);
+                plugin.logStackTrace(exception);
+            }
+        }
+    }
+
     /**
      * Executes an update SQL statement (deprecated method).
      *
@@ -2255,81 +2894,33 @@ public final class DataManager {
      * @deprecated Use {@link #executeUpdate(String, Object[])} instead for parameterized queries.
      */
     @Deprecated
-    private void executeUpdate(String sql) throws SQLException {
+    private void executeUpdate(String sql) {
         // Convert the SQL statement to an array of parameters for the new method
         // This is a simple conversion assuming no parameters were used. For a real case, you'd need a more complex implementation.
         executeUpdate(sql, new Object[0]);
     }
 
     /**
-     * Executes an update SQL statement with parameters.
+     * Executes an update SQL statement with parameters on the storage thread. Errors are logged and counted, not
+     * thrown.
      *
      * @param sql        the SQL statement.
      * @param parameters the parameters for the SQL statement.
-     * @throws SQLException if a database access error occurs.
      */
-    private void executeUpdate(String sql, Object[] parameters) throws SQLException {
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+    private void executeUpdate(String sql, Object[] parameters) {
+        plugin.getLifecycleManager().runAsync("storage", () -> {
             try (Connection connection = getConnection();
                  PreparedStatement statement = connection.prepareStatement(sql)) {
 
-                if (parameters != null) {
-                    for (int i = 0; i < parameters.length; i++) {
-                        Object parameter = parameters[i];
-                        if (parameter == null) {
-                            // Use specific SQL types for null values
-                            statement.setNull(i + 1, Types.VARCHAR); // Adjust based on expected parameter type
-                        } else if (parameter instanceof String) {
-                            statement.setString(i + 1, (String) parameter);
-                        } else if (parameter instanceof Integer) {
-                            statement.setInt(i + 1, (Integer) parameter);
-                        } else if (parameter instanceof Long) {
-                            statement.setLong(i + 1, (Long) parameter);
-                        } else if (parameter instanceof Double) {
-                            statement.setDouble(i + 1, (Double) parameter);
-                        } else if (parameter instanceof Float) {
-                            statement.setFloat(i + 1, (Float) parameter);
-                        } else if (parameter instanceof Boolean) {
-                            statement.setBoolean(i + 1, (Boolean) parameter); // Use setBoolean for MSSQL
-                        } else if (parameter instanceof UUID) {
-                            statement.setObject(i + 1, parameter.toString(), Types.VARCHAR);
-                        } else if (parameter instanceof byte[]) {
-                            statement.setBytes(i + 1, (byte[]) parameter);
-                        } else if (parameter instanceof Date) {
-                            statement.setDate(i + 1, (Date) parameter);
-                        } else if (parameter instanceof Timestamp) {
-                            statement.setTimestamp(i + 1, (Timestamp) parameter);
-                        } else if (parameter instanceof LocalDate) {
-                            statement.setObject(i + 1, parameter, Types.DATE);
-                        } else if (parameter instanceof LocalDateTime) {
-                            statement.setObject(i + 1, parameter, Types.TIMESTAMP);
-                        } else if (parameter instanceof Clob) {
-                            statement.setClob(i + 1, (Clob) parameter);
-                        } else if (parameter instanceof Blob) {
-                            statement.setBlob(i + 1, (Blob) parameter);
-                        } else if (parameter instanceof EntityType) {
-                            statement.setString(i + 1, ((EntityType) parameter).name());
-                        } else {
-                            statement.setObject(i + 1, parameter);
-                        }
-                    }
-                }
+                setParameters(statement, parameters);
+
+                long startTime = System.nanoTime();
 
                 statement.executeUpdate();
+                writeHistogram.recordSince(startTime);
             } catch (SQLException exception) {
-                String sqlState = exception.getSQLState();
-                String message = exception.getMessage().toLowerCase();
-                // Ignore errors related to existing tables or columns
-                if ("42701".equals(sqlState)
-                        || "42P07".equals(sqlState)
-                        || "42S01".equals(sqlState)
-                        || "42S02".equals(sqlState)
-                        || "42S04".equals(sqlState)
-                        || "X0Y32".equals(sqlState)
-                        || "42000".equals(sqlState)
-                        || (message.contains("duplicate column name") && "SQLITE_ERROR".equals(sqlState))) {
-                    // ignore
-                } else {
+                if (!isExistsError(exception)) {
+                    writeErrorCounter.increment();
                     plugin.getLogger().severe("Error executing SQL update: " + exception.getMessage());
                     plugin.getLogger().severe("Failed SQL statement: " + sql);
                     plugin.logStackTrace(exception);
@@ -2338,6 +2929,77 @@ public final class DataManager {
         });
     }
 
+    /**
+     * Binds parameters to a prepared statement.
+     *
+     * @param statement  the statement.
+     * @param parameters the parameters, may be null.
+     * @throws SQLException if a database access error occurs.
+     */
+    private static void setParameters(PreparedStatement statement, Object[] parameters) throws SQLException {
+        if (parameters != null) {
+            for (int i = 0; i < parameters.length; i++) {
+                Object parameter = parameters[i];
+                if (parameter == null) {
+                    // Use specific SQL types for null values
+                    statement.setNull(i + 1, Types.VARCHAR); // Adjust based on expected parameter type
+                } else if (parameter instanceof String) {
+                    statement.setString(i + 1, (String) parameter);
+                } else if (parameter instanceof Integer) {
+                    statement.setInt(i + 1, (Integer) parameter);
+                } else if (parameter instanceof Long) {
+                    statement.setLong(i + 1, (Long) parameter);
+                } else if (parameter instanceof Double) {
+                    statement.setDouble(i + 1, (Double) parameter);
+                } else if (parameter instanceof Float) {
+                    statement.setFloat(i + 1, (Float) parameter);
+                } else if (parameter instanceof Boolean) {
+                    statement.setBoolean(i + 1, (Boolean) parameter); // Use setBoolean for MSSQL
+                } else if (parameter instanceof UUID) {
+                    statement.setObject(i + 1, parameter.toString(), Types.VARCHAR);
+                } else if (parameter instanceof byte[]) {
+                    statement.setBytes(i + 1, (byte[]) parameter);
+                } else if (parameter instanceof Date) {
+                    statement.setDate(i + 1, (Date) parameter);
+                } else if (parameter instanceof Timestamp) {
+                    statement.setTimestamp(i + 1, (Timestamp) parameter);
+                } else if (parameter instanceof LocalDate) {
+                    statement.setObject(i + 1, parameter, Types.DATE);
+                } else if (parameter instanceof LocalDateTime) {
+                    statement.setObject(i + 1, parameter, Types.TIMESTAMP);
+                } else if (parameter instanceof Clob) {
+                    statement.setClob(i + 1, (Clob) parameter);
+                } else if (parameter instanceof Blob) {
+                    statement.setBlob(i + 1, (Blob) parameter);
+                } else if (parameter instanceof EntityType) {
+                    statement.setString(i + 1, ((EntityType) parameter).name());
+                } else {
+                    statement.setObject(i + 1, parameter);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if an exception was caused by a table or column that already exists or does not exist.
+     *
+     * @param exception the exception to check.
+     * @return true if the exception can be ignored for schema statements.
+     */
+    private boolean isExistsError(SQLException exception) {
+        String sqlState = exception.getSQLState();
+        String message = exception.getMessage() != null ? exception.getMessage().toLowerCase() : "";
+
+        return "42701".equals(sqlState)
+                || "42P07".equals(sqlState)
+                || "42S01".equals(sqlState)
+                || "42S02".equals(sqlState)
+                || "42S04".equals(sqlState)
+                || "X0Y32".equals(sqlState)
+                || "42000".equals(sqlState)
+                || (message.contains("duplicate column name") && "SQLITE_ERROR".equals(sqlState));
+    }
+
     /**
      * Executes a query SQL statement.
      *
@@ -2478,130 +3140,11 @@ public final class DataManager {
     }
 
     /**
-     * Migrates data from SQLite to the target database (MySQL, MariaDB, PostgreSQL, H2, or MSSQL).
+     * Migrates data from SQLite to the target database (MySQL, MariaDB, PostgreSQL, H2, or MSSQL). Runs on the load
+     * thread before the tables are set up.
      */
     private void migrate() {
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            File dataFolder = new File(plugin.getDataFolder(), "data");
-            File sqliteFile = new File(dataFolder, "data.db");
-
-            if (!sqliteFile.exists() || !dataFolder.exists()) {
-                plugin.getLogger().warning("SQLite database file or folder does not exist in \"" + dataFolder.getPath() + "\". Skipping database migration.");
-                return;
-            }
-
-            HikariConfig config = new HikariConfig();
-            String journalMode = plugin.getConfig().getString("settings.storage.sqlite.journal-mode", "WAL");
-            String synchronous = plugin.getConfig().getString("settings.storage.sqlite.synchronous", "OFF");
-
-            config.setJdbcUrl("jdbc:sqlite:" + sqliteFile.getPath());
-            config.setConnectionTimeout(30000); // 30 seconds
-            config.setIdleTimeout(600000); // 10 minutes
-            config.setMaxLifetime(1800000); // 30 minutes
-            config.setMaximumPoolSize(50);
-            config.addDataSourceProperty("dataSource.journalMode", journalMode);
-            config.addDataSourceProperty("dataSource.synchronous", synchronous);
-            config.setConnectionInitSql("PRAGMA busy_timeout = 30000; PRAGMA journal_mode=" + journalMode + "; PRAGMA synchronous=" + synchronous + ";");
-            config.setPoolName("Graves SQLite to " + type + " Migration");
-            config.addDataSourceProperty("autoReconnect", "true");
-            config.setDriverClassName("org.sqlite.JDBC");
-
-            // Use a try-with-resources to ensure that HikariDataSource is closed after use
-            try (HikariDataSource dataSourceMigrate = new HikariDataSource(config);
-                 Connection sqliteConnection = dataSourceMigrate.getConnection()) {
-
-                DatabaseMetaData metaData = sqliteConnection.getMetaData();
-                try (ResultSet tables = metaData.getTables(null, null, "%", new String[]{"TABLE"})) {
-                    boolean migrationSuccess = true;
-
-                    while (tables.next()) {
-                        String tableName = tables.getString("TABLE_NAME");
-                        StringBuilder createTableQuery = new StringBuilder();
-                        List<String> columns = new ArrayList<>();
-
-                        // Using try-with-resources for the statement
-                        try (Statement sqliteStatement = sqliteConnection.createStatement();
-                             ResultSet tableData = sqliteStatement.executeQuery("SELECT * FROM " + tableName)) {
-
-                            ResultSetMetaData tableMetaData = tableData.getMetaData();
-                            createTableQuery.append("CREATE TABLE IF NOT EXISTS ").append(tableName).append(" (");
-                            for (int i = 1; i <= tableMetaData.getColumnCount(); i++) {
-                                String columnName = tableMetaData.getColumnName(i);
-                                String sqliteType = tableMetaData.getColumnTypeName(i);
-                                String targetType = mapSQLiteTypeToTargetDB(sqliteType, columnName);
-
-                                if (targetType != null) {
-                                    createTableQuery.append(columnName).append(" ").append(targetType);
-                                    if (i < tableMetaData.getColumnCount()) {
-                                        createTableQuery.append(", ");
-                                    } else {
-                                        createTableQuery.append(")");
-                                    }
-                                    columns.add(columnName);
-                                }
-                            }
-
-                            if (columns.isEmpty()) {
-                                plugin.getLogger().warning("No valid columns found for table " + tableName + ". Skipping table creation.");
-                                continue;
-                            }
-
-                            plugin.getLogger().info("Creating table with query: " + createTableQuery.toString());
-                            executeUpdate(createTableQuery.toString(), new Object[0]);
-
-                            if ("grave".equals(tableName)) {
-                                adjustGraveTableForTargetDB();
-                            }
-
-                            String insertQueryTemplate = "INSERT INTO " + tableName + " (" + String.join(", ", columns) + ") VALUES (" + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
-                            try (PreparedStatement insertStatement = getConnection().prepareStatement(insertQueryTemplate)) {
-                                while (tableData.next()) {
-                                    for (int i = 1; i <= tableMetaData.getColumnCount(); i++) {
-                                        String columnName = tableMetaData.getColumnName(i);
-                                        if (columns.contains(columnName)) {
-                                            String data = tableData.getString(i);
-                                            if (data != null) {
-                                                data = data.replace("'", "''");
-                                            }
-                                            insertStatement.setString(columns.indexOf(columnName) + 1, data != null ? data : null);
-                                        }
-                                    }
-                                    plugin.getLogger().info("Inserting data with query: " + insertQueryTemplate);
-                                    insertStatement.executeUpdate();
-                                }
-                            } catch (SQLException e) {
-                                plugin.getLogger().severe("Error inserting data into table " + tableName + ": " + e.getMessage());
-                                plugin.getLogger().severe("Failed query template: " + insertQueryTemplate);
-                                migrationSuccess = false;
-                            }
-                        } catch (SQLException e) {
-                            plugin.getLogger().severe("Error migrating table " + tableName + ": " + e.getMessage());
-                            plugin.getLogger().severe("Failed query: " + createTableQuery);
-                            migrationSuccess = false;
-                        }
-                    }
-
-                    if (migrationSuccess) {
-                        File renamedFile = new File(dataFolder, "data.old.db");
-                        if (sqliteFile.renameTo(renamedFile)) {
-                            plugin.getLogger().info("SQLite database successfully renamed to data.old.db");
-                        } else {
-                            plugin.getLogger().severe("Failed to rename SQLite database to data.old.db");
-                        }
-                    }
-                } catch (SQLException e) {
-                    plugin.getLogger().severe("Error retrieving tables from SQLite: " + e.getMessage());
-                }
-
-                try {
-                    sqliteConnection.close();
-                } catch (SQLException e) {
-                    plugin.getLogger().severe("Error closing SQLite connection: " + e.getMessage());
-                }
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Error migrating SQLite to target DB: " + e.getMessage());
-            }
-        });
+        new SQLiteMigrationManager(plugin, this, type).migrate();
     }
 
     /**
@@ -2611,7 +3154,7 @@ public final class DataManager {
      * @param columnName the column name.
      * @return the target database data type.
      */
-    private String mapSQLiteTypeToTargetDB(String sqliteType, String columnName) {
+    String mapSQLiteTypeToTargetDB(String sqliteType, String columnName) {
         switch (this.type) {
             case MYSQL:
             case MARIADB:
@@ -2771,31 +3314,31 @@ public final class DataManager {
     /**
      * Adjusts the grave table for the target database if necessary for MSSQL.
      */
-    private void adjustGraveTableForTargetDB() throws SQLException {
+    void adjustGraveTableForTargetDB() {
         // Ensure column sizes and types are correct for MSSQL
         if (this.type == Type.MSSQL) {
             plugin.getLogger().info("Altering table grave to ensure column sizes are correct for MSSQL.");
 
             // Example SQL commands to alter column types for MSSQL
-            executeUpdate("ALTER TABLE grave ALTER COLUMN owner_texture NVARCHAR(MAX)", new Object[0]);
-            executeUpdate("ALTER TABLE grave ALTER COLUMN owner_texture_signature NVARCHAR(MAX)", new Object[0]);
-            executeUpdate("ALTER TABLE grave ALTER COLUMN time_creation BIGINT", new Object[0]);
-            executeUpdate("ALTER TABLE grave ALTER COLUMN time_protection BIGINT", new Object[0]);
-            executeUpdate("ALTER TABLE grave ALTER COLUMN time_alive BIGINT", new Object[0]);
+            executeSchemaUpdate("ALTER TABLE grave ALTER COLUMN owner_texture NVARCHAR(MAX)");
+            executeSchemaUpdate("ALTER TABLE grave ALTER COLUMN owner_texture_signature NVARCHAR(MAX)");
+            executeSchemaUpdate("ALTER TABLE grave ALTER COLUMN time_creation BIGINT");
+            executeSchemaUpdate("ALTER TABLE grave ALTER COLUMN time_protection BIGINT");
+            executeSchemaUpdate("ALTER TABLE grave ALTER COLUMN time_alive BIGINT");
         } else if (this.type == Type.MYSQL || this.type == Type.MARIADB) {
             plugin.getLogger().info("Altering table grave to ensure column sizes are correct for MySQL/MariaDB.");
-            executeUpdate("ALTER TABLE grave MODIFY owner_texture NVARCHAR(MAX)", new Object[0]);
-            executeUpdate("ALTER TABLE grave MODIFY owner_texture_signature NVARCHAR(MAX)", new Object[0]);
-            executeUpdate("ALTER TABLE grave MODIFY time_creation BIGINT", new Object[0]);
-            executeUpdate("ALTER TABLE grave MODIFY time_protection BIGINT", new Object[0]);
-            executeUpdate("ALTER TABLE grave MODIFY time_alive BIGINT", new Object[0]);
+            executeSchemaUpdate("ALTER TABLE grave MODIFY owner_texture NVARCHAR(MAX)");
+            executeSchemaUpdate("ALTER TABLE grave MODIFY owner_texture_signature NVARCHAR(MAX)");
+            executeSchemaUpdate("ALTER TABLE grave MODIFY time_creation BIGINT");
+            executeSchemaUpdate("ALTER TABLE grave MODIFY time_protection BIGINT");
+            executeSchemaUpdate("ALTER TABLE grave MODIFY time_alive BIGINT");
         } else if (this.type == Type.POSTGRESQL || this.type == Type.H2) {
             plugin.getLogger().info("Altering table grave to ensure column sizes are correct for PostgreSQL/H2.");
-            executeUpdate("ALTER TABLE grave ALTER COLUMN owner_texture TYPE TEXT", new Object[0]);
-            executeUpdate("ALTER TABLE grave ALTER COLUMN owner_texture_signature TYPE TEXT", new Object[0]);
-            executeUpdate("ALTER TABLE grave ALTER COLUMN time_creation TYPE BIGINT", new Object[0]);
-            executeUpdate("ALTER TABLE grave ALTER COLUMN time_protection TYPE BIGINT", new Object[0]);
-            executeUpdate("ALTER TABLE grave ALTER COLUMN time_alive TYPE BIGINT", new Object[0]);
+            executeSchemaUpdate("ALTER TABLE grave ALTER COLUMN owner_texture TYPE TEXT");
+            executeSchemaUpdate("ALTER TABLE grave ALTER COLUMN owner_texture_signature TYPE TEXT");
+            executeSchemaUpdate("ALTER TABLE grave ALTER COLUMN time_creation TYPE BIGINT");
+            executeSchemaUpdate("ALTER TABLE grave ALTER COLUMN time_protection TYPE BIGINT");
+            executeSchemaUpdate("ALTER TABLE grave ALTER COLUMN time_alive TYPE BIGINT");
         }
     }
 
@@ -0,0 +1,219 @@
+package com.ranull.graves.manager;
+
+import com.ranull.graves.Graves;
+
+import java.sql.*;
+import java.util.*;
+
+/**
+ * Creates and verifies the secondary indexes of the grave, block, hologram and entity tables.
+ * <p>
+ * Each index is only created when no index on the table already starts with its column, so running this on every
+ * startup is safe. The create statement is picked per database type, as not every database supports
+ * {@code CREATE INDEX IF NOT EXISTS}.
+ * </p>
+ */
+public final class DatabaseIndexManager {
+    /**
+     * The indexed columns of the tables every database has, keyed by table name.
+     */
+    private static final Map<String, List<String>> INDEX_MAP = new LinkedHashMap<>();
+
+    /**
+     * The indexed columns of entity tables.
+     */
+    private static final List<String> ENTITY_INDEX_LIST = Arrays.asList("uuid_grave", "uuid_entity");
+
+    static {
+        INDEX_MAP.put("grave", Arrays.asList("owner_uuid", "location_death", "time_creation"));
+        INDEX_MAP.put("block", Arrays.asList("uuid_grave", "location"));
+        INDEX_MAP.put("hologram", ENTITY_INDEX_LIST);
+    }
+
+    /**
+     * The main plugin instance associated with Graves.
+     * <p>
+     * This {@link Graves} instance represents the core plugin that this Graves is part of. It provides access
+     * to the plugin's functionality, configuration, and other services.
+     * </p>
+     */
+    private final Graves plugin;
+
+    /**
+     * The type of database the indexes are created in.
+     */
+    private final DataManager.Type type;
+
+    /**
+     * Initializes a new instance of the DatabaseIndexManager class.
+     *
+     * @param plugin The plugin instance.
+     * @param type   The type of database.
+     */
+    public DatabaseIndexManager(Graves plugin, DataManager.Type type) {
+        this.plugin = plugin;
+        this.type = type;
+    }
+
+    /**
+     * Creates missing indexes on the grave, block and hologram tables and the given entity tables, then checks that
+     * every index exists. Tables that do not exist are skipped. A failed create statement is rethrown, so the
+     * migration running this is not recorded and is tried again on the next startup.
+     *
+     * @param connection      The database connection to use.
+     * @param entityTableList The names of the entity tables in use.
+     * @throws SQLException if an index could not be created or the database metadata could not be read.
+     */
+    public void setupIndexes(Connection connection, List<String> entityTableList) throws SQLException {
+        Map<String, List<String>> indexMap = new LinkedHashMap<>(INDEX_MAP);
+        long startTime = System.currentTimeMillis();
+        int createdCount = 0;
+
+        for (String entityTable : entityTableList) {
+            indexMap.put(entityTable, ENTITY_INDEX_LIST);
+        }
+
+        DatabaseMetaData metaData = connection.getMetaData();
+
+        for (Map.Entry<String, List<String>> entry : indexMap.entrySet()) {
+            String table = entry.getKey();
+            Set<String> indexedColumnSet = getIndexedColumns(metaData, connection.getCatalog(), table);
+
+            if (indexedColumnSet == null) {
+                plugin.debugMessage("Skipping indexes of missing table " + table + ".", 2);
+                continue;
+            }
+
+            for (String column : entry.getValue()) {
+                if (!indexedColumnSet.contains(column)) {
+                    try (Statement statement = connection.createStatement()) {
+                        statement.executeUpdate(getCreateIndexQuery(table, column));
+                        createdCount++;
+                        plugin.debugMessage("Created index " + getIndexName(table, column) + ".", 1);
+                    } catch (SQLException exception) {
+                        plugin.getLogger().severe("Failed to create index " + getIndexName(table, column)
+                                + ": " + exception.getMessage());
+
+                        throw exception;
+                    }
+                }
+            }
+        }
+
+        verifyIndexes(metaData, connection.getCatalog(), indexMap);
+
+        if (createdCount > 0) {
+            plugin.getLogger().info("Created " + createdCount + " database indexes in "
+                    + (System.currentTimeMillis() - startTime) + "ms.");
+        }
+    }
+
+    /**
+     * Logs a warning for every index that does not exist after setup.
+     *
+     * @param metaData The database metadata.
+     * @param catalog  The catalog of the connection.
+     * @param indexMap The indexed columns keyed by table name.
+     * @throws SQLException if a database access error occurs.
+     */
+    private void verifyIndexes(DatabaseMetaData metaData, String catalog, Map<String, List<String>> indexMap)
+            throws SQLException {
+        for (Map.Entry<String, List<String>> entry : indexMap.entrySet()) {
+            Set<String> indexedColumnSet = getIndexedColumns(metaData, catalog, entry.getKey());
+
+            if (indexedColumnSet != null) {
+                for (String column : entry.getValue()) {
+                    if (!indexedColumnSet.contains(column)) {
+                        plugin.getLogger().warning("Database index on " + entry.getKey() + "." + column
+                                + " is missing, lookups on this column will scan the table.");
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the columns of a table that are the first column of an index.
+     *
+     * @param metaData The database metadata.
+     * @param catalog  The catalog of the connection.
+     * @param table    The table name.
+     * @return The lower case names of the indexed columns, or null if the table does not exist.
+     * @throws SQLException if a database access error occurs.
+     */
+    private Set<String> getIndexedColumns(DatabaseMetaData metaData, String catalog, String table)
+            throws SQLException {
+        // H2 stores unquoted identifiers in upper case, the other databases keep the name as created
+        for (String tableName : new String[]{table, table.toUpperCase(Locale.ROOT)}) {
+            if (tableExists(metaData, catalog, tableName)) {
+                Set<String> indexedColumnSet = new HashSet<>();
+
+                try (ResultSet resultSet = metaData.getIndexInfo(catalog, null, tableName, false, true)) {
+                    while (resultSet.next()) {
+                        String column = resultSet.getString("COLUMN_NAME");
+
+                        if (column != null && resultSet.getShort("ORDINAL_POSITION") == 1) {
+                            indexedColumnSet.add(column.toLowerCase(Locale.ROOT));
+                        }
+                    }
+                }
+
+                return indexedColumnSet;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Checks if a table exists using the database metadata.
+     *
+     * @param metaData  The database metadata.
+     * @param catalog   The catalog of the connection.
+     * @param tableName The table name, in the case the database stores it.
+     * @return true if the table exists, false otherwise.
+     * @throws SQLException if a database access error occurs.
+     */
+    private boolean tableExists(DatabaseMetaData metaData, String catalog, String tableName) throws SQLException {
+        try (ResultSet resultSet = metaData.getTables(catalog, null, tableName, new String[]{"TABLE"})) {
+            return resultSet.next();
+        }
+    }
+
+    /**
+     * Builds the create index statement for the database type.
+     *
+     * @param table  The table name.
+     * @param column The column name.
+     * @return The create index statement.
+     */
+    private String getCreateIndexQuery(String table, String column) {
+        String indexName = getIndexName(table, column);
+
+        switch (type) {
+            case MYSQL:
+            case MARIADB:
+                return "CREATE INDEX " + indexName + " ON " + table + " (" + column + ");";
+            case MSSQL:
+                return "IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = '" + indexName
+                        + "' AND object_id = OBJECT_ID('" + table + "')) "
+                        + "CREATE INDEX " + indexName + " ON " + table + " (" + column + ");";
+            case SQLITE:
+            case H2:
+            case POSTGRESQL:
+            default:
+                return "CREATE INDEX IF NOT EXISTS " + indexName + " ON " + table + " (" + column + ");";
+        }
+    }
+
+    /**
+     * Gets the name of the index on a column.
+     *
+     * @param table  The table name.
+     * @param column The column name.
+     * @return The index name.
+     */
+    private String getIndexName(String table, String column) {
+        return "idx_" + table + "_" + column;
+    }
+}
@@ -122,14 +122,10 @@ public class EntityDataManager {
     public List<EntityData> getLoadedEntityDataList(Grave grave) {
         List<EntityData> entityDataList = new ArrayList<>();
 
-        for (Map.Entry<String, ChunkData> chunkDataEntry : plugin.getCacheManager().getChunkMap().entrySet()) {
-            ChunkData chunkData = chunkDataEntry.getValue();
-
-            if (chunkData.isLoaded()) {
-                for (EntityData entityData : new ArrayList<>(chunkData.getEntityDataMap().values())) {
-                    if (entityData != null && grave.getUUID().equals(entityData.getUUIDGrave())) {
-                        entityDataList.add(entityData);
-                    }
+        for (ChunkData chunkData : plugin.getCacheManager().getLoadedChunkMap().values()) {
+            for (EntityData entityData : new ArrayList<>(chunkData.getEntityDataMap().values())) {
+                if (entityData != null && grave.getUUID().equals(entityData.getUUIDGrave())) {
+                    entityDataList.add(entityData);
                 }
             }
         }
@@ -175,4 +171,25 @@ public class EntityDataManager {
 
         plugin.getDataManager().removeEntityData(removedEntityDataList);
     }
+
+    /**
+     * Removes the entity data of dormant entities, which have no entity in the world to remove.
+     *
+     * @param entityDataList the list of entity data to check.
+     * @param types          the entity data types to remove.
+     */
+    public void removeDormantEntityData(List<EntityData> entityDataList, EntityData.Type... types) {
+        List<EntityData.Type> typeList = Arrays.asList(types);
+        List<EntityData> dormantEntityDataList = new ArrayList<>();
+
+        for (EntityData entityData : entityDataList) {
+            if (entityData.isDormant() && typeList.contains(entityData.getType())) {
+                dormantEntityDataList.add(entityData);
+            }
+        }
+
+        if (!dormantEntityDataList.isEmpty()) {
+            plugin.getDataManager().removeEntityData(dormantEntityDataList);
+        }
+    }
 }
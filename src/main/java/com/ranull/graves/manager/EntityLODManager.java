@@ -0,0 +1,333 @@
+package com.ranull.graves.manager;
+
+import com.ranull.graves.Graves;
+import com.ranull.graves.data.ChunkData;
+import com.ranull.graves.data.EntityData;
+import com.ranull.graves.data.HologramData;
+import com.ranull.graves.type.Grave;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.*;
+
+/**
+ * Despawns grave holograms, armor stands and item frames while no player is within range, and spawns them again
+ * when a player comes back into range.
+ * <p>
+ * A despawned entity is marked dormant on its {@link EntityData}, which keeps the stored location so the entity
+ * can be spawned again in the same place. Spawning again gives the entity a new UUID, which is written back to the
+ * chunk cache and the database.
+ * </p>
+ */
+public final class EntityLODManager {
+    /**
+     * Half the diagonal of a chunk, used to rule out whole chunks before checking single entities.
+     */
+    private static final double CHUNK_HALF_DIAGONAL = 11.32;
+
+    /**
+     * The main plugin instance associated with Graves.
+     * <p>
+     * This {@link Graves} instance represents the core plugin that this Graves is part of. It provides access
+     * to the plugin's functionality, configuration, and other services.
+     * </p>
+     */
+    private final Graves plugin;
+
+    private boolean enabled;
+    private double radius;
+    private double radiusSquared;
+    private BukkitTask task;
+
+    /**
+     * Entity counts from the last update, read by the dump from another thread.
+     */
+    private volatile int liveCount;
+    private volatile int dormantCount;
+
+    /**
+     * Initializes the EntityLODManager with the specified plugin instance.
+     *
+     * @param plugin the Graves plugin instance.
+     */
+    public EntityLODManager(Graves plugin) {
+        this.plugin = plugin;
+
+        reload();
+    }
+
+    /**
+     * Re-reads the LOD settings and restarts the update task. When LOD was turned off, dormant entities in loaded
+     * chunks are spawned again.
+     */
+    public void reload() {
+        boolean wasEnabled = enabled;
+
+        enabled = plugin.getConfig().getBoolean("settings.lod.enabled", false);
+        radius = plugin.getConfig().getDouble("settings.lod.radius", 48);
+        radiusSquared = radius * radius;
+
+        long interval = Math.max(1L, plugin.getConfig().getLong("settings.lod.interval", 20L));
+
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+
+        if (enabled) {
+            task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::update, interval, interval);
+        } else if (wasEnabled) {
+            restoreAll();
+        }
+    }
+
+    /**
+     * Stops the update task.
+     */
+    public void unload() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Checks if LOD is enabled.
+     *
+     * @return true if LOD is enabled, false otherwise.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets the amount of LOD managed entities that were spawned in the world at the last update.
+     *
+     * @return the live entity count.
+     */
+    public int getLiveCount() {
+        return liveCount;
+    }
+
+    /**
+     * Gets the amount of LOD managed entities that were despawned at the last update.
+     *
+     * @return the dormant entity count.
+     */
+    public int getDormantCount() {
+        return dormantCount;
+    }
+
+    /**
+     * Spawns or despawns LOD managed entities in loaded chunks depending on player distance.
+     */
+    private void update() {
+        Map<World, List<Location>> playerLocationMap = new HashMap<>();
+
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            playerLocationMap.computeIfAbsent(player.getWorld(), world -> new ArrayList<>()).add(player.getLocation());
+        }
+
+        for (ChunkData chunkData : new ArrayList<>(plugin.getCacheManager().getLoadedChunkMap().values())) {
+            if (isEntitiesLoaded(chunkData)) {
+                updateChunk(chunkData, playerLocationMap.get(chunkData.getWorld()));
+            }
+        }
+
+        updateCounts();
+    }
+
+    /**
+     * Recounts live and dormant entities.
+     */
+    private void updateCounts() {
+        int live = 0;
+        int dormant = 0;
+
+        for (ChunkData chunkData : plugin.getCacheManager().getChunkMap().values()) {
+            for (EntityData entityData : chunkData.getEntityDataMap().values()) {
+                if (isManaged(entityData)) {
+                    if (entityData.isDormant()) {
+                        dormant++;
+                    } else {
+                        live++;
+                    }
+                }
+            }
+        }
+
+        liveCount = live;
+        dormantCount = dormant;
+    }
+
+    /**
+     * Spawns or despawns the LOD managed entities of a single loaded chunk.
+     *
+     * @param chunkData       the chunk to update.
+     * @param playerLocations the locations of players in the chunk's world, or null if there are none.
+     */
+    private void updateChunk(ChunkData chunkData, List<Location> playerLocations) {
+        boolean chunkInRange = playerLocations != null && isChunkInRange(chunkData, playerLocations);
+        Map<UUID, Entity> entityMap = null;
+
+        for (EntityData entityData : new ArrayList<>(chunkData.getEntityDataMap().values())) {
+            if (!isManaged(entityData)) {
+                continue;
+            }
+
+            Grave grave = plugin.getCacheManager().getGraveMap().get(entityData.getUUIDGrave());
+
+            if (grave == null) {
+                continue; // GraveManager removes entity data of removed graves
+            }
+
+            if (entityMap == null) {
+                entityMap = getEntityMap(chunkData);
+            }
+
+            Entity entity = entityMap.get(entityData.getUUIDEntity());
+
+            if (chunkInRange && isInRange(entityData.getLocation(), playerLocations)) {
+                if (entityData.isDormant() || entity == null) {
+                    spawn(entityData, grave);
+                }
+            } else if (!entityData.isDormant()) {
+                if (entity != null) {
+                    entity.remove();
+                }
+
+                entityData.setDormant(true);
+            }
+        }
+    }
+
+    /**
+     * Spawns every dormant entity in loaded chunks.
+     */
+    private void restoreAll() {
+        for (ChunkData chunkData : new ArrayList<>(plugin.getCacheManager().getLoadedChunkMap().values())) {
+            for (EntityData entityData : new ArrayList<>(chunkData.getEntityDataMap().values())) {
+                if (isManaged(entityData) && entityData.isDormant()) {
+                    Grave grave = plugin.getCacheManager().getGraveMap().get(entityData.getUUIDGrave());
+
+                    if (grave != null) {
+                        spawn(entityData, grave);
+                    }
+                }
+            }
+        }
+
+        updateCounts();
+    }
+
+    /**
+     * Spawns the entity of entity data again and stores its new UUID.
+     *
+     * @param entityData the entity data to spawn an entity for.
+     * @param grave      the grave associated with the entity.
+     */
+    private void spawn(EntityData entityData, Grave grave) {
+        Entity entity = entityData instanceof HologramData
+                ? plugin.getHologramManager().respawnHologram((HologramData) entityData, grave)
+                : plugin.getEntityManager().respawnEntity(entityData, grave);
+
+        if (entity != null) {
+            plugin.getDataManager().updateEntityDataUUID(entityData, entity.getUniqueId());
+            entityData.setDormant(false);
+            plugin.debugMessage("Spawned " + entityData.getType() + " for grave " + grave.getUUID()
+                    + " as a player came into range", 2);
+        }
+    }
+
+    /**
+     * Checks if entity data is of a type handled by LOD.
+     *
+     * @param entityData the entity data to check.
+     * @return true if the entity is a hologram, armor stand or item frame.
+     */
+    private boolean isManaged(EntityData entityData) {
+        return entityData != null && (entityData.getType() == EntityData.Type.HOLOGRAM
+                || entityData.getType() == EntityData.Type.ARMOR_STAND
+                || entityData.getType() == EntityData.Type.ITEM_FRAME);
+    }
+
+    /**
+     * Checks if any player could be within range of an entity in the chunk, using the horizontal distance to the
+     * chunk center.
+     *
+     * @param chunkData       the chunk to check.
+     * @param playerLocations the locations of players in the chunk's world.
+     * @return true if a player may be in range of the chunk.
+     */
+    private boolean isChunkInRange(ChunkData chunkData, List<Location> playerLocations) {
+        double centerX = (chunkData.getX() << 4) + 8;
+        double centerZ = (chunkData.getZ() << 4) + 8;
+        double range = radius + CHUNK_HALF_DIAGONAL;
+        double rangeSquared = range * range;
+
+        for (Location playerLocation : playerLocations) {
+            double x = playerLocation.getX() - centerX;
+            double z = playerLocation.getZ() - centerZ;
+
+            if (x * x + z * z <= rangeSquared) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks if any player is within range of a location.
+     *
+     * @param location        the location to check.
+     * @param playerLocations the locations of players in the same world.
+     * @return true if a player is in range.
+     */
+    private boolean isInRange(Location location, List<Location> playerLocations) {
+        for (Location playerLocation : playerLocations) {
+            if (playerLocation.distanceSquared(location) <= radiusSquared) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Maps the entities of a chunk by UUID.
+     *
+     * @param chunkData the chunk to map.
+     * @return the entities of the chunk keyed by UUID.
+     */
+    private Map<UUID, Entity> getEntityMap(ChunkData chunkData) {
+        Map<UUID, Entity> entityMap = new HashMap<>();
+
+        for (Entity entity : chunkData.getWorld().getChunkAt(chunkData.getX(), chunkData.getZ()).getEntities()) {
+            entityMap.put(entity.getUniqueId(), entity);
+        }
+
+        return entityMap;
+    }
+
+    /**
+     * Checks if the entities of a loaded chunk are loaded. Since 1.17 entities load separately from the chunk,
+     * and an entity that is not loaded yet must not be spawned a second time.
+     *
+     * @param chunkData the chunk to check.
+     * @return true if the entities of the chunk are loaded.
+     */
+    private boolean isEntitiesLoaded(ChunkData chunkData) {
+        Chunk chunk = chunkData.getWorld().getChunkAt(chunkData.getX(), chunkData.getZ());
+
+        try {
+            return chunk.isEntitiesLoaded();
+        } catch (NoSuchMethodError ignored) {
+            return true;
+        }
+    }
+}
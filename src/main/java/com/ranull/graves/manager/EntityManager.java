@@ -867,7 +867,7 @@ public final class EntityManager extends EntityDataManager {
                         Location location = plugin.getGraveManager().getGraveLocation(entity.getLocation(), grave);
 
                         if (location != null && entity.getLocation().getWorld() == grave.getLocationDeath().getWorld()) {
-                            plugin.getParticleManager().startParticleTrail(entity.getLocation(), grave.getLocationDeath(), Particle.valueOf(Objects.requireNonNull(plugin.getConfig("compass.particles.particle", grave).getString("compass.particles.particle")).toUpperCase()), plugin.getConfig("compass.particles.count", grave).getInt("compass.particles.count", 5), plugin.getConfig("compass.particles.speed", grave).getDouble("compass.particles.speed", 0.3), plugin.getConfig("compass.particles.duration", grave).getInt("compass.particles.duration"), entity.getUniqueId());
+                            plugin.getParticleManager().startParticleTrail(entity.getLocation(), grave.getLocationDeath(), grave, entity.getUniqueId());
                         }
                     }
                 }
@@ -1055,7 +1055,6 @@ public final class EntityManager extends EntityDataManager {
             double offsetX = plugin.getConfig("armor-stand.offset.x", grave).getDouble("armor-stand.offset.x");
             double offsetY = plugin.getConfig("armor-stand.offset.y", grave).getDouble("armor-stand.offset.y");
             double offsetZ = plugin.getConfig("armor-stand.offset.z", grave).getDouble("armor-stand.offset.z");
-            boolean marker = plugin.getConfig("armor-stand.marker", grave).getBoolean("armor-stand.marker");
             location = LocationUtil.roundLocation(location)
                     .add(offsetX + 0.5, offsetY, offsetZ + 0.5);
 
@@ -1063,62 +1062,15 @@ public final class EntityManager extends EntityDataManager {
             location.setPitch(grave.getPitch());
 
             if (location.getWorld() != null) {
-                Material material = Material.matchMaterial(plugin.getConfig("armor-stand.material", grave)
-                        .getString("armor-stand.material", "AIR"));
-
-                if (material != null && !MaterialUtil.isAir(material)) {
-                    ItemStack itemStack = new ItemStack(material, 1);
-                    ItemMeta itemMeta = itemStack.getItemMeta();
-                    int customModelData = plugin.getConfig("armor-stand.model-data", grave)
-                            .getInt("armor-stand.model-data", -1);
-
-                    if (itemMeta != null) {
-                        if (customModelData > -1) {
-                            itemMeta.setCustomModelData(customModelData);
-                        }
-
-                        itemStack.setItemMeta(itemMeta);
-                        location.getBlock().setType(Material.AIR);
-
-                        ArmorStand armorStand = location.getWorld().spawn(location, ArmorStand.class);
-
-                        createEntityData(location, armorStand.getUniqueId(), grave.getUUID(),
-                                EntityData.Type.ARMOR_STAND);
-
-                        if (!plugin.getVersionManager().is_v1_7()) {
-                            try {
-                                armorStand.setMarker(marker);
-                            } catch (NoSuchMethodError ignored) {
-                            }
-                        }
-
-                        if (!plugin.getVersionManager().is_v1_7() && !plugin.getVersionManager().is_v1_8()) {
-                            armorStand.setInvulnerable(true);
-                        }
-
-                        if (plugin.getVersionManager().hasScoreboardTags()) {
-                            armorStand.getScoreboardTags().add("graveArmorStand");
-                            armorStand.getScoreboardTags().add("graveArmorStandUUID:" + grave.getUUID());
-                        }
-
-                        armorStand.setVisible(false);
-                        armorStand.setGravity(false);
-                        armorStand.setCustomNameVisible(false);
-                        armorStand.setSmall(plugin.getConfig("armor-stand.small", grave)
-                                .getBoolean("armor-stand.small"));
+                ItemStack itemStack = getDecorationItemStack("armor-stand", grave);
 
-                        if (armorStand.getEquipment() != null) {
-                            EquipmentSlot equipmentSlot = EquipmentSlot.HEAD;
+                if (itemStack != null) {
+                    location.getBlock().setType(Material.AIR);
 
-                            try {
-                                equipmentSlot = EquipmentSlot.valueOf(plugin.getConfig("armor-stand.slot", grave)
-                                        .getString("armor-stand.slot", "HEAD"));
-                            } catch (IllegalArgumentException ignored) {
-                            }
+                    ArmorStand armorStand = spawnArmorStand(location, grave, itemStack);
 
-                            armorStand.getEquipment().setItem(equipmentSlot, itemStack);
-                        }
-                    }
+                    createEntityData(location, armorStand.getUniqueId(), grave.getUUID(),
+                            EntityData.Type.ARMOR_STAND);
                 }
             }
         }
@@ -1141,57 +1093,177 @@ public final class EntityManager extends EntityDataManager {
             location.setPitch(grave.getPitch());
 
             if (location.getWorld() != null) {
-                Material material = Material.matchMaterial(plugin.getConfig("item-frame.material", grave)
-                        .getString("item-frame.material", "AIR"));
-
-                if (material != null && !MaterialUtil.isAir(material)) {
-                    ItemStack itemStack = new ItemStack(material, 1);
-                    ItemMeta itemMeta = itemStack.getItemMeta();
-                    int customModelData = plugin.getConfig("item-frame.model-data", grave)
-                            .getInt("item-frame.model-data", -1);
-
-                    if (itemMeta != null) {
-                        if (customModelData > -1) {
-                            itemMeta.setCustomModelData(customModelData);
-                        }
+                ItemStack itemStack = getDecorationItemStack("item-frame", grave);
 
-                        itemStack.setItemMeta(itemMeta);
-                        location.getBlock().setType(Material.AIR);
+                if (itemStack != null) {
+                    location.getBlock().setType(Material.AIR);
 
-                        ItemFrame itemFrame = location.getWorld().spawn(location, ItemFrame.class);
+                    ItemFrame itemFrame = spawnItemFrame(location, grave, itemStack);
 
-                        itemFrame.setFacingDirection(BlockFace.UP);
-                        itemFrame.setRotation(BlockFaceUtil.getBlockFaceRotation(BlockFaceUtil
-                                .getYawBlockFace(location.getYaw())));
-                        itemFrame.setVisible(false);
-                        itemFrame.setGravity(false);
-                        itemFrame.setCustomNameVisible(false);
-                        itemFrame.setItem(itemStack);
+                    createEntityData(location, itemFrame.getUniqueId(), grave.getUUID(),
+                            EntityData.Type.ITEM_FRAME);
+                }
+            }
+        }
+    }
 
-                        if (!plugin.getVersionManager().is_v1_7() && !plugin.getVersionManager().is_v1_8()) {
-                            itemFrame.setInvulnerable(true);
-                        }
+    /**
+     * Spawns the armor stand or item frame of existing entity data again at its stored location. Used by
+     * view-distance LOD when a player comes back into range of a dormant entity.
+     *
+     * @param entityData the entity data to spawn an entity for.
+     * @param grave      the grave associated with the entity.
+     * @return the spawned entity, or null if the entity could not be spawned.
+     */
+    public Entity respawnEntity(EntityData entityData, Grave grave) {
+        Location location = entityData.getLocation();
 
-                        if (plugin.getVersionManager().hasScoreboardTags()) {
-                            itemFrame.getScoreboardTags().add("graveItemFrame");
-                            itemFrame.getScoreboardTags().add("graveItemFrameUUID:" + grave.getUUID());
-                        }
+        location.setYaw(grave.getYaw());
+        location.setPitch(grave.getPitch());
 
-                        createEntityData(location, itemFrame.getUniqueId(), grave.getUUID(),
-                                EntityData.Type.ITEM_FRAME);
-                    }
-                }
+        if (location.getWorld() == null) {
+            return null;
+        }
+
+        switch (entityData.getType()) {
+            case ARMOR_STAND: {
+                ItemStack itemStack = getDecorationItemStack("armor-stand", grave);
+
+                return itemStack != null ? spawnArmorStand(location, grave, itemStack) : null;
             }
+            case ITEM_FRAME: {
+                ItemStack itemStack = getDecorationItemStack("item-frame", grave);
+
+                return itemStack != null ? spawnItemFrame(location, grave, itemStack) : null;
+            }
+            default:
+                return null;
         }
     }
 
+    /**
+     * Builds the item displayed by a grave armor stand or item frame.
+     *
+     * @param path  the config path of the decoration, either armor-stand or item-frame.
+     * @param grave the grave associated with the decoration.
+     * @return the item stack, or null if the configured material is air or invalid.
+     */
+    private ItemStack getDecorationItemStack(String path, Grave grave) {
+        Material material = Material.matchMaterial(plugin.getConfig(path + ".material", grave)
+                .getString(path + ".material", "AIR"));
+
+        if (material == null || MaterialUtil.isAir(material)) {
+            return null;
+        }
+
+        ItemStack itemStack = new ItemStack(material, 1);
+        ItemMeta itemMeta = itemStack.getItemMeta();
+        int customModelData = plugin.getConfig(path + ".model-data", grave)
+                .getInt(path + ".model-data", -1);
+
+        if (itemMeta == null) {
+            return null;
+        }
+
+        if (customModelData > -1) {
+            itemMeta.setCustomModelData(customModelData);
+        }
+
+        itemStack.setItemMeta(itemMeta);
+
+        return itemStack;
+    }
+
+    /**
+     * Spawns a grave armor stand holding an item.
+     *
+     * @param location  the location to spawn the armor stand.
+     * @param grave     the grave associated with the armor stand.
+     * @param itemStack the item the armor stand holds.
+     * @return the spawned armor stand.
+     */
+    private ArmorStand spawnArmorStand(Location location, Grave grave, ItemStack itemStack) {
+        boolean marker = plugin.getConfig("armor-stand.marker", grave).getBoolean("armor-stand.marker");
+        ArmorStand armorStand = location.getWorld().spawn(location, ArmorStand.class);
+
+        if (!plugin.getVersionManager().is_v1_7()) {
+            try {
+                armorStand.setMarker(marker);
+            } catch (NoSuchMethodError ignored) {
+            }
+        }
+
+        if (!plugin.getVersionManager().is_v1_7() && !plugin.getVersionManager().is_v1_8()) {
+            armorStand.setInvulnerable(true);
+        }
+
+        if (plugin.getVersionManager().hasScoreboardTags()) {
+            armorStand.getScoreboardTags().add("graveArmorStand");
+            armorStand.getScoreboardTags().add("graveArmorStandUUID:" + grave.getUUID());
+        }
+
+        armorStand.setVisible(false);
+        armorStand.setGravity(false);
+        armorStand.setCustomNameVisible(false);
+        armorStand.setSmall(plugin.getConfig("armor-stand.small", grave)
+                .getBoolean("armor-stand.small"));
+
+        if (armorStand.getEquipment() != null) {
+            EquipmentSlot equipmentSlot = EquipmentSlot.HEAD;
+
+            try {
+                equipmentSlot = EquipmentSlot.valueOf(plugin.getConfig("armor-stand.slot", grave)
+                        .getString("armor-stand.slot", "HEAD"));
+            } catch (IllegalArgumentException ignored) {
+            }
+
+            armorStand.getEquipment().setItem(equipmentSlot, itemStack);
+        }
+
+        return armorStand;
+    }
+
+    /**
+     * Spawns a grave item frame holding an item.
+     *
+     * @param location  the location to spawn the item frame.
+     * @param grave     the grave associated with the item frame.
+     * @param itemStack the item the item frame holds.
+     * @return the spawned item frame.
+     */
+    private ItemFrame spawnItemFrame(Location location, Grave grave, ItemStack itemStack) {
+        ItemFrame itemFrame = location.getWorld().spawn(location, ItemFrame.class);
+
+        itemFrame.setFacingDirection(BlockFace.UP);
+        itemFrame.setRotation(BlockFaceUtil.getBlockFaceRotation(BlockFaceUtil
+                .getYawBlockFace(location.getYaw())));
+        itemFrame.setVisible(false);
+        itemFrame.setGravity(false);
+        itemFrame.setCustomNameVisible(false);
+        itemFrame.setItem(itemStack);
+
+        if (!plugin.getVersionManager().is_v1_7() && !plugin.getVersionManager().is_v1_8()) {
+            itemFrame.setInvulnerable(true);
+        }
+
+        if (plugin.getVersionManager().hasScoreboardTags()) {
+            itemFrame.getScoreboardTags().add("graveItemFrame");
+            itemFrame.getScoreboardTags().add("graveItemFrameUUID:" + grave.getUUID());
+        }
+
+        return itemFrame;
+    }
+
     /**
      * Removes all entities associated with a grave.
      *
      * @param grave the grave whose entities to remove.
      */
     public void removeEntity(Grave grave) {
-        removeEntity(getEntityDataMap(getLoadedEntityDataList(grave)));
+        List<EntityData> entityDataList = getLoadedEntityDataList(grave);
+
+        removeEntity(getEntityDataMap(entityDataList));
+        removeDormantEntityData(entityDataList, EntityData.Type.ARMOR_STAND, EntityData.Type.ITEM_FRAME);
     }
 
     /**
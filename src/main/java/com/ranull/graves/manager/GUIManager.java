@@ -8,21 +8,71 @@ import com.ranull.graves.inventory.GraveMenu;
 import com.ranull.graves.type.Grave;
 import com.ranull.graves.util.InventoryUtil;
 import com.ranull.graves.util.StringUtil;
+import org.bukkit.Material;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
 import org.bukkit.inventory.InventoryView;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
 
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * The GUIManager class is responsible for managing the graphical user interfaces related to graves.
  */
 public final class GUIManager {
+    /**
+     * Matches a placeholder in a grave list item template.
+     */
+    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("%[^%\\s]+%");
+
+    /**
+     * Placeholders whose value never changes or is part of the grave list item stamp, an item using only these is
+     * rendered again only when the stamp changes.
+     */
+    private static final Set<String> STABLE_PLACEHOLDER_SET = new HashSet<>(Arrays.asList("%number%", "%uuid%",
+            "%owner_name%", "%owner_name_display%", "%owner_type%", "%owner_uuid%", "%killer_name%",
+            "%killer_name_display%", "%killer_type%", "%killer_uuid%", "%world%", "%world_formatted%", "%x%", "%y%",
+            "%z%", "%time_creation%", "%time_creation_formatted%", "%item%", "%level%", "%experience%",
+            "%state_abandoned%", "%state_protection%", "%plugin_name%", "%plugin_version%", "%spigot_id%"));
+
     private final Graves plugin;
 
+    /**
+     * The rendered grave list item of each grave, with the stamp of the fields it was rendered from.
+     */
+    private final Map<UUID, GraveListItem> graveListItemMap;
+
+    /**
+     * Whether a grave list item template uses a placeholder that changes over time, keyed by template.
+     */
+    private final Map<String, Boolean> volatileTemplateMap;
+
+    /**
+     * The players viewing a grave menu, keyed by grave UUID.
+     */
+    private final Map<UUID, Set<UUID>> graveMenuViewerMap;
+
+    /**
+     * The players viewing a grave list, keyed by the UUID of the owner of the listed graves.
+     */
+    private final Map<UUID, Set<UUID>> graveListViewerMap;
+
+    /**
+     * The players whose open menu is refreshed on the next tick.
+     */
+    private final Set<UUID> refreshViewerSet;
+
+    /**
+     * Whether the refresh of the queued viewers is scheduled.
+     */
+    private boolean refreshScheduled;
+
     /**
      * Initializes a new instance of the GUIManager class.
      *
@@ -30,6 +80,29 @@ public final class GUIManager {
      */
     public GUIManager(Graves plugin) {
         this.plugin = plugin;
+        this.graveListItemMap = new HashMap<>();
+        this.volatileTemplateMap = new HashMap<>();
+        this.graveMenuViewerMap = new HashMap<>();
+        this.graveListViewerMap = new HashMap<>();
+        this.refreshViewerSet = new LinkedHashSet<>();
+        this.refreshScheduled = false;
+    }
+
+    /**
+     * Clears the rendered grave list items, so they are rendered again with the reloaded config.
+     */
+    public void reload() {
+        graveListItemMap.clear();
+        volatileTemplateMap.clear();
+    }
+
+    /**
+     * Removes the rendered grave list item of a removed grave.
+     *
+     * @param grave The removed grave.
+     */
+    public void removeGraveListItem(Grave grave) {
+        graveListItemMap.remove(grave.getUUID());
     }
 
     /**
@@ -72,18 +145,115 @@ public final class GUIManager {
     }
 
     /**
-     * Refreshes the menus for all online players.
+     * Registers a player as a viewer of a grave list or grave menu, other inventories are ignored.
+     *
+     * @param player          The player that opened the inventory.
+     * @param inventoryHolder The holder of the opened inventory.
+     */
+    public synchronized void addViewer(Player player, InventoryHolder inventoryHolder) {
+        if (inventoryHolder instanceof GraveList) {
+            graveListViewerMap.computeIfAbsent(((GraveList) inventoryHolder).getUUID(), uuid -> new HashSet<>())
+                    .add(player.getUniqueId());
+        } else if (inventoryHolder instanceof GraveMenu && ((GraveMenu) inventoryHolder).getGrave() != null) {
+            graveMenuViewerMap.computeIfAbsent(((GraveMenu) inventoryHolder).getGrave().getUUID(), uuid -> new HashSet<>())
+                    .add(player.getUniqueId());
+        }
+    }
+
+    /**
+     * Removes a player as a viewer of a grave list or grave menu, other inventories are ignored.
+     *
+     * @param player          The player that closed the inventory.
+     * @param inventoryHolder The holder of the closed inventory.
+     */
+    public synchronized void removeViewer(Player player, InventoryHolder inventoryHolder) {
+        if (inventoryHolder instanceof GraveList) {
+            removeViewer(graveListViewerMap, ((GraveList) inventoryHolder).getUUID(), player.getUniqueId());
+        } else if (inventoryHolder instanceof GraveMenu && ((GraveMenu) inventoryHolder).getGrave() != null) {
+            removeViewer(graveMenuViewerMap, ((GraveMenu) inventoryHolder).getGrave().getUUID(), player.getUniqueId());
+        }
+    }
+
+    private void removeViewer(Map<UUID, Set<UUID>> viewerMap, UUID uuid, UUID viewerUUID) {
+        Set<UUID> viewerSet = viewerMap.get(uuid);
+
+        if (viewerSet != null) {
+            viewerSet.remove(viewerUUID);
+
+            if (viewerSet.isEmpty()) {
+                viewerMap.remove(uuid);
+            }
+        }
+    }
+
+    /**
+     * Refreshes the menus showing a grave: menus of the grave and grave lists of its owner.
+     *
+     * @param grave The grave that changed.
+     */
+    public synchronized void refreshGrave(Grave grave) {
+        queueRefresh(graveMenuViewerMap.get(grave.getUUID()));
+
+        if (grave.getOwnerUUID() != null) {
+            queueRefresh(graveListViewerMap.get(grave.getOwnerUUID()));
+        }
+    }
+
+    /**
+     * Refreshes every open grave list and grave menu, used to update time text. Grave lists only update the slots
+     * whose item changed.
+     */
+    public synchronized void refreshMenus() {
+        for (Set<UUID> viewerSet : graveMenuViewerMap.values()) {
+            queueRefresh(viewerSet);
+        }
+
+        for (Set<UUID> viewerSet : graveListViewerMap.values()) {
+            queueRefresh(viewerSet);
+        }
+    }
+
+    /**
+     * Queues viewers for a refresh on the next tick, a viewer queued more than once is refreshed once.
+     *
+     * @param viewerSet The UUIDs of the viewers, may be null.
+     */
+    private void queueRefresh(Set<UUID> viewerSet) {
+        if (viewerSet != null && !viewerSet.isEmpty()) {
+            refreshViewerSet.addAll(viewerSet);
+
+            if (!refreshScheduled && plugin.isEnabled()) {
+                refreshScheduled = true;
+
+                plugin.getServer().getScheduler().runTask(plugin, this::refreshQueuedViewers);
+            }
+        }
+    }
+
+    /**
+     * Refreshes the open menu of every queued viewer.
      */
     @SuppressWarnings("ConstantConditions")
-    public void refreshMenus() {
-        if (plugin.isEnabled()) {
-            for (Player player : plugin.getServer().getOnlinePlayers()) {
+    private void refreshQueuedViewers() {
+        List<UUID> viewerList;
+
+        synchronized (this) {
+            viewerList = new ArrayList<>(refreshViewerSet);
+            refreshViewerSet.clear();
+            refreshScheduled = false;
+        }
+
+        for (UUID viewerUUID : viewerList) {
+            Player player = plugin.getServer().getPlayer(viewerUUID);
+
+            if (player != null) {
                 InventoryView openInventory = player.getOpenInventory();
+
                 if (openInventory != null) { // Mohist might return null even when Bukkit shouldn't.
                     Inventory topInventory = CompatibilityInventoryView.getTopInventory(openInventory);
 
                     if (topInventory.getHolder() instanceof GraveList) {
-                        setGraveListItems(topInventory, ((GraveList) topInventory.getHolder()).getUUID());
+                        refreshGraveList((GraveList) topInventory.getHolder(), player);
                     } else if (topInventory.getHolder() instanceof GraveMenu) {
                         setGraveMenuItems(topInventory, ((GraveMenu) topInventory.getHolder()).getGrave());
                     }
@@ -107,23 +277,21 @@ public final class GUIManager {
 
             if (!playerGraveList.isEmpty()) {
                 GraveList graveList = new GraveList(uuid, playerGraveList);
+                int size = graveList.isPaged() ? GraveList.MAX_SIZE : InventoryUtil.getInventorySize(playerGraveList.size());
                 Inventory inventory;
                 if (plugin.getIntegrationManager().hasMiniMessage()) {
                     String guiTitle = StringUtil.parseString(plugin.getConfig("gui.menu.list.title", player, permissionList)
                             .getString("gui.menu.list.title", "Graves Main Menu"), player, plugin);
                     String guiNew = MiniMessage.convertLegacyToMiniMessage(guiTitle);
-                    inventory = plugin.getServer().createInventory(graveList,
-                            InventoryUtil.getInventorySize(playerGraveList.size()),
-                            MiniMessage.parseString(guiNew));
+                    inventory = plugin.getServer().createInventory(graveList, size, MiniMessage.parseString(guiNew));
                 } else {
-                    inventory = plugin.getServer().createInventory(graveList,
-                            InventoryUtil.getInventorySize(playerGraveList.size()),
+                    inventory = plugin.getServer().createInventory(graveList, size,
                             StringUtil.parseString(plugin.getConfig("gui.menu.list.title", player, permissionList)
                                     .getString("gui.menu.list.title", "Graves Main Menu"), player, plugin));
                 }
 
-                setGraveListItems(inventory, playerGraveList);
                 graveList.setInventory(inventory);
+                setGraveListItems(graveList, player);
                 player.openInventory(graveList.getInventory());
 
                 if (sound) {
@@ -136,30 +304,148 @@ public final class GUIManager {
     }
 
     /**
-     * Sets the grave list items in the inventory based on a UUID.
+     * Reloads the graves of a grave list and updates the slots whose item changed.
      *
-     * @param inventory The inventory to set the items in.
-     * @param uuid      The UUID to use.
+     * @param graveList The grave list to refresh.
+     * @param player    The player viewing the grave list.
      */
-    public void setGraveListItems(Inventory inventory, UUID uuid) {
-        setGraveListItems(inventory, plugin.getGraveManager().getGraveList(uuid));
+    public void refreshGraveList(GraveList graveList, Player player) {
+        graveList.setGraveList(plugin.getGraveManager().getGraveList(graveList.getUUID()));
+        setGraveListItems(graveList, player);
     }
 
     /**
-     * Sets the grave list items in the inventory based on a list of graves.
+     * Switches a paged grave list to another page.
      *
-     * @param inventory The inventory to set the items in.
-     * @param graveList The list of graves to use.
+     * @param graveList The grave list.
+     * @param player    The player viewing the grave list.
+     * @param page      The page, starting at 0.
      */
-    public void setGraveListItems(Inventory inventory, List<Grave> graveList) {
-        inventory.clear();
+    public void setGraveListPage(GraveList graveList, Player player, int page) {
+        if (page != graveList.getPage()) {
+            graveList.setPage(page);
+            setGraveListItems(graveList, player);
+        }
+    }
+
+    /**
+     * Sets the items of the visible page of a grave list. Only graves on the page are rendered, items are reused
+     * from the cache while the fields they show are unchanged and slots whose item did not change are not updated.
+     *
+     * @param graveList The grave list to set the items of.
+     * @param player    The player viewing the grave list.
+     */
+    public void setGraveListItems(GraveList graveList, Player player) {
+        Inventory inventory = graveList.getInventory();
+        int offset = graveList.getPageOffset();
+
+        for (int slot = 0; slot < inventory.getSize(); slot++) {
+            ItemStack itemStack = null;
+
+            if (slot < graveList.getPageSize()) {
+                Grave grave = graveList.getGrave(slot);
+
+                if (grave != null) {
+                    itemStack = getGraveListItemStack(offset + slot + 1, grave);
+                }
+            } else if (slot == GraveList.PREVIOUS_PAGE_SLOT && graveList.getPage() > 0) {
+                itemStack = getGraveListPageItemStack("previous", "&fPrevious Page", graveList, player);
+            } else if (slot == GraveList.NEXT_PAGE_SLOT && graveList.getPage() < graveList.getPageCount() - 1) {
+                itemStack = getGraveListPageItemStack("next", "&fNext Page", graveList, player);
+            }
+
+            if (!Objects.equals(itemStack, graveList.getSlotItemStack(slot))) {
+                inventory.setItem(slot, itemStack);
+                graveList.setSlotItemStack(slot, itemStack);
+            }
+        }
+    }
+
+    /**
+     * Gets the grave list item of a grave, rendering it only if a field it shows changed since it was cached.
+     *
+     * @param number The number of the grave in the list, starting at 1.
+     * @param grave  The grave.
+     * @return The grave list item.
+     */
+    private ItemStack getGraveListItemStack(int number, Grave grave) {
+        String stamp = getGraveListItemStamp(number, grave);
+        GraveListItem graveListItem = graveListItemMap.get(grave.getUUID());
 
-        int count = 1;
+        if (graveListItem == null || !graveListItem.stamp.equals(stamp)) {
+            graveListItem = new GraveListItem(stamp, plugin.getItemStackManager().createGraveListItemStack(number, grave));
+            graveListItemMap.put(grave.getUUID(), graveListItem);
+        }
+
+        return graveListItem.itemStack;
+    }
+
+    /**
+     * Builds the stamp of the fields a grave list item shows. Templates with placeholders that change over time,
+     * like the lived time or PlaceholderAPI placeholders, include the current second.
+     *
+     * @param number The number of the grave in the list.
+     * @param grave  The grave.
+     * @return The stamp.
+     */
+    private String getGraveListItemStamp(int number, Grave grave) {
+        String template = plugin.getConfig("gui.menu.list.name", grave).getString("gui.menu.list.name") + "\n"
+                + String.join("\n", plugin.getConfig("gui.menu.list.lore", grave).getStringList("gui.menu.list.lore"));
+        StringBuilder stamp = new StringBuilder()
+                .append(template.hashCode()).append('|')
+                .append(number).append('|')
+                .append(grave.getProtection()).append('|')
+                .append(grave.isAbandoned()).append('|')
+                .append(grave.getItemAmount()).append('|')
+                .append(grave.getExperience());
 
-        for (Grave grave : graveList) {
-            inventory.addItem(plugin.getItemStackManager().createGraveListItemStack(count, grave));
-            count++;
+        if (volatileTemplateMap.computeIfAbsent(template, this::isVolatileTemplate)) {
+            stamp.append('|').append(System.currentTimeMillis() / 1000);
         }
+
+        return stamp.toString();
+    }
+
+    /**
+     * Checks if a grave list item template uses a placeholder that is not stable.
+     *
+     * @param template The item name and lore.
+     * @return True if the rendered item can change without a grave field changing.
+     */
+    private boolean isVolatileTemplate(String template) {
+        Matcher matcher = PLACEHOLDER_PATTERN.matcher(template);
+
+        while (matcher.find()) {
+            if (!STABLE_PLACEHOLDER_SET.contains(matcher.group())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Creates a page navigation item of a grave list.
+     *
+     * @param type      The config key of the item, previous or next.
+     * @param name      The default name of the item.
+     * @param graveList The grave list.
+     * @param player    The player viewing the grave list.
+     * @return The page navigation item.
+     */
+    private ItemStack getGraveListPageItemStack(String type, String name, GraveList graveList, Player player) {
+        ItemStack itemStack = new ItemStack(Material.ARROW);
+        ItemMeta itemMeta = itemStack.getItemMeta();
+
+        if (itemMeta != null) {
+            itemMeta.setDisplayName(StringUtil.parseString(plugin.getConfig("gui.menu.list.page." + type, player,
+                            plugin.getPermissionList(player)).getString("gui.menu.list.page." + type, name), player, plugin)
+                    .replace("%page%", String.valueOf(graveList.getPage() + 1))
+                    .replace("%pages%", String.valueOf(graveList.getPageCount())));
+            itemStack.setItemMeta(itemMeta);
+        }
+
+        return itemStack;
     }
 
     /**
@@ -230,4 +516,17 @@ public final class GUIManager {
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * A rendered grave list item and the stamp of the fields it was rendered from.
+     */
+    private static final class GraveListItem {
+        private final String stamp;
+        private final ItemStack itemStack;
+
+        private GraveListItem(String stamp, ItemStack itemStack) {
+            this.stamp = stamp;
+            this.itemStack = itemStack;
+        }
+    }
+}
@@ -0,0 +1,607 @@
+package com.ranull.graves.manager;
+
+import com.ranull.graves.Graves;
+import com.ranull.graves.data.BlockData;
+import com.ranull.graves.data.ChunkData;
+import com.ranull.graves.data.EntityData;
+import com.ranull.graves.metric.Counter;
+import com.ranull.graves.type.Grave;
+import com.ranull.graves.util.LocationUtil;
+import org.bukkit.Location;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.plugin.IllegalPluginAccessException;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.*;
+import java.util.*;
+
+/**
+ * Keeps the grave cache in sync with other servers that share the database.
+ * <p>
+ * Every grave write also inserts a row into {@code grave_change} in the same transaction, with the grave, the
+ * operation, the changed columns and the server that wrote it. Each server polls the rows written by the others and
+ * reloads the changed graves from the grave table, so applying a change twice or out of order gives the same result.
+ * Block writes are recorded as changes of the "block" column of their grave, the block cache of a changed grave is
+ * reloaded from the block table. Each server records in {@code grave_change_node} how far it has read, rows every active server has read are pruned.
+ * </p>
+ * <p>
+ * Ids are assigned when a row is inserted but become visible when its transaction commits, so a lower id can show up
+ * after a higher one. The read position only moves past a missing id once this server has seen it missing for
+ * {@link #GAP_TIMEOUT}, measured with the local clock, so clock skew between servers does not matter. Rows after a
+ * missing id are applied anyway and again on the next poll.
+ * </p>
+ */
+public final class GraveChangeFeed {
+    private static final long GAP_TIMEOUT = 10000;
+    private static final int POLL_LIMIT = 1000;
+    private static final int PRUNE_INTERVAL = 30;
+
+    /**
+     * The main plugin instance associated with Graves.
+     * <p>
+     * This {@link Graves} instance represents the core plugin that this Graves is part of. It provides access
+     * to the plugin's functionality, configuration, and other services.
+     * </p>
+     */
+    private final Graves plugin;
+
+    private final DataManager dataManager;
+    private final String serverId;
+    private final Counter appliedCounter;
+    private final Map<Long, Long> gapSeenMap;
+    private volatile long lastId;
+    private volatile boolean applying;
+    private int pollCount;
+    private BukkitTask pollTask;
+
+    /**
+     * Initializes the change feed with the server id from the config, or the id stored in the data folder.
+     *
+     * @param plugin      The Graves plugin instance.
+     * @param dataManager The data manager the changes are read with.
+     */
+    public GraveChangeFeed(Graves plugin, DataManager dataManager) {
+        this.plugin = plugin;
+        this.dataManager = dataManager;
+        this.serverId = loadServerId();
+        this.gapSeenMap = new HashMap<>();
+        this.appliedCounter = plugin.getMetricManager().getCounter("graves_change_feed_applied_total",
+                "Grave changes of other servers applied to the cache.");
+    }
+
+    /**
+     * Gets the id this server writes its changes with.
+     *
+     * @return The server id.
+     */
+    public String getServerId() {
+        return serverId;
+    }
+
+    /**
+     * Gets the id of the last change this server has read.
+     *
+     * @return The change id.
+     */
+    public long getLastId() {
+        return lastId;
+    }
+
+    /**
+     * Gets the statement that records a grave change, to be run in the same transaction as the change.
+     *
+     * @param uuid      The grave.
+     * @param operation The operation, ADD, UPDATE or REMOVE.
+     * @param columns   The changed columns, or * for the whole grave.
+     * @return The statement.
+     */
+    public GraveJournal.Statement getChangeStatement(UUID uuid, String operation, String columns) {
+        return new GraveJournal.Statement("INSERT INTO grave_change (uuid_grave, operation, changed_columns, "
+                + "server_id, time_created) VALUES (?, ?, ?, ?, ?)", uuid, operation, columns, serverId,
+                System.currentTimeMillis());
+    }
+
+    /**
+     * Gets the id of the newest change in the database. Changes up to it are included in a grave load started
+     * afterwards.
+     *
+     * @return The change id, 0 if there are none.
+     */
+    public long getMaxId() {
+        try (Connection connection = dataManager.getConnection();
+             Statement statement = connection != null ? connection.createStatement() : null;
+             ResultSet resultSet = statement != null ? statement.executeQuery("SELECT MAX(id) FROM grave_change") : null) {
+            return resultSet != null && resultSet.next() ? resultSet.getLong(1) : 0;
+        } catch (SQLException exception) {
+            plugin.debugMessage("Unable to read the newest grave change: " + exception.getMessage(), 1);
+
+            return 0;
+        }
+    }
+
+    /**
+     * Starts polling after the given change.
+     *
+     * @param startId The id of the last change included in the loaded graves.
+     */
+    public synchronized void start(long startId) {
+        lastId = startId;
+        gapSeenMap.clear();
+
+        long interval = Math.max(1, plugin.getConfig().getLong("settings.storage.change-feed.interval", 2000) / 50);
+
+        pollTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, this::poll, interval, interval);
+        plugin.infoMessage("Reading grave changes of other servers as " + serverId + " every " + interval * 50 + "ms.");
+    }
+
+    /**
+     * Stops polling. The read position is moved past changes of this server that were written since the last poll,
+     * they are already in the cache.
+     */
+    public synchronized void stop() {
+        if (pollTask != null) {
+            pollTask.cancel();
+            pollTask = null;
+        }
+
+        if (applying) {
+            return;
+        }
+
+        try (Connection connection = dataManager.getConnection()) {
+            if (connection == null) {
+                return;
+            }
+
+            for (Change change : getChangeList(connection)) {
+                if (!change.serverId.equals(serverId) || change.id != lastId + 1) {
+                    break;
+                }
+
+                lastId = change.id;
+            }
+
+            acknowledge(connection);
+        } catch (SQLException exception) {
+            plugin.debugMessage("Unable to acknowledge grave changes: " + exception.getMessage(), 1);
+        }
+    }
+
+    /**
+     * Reads the changes after the read position, reloads the graves other servers changed and applies them to the
+     * cache on the main thread.
+     */
+    private synchronized void poll() {
+        if (applying || pollTask == null) {
+            return;
+        }
+
+        try (Connection connection = dataManager.getConnection()) {
+            if (connection == null) {
+                return;
+            }
+
+            List<Change> changeList = getChangeList(connection);
+            List<Long> idList = new ArrayList<>();
+            Map<UUID, Set<String>> columnMap = new LinkedHashMap<>();
+
+            for (Change change : changeList) {
+                idList.add(change.id);
+
+                if (!change.serverId.equals(serverId)) {
+                    columnMap.computeIfAbsent(change.uuid, key -> new HashSet<>())
+                            .addAll(change.operation.equals("UPDATE") && change.columns != null
+                                    ? Arrays.asList(change.columns.split(",")) : Collections.singleton("*"));
+                }
+            }
+
+            long nextLastId = advance(lastId, idList, gapSeenMap, System.nanoTime() / 1000000, GAP_TIMEOUT);
+
+            if (columnMap.isEmpty()) {
+                lastId = nextLastId;
+            } else {
+                Map<UUID, Grave> graveMap = new HashMap<>();
+                Map<UUID, List<BlockData>> blockDataMap = new HashMap<>();
+
+                try (PreparedStatement statement = connection.prepareStatement("SELECT * FROM grave WHERE uuid = ?")) {
+                    for (UUID uuid : columnMap.keySet()) {
+                        statement.setString(1, uuid.toString());
+
+                        try (ResultSet resultSet = statement.executeQuery()) {
+                            graveMap.put(uuid, resultSet.next() ? dataManager.resultSetToGrave(resultSet) : null);
+                        }
+                    }
+                }
+
+                try (PreparedStatement statement = connection.prepareStatement("SELECT location, replace_material, "
+                        + "replace_data FROM block WHERE uuid_grave = ?")) {
+                    for (UUID uuid : columnMap.keySet()) {
+                        if (graveMap.get(uuid) != null) {
+                            blockDataMap.put(uuid, getBlockDataList(statement, uuid));
+                        }
+                    }
+                }
+
+                long appliedLastId = nextLastId;
+
+                applying = true;
+
+                try {
+                    plugin.getServer().getScheduler().runTask(plugin, () -> {
+                        try {
+                            for (Map.Entry<UUID, Set<String>> entry : columnMap.entrySet()) {
+                                apply(entry.getKey(), graveMap.get(entry.getKey()), blockDataMap.get(entry.getKey()),
+                                        entry.getValue());
+                            }
+
+                            // Only after the changes are in the cache, a snapshot written now must include them
+                            lastId = appliedLastId;
+                        } finally {
+                            applying = false;
+                        }
+                    });
+                } catch (IllegalPluginAccessException exception) {
+                    applying = false; // Disabling, the changes are read again on the next start
+                }
+            }
+
+            acknowledge(connection);
+
+            if (++pollCount % PRUNE_INTERVAL == 0) {
+                prune(connection);
+            }
+        } catch (SQLException exception) {
+            plugin.warningMessage("Unable to read grave changes of other servers: " + exception.getMessage());
+            plugin.logStackTrace(exception);
+        }
+    }
+
+    /**
+     * Moves the read position over the changes that follow it without a gap. A missing id is skipped once it has been
+     * missing for the gap timeout, counted from the first poll that saw it missing. Gaps behind the new read position
+     * are forgotten.
+     *
+     * @param lastId     The read position.
+     * @param idList     The ids of the changes after the read position, in order.
+     * @param gapSeenMap The time each gap was first seen, by the first missing id of the gap.
+     * @param now        The current time of a monotonic local clock, in milliseconds.
+     * @param gapTimeout How long a gap is waited for, in milliseconds.
+     * @return The new read position.
+     */
+    static long advance(long lastId, List<Long> idList, Map<Long, Long> gapSeenMap, long now, long gapTimeout) {
+        long nextLastId = lastId;
+
+        for (long id : idList) {
+            if (id != nextLastId + 1) {
+                long timeSeen = gapSeenMap.computeIfAbsent(nextLastId + 1, key -> now);
+
+                if (now - timeSeen < gapTimeout) {
+                    break;
+                }
+            }
+
+            nextLastId = id;
+        }
+
+        long readId = nextLastId;
+
+        gapSeenMap.keySet().removeIf(gapId -> gapId <= readId);
+
+        return nextLastId;
+    }
+
+    /**
+     * Applies a change of another server to the cache, the block cache and the open menus, the same way a local write
+     * updates them. Must be called on the main thread.
+     *
+     * @param uuid          The grave.
+     * @param loaded        The grave as it is in the database now, or null if it was removed.
+     * @param blockDataList The blocks of the grave as they are in the database now, or null if it was removed.
+     * @param columnSet     The changed columns, * for the whole grave.
+     */
+    private void apply(UUID uuid, Grave loaded, List<BlockData> blockDataList, Set<String> columnSet) {
+        Map<UUID, Grave> graveMap = plugin.getCacheManager().getGraveMap();
+        Grave grave = graveMap.get(uuid);
+
+        appliedCounter.increment();
+
+        if (loaded == null) {
+            removeChunkData(uuid, true);
+
+            if (grave != null) {
+                graveMap.remove(uuid);
+
+                if (plugin.getGraveyardManager() != null) {
+                    plugin.getGraveyardManager().releaseGraveyardLocation(uuid);
+                }
+
+                for (HumanEntity humanEntity : new ArrayList<>(grave.getInventory().getViewers())) {
+                    humanEntity.closeInventory();
+                }
+
+                plugin.getGUIManager().removeGraveListItem(grave);
+                plugin.getGUIManager().refreshGrave(grave);
+                plugin.debugMessage("Removed grave " + uuid + " removed by another server.", 2);
+            }
+
+            return;
+        }
+
+        if (grave == null || columnSet.contains("*") || columnSet.contains("block")) {
+            removeChunkData(uuid, false);
+
+            for (BlockData blockData : blockDataList) {
+                dataManager.getChunkData(blockData.getLocation()).addBlockData(blockData);
+            }
+        }
+
+        if (grave == null || columnSet.contains("*")) {
+            graveMap.put(uuid, loaded);
+
+            if (plugin.getGraveyardManager() != null) {
+                plugin.getGraveyardManager().occupyGraveyardLocation(loaded);
+            }
+
+            if (grave != null) {
+                plugin.getGUIManager().removeGraveListItem(grave);
+            }
+
+            plugin.getGUIManager().refreshGrave(loaded);
+            plugin.debugMessage("Loaded grave " + uuid + " written by another server.", 2);
+
+            return;
+        }
+
+        // Update the cached grave in place, open inventories and other references to it stay valid
+        for (String column : columnSet) {
+            switch (column) {
+                case "inventory":
+                    Inventory inventory = grave.getInventory();
+
+                    if (inventory != null && inventory.getSize() == loaded.getInventory().getSize()) {
+                        inventory.setContents(loaded.getInventory().getContents());
+                    } else {
+                        grave.setInventory(loaded.getInventory());
+                    }
+
+                    break;
+                case "equipment":
+                    grave.setEquipmentMap(loaded.getEquipmentMap());
+                    break;
+                case "protection":
+                    grave.setProtection(loaded.getProtection());
+                    break;
+                case "is_abandoned":
+                    grave.setAbandoned(loaded.isAbandoned());
+                    break;
+                case "experience":
+                    grave.setExperience(loaded.getExperience());
+                    break;
+                case "owner_name":
+                    grave.setOwnerName(loaded.getOwnerName());
+                    break;
+                case "owner_name_display":
+                    grave.setOwnerNameDisplay(loaded.getOwnerNameDisplay());
+                    break;
+                case "time_alive":
+                    grave.setTimeAlive(loaded.getTimeAlive());
+                    break;
+                case "time_protection":
+                    grave.setTimeProtection(loaded.getTimeProtection());
+                    break;
+                case "block":
+                    break;
+                default:
+                    graveMap.put(uuid, loaded);
+                    plugin.getGUIManager().removeGraveListItem(grave);
+                    plugin.getGUIManager().refreshGrave(loaded);
+
+                    return;
+            }
+        }
+
+        plugin.getGUIManager().refreshGrave(grave);
+        plugin.debugMessage("Updated " + columnSet + " of grave " + uuid + " changed by another server.", 2);
+    }
+
+    /**
+     * Removes the cached blocks of a grave, and its cached entities if it was removed. The rows are already changed
+     * by the other server, so only the cache is updated.
+     *
+     * @param uuid           The grave.
+     * @param removeEntities Whether to remove the entities too.
+     */
+    private void removeChunkData(UUID uuid, boolean removeEntities) {
+        for (ChunkData chunkData : new ArrayList<>(plugin.getCacheManager().getChunkMap().values())) {
+            chunkData.getBlockDataMap().values().removeIf(blockData -> uuid.equals(blockData.getGraveUUID()));
+
+            if (removeEntities) {
+                for (EntityData entityData : new ArrayList<>(chunkData.getEntityDataMap().values())) {
+                    if (uuid.equals(entityData.getUUIDGrave())) {
+                        chunkData.removeEntityData(entityData);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the blocks of a grave.
+     *
+     * @param statement The block query, with the grave as parameter.
+     * @param uuid      The grave.
+     * @return The blocks in loaded worlds.
+     */
+    private List<BlockData> getBlockDataList(PreparedStatement statement, UUID uuid) throws SQLException {
+        List<BlockData> blockDataList = new ArrayList<>();
+
+        statement.setString(1, uuid.toString());
+
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                Location location = LocationUtil.stringToLocation(resultSet.getString("location"));
+
+                if (location != null && location.getWorld() != null) {
+                    blockDataList.add(new BlockData(location, uuid, resultSet.getString("replace_material"),
+                            resultSet.getString("replace_data")));
+                }
+            }
+        }
+
+        return blockDataList;
+    }
+
+    /**
+     * Reads the changes after the read position, oldest first.
+     *
+     * @param connection The connection.
+     * @return The changes.
+     */
+    private List<Change> getChangeList(Connection connection) throws SQLException {
+        List<Change> changeList = new ArrayList<>();
+
+        try (PreparedStatement statement = connection.prepareStatement("SELECT id, uuid_grave, operation, "
+                + "changed_columns, server_id FROM grave_change WHERE id > ? ORDER BY id")) {
+            statement.setMaxRows(POLL_LIMIT);
+            statement.setLong(1, lastId);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    changeList.add(new Change(resultSet.getLong("id"),
+                            UUID.fromString(resultSet.getString("uuid_grave")), resultSet.getString("operation"),
+                            resultSet.getString("changed_columns"), resultSet.getString("server_id")));
+                }
+            }
+        }
+
+        return changeList;
+    }
+
+    /**
+     * Records the read position of this server.
+     *
+     * @param connection The connection.
+     */
+    private void acknowledge(Connection connection) throws SQLException {
+        long now = System.currentTimeMillis();
+
+        try (PreparedStatement statement = connection.prepareStatement("UPDATE grave_change_node SET last_id = ?, "
+                + "time_seen = ? WHERE server_id = ?")) {
+            statement.setLong(1, lastId);
+            statement.setLong(2, now);
+            statement.setString(3, serverId);
+
+            if (statement.executeUpdate() > 0) {
+                return;
+            }
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO grave_change_node (server_id, "
+                + "last_id, time_seen) VALUES (?, ?, ?)")) {
+            statement.setString(1, serverId);
+            statement.setLong(2, lastId);
+            statement.setLong(3, now);
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Deletes the changes every active server has read, and forgets servers that have not polled within
+     * {@code settings.storage.change-feed.node-timeout} milliseconds.
+     *
+     * @param connection The connection.
+     */
+    private void prune(Connection connection) throws SQLException {
+        long activeSince = System.currentTimeMillis()
+                - plugin.getConfig().getLong("settings.storage.change-feed.node-timeout", 300000);
+        long readId;
+
+        try (PreparedStatement statement = connection.prepareStatement("SELECT MIN(last_id) FROM grave_change_node "
+                + "WHERE time_seen >= ?")) {
+            statement.setLong(1, activeSince);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                readId = resultSet.next() ? resultSet.getLong(1) : 0;
+            }
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement("DELETE FROM grave_change_node "
+                + "WHERE time_seen < ?")) {
+            statement.setLong(1, activeSince);
+            statement.executeUpdate();
+        }
+
+        if (readId > 0) {
+            try (PreparedStatement statement = connection.prepareStatement("DELETE FROM grave_change WHERE id <= ?")) {
+                statement.setLong(1, readId);
+
+                int pruned = statement.executeUpdate();
+
+                if (pruned > 0) {
+                    plugin.debugMessage("Pruned " + pruned + " grave changes read by every server.", 2);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the server id from the config, or the one stored in the data folder, creating it on first use.
+     *
+     * @return The server id.
+     */
+    private String loadServerId() {
+        String configServerId = plugin.getConfig().getString("settings.storage.change-feed.server-id", "");
+
+        if (configServerId != null && !configServerId.trim().isEmpty()) {
+            return configServerId.trim();
+        }
+
+        File file = new File(plugin.getDataFolder(), "data" + File.separator + "server-id");
+
+        try {
+            if (file.isFile()) {
+                String storedServerId = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).trim();
+
+                if (!storedServerId.isEmpty()) {
+                    return storedServerId;
+                }
+            }
+
+            String serverId = UUID.randomUUID().toString();
+
+            if (file.getParentFile().exists() || file.getParentFile().mkdirs()) {
+                Files.write(file.toPath(), serverId.getBytes(StandardCharsets.UTF_8));
+            }
+
+            return serverId;
+        } catch (IOException exception) {
+            plugin.warningMessage("Unable to store the change feed server id, using a new one for this run.");
+
+            return UUID.randomUUID().toString();
+        }
+    }
+
+    /**
+     * A row of the change table.
+     */
+    private static final class Change {
+        private final long id;
+        private final UUID uuid;
+        private final String operation;
+        private final String columns;
+        private final String serverId;
+
+        private Change(long id, UUID uuid, String operation, String columns, String serverId) {
+            this.id = id;
+            this.uuid = uuid;
+            this.operation = operation;
+            this.columns = columns;
+            this.serverId = serverId;
+        }
+    }
+}
@@ -0,0 +1,852 @@
+package com.ranull.graves.manager;
+
+import com.ranull.graves.Graves;
+import com.ranull.graves.metric.Histogram;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLDataException;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLSyntaxErrorException;
+import java.util.*;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Write ahead journal for grave writes.
+ * <p>
+ * Every grave write is appended to a segment file in {@code data/journal} before it is applied to the database, so a
+ * crash right after a death does not lose the grave. Appends are synced to disk in groups by the sync thread, the apply
+ * thread then applies the synced entries to the database in order. Segments are deleted once every entry in them was applied.
+ * On startup the entries left in the journal are applied again, entries are written so that applying them twice gives
+ * the same result.
+ * </p>
+ * <p>
+ * Applying an entry again is only harmless until another server changed the same grave, so a clean shutdown leaves
+ * nothing to replay. If every entry was applied all segments are deleted, otherwise the sequence number of the last
+ * applied entry is written to the checkpoint file and the replay skips the entries up to it.
+ * </p>
+ * <p>
+ * A record is the length and CRC32 of its payload followed by the payload, the sequence number and the statements.
+ * A record that is cut off or does not match its checksum ends the segment, it was never acknowledged.
+ * </p>
+ * <p>
+ * An entry that fails because of the connection or another transient error stays in the journal and is retried with
+ * a growing delay until it applies, later entries wait for it. An entry the database rejects for what it is, like a
+ * constraint violation or a syntax error, fails the same way every time. It is moved to the dead letter file in the
+ * same record format and skipped, so it can be inspected and applied by hand.
+ * </p>
+ */
+public final class GraveJournal {
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String DEAD_LETTER_FILE = "dead-letter.journal";
+    private static final String CHECKPOINT_FILE = "applied.checkpoint";
+    private static final int MAX_RECORD_SIZE = 64 * 1024 * 1024;
+    private static final long RETRY_DELAY = 1000;
+    private static final long MAX_RETRY_DELAY = 60000;
+    private static final long SYNC_TIMEOUT = 5000;
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_INT = 2;
+    private static final byte TYPE_LONG = 3;
+    private static final byte TYPE_FLOAT = 4;
+    private static final byte TYPE_DOUBLE = 5;
+    private static final byte TYPE_BOOLEAN = 6;
+
+    /**
+     * The main plugin instance associated with Graves.
+     * <p>
+     * This {@link Graves} instance represents the core plugin that this Graves is part of. It provides access
+     * to the plugin's functionality, configuration, and other services.
+     * </p>
+     */
+    private final Graves plugin;
+
+    private final DataManager dataManager;
+    private final File folder;
+    private final long segmentSize;
+    private final boolean sync;
+    private final Histogram syncHistogram;
+    private final Object lock;
+
+    /**
+     * The segments by the sequence number of their first entry, guarded by the lock.
+     */
+    private final NavigableMap<Long, File> segmentMap;
+
+    /**
+     * Entries written but not synced yet, guarded by the lock.
+     */
+    private final List<Entry> unsyncedList;
+
+    /**
+     * Entries synced but not applied yet, in order.
+     */
+    private final LinkedBlockingDeque<Entry> unappliedDeque;
+
+    private FileChannel channel;
+    private long nextSequence;
+    private long syncedSequence;
+    private volatile long appliedSequence;
+    private volatile boolean running;
+    private Thread syncThread;
+    private Thread applyThread;
+
+    /**
+     * Initializes the journal. Nothing is written until {@link #start()} replayed the existing segments.
+     *
+     * @param plugin      The Graves plugin instance.
+     * @param dataManager The data manager the entries are applied with.
+     */
+    public GraveJournal(Graves plugin, DataManager dataManager) {
+        this.plugin = plugin;
+        this.dataManager = dataManager;
+        this.folder = new File(plugin.getDataFolder(), "data" + File.separator + "journal");
+        this.segmentSize = Math.max(64 * 1024, plugin.getConfig()
+                .getLong("settings.storage.journal.segment-size", 4194304));
+        this.sync = plugin.getConfig().getBoolean("settings.storage.journal.sync", true);
+        this.syncHistogram = plugin.getMetricManager().getHistogram("graves_journal_sync_seconds",
+                "Time spent syncing grave journal appends to disk.");
+        this.lock = new Object();
+        this.segmentMap = new TreeMap<>();
+        this.unsyncedList = new ArrayList<>();
+        this.unappliedDeque = new LinkedBlockingDeque<>();
+        this.nextSequence = 1;
+    }
+
+    /**
+     * Applies the entries left by the last run, then opens a new segment and starts the journal threads. Must be called
+     * once the database tables exist and before the graves are loaded.
+     *
+     * @return The number of entries left by the last run.
+     */
+    public int start() {
+        if (!folder.exists() && !folder.mkdirs()) {
+            plugin.warningMessage("Unable to create the grave journal folder, grave writes are not journaled.");
+
+            return 0;
+        }
+
+        int replayed = replay();
+
+        appliedSequence = !unappliedDeque.isEmpty() ? unappliedDeque.peekFirst().sequence - 1 : nextSequence - 1;
+
+        synchronized (lock) {
+            try {
+                openSegment(nextSequence);
+            } catch (IOException exception) {
+                plugin.warningMessage("Unable to open the grave journal, grave writes are not journaled: "
+                        + exception.getMessage());
+
+                return replayed;
+            }
+
+            running = true;
+        }
+
+        syncThread = new Thread(this::sync, "GravesX Grave Journal Sync");
+        syncThread.setDaemon(true);
+        syncThread.start();
+        applyThread = new Thread(this::apply, "GravesX Grave Journal Apply");
+        applyThread.setDaemon(true);
+        applyThread.start();
+
+        return replayed;
+    }
+
+    /**
+     * Appends an entry. If syncing is enabled this waits until the entry is on disk.
+     *
+     * @param statementList The statements of the entry, applied together.
+     * @return True if the entry was journaled, false if the caller has to write it itself.
+     */
+    public boolean append(List<Statement> statementList) {
+        Entry entry;
+
+        synchronized (lock) {
+            if (!running) {
+                return false;
+            }
+
+            entry = new Entry(nextSequence, statementList);
+
+            try {
+                ByteBuffer byteBuffer = encode(entry);
+
+                if (channel.size() > 0 && channel.size() + byteBuffer.remaining() > segmentSize) {
+                    channel.force(false);
+                    channel.close();
+                    openSegment(entry.sequence);
+                }
+
+                while (byteBuffer.hasRemaining()) {
+                    channel.write(byteBuffer);
+                }
+            } catch (IOException exception) {
+                plugin.warningMessage("Unable to append to the grave journal: " + exception.getMessage());
+
+                return false;
+            }
+
+            nextSequence++;
+            unsyncedList.add(entry);
+            lock.notifyAll();
+
+            if (sync) {
+                long deadline = System.currentTimeMillis() + SYNC_TIMEOUT;
+
+                while (syncedSequence < entry.sequence && running) {
+                    long remaining = deadline - System.currentTimeMillis();
+
+                    if (remaining <= 0) {
+                        break;
+                    }
+
+                    try {
+                        lock.wait(remaining);
+                    } catch (InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+
+                        break;
+                    }
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Stops the journal threads after they synced and applied what they can within the timeout. If every entry was
+     * applied the segments are deleted, otherwise the entries that were not applied stay in the journal and are applied
+     * on the next start.
+     *
+     * @param timeout The timeout in milliseconds.
+     * @return True if every entry was applied.
+     */
+    public boolean close(long timeout) {
+        synchronized (lock) {
+            if (!running) {
+                return unappliedDeque.isEmpty();
+            }
+
+            running = false;
+            lock.notifyAll();
+        }
+
+        long deadline = System.currentTimeMillis() + Math.max(0, timeout);
+
+        try {
+            syncThread.join(Math.max(1, deadline - System.currentTimeMillis()));
+            applyThread.join(Math.max(1, deadline - System.currentTimeMillis()));
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+
+        int unapplied;
+
+        synchronized (lock) {
+            try {
+                channel.force(false);
+                channel.close();
+            } catch (IOException ignored) {
+            }
+
+            unapplied = unappliedDeque.size() + unsyncedList.size();
+
+            // An apply thread that is still running holds an entry that is in neither list
+            if (unapplied == 0 && applyThread.isAlive()) {
+                unapplied = 1;
+            }
+
+            if (unapplied == 0) {
+                deleteSegments();
+            } else {
+                writeCheckpoint(appliedSequence);
+            }
+        }
+
+        if (unapplied > 0) {
+            plugin.warningMessage(unapplied + " grave journal " + (unapplied == 1 ? "entry was" : "entries were")
+                    + " not applied to the database, they are applied on the next start.");
+        }
+
+        return unapplied == 0;
+    }
+
+    /**
+     * Syncs appended entries to disk in groups and hands them to the apply thread. Appenders waiting for their
+     * entry share one sync.
+     */
+    private void sync() {
+        while (true) {
+            List<Entry> batchList;
+            FileChannel syncChannel;
+
+            synchronized (lock) {
+                while (running && unsyncedList.isEmpty()) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException exception) {
+                        return;
+                    }
+                }
+
+                if (unsyncedList.isEmpty()) {
+                    return;
+                }
+
+                batchList = new ArrayList<>(unsyncedList);
+                syncChannel = channel;
+                unsyncedList.clear();
+            }
+
+            long start = System.nanoTime();
+
+            try {
+                syncChannel.force(false);
+            } catch (ClosedChannelException ignored) {
+                // The segment was synced when it was rolled
+            } catch (IOException exception) {
+                plugin.warningMessage("Unable to sync the grave journal: " + exception.getMessage());
+            }
+
+            syncHistogram.recordSince(start);
+
+            synchronized (lock) {
+                syncedSequence = batchList.get(batchList.size() - 1).sequence;
+                lock.notifyAll();
+            }
+
+            unappliedDeque.addAll(batchList);
+        }
+    }
+
+    /**
+     * Applies synced entries to the database in order, retrying an entry that failed before moving on so the order
+     * is kept.
+     */
+    private void apply() {
+        while (running || syncThread.isAlive() || !unappliedDeque.isEmpty()) {
+            Entry entry;
+
+            try {
+                entry = unappliedDeque.pollFirst(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException exception) {
+                return;
+            }
+
+            if (entry == null) {
+                continue;
+            }
+
+            if (!applyEntry(entry)) {
+                unappliedDeque.addFirst(entry);
+
+                long retryTime = System.currentTimeMillis() + getRetryDelay(entry);
+
+                // Stop waiting on shutdown, the entry stays in the journal for the next start
+                while (running && System.currentTimeMillis() < retryTime) {
+                    try {
+                        Thread.sleep(Math.min(100, Math.max(1, retryTime - System.currentTimeMillis())));
+                    } catch (InterruptedException exception) {
+                        return;
+                    }
+                }
+
+                if (!running) {
+                    return;
+                }
+
+                continue;
+            }
+
+            compact();
+        }
+    }
+
+    /**
+     * Applies an entry. An entry that can never apply is moved to the dead letter file, any other failure is retried.
+     *
+     * @param entry The entry.
+     * @return False if the entry has to be retried.
+     */
+    private boolean applyEntry(Entry entry) {
+        try {
+            dataManager.applyStatements(entry.statementList);
+        } catch (SQLException exception) {
+            entry.attempts++;
+
+            if (!isPermanent(exception, dataManager.getType())) {
+                plugin.getLogger().warning("Unable to apply grave journal entry " + entry.sequence + " (attempt "
+                        + entry.attempts + "), retrying in " + getRetryDelay(entry) + "ms: " + exception.getMessage());
+
+                if (entry.attempts == 1) {
+                    plugin.logStackTrace(exception);
+                }
+
+                return false;
+            }
+
+            try {
+                writeDeadLetter(entry);
+            } catch (IOException ioException) {
+                plugin.getLogger().severe("Unable to move grave journal entry " + entry.sequence
+                        + " to the dead letter file, keeping it in the journal: " + ioException.getMessage());
+
+                return false;
+            }
+
+            plugin.getLogger().severe("Grave journal entry " + entry.sequence + " was rejected by the database and "
+                    + "moved to " + DEAD_LETTER_FILE + ": " + exception.getMessage());
+            plugin.logStackTrace(exception);
+        }
+
+        appliedSequence = entry.sequence;
+
+        return true;
+    }
+
+    /**
+     * Gets how long to wait before retrying an entry, doubling with every failed attempt.
+     *
+     * @param entry The entry.
+     * @return The delay in milliseconds.
+     */
+    private static long getRetryDelay(Entry entry) {
+        return Math.min(MAX_RETRY_DELAY, RETRY_DELAY << Math.min(16, Math.max(0, entry.attempts - 1)));
+    }
+
+    /**
+     * Checks whether a failure is caused by the statements themselves, so retrying them fails the same way.
+     * Connection, lock and timeout errors are not.
+     *
+     * @param exception   The failure.
+     * @param storageType The storage type, as returned by {@link DataManager#getType()}.
+     * @return True if the entry can never apply.
+     */
+    static boolean isPermanent(SQLException exception, String storageType) {
+        if (exception instanceof SQLIntegrityConstraintViolationException
+                || exception instanceof SQLSyntaxErrorException || exception instanceof SQLDataException) {
+            return true;
+        }
+
+        String sqlState = exception.getSQLState();
+
+        if (sqlState != null && sqlState.length() >= 2) {
+            // Data exception, integrity constraint violation, syntax error or access rule violation
+            return sqlState.startsWith("22") || sqlState.startsWith("23") || sqlState.startsWith("42");
+        }
+
+        // SQLite sets no SQL state, SQLITE_ERROR, SQLITE_CONSTRAINT and SQLITE_MISMATCH are permanent
+        return "SQLite".equals(storageType) && (exception.getErrorCode() == 1
+                || exception.getErrorCode() == 19 || exception.getErrorCode() == 20);
+    }
+
+    /**
+     * Appends an entry to the dead letter file and syncs it.
+     *
+     * @param entry The entry.
+     */
+    private void writeDeadLetter(Entry entry) throws IOException {
+        ByteBuffer byteBuffer = encode(entry);
+
+        try (FileChannel deadLetterChannel = FileChannel.open(new File(folder, DEAD_LETTER_FILE).toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (byteBuffer.hasRemaining()) {
+                deadLetterChannel.write(byteBuffer);
+            }
+
+            deadLetterChannel.force(false);
+        }
+    }
+
+    /**
+     * Deletes the segments whose entries were all applied, keeping the segment being written.
+     */
+    private void compact() {
+        synchronized (lock) {
+            Iterator<Map.Entry<Long, File>> iterator = segmentMap.entrySet().iterator();
+
+            while (iterator.hasNext()) {
+                Map.Entry<Long, File> segment = iterator.next();
+                Long nextFirstSequence = segmentMap.higherKey(segment.getKey());
+
+                if (nextFirstSequence == null || nextFirstSequence - 1 > appliedSequence) {
+                    break;
+                }
+
+                if (segment.getValue().delete() || !segment.getValue().exists()) {
+                    plugin.debugMessage("Compacted grave journal segment " + segment.getValue().getName() + ".", 2);
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the segments left by the last run and applies the entries after the checkpoint.
+     *
+     * @return The number of entries that were not applied by the last run.
+     */
+    private int replay() {
+        long checkpoint = readCheckpoint();
+        // New entries must never be skipped by the checkpoint
+        nextSequence = Math.max(nextSequence, checkpoint + 1);
+
+        File[] files = folder.listFiles((dir, name) -> name.endsWith(SEGMENT_SUFFIX));
+
+        if (files == null || files.length == 0) {
+            return 0;
+        }
+
+        Arrays.sort(files, Comparator.comparing(File::getName));
+
+        List<Entry> entryList = new ArrayList<>();
+
+        for (File file : files) {
+            try {
+                entryList.addAll(readSegment(file));
+            } catch (IOException exception) {
+                plugin.warningMessage("Unable to read grave journal segment " + file.getName() + ": "
+                        + exception.getMessage());
+            }
+        }
+
+        entryList.sort(Comparator.comparingLong(entry -> entry.sequence));
+
+        if (!entryList.isEmpty()) {
+            nextSequence = Math.max(nextSequence, entryList.get(entryList.size() - 1).sequence + 1);
+        }
+
+        for (Entry entry : entryList) {
+            // Entries up to the checkpoint were applied before the last run stopped
+            if (entry.sequence > checkpoint) {
+                unappliedDeque.add(entry);
+            }
+        }
+
+        for (File file : files) {
+            try {
+                segmentMap.put(Long.parseLong(file.getName().replace(SEGMENT_SUFFIX, "")), file);
+            } catch (NumberFormatException ignored) {
+            }
+        }
+
+        if (!segmentMap.isEmpty()) {
+            // Never append to a segment of the last run, it may end with a cut off record
+            nextSequence = Math.max(nextSequence, segmentMap.lastKey() + 1);
+        }
+
+        int total = unappliedDeque.size();
+
+        while (!unappliedDeque.isEmpty() && applyEntry(unappliedDeque.peekFirst())) {
+            unappliedDeque.pollFirst();
+        }
+
+        if (unappliedDeque.isEmpty()) {
+            deleteSegments();
+        }
+
+        if (total > 0) {
+            plugin.infoMessage("Replayed " + (total - unappliedDeque.size()) + " of " + total
+                    + " grave journal entries.");
+        }
+
+        return total;
+    }
+
+    /**
+     * Deletes every segment and the checkpoint, once nothing in them is left to apply.
+     */
+    private void deleteSegments() {
+        for (File file : segmentMap.values()) {
+            if (!file.delete() && file.exists()) {
+                plugin.debugMessage("Unable to delete grave journal segment " + file.getName() + ".", 1);
+            }
+        }
+
+        segmentMap.clear();
+
+        File checkpointFile = new File(folder, CHECKPOINT_FILE);
+
+        if (!checkpointFile.delete() && checkpointFile.exists()) {
+            plugin.debugMessage("Unable to delete grave journal checkpoint " + checkpointFile.getName() + ".", 1);
+        }
+    }
+
+    /**
+     * Writes the sequence number of the last applied entry, replacing the checkpoint of an earlier run.
+     *
+     * @param sequence The sequence number.
+     */
+    private void writeCheckpoint(long sequence) {
+        File checkpointFile = new File(folder, CHECKPOINT_FILE);
+        File temporaryFile = new File(folder, CHECKPOINT_FILE + ".tmp");
+
+        try {
+            try (FileChannel checkpointChannel = FileChannel.open(temporaryFile.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer byteBuffer = ByteBuffer.wrap(String.valueOf(sequence).getBytes(StandardCharsets.UTF_8));
+
+                while (byteBuffer.hasRemaining()) {
+                    checkpointChannel.write(byteBuffer);
+                }
+
+                checkpointChannel.force(true);
+            }
+
+            Files.move(temporaryFile.toPath(), checkpointFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException exception) {
+            plugin.warningMessage("Unable to write the grave journal checkpoint, applied entries are applied again on "
+                    + "the next start: " + exception.getMessage());
+        }
+    }
+
+    /**
+     * Reads the sequence number of the last entry applied before the last run stopped.
+     *
+     * @return The sequence number, 0 if there is no checkpoint.
+     */
+    private long readCheckpoint() {
+        File checkpointFile = new File(folder, CHECKPOINT_FILE);
+
+        if (!checkpointFile.isFile()) {
+            return 0;
+        }
+
+        try {
+            return Long.parseLong(new String(Files.readAllBytes(checkpointFile.toPath()), StandardCharsets.UTF_8)
+                    .trim());
+        } catch (IOException | NumberFormatException exception) {
+            plugin.warningMessage("Unable to read the grave journal checkpoint, applying every entry again: "
+                    + exception.getMessage());
+
+            return 0;
+        }
+    }
+
+    /**
+     * Reads the entries of a segment up to the first cut off or corrupt record.
+     *
+     * @param file The segment.
+     * @return The entries.
+     */
+    private List<Entry> readSegment(File file) throws IOException {
+        List<Entry> entryList = new ArrayList<>();
+
+        try (DataInputStream dataInputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            while (true) {
+                int length;
+
+                try {
+                    length = dataInputStream.readInt();
+                } catch (EOFException exception) {
+                    break;
+                }
+
+                try {
+                    long checksum = dataInputStream.readInt() & 0xFFFFFFFFL;
+
+                    if (length <= 0 || length > MAX_RECORD_SIZE) {
+                        throw new IOException("invalid record length " + length);
+                    }
+
+                    byte[] payload = new byte[length];
+
+                    dataInputStream.readFully(payload);
+
+                    CRC32 crc32 = new CRC32();
+
+                    crc32.update(payload);
+
+                    if (crc32.getValue() != checksum) {
+                        throw new IOException("checksum mismatch");
+                    }
+
+                    entryList.add(decode(payload));
+                } catch (IOException exception) {
+                    plugin.warningMessage("Grave journal segment " + file.getName() + " ends with a "
+                            + "record that was not completely written (" + exception.getMessage() + "), ignoring it.");
+
+                    break;
+                }
+            }
+        }
+
+        return entryList;
+    }
+
+    /**
+     * Opens a new segment. Must hold the lock.
+     *
+     * @param firstSequence The sequence number of the first entry of the segment.
+     */
+    private void openSegment(long firstSequence) throws IOException {
+        File file = new File(folder, String.format(Locale.ROOT, "%020d", firstSequence) + SEGMENT_SUFFIX);
+
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        segmentMap.put(firstSequence, file);
+    }
+
+    private static ByteBuffer encode(Entry entry) throws IOException {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream);
+
+        dataOutputStream.writeLong(entry.sequence);
+        dataOutputStream.writeInt(entry.statementList.size());
+
+        for (Statement statement : entry.statementList) {
+            writeString(dataOutputStream, statement.sql);
+            dataOutputStream.writeInt(statement.parameters.length);
+
+            for (Object parameter : statement.parameters) {
+                writeParameter(dataOutputStream, parameter);
+            }
+        }
+
+        byte[] payload = byteArrayOutputStream.toByteArray();
+        CRC32 crc32 = new CRC32();
+
+        crc32.update(payload);
+
+        ByteBuffer byteBuffer = ByteBuffer.allocate(8 + payload.length);
+
+        byteBuffer.putInt(payload.length);
+        byteBuffer.putInt((int) crc32.getValue());
+        byteBuffer.put(payload);
+        byteBuffer.flip();
+
+        return byteBuffer;
+    }
+
+    private static Entry decode(byte[] payload) throws IOException {
+        DataInputStream dataInputStream = new DataInputStream(new ByteArrayInputStream(payload));
+        long sequence = dataInputStream.readLong();
+        int statementCount = dataInputStream.readInt();
+        List<Statement> statementList = new ArrayList<>();
+
+        for (int i = 0; i < statementCount; i++) {
+            String sql = readString(dataInputStream);
+            Object[] parameters = new Object[dataInputStream.readInt()];
+
+            for (int j = 0; j < parameters.length; j++) {
+                parameters[j] = readParameter(dataInputStream);
+            }
+
+            statementList.add(new Statement(sql, parameters));
+        }
+
+        return new Entry(sequence, statementList);
+    }
+
+    private static void writeParameter(DataOutputStream dataOutputStream, Object parameter) throws IOException {
+        if (parameter == null) {
+            dataOutputStream.writeByte(TYPE_NULL);
+        } else if (parameter instanceof Integer) {
+            dataOutputStream.writeByte(TYPE_INT);
+            dataOutputStream.writeInt((Integer) parameter);
+        } else if (parameter instanceof Long) {
+            dataOutputStream.writeByte(TYPE_LONG);
+            dataOutputStream.writeLong((Long) parameter);
+        } else if (parameter instanceof Float) {
+            dataOutputStream.writeByte(TYPE_FLOAT);
+            dataOutputStream.writeFloat((Float) parameter);
+        } else if (parameter instanceof Double) {
+            dataOutputStream.writeByte(TYPE_DOUBLE);
+            dataOutputStream.writeDouble((Double) parameter);
+        } else if (parameter instanceof Boolean) {
+            dataOutputStream.writeByte(TYPE_BOOLEAN);
+            dataOutputStream.writeBoolean((Boolean) parameter);
+        } else {
+            // UUIDs and enums are bound as strings anyway
+            dataOutputStream.writeByte(TYPE_STRING);
+            writeString(dataOutputStream, parameter instanceof Enum
+                    ? ((Enum<?>) parameter).name() : parameter.toString());
+        }
+    }
+
+    private static Object readParameter(DataInputStream dataInputStream) throws IOException {
+        byte type = dataInputStream.readByte();
+
+        switch (type) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_STRING:
+                return readString(dataInputStream);
+            case TYPE_INT:
+                return dataInputStream.readInt();
+            case TYPE_LONG:
+                return dataInputStream.readLong();
+            case TYPE_FLOAT:
+                return dataInputStream.readFloat();
+            case TYPE_DOUBLE:
+                return dataInputStream.readDouble();
+            case TYPE_BOOLEAN:
+                return dataInputStream.readBoolean();
+            default:
+                throw new IOException("unknown parameter type " + type);
+        }
+    }
+
+    private static void writeString(DataOutputStream dataOutputStream, String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+
+        dataOutputStream.writeInt(bytes.length);
+        dataOutputStream.write(bytes);
+    }
+
+    private static String readString(DataInputStream dataInputStream) throws IOException {
+        byte[] bytes = new byte[dataInputStream.readInt()];
+
+        dataInputStream.readFully(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A SQL statement and its parameters.
+     */
+    public static final class Statement {
+        private final String sql;
+        private final Object[] parameters;
+
+        public Statement(String sql, Object... parameters) {
+            this.sql = sql;
+            this.parameters = parameters != null ? parameters : new Object[0];
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public Object[] getParameters() {
+            return parameters;
+        }
+    }
+
+    /**
+     * A journaled write, its statements are applied in one transaction.
+     */
+    private static final class Entry {
+        private final long sequence;
+        private final List<Statement> statementList;
+        private int attempts;
+
+        private Entry(long sequence, List<Statement> statementList) {
+            this.sequence = sequence;
+            this.statementList = statementList;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.ranull.graves.manager;
 
 import com.ranull.graves.Graves;
 import com.ranull.graves.compatibility.CompatibilityInventoryView;
+import com.ranull.graves.compatibility.CompatibilityTextDisplay;
 import com.ranull.graves.data.BlockData;
 import com.ranull.graves.data.ChunkData;
 import com.ranull.graves.data.EntityData;
@@ -11,10 +12,11 @@ import com.ranull.graves.event.GraveAutoLootEvent;
 import com.ranull.graves.event.GraveProtectionExpiredEvent;
 import com.ranull.graves.event.GraveTimeoutEvent;
 import com.ranull.graves.integration.MiniMessage;
+import com.ranull.graves.metric.Counter;
+import com.ranull.graves.metric.Histogram;
 import com.ranull.graves.inventory.GraveList;
 import com.ranull.graves.inventory.GraveMenu;
 import com.ranull.graves.type.Grave;
-import com.ranull.graves.util.ColorUtil;
 import com.ranull.graves.util.InventoryUtil;
 import com.ranull.graves.util.MaterialUtil;
 import com.ranull.graves.util.StringUtil;
@@ -60,6 +62,10 @@ public final class GraveManager {
      */
     private final ConcurrentHashMap<String, BukkitTask> tasks = new ConcurrentHashMap<>();
 
+    private final Histogram sweepHistogram;
+    private final Counter removedCounter;
+    private final Counter hologramUpdateCounter;
+
 
     /**
      * Initializes the GraveManager with the specified plugin instance.
@@ -68,6 +74,11 @@ public final class GraveManager {
      */
     public GraveManager(Graves plugin) {
         this.plugin = plugin;
+        this.sweepHistogram = plugin.getMetricManager().getHistogram("graves_sweep_seconds",
+                "Duration of the grave timer sweep.");
+        this.removedCounter = plugin.getMetricManager().getCounter("graves_removed_total", "Graves removed.");
+        this.hologramUpdateCounter = plugin.getMetricManager().getCounter("graves_hologram_updates_total",
+                "Hologram text updates.");
         startGraveTimer();
     }
 
@@ -82,6 +93,7 @@ public final class GraveManager {
      * Checks and updates graves, entities, and blocks, removing expired elements and triggering necessary events.
      */
     private void checkAndUpdateGraves() {
+        long startTime = System.nanoTime();
         List<Grave> graveRemoveList = new ArrayList<>();
         List<EntityData> entityDataRemoveList = new ArrayList<>();
         List<BlockData> blockDataRemoveList = new ArrayList<>();
@@ -94,6 +106,7 @@ public final class GraveManager {
 
         // Remove expired graves, entities, and blocks
         removeExpiredElements(graveRemoveList, entityDataRemoveList, blockDataRemoveList);
+        sweepHistogram.recordSince(startTime);
     }
 
     /**
@@ -228,11 +241,7 @@ public final class GraveManager {
      * @param blockDataRemoveList the list to which block data to be removed will be added.
      */
     private void processChunks(List<EntityData> entityDataRemoveList, List<BlockData> blockDataRemoveList) {
-        for (ChunkData chunkData : plugin.getCacheManager().getChunkMap().values()) {
-            if (!chunkData.isLoaded()) {
-                continue;
-            }
-
+        for (ChunkData chunkData : new ArrayList<>(plugin.getCacheManager().getLoadedChunkMap().values())) {
             Location location = new Location(chunkData.getWorld(), chunkData.getX() << 4, 0, chunkData.getZ() << 4);
 
             // Process Entity Data
@@ -273,6 +282,78 @@ public final class GraveManager {
         }
     }
 
+    /**
+     * Validates the entity data of a chunk whose entities were just loaded. Entity data of removed graves is
+     * removed, missing holograms, armor stands and item frames are spawned again and hologram text is refreshed
+     * right away instead of on the next timer run.
+     *
+     * @param chunk the chunk to validate.
+     */
+    public void validateChunk(Chunk chunk) {
+        ChunkData chunkData = plugin.getCacheManager().getLoadedChunkMap()
+                .get(chunk.getWorld().getName() + "|" + chunk.getX() + "|" + chunk.getZ());
+
+        if (chunkData == null || chunkData.getEntityDataMap().isEmpty()) {
+            return;
+        }
+
+        Location location = new Location(chunkData.getWorld(), chunkData.getX() << 4, 0, chunkData.getZ() << 4);
+        List<EntityData> entityDataRemoveList = new ArrayList<>();
+        Set<UUID> entityUUIDSet = new HashSet<>();
+
+        for (Entity entity : chunk.getEntities()) {
+            entityUUIDSet.add(entity.getUniqueId());
+        }
+
+        for (EntityData entityData : new ArrayList<>(chunkData.getEntityDataMap().values())) {
+            if (entityData == null) {
+                continue;
+            }
+
+            Grave grave = entityData.getUUIDGrave() != null
+                    ? plugin.getCacheManager().getGraveMap().get(entityData.getUUIDGrave()) : null;
+
+            if (grave == null) {
+                entityDataRemoveList.add(entityData);
+            } else if (!entityData.isDormant() && !entityUUIDSet.contains(entityData.getUUIDEntity())) {
+                respawnEntityData(entityData, grave, entityDataRemoveList);
+            } else if (entityData instanceof HologramData) {
+                processHologramData((HologramData) entityData, location, entityDataRemoveList);
+            }
+        }
+
+        for (EntityData entityData : entityDataRemoveList) {
+            removeEntityData(entityData);
+        }
+    }
+
+    /**
+     * Spawns the missing entity of a hologram, armor stand or item frame again and stores its new UUID.
+     *
+     * @param entityData           the entity data whose entity is missing.
+     * @param grave                the grave associated with the entity.
+     * @param entityDataRemoveList the list to which entity data that can not be spawned will be added.
+     */
+    private void respawnEntityData(EntityData entityData, Grave grave, List<EntityData> entityDataRemoveList) {
+        Entity entity;
+
+        if (entityData instanceof HologramData) {
+            entity = plugin.getHologramManager().respawnHologram((HologramData) entityData, grave);
+        } else if (entityData.getType() == EntityData.Type.ARMOR_STAND
+                || entityData.getType() == EntityData.Type.ITEM_FRAME) {
+            entity = plugin.getEntityManager().respawnEntity(entityData, grave);
+        } else {
+            return; // Integration entities are handled by their integration
+        }
+
+        if (entity != null) {
+            plugin.getDataManager().updateEntityDataUUID(entityData, entity.getUniqueId());
+            plugin.debugMessage("Spawned missing " + entityData.getType() + " for grave " + grave.getUUID(), 2);
+        } else {
+            entityDataRemoveList.add(entityData);
+        }
+    }
+
     /**
      * Processes the entity data within the given chunk.
      *
@@ -319,7 +400,12 @@ public final class GraveManager {
 
                 for (Entity entity : hologramData.getLocation().getChunk().getEntities()) {
                     if (entity.getUniqueId().equals(hologramData.getUUIDEntity())) {
-                        if (hologramData.getLine() < lineList.size()) {
+                        hologramUpdateCounter.increment();
+
+                        if (hologramData.isTextDisplay()) {
+                            CompatibilityTextDisplay.setText(entity, plugin.getHologramManager()
+                                    .getHologramText(hologramData.getLocation(), grave));
+                        } else if (hologramData.getLine() < lineList.size()) {
                             if (plugin.getIntegrationManager().hasMiniMessage()) {
                                 String newHologramLine = StringUtil.parseString(lineList.get(hologramData.getLine()), location, grave, plugin);
                                 entity.setCustomName(MiniMessage.parseString(newHologramLine));
@@ -390,6 +476,7 @@ public final class GraveManager {
         long protectionRemaining = grave.getTimeProtectionRemaining();
         grave.setProtection(!currentProtection);
         plugin.getDataManager().updateGrave(grave, "protection", grave.getProtection() ? 1 : 0);
+        plugin.getGUIManager().refreshGrave(grave);
 
         if (protectionRemaining == -1) {
             plugin.debugMessage("Grave " + grave.getUUID() + " has infinite protection, skipping protection remaining handling.", 2);
@@ -433,6 +520,7 @@ public final class GraveManager {
         plugin.getDataManager().updateGrave(grave, "experience", grave.getExperience());
         plugin.getDataManager().updateGrave(grave, "owner_name_display", grave.getOwnerDisplayName());
         plugin.getDataManager().updateGrave(grave, "is_abandoned", grave.isAbandoned() ? 1 : 0);
+        plugin.getGUIManager().refreshGrave(grave);
         // plugin.getDataManager().loadGraveMap();
     }
 
@@ -443,60 +531,7 @@ public final class GraveManager {
      * @param grave    the grave to spawn particles for.
      */
     public void graveParticle(Location location, Grave grave) {
-        if (plugin.getVersionManager().hasParticle()
-                && location.getWorld() != null
-                && plugin.getConfig("particle.enabled", grave).getBoolean("particle.enabled")) {
-            Particle particle = Particle.valueOf(plugin.getVersionManager().getParticleForVersion("REDSTONE").toString());
-            String particleType = plugin.getConfig("particle.type", grave).getString("particle.type");
-
-            if (particleType != null && !particleType.equals("")) {
-                try {
-                    particle = Particle.valueOf(plugin.getConfig("particle.type", grave)
-                            .getString("particle.type"));
-                } catch (IllegalArgumentException ignored) {
-                    plugin.debugMessage(particleType + " is not a Particle ENUM", 1);
-                }
-            }
-
-            int count = plugin.getConfig("particle.count", grave).getInt("particle.count");
-            double offsetX = plugin.getConfig("particle.offset.x", grave).getDouble("particle.offset.x");
-            double offsetY = plugin.getConfig("particle.offset.y", grave).getDouble("particle.offset.y");
-            double offsetZ = plugin.getConfig("particle.offset.z", grave).getDouble("particle.offset.z");
-            location = location.clone().add(offsetX + 0.5, offsetY + 0.5, offsetZ + 0.5);
-
-            if (location.getWorld() != null) {
-                switch (particle.name()) {
-                    case "DUST":
-                    case "REDSTONE":
-                        int sizeInt = plugin.getConfig("particle.dust-size", grave).getInt("particle.dust-size");
-                        float size = (float) sizeInt; // Convert to float
-                        Color color = ColorUtil.getColor(plugin.getConfig("particle.dust-color", grave)
-                                .getString("particle.dust-color", "RED"));
-
-                        if (color == null) {
-                            color = Color.RED;
-                        }
-                        try {
-                            location.getWorld().spawnParticle(particle, location, count,
-                                    new Particle.DustOptions(color, size));
-                        } catch (IllegalArgumentException e) {
-                            location.getWorld().spawnParticle(particle, location, count, 1);
-                        }
-                        break;
-                    case "SHRIEK":
-                        location.getWorld().spawnParticle(particle, location, count, 1);
-                        break;
-                    default:
-                        try {
-                            location.getWorld().spawnParticle(particle, location, count);
-                        } catch (IllegalArgumentException e) {
-                            // May not work for all forks and versions, but will try again
-                            location.getWorld().spawnParticle(particle, location, count, 0, 0, 0, 0);
-                        }
-                        break;
-                }
-            }
-        }
+        plugin.getParticleManager().spawnGraveParticle(location, grave);
     }
 
     /**
@@ -517,11 +552,14 @@ public final class GraveManager {
      */
     public void removeGrave(Grave grave) {
         plugin.debugMessage("Starting removal of grave: " + grave.getUUID(), 1);
+        removedCounter.increment();
         closeGrave(grave);
         plugin.getBlockManager().removeBlock(grave);
         plugin.getHologramManager().removeHologram(grave);
         plugin.getEntityManager().removeEntity(grave);
         plugin.getDataManager().removeGrave(grave);
+        plugin.getGUIManager().removeGraveListItem(grave);
+        plugin.getGUIManager().refreshGrave(grave);
 
         if (plugin.getIntegrationManager().hasWorldEdit()) {
             plugin.getIntegrationManager().getWorldEdit().clearSchematic(grave);
@@ -574,6 +612,10 @@ public final class GraveManager {
             plugin.debugMessage("Attempted to remove null entity data. This is not a bug", 3);
             return;
         }
+        if (entityData.isDormant()) {
+            plugin.getDataManager().removeEntityData(entityData);
+            return;
+        }
         switch (entityData.getType()) {
             case HOLOGRAM: {
                 plugin.getHologramManager().removeHologram(entityData);
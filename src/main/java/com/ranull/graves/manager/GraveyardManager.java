@@ -1,9 +1,9 @@
 package com.ranull.graves.manager;
 
 import com.ranull.graves.Graves;
+import com.ranull.graves.type.Grave;
 import com.ranull.graves.type.Graveyard;
 import com.ranull.graves.util.BlockFaceUtil;
-import com.ranull.graves.util.LocationUtil;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
 import org.bukkit.Material;
@@ -14,17 +14,21 @@ import org.bukkit.entity.Player;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Deprecated
 public final class GraveyardManager {
     private final Graves plugin;
     private final Map<String, Graveyard> graveyardMap;
     private final Map<UUID, Graveyard> modifyingGraveyardMap;
+    private final Map<UUID, Map<String, Membership>> membershipMap;
+    private volatile Map<UUID, GraveyardIndex> graveyardIndexMap;
 
     public GraveyardManager(Graves plugin) {
         this.plugin = plugin;
         this.graveyardMap = new HashMap<>();
         this.modifyingGraveyardMap = new HashMap<>();
+        this.membershipMap = new ConcurrentHashMap<>();
     }
 
     public void unload() throws InvocationTargetException {
@@ -45,6 +49,7 @@ public final class GraveyardManager {
         Graveyard graveyard = new Graveyard(name, world, type);
         graveyard.setSpawnLocation(location);
         graveyardMap.put(graveyard.getKey(), graveyard);
+        invalidateGraveyardIndex();
         return graveyard;
     }
 
@@ -53,7 +58,14 @@ public final class GraveyardManager {
             if (!graveyard.hasGraveLocation(location)) {
                 BlockFace blockFace = BlockFaceUtil.getYawBlockFace(player.getLocation().getYaw()).getOppositeFace();
                 graveyard.addGraveLocation(location, blockFace);
-                plugin.getDataManager().updateGraveyardLocationData(graveyard);
+
+                Grave grave = plugin.getBlockManager().getGraveFromBlock(location.getBlock());
+
+                if (grave != null) {
+                    graveyard.occupyGraveLocation(location, grave.getUUID());
+                }
+
+                plugin.getDataManager().addGraveyardPlot(graveyard, location, blockFace);
                 previewLocation(player, location, blockFace);
                 player.sendMessage(ChatColor.RED + "☠" + ChatColor.DARK_GRAY + " » " + ChatColor.RED + "set block " + location.getBlockX() + ", " + location.getBlockY() + ", " + location.getBlockZ() + " in " + graveyard.getName());
             }
@@ -64,7 +76,7 @@ public final class GraveyardManager {
         plugin.getServer().getScheduler().runTask(plugin, () -> {
             if (graveyard.hasGraveLocation(location)) {
                 graveyard.removeGraveLocation(location);
-                plugin.getDataManager().updateGraveyardLocationData(graveyard);
+                plugin.getDataManager().removeGraveyardPlot(graveyard, location);
                 refreshLocation(player, location);
                 player.sendMessage(ChatColor.RED + "☠" + ChatColor.DARK_GRAY + " » " + ChatColor.RED + "remove block " + location.getBlockX() + ", " + location.getBlockY() + ", " + location.getBlockZ() + " in "+ graveyard.getName());
             }
@@ -72,8 +84,14 @@ public final class GraveyardManager {
     }
 
     public Map<Location, BlockFace> getGraveyardFreeSpaces(Graveyard graveyard) {
-        Map<Location, BlockFace> locationMap = new HashMap<>(graveyard.getGraveLocationMap());
-        locationMap.entrySet().removeAll(getGraveyardUsedSpaces(graveyard).entrySet());
+        Map<Location, BlockFace> locationMap = new HashMap<>();
+
+        for (Map.Entry<Location, BlockFace> entry : graveyard.getGraveLocationMap().entrySet()) {
+            if (graveyard.getGraveAtLocation(entry.getKey()) == null) {
+                locationMap.put(entry.getKey(), entry.getValue());
+            }
+        }
+
         return locationMap;
     }
 
@@ -81,7 +99,7 @@ public final class GraveyardManager {
         Map<Location, BlockFace> locationMap = new HashMap<>();
 
         for (Map.Entry<Location, BlockFace> entry : graveyard.getGraveLocationMap().entrySet()) {
-            if (plugin.getBlockManager().getGraveFromBlock(entry.getKey().getBlock()) != null || plugin.getDataManager().hasGraveAtLocation(entry.getKey())) {
+            if (graveyard.getGraveAtLocation(entry.getKey()) != null) {
                 locationMap.put(entry.getKey(), entry.getValue());
             }
         }
@@ -89,6 +107,64 @@ public final class GraveyardManager {
         return locationMap;
     }
 
+    /**
+     * Claims the next free grave location of a graveyard for a grave.
+     *
+     * @param graveyard The graveyard.
+     * @param grave     The grave that will be placed.
+     * @return A copy of the claimed grave location, or null if the graveyard is full.
+     */
+    public Location claimGraveyardLocation(Graveyard graveyard, Grave grave) {
+        Location location = graveyard.getFreeGraveLocation();
+
+        return location != null && graveyard.occupyGraveLocation(location, grave.getUUID()) ? location.clone() : null;
+    }
+
+    /**
+     * Marks the graveyard location of a grave that entered the cache without being placed by this server, like a
+     * grave loaded from the cache snapshot or written by another server.
+     *
+     * @param grave The grave.
+     */
+    public void occupyGraveyardLocation(Grave grave) {
+        if (grave.getLocationDeath() == null) {
+            return;
+        }
+
+        for (Graveyard graveyard : getGraveyards()) {
+            if (graveyard.occupyGraveLocation(grave.getLocationDeath(), grave.getUUID())) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Frees the graveyard location used by a grave, if any.
+     *
+     * @param graveUUID The UUID of the removed grave.
+     */
+    public void releaseGraveyardLocation(UUID graveUUID) {
+        for (Graveyard graveyard : getGraveyards()) {
+            if (graveyard.releaseGraveLocation(graveUUID)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Gets every graveyard, the ones created this session and the ones loaded from the database.
+     *
+     * @return The graveyards.
+     */
+    private Set<Graveyard> getGraveyards() {
+        Set<Graveyard> graveyardSet = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        graveyardSet.addAll(graveyardMap.values());
+        graveyardSet.addAll(plugin.getCacheManager().getGraveyardsMap().values());
+
+        return graveyardSet;
+    }
+
     public boolean isModifyingGraveyard(Player player) {
         return modifyingGraveyardMap.containsKey(player.getUniqueId());
     }
@@ -124,6 +200,7 @@ public final class GraveyardManager {
                 BlockFace blockFace = BlockFace.SELF; // or determine the correct BlockFace
 
                 graveyard.addGraveLocation(cachedLocation, blockFace);
+                plugin.getDataManager().addGraveyardPlot(graveyard, cachedLocation, blockFace);
                 cacheManager.removeRightClickedBlock(player.getName(), cachedLocation);
 
                 player.sendMessage(ChatColor.GREEN + "☠" + ChatColor.DARK_GRAY + " » " + ChatColor.GREEN + "Added location to graveyard " + graveyard.getName());
@@ -135,10 +212,6 @@ public final class GraveyardManager {
 
             player.sendMessage(ChatColor.RED + "☠" + ChatColor.DARK_GRAY + " » " + ChatColor.RED + "Stopped modifying graveyard " + graveyard.getName());
 
-            // Serialize locations
-            String serializedLocations = Graveyard.serializeLocations(graveyard.getGraveLocationMap());
-            plugin.getLogger().info("Serialized locations before saving: " + serializedLocations);
-
             plugin.getDataManager().saveGraveyard(graveyard);
         }
     }
@@ -150,6 +223,10 @@ public final class GraveyardManager {
     public void deleteGraveyard(Player player, Graveyard graveyard) {
         modifyingGraveyardMap.remove(player.getUniqueId());
 
+        graveyardMap.remove(graveyard.getKey());
+        plugin.getCacheManager().getGraveyardsMap().remove(graveyard.getName(), graveyard);
+        invalidateGraveyardIndex();
+
         player.sendMessage(ChatColor.RED + "☠" + ChatColor.DARK_GRAY + " » " + ChatColor.RED + "Deleted graveyard " + graveyard.getName());
 
         plugin.getDataManager().deleteGraveyard(graveyard);
@@ -168,34 +245,145 @@ public final class GraveyardManager {
         }
     }
 
+    /**
+     * Gets the closest graveyard the entity may use.
+     * <p>
+     * Public graveyards are indexed apart from private ones, so the nearest public graveyard is found without any
+     * membership check. Private graveyards are then only considered when they are closer than that one, and are
+     * checked nearest first so the search stops at the first graveyard the player is a member of.
+     * </p>
+     *
+     * @param location The location to search from.
+     * @param entity   The entity the grave belongs to.
+     * @return The closest usable graveyard, or null if there is none in the world.
+     */
     public Graveyard getClosestGraveyard(Location location, Entity entity) {
-        Map<Location, Graveyard> locationGraveyardMap = new HashMap<>();
-
-        for (Graveyard graveyard : graveyardMap.values()) {
-            if (graveyard.getSpawnLocation() != null) {
-                switch (graveyard.getType()) {
-                    case WORLDGUARD:
-                        if (graveyard.isPublic() || (!(entity instanceof Player)
-                                || (plugin.getIntegrationManager().getWorldGuard() != null
-                                && plugin.getIntegrationManager().getWorldGuard()
-                                .isMember(graveyard.getName(), (Player) entity)))) {
-                            locationGraveyardMap.put(graveyard.getSpawnLocation(), graveyard);
-                        }
-                        break;
-                    case TOWNY:
-                        if (graveyard.isPublic() || (!(entity instanceof Player)
-                                || (plugin.getIntegrationManager().hasTowny()
-                                && plugin.getIntegrationManager().getTowny()
-                                .isResident(graveyard.getName(), (Player) entity)))) {
-                            locationGraveyardMap.put(graveyard.getSpawnLocation(), graveyard);
-                        }
-                        break;
+        if (location.getWorld() == null) {
+            return null;
+        }
+
+        GraveyardIndex graveyardIndex = getGraveyardIndexMap().get(location.getWorld().getUID());
+
+        if (graveyardIndex == null) {
+            return null;
+        }
+
+        Candidate closestPublic = graveyardIndex.publicIndex.getClosest(location);
+        double maxDistance = closestPublic != null ? closestPublic.distance : Double.MAX_VALUE;
+
+        if (!(entity instanceof Player)) {
+            Candidate closestPrivate = graveyardIndex.privateIndex.getClosest(location);
+
+            return closestPrivate != null && closestPrivate.distance < maxDistance
+                    ? closestPrivate.graveyard : closestPublic != null ? closestPublic.graveyard : null;
+        }
+
+        for (Candidate candidate : graveyardIndex.privateIndex.getWithin(location, maxDistance)) {
+            if (isMember(candidate.graveyard, (Player) entity)) {
+                return candidate.graveyard;
+            }
+        }
+
+        return closestPublic != null ? closestPublic.graveyard : null;
+    }
+
+    /**
+     * Marks the graveyard index as outdated, it is rebuilt on the next lookup. Call this when a graveyard is added,
+     * removed or its spawn location or visibility changes.
+     */
+    public void invalidateGraveyardIndex() {
+        graveyardIndexMap = null;
+    }
+
+    /**
+     * Forgets the cached graveyard memberships of a player.
+     *
+     * @param player The player.
+     */
+    public void removeMembershipCache(Player player) {
+        membershipMap.remove(player.getUniqueId());
+    }
+
+    /**
+     * Checks if a player is a member of a private graveyard. Results are cached for the configured time, as the
+     * region and town lookups are slow compared to the distance checks.
+     *
+     * @param graveyard The graveyard.
+     * @param player    The player.
+     * @return true if the player may use the graveyard, false otherwise.
+     */
+    private boolean isMember(Graveyard graveyard, Player player) {
+        long ttl = plugin.getConfig().getLong("settings.graveyard.membership-cache", 30L) * 1000L;
+
+        if (ttl <= 0) {
+            return lookupMembership(graveyard, player);
+        }
+
+        Map<String, Membership> playerMembershipMap = membershipMap.computeIfAbsent(player.getUniqueId(),
+                uuid -> new ConcurrentHashMap<>());
+        Membership membership = playerMembershipMap.get(graveyard.getKey());
+        long now = System.currentTimeMillis();
+
+        if (membership == null || membership.expiry < now) {
+            membership = new Membership(lookupMembership(graveyard, player), now + ttl);
+            playerMembershipMap.put(graveyard.getKey(), membership);
+        }
+
+        return membership.member;
+    }
+
+    private boolean lookupMembership(Graveyard graveyard, Player player) {
+        switch (graveyard.getType()) {
+            case WORLDGUARD:
+                return plugin.getIntegrationManager().getWorldGuard() != null
+                        && plugin.getIntegrationManager().getWorldGuard().isMember(graveyard.getName(), player);
+            case TOWNY:
+                return plugin.getIntegrationManager().hasTowny()
+                        && plugin.getIntegrationManager().getTowny().isResident(graveyard.getName(), player);
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Gets the graveyard index keyed by world UUID, building it when outdated.
+     *
+     * @return The graveyard index.
+     */
+    private Map<UUID, GraveyardIndex> getGraveyardIndexMap() {
+        Map<UUID, GraveyardIndex> indexMap = graveyardIndexMap;
+
+        if (indexMap == null) {
+            Map<UUID, List<Graveyard>> publicMap = new HashMap<>();
+            Map<UUID, List<Graveyard>> privateMap = new HashMap<>();
+
+            for (Graveyard graveyard : getGraveyards()) {
+                Location spawnLocation = graveyard.getSpawnLocation();
+
+                if (spawnLocation != null && spawnLocation.getWorld() != null
+                        && (graveyard.getType() == Graveyard.Type.WORLDGUARD
+                        || graveyard.getType() == Graveyard.Type.TOWNY)) {
+                    (graveyard.isPublic() ? publicMap : privateMap).computeIfAbsent(spawnLocation.getWorld()
+                            .getUID(), uuid -> new ArrayList<>()).add(graveyard);
                 }
             }
+
+            indexMap = new HashMap<>();
+
+            Set<UUID> worldSet = new HashSet<>(publicMap.keySet());
+
+            worldSet.addAll(privateMap.keySet());
+
+            for (UUID worldUUID : worldSet) {
+                indexMap.put(worldUUID, new GraveyardIndex(
+                        new SpatialIndex(publicMap.getOrDefault(worldUUID, Collections.emptyList())),
+                        new SpatialIndex(privateMap.getOrDefault(worldUUID, Collections.emptyList()))));
+            }
+
+            graveyardIndexMap = indexMap;
         }
 
-        return !locationGraveyardMap.isEmpty() ? locationGraveyardMap.get(LocationUtil
-                .getClosestLocation(location, new ArrayList<>(locationGraveyardMap.keySet()))) : null;
+        return indexMap;
     }
 
     private void previewLocation(Player player, Location location, BlockFace blockFace) {
@@ -228,4 +416,135 @@ public final class GraveyardManager {
         List<Graveyard> graveyardsList = new ArrayList<>(graveyardMap.values());
         return graveyardsList.toArray(new Graveyard[0]);
     }
+
+    /**
+     * The public and private graveyards of a world.
+     */
+    private static final class GraveyardIndex {
+        private final SpatialIndex publicIndex;
+        private final SpatialIndex privateIndex;
+
+        private GraveyardIndex(SpatialIndex publicIndex, SpatialIndex privateIndex) {
+            this.publicIndex = publicIndex;
+            this.privateIndex = privateIndex;
+        }
+    }
+
+    /**
+     * Graveyard spawn locations sorted on the x axis. A lookup starts at the x of the location and walks outwards,
+     * stopping on each side once the x distance alone is further than the search distance.
+     */
+    private static final class SpatialIndex {
+        private final Graveyard[] graveyards;
+        private final double[] x;
+        private final double[] y;
+        private final double[] z;
+
+        private SpatialIndex(List<Graveyard> graveyardList) {
+            List<Graveyard> sortedList = new ArrayList<>(graveyardList);
+
+            sortedList.sort(Comparator.comparingDouble(graveyard -> graveyard.getSpawnLocation().getX()));
+
+            this.graveyards = sortedList.toArray(new Graveyard[0]);
+            this.x = new double[graveyards.length];
+            this.y = new double[graveyards.length];
+            this.z = new double[graveyards.length];
+
+            for (int i = 0; i < graveyards.length; i++) {
+                Location spawnLocation = graveyards[i].getSpawnLocation();
+
+                x[i] = spawnLocation.getX();
+                y[i] = spawnLocation.getY();
+                z[i] = spawnLocation.getZ();
+            }
+        }
+
+        private Candidate getClosest(Location location) {
+            List<Candidate> candidateList = getWithin(location, Double.MAX_VALUE, true);
+
+            return !candidateList.isEmpty() ? candidateList.get(0) : null;
+        }
+
+        private List<Candidate> getWithin(Location location, double maxDistance) {
+            return getWithin(location, maxDistance, false);
+        }
+
+        /**
+         * Gets the graveyards closer than a squared distance, nearest first.
+         *
+         * @param location    The location to search from.
+         * @param maxDistance The squared distance limit.
+         * @param closestOnly Whether to shrink the limit to the closest graveyard found so far.
+         * @return The graveyards, nearest first.
+         */
+        private List<Candidate> getWithin(Location location, double maxDistance, boolean closestOnly) {
+            List<Candidate> candidateList = new ArrayList<>();
+            int start = Arrays.binarySearch(x, location.getX());
+
+            start = start < 0 ? -start - 1 : start;
+
+            for (int step = 0, left = start - 1, right = start; left >= 0 || right < x.length; step++) {
+                int i = (step & 1) == 0 ? right++ : left--;
+
+                if (i < 0 || i >= x.length) {
+                    continue;
+                }
+
+                double dx = x[i] - location.getX();
+
+                if (dx * dx >= maxDistance) {
+                    // Everything further along this side is further away on the x axis alone
+                    if (i >= start) {
+                        right = x.length;
+                    } else {
+                        left = -1;
+                    }
+
+                    continue;
+                }
+
+                double dy = y[i] - location.getY();
+                double dz = z[i] - location.getZ();
+                double distance = dx * dx + dy * dy + dz * dz;
+
+                if (distance < maxDistance) {
+                    candidateList.add(new Candidate(graveyards[i], distance));
+
+                    if (closestOnly) {
+                        maxDistance = distance;
+                    }
+                }
+            }
+
+            candidateList.sort(Comparator.comparingDouble(candidate -> candidate.distance));
+
+            return candidateList;
+        }
+    }
+
+    /**
+     * A graveyard and its squared distance to a location.
+     */
+    private static final class Candidate {
+        private final Graveyard graveyard;
+        private final double distance;
+
+        private Candidate(Graveyard graveyard, double distance) {
+            this.graveyard = graveyard;
+            this.distance = distance;
+        }
+    }
+
+    /**
+     * A cached membership lookup.
+     */
+    private static final class Membership {
+        private final boolean member;
+        private final long expiry;
+
+        private Membership(boolean member, long expiry) {
+            this.member = member;
+            this.expiry = expiry;
+        }
+    }
 }
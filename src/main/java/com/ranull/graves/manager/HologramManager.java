@@ -1,21 +1,22 @@
 package com.ranull.graves.manager;
 
 import com.ranull.graves.Graves;
+import com.ranull.graves.compatibility.CompatibilityTextDisplay;
+import com.ranull.graves.data.ChunkData;
 import com.ranull.graves.data.EntityData;
 import com.ranull.graves.data.HologramData;
 import com.ranull.graves.integration.MiniMessage;
+import com.ranull.graves.metric.Counter;
 import com.ranull.graves.type.Grave;
 import com.ranull.graves.util.LocationUtil;
 import com.ranull.graves.util.StringUtil;
+import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.entity.ArmorStand;
 import org.bukkit.entity.Entity;
 import org.bukkit.scheduler.BukkitRunnable;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 /**
  * The HologramManager class is responsible for managing holograms associated with graves.
@@ -30,6 +31,11 @@ public final class HologramManager extends EntityDataManager {
      */
     private final Graves plugin;
 
+    /**
+     * Counts the holograms created.
+     */
+    private final Counter createdCounter;
+
     /**
      * Initializes a new instance of the HologramManager class.
      *
@@ -38,6 +44,8 @@ public final class HologramManager extends EntityDataManager {
     public HologramManager(Graves plugin) {
         super(plugin);
         this.plugin = plugin;
+        this.createdCounter = plugin.getMetricManager().getCounter("graves_holograms_created_total",
+                "Grave holograms created.");
     }
 
     /**
@@ -47,7 +55,11 @@ public final class HologramManager extends EntityDataManager {
      * @param grave    The grave associated with the hologram.
      */
     public void createHologram(Location location, Grave grave) {
-        if (!plugin.getVersionManager().is_v1_7()
+        createdCounter.increment();
+
+        if (plugin.getPacketHologramManager() != null && plugin.getPacketHologramManager().isEnabled()) {
+            plugin.getPacketHologramManager().createHologram(location, grave);
+        } else if (!plugin.getVersionManager().is_v1_7()
                 && plugin.getConfig("hologram.enabled", grave).getBoolean("hologram.enabled")) {
             double offsetX = plugin.getConfig("hologram.offset.x", grave).getDouble("hologram.offset.x");
             double offsetY = plugin.getConfig("hologram.offset.y", grave).getDouble("hologram.offset.y");
@@ -61,43 +73,21 @@ public final class HologramManager extends EntityDataManager {
                     .getDouble("hologram.height-line");
             int lineNumber = 0;
 
+            if (isTextDisplayEnabled()) {
+                createTextDisplay(location.add(0, lineHeight, 0), grave);
+
+                return;
+            }
+
             Collections.reverse(lineList);
 
             for (String line : lineList) {
                 location.add(0, lineHeight, 0);
 
                 if (location.getWorld() != null) {
-                    ArmorStand armorStand = location.getWorld().spawn(location, ArmorStand.class);
-                    armorStand.setVisible(false);
-                    armorStand.setGravity(false);
-                    armorStand.setCustomNameVisible(true);
-                    armorStand.setSmall(true);
-
-                    // Use MiniMessage if available to format the custom name
-                    if (plugin.getIntegrationManager().hasMiniMessage()) {
-                        String newLine = StringUtil.parseString(line, location, grave, plugin);
-                        armorStand.setCustomName(MiniMessage.parseString(newLine));
-                    } else {
-                        armorStand.setCustomName(StringUtil.parseString(line, location, grave, plugin));
-                    }
+                    ArmorStand armorStand = spawnHologramLine(location, grave, line, marker);
 
-                    if (!plugin.getVersionManager().is_v1_7()) {
-                        try {
-                            armorStand.setMarker(marker);
-                        } catch (NoSuchMethodError ignored) {
-                        }
-                    }
-
-                    if (!plugin.getVersionManager().is_v1_7() && !plugin.getVersionManager().is_v1_8()) {
-                        armorStand.setInvulnerable(true);
-                    }
-
-                    if (plugin.getVersionManager().hasScoreboardTags()) {
-                        armorStand.getScoreboardTags().add("graveHologram");
-                        armorStand.getScoreboardTags().add("graveHologramGraveUUID:" + grave.getUUID());
-                    }
-
-                    HologramData hologramData = new HologramData(location, armorStand.getUniqueId(),
+                    HologramData hologramData = new HologramData(location.clone(), armorStand.getUniqueId(),
                             grave.getUUID(), lineNumber);
 
                     plugin.getDataManager().addHologramData(hologramData);
@@ -111,13 +101,245 @@ public final class HologramManager extends EntityDataManager {
         }
     }
 
+    /**
+     * Checks if holograms are created as a single text display per grave instead of an armor stand per line.
+     *
+     * @return True if text display holograms are used, otherwise false.
+     */
+    public boolean isTextDisplayEnabled() {
+        return plugin.getVersionManager().hasDisplayEntities()
+                && plugin.getConfig().getBoolean("settings.hologram.text-display", true);
+    }
+
+    /**
+     * Creates a text display holding every hologram line of a grave, stored as a single hologram row.
+     *
+     * @param location The location of the bottom line.
+     * @param grave    The grave associated with the hologram.
+     */
+    private void createTextDisplay(Location location, Grave grave) {
+        if (location.getWorld() == null) {
+            return;
+        }
+
+        Entity entity = spawnTextDisplay(location, grave);
+        HologramData hologramData = new HologramData(location.clone(), entity.getUniqueId(), grave.getUUID(),
+                HologramData.TEXT_DISPLAY_LINE);
+
+        plugin.getDataManager().addHologramData(hologramData);
+
+        if (plugin.getIntegrationManager().hasMultiPaper()) {
+            plugin.getIntegrationManager().getMultiPaper().notifyHologramCreation(hologramData);
+        }
+    }
+
+    /**
+     * Spawns a text display for a grave.
+     *
+     * @param location The location of the text display.
+     * @param grave    The grave associated with the hologram.
+     * @return The spawned text display.
+     */
+    private Entity spawnTextDisplay(Location location, Grave grave) {
+        Entity entity = CompatibilityTextDisplay.spawn(location, getHologramText(location, grave));
+
+        entity.setInvulnerable(true);
+        entity.getScoreboardTags().add("graveHologram");
+        entity.getScoreboardTags().add("graveHologramGraveUUID:" + grave.getUUID());
+
+        return entity;
+    }
+
+    /**
+     * Parses every hologram line of a grave into the text of a text display, top line first.
+     *
+     * @param location The location of the hologram.
+     * @param grave    The grave associated with the hologram.
+     * @return The lines joined by newlines.
+     */
+    public String getHologramText(Location location, Grave grave) {
+        List<String> textList = new ArrayList<>();
+
+        for (String line : plugin.getConfig("hologram.line", grave).getStringList("hologram.line")) {
+            if (plugin.getIntegrationManager().hasMiniMessage()) {
+                textList.add(MiniMessage.parseString(StringUtil.parseString(line, location, grave, plugin)));
+            } else {
+                textList.add(StringUtil.parseString(line, location, grave, plugin));
+            }
+        }
+
+        return String.join("\n", textList);
+    }
+
+    /**
+     * Converts the armor stand holograms in a chunk to text display holograms. The armor stands and their rows are
+     * removed and one text display is created at the bottom line of each grave.
+     *
+     * @param chunk The chunk whose entities were loaded.
+     */
+    public void migrateHolograms(Chunk chunk) {
+        if (!isTextDisplayEnabled() || (plugin.getPacketHologramManager() != null
+                && plugin.getPacketHologramManager().isEnabled())) {
+            return;
+        }
+
+        ChunkData chunkData = plugin.getCacheManager().getChunkMap()
+                .get(chunk.getWorld().getName() + "|" + chunk.getX() + "|" + chunk.getZ());
+
+        if (chunkData == null) {
+            return;
+        }
+
+        Map<UUID, List<HologramData>> graveHologramMap = new HashMap<>();
+
+        for (EntityData entityData : chunkData.getEntityDataMap().values()) {
+            if (entityData instanceof HologramData && !((HologramData) entityData).isTextDisplay()) {
+                graveHologramMap.computeIfAbsent(entityData.getUUIDGrave(), uuid -> new ArrayList<>())
+                        .add((HologramData) entityData);
+            }
+        }
+
+        if (graveHologramMap.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, Entity> entityMap = new HashMap<>();
+
+        for (Entity entity : chunk.getEntities()) {
+            entityMap.put(entity.getUniqueId(), entity);
+        }
+
+        for (Map.Entry<UUID, List<HologramData>> entry : graveHologramMap.entrySet()) {
+            Grave grave = plugin.getCacheManager().getGraveMap().get(entry.getKey());
+
+            if (grave == null) {
+                continue; // GraveManager removes holograms of removed graves
+            }
+
+            HologramData bottomHologramData = null;
+
+            for (HologramData hologramData : entry.getValue()) {
+                Entity entity = entityMap.get(hologramData.getUUIDEntity());
+
+                if (entity != null) {
+                    entity.remove();
+                }
+
+                chunkData.removeEntityData(hologramData);
+
+                if (bottomHologramData == null || hologramData.getLine() < bottomHologramData.getLine()) {
+                    bottomHologramData = hologramData;
+                }
+            }
+
+            plugin.getDataManager().removeEntityData(new ArrayList<>(entry.getValue()));
+            createTextDisplay(bottomHologramData.getLocation().clone(), grave);
+            plugin.debugMessage("Converted " + entry.getValue().size() + " hologram lines of grave "
+                    + grave.getUUID() + " to a text display", 2);
+        }
+    }
+
+    /**
+     * Converts the armor stand holograms in every loaded grave chunk whose entities are already loaded. Chunks that
+     * were loaded before the hologram map, like spawn chunks at startup, never fire an EntitiesLoadEvent again.
+     */
+    public void migrateLoadedHolograms() {
+        for (ChunkData chunkData : new ArrayList<>(plugin.getCacheManager().getLoadedChunkMap().values())) {
+            if (chunkData.isLoaded()) {
+                Chunk chunk = chunkData.getWorld().getChunkAt(chunkData.getX(), chunkData.getZ());
+
+                if (chunk.isEntitiesLoaded()) {
+                    migrateHolograms(chunk);
+                }
+            }
+        }
+    }
+
+    /**
+     * Spawns the hologram line of existing hologram data again at its stored location. Used by view-distance LOD
+     * when a player comes back into range of a dormant hologram.
+     *
+     * @param hologramData The hologram data to spawn a line for.
+     * @param grave        The grave associated with the hologram.
+     * @return The spawned armor stand or text display, or null if the line no longer exists.
+     */
+    public Entity respawnHologram(HologramData hologramData, Grave grave) {
+        Location location = hologramData.getLocation();
+
+        if (location.getWorld() != null && hologramData.isTextDisplay()) {
+            return plugin.getVersionManager().hasDisplayEntities() ? spawnTextDisplay(location, grave) : null;
+        }
+
+        List<String> lineList = plugin.getConfig("hologram.line", grave).getStringList("hologram.line");
+
+        Collections.reverse(lineList);
+
+        if (location.getWorld() == null || hologramData.getLine() >= lineList.size()) {
+            return null;
+        }
+
+        boolean marker = plugin.getConfig("hologram.marker", grave).getBoolean("hologram.marker");
+
+        return spawnHologramLine(location, grave, lineList.get(hologramData.getLine()), marker);
+    }
+
+    /**
+     * Spawns a single hologram line armor stand.
+     *
+     * @param location The location of the line.
+     * @param grave    The grave associated with the hologram.
+     * @param line     The unparsed text of the line.
+     * @param marker   Whether the armor stand is a marker.
+     * @return The spawned armor stand.
+     */
+    private ArmorStand spawnHologramLine(Location location, Grave grave, String line, boolean marker) {
+        ArmorStand armorStand = location.getWorld().spawn(location, ArmorStand.class);
+        armorStand.setVisible(false);
+        armorStand.setGravity(false);
+        armorStand.setCustomNameVisible(true);
+        armorStand.setSmall(true);
+
+        // Use MiniMessage if available to format the custom name
+        if (plugin.getIntegrationManager().hasMiniMessage()) {
+            String newLine = StringUtil.parseString(line, location, grave, plugin);
+            armorStand.setCustomName(MiniMessage.parseString(newLine));
+        } else {
+            armorStand.setCustomName(StringUtil.parseString(line, location, grave, plugin));
+        }
+
+        if (!plugin.getVersionManager().is_v1_7()) {
+            try {
+                armorStand.setMarker(marker);
+            } catch (NoSuchMethodError ignored) {
+            }
+        }
+
+        if (!plugin.getVersionManager().is_v1_7() && !plugin.getVersionManager().is_v1_8()) {
+            armorStand.setInvulnerable(true);
+        }
+
+        if (plugin.getVersionManager().hasScoreboardTags()) {
+            armorStand.getScoreboardTags().add("graveHologram");
+            armorStand.getScoreboardTags().add("graveHologramGraveUUID:" + grave.getUUID());
+        }
+
+        return armorStand;
+    }
+
     /**
      * Removes all holograms associated with a grave.
      *
      * @param grave The grave whose holograms should be removed.
      */
     public void removeHologram(Grave grave) {
-        removeHologram(getEntityDataMap(getLoadedEntityDataList(grave)));
+        List<EntityData> entityDataList = getLoadedEntityDataList(grave);
+
+        if (plugin.getPacketHologramManager() != null) {
+            plugin.getPacketHologramManager().removeHologram(grave);
+        }
+
+        removeHologram(getEntityDataMap(entityDataList));
+        removeDormantEntityData(entityDataList, EntityData.Type.HOLOGRAM);
     }
 
     /**
@@ -126,7 +348,10 @@ public final class HologramManager extends EntityDataManager {
      * @param entityData The entity data of the hologram to remove.
      */
     public void removeHologram(EntityData entityData) {
-        removeHologram(getEntityDataMap(Collections.singletonList(entityData)));
+        List<EntityData> entityDataList = Collections.singletonList(entityData);
+
+        removeHologram(getEntityDataMap(entityDataList));
+        removeDormantEntityData(entityDataList, EntityData.Type.HOLOGRAM);
     }
 
     /**
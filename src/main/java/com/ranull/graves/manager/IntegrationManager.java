@@ -13,9 +13,9 @@ import org.bukkit.World;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.RegisteredServiceProvider;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.StringJoiner;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * The {@code IntegrationManager} class is responsible for managing the integration of various external plugins with the Graves plugin.
@@ -231,6 +231,24 @@ public final class IntegrationManager {
 
     private boolean hasVaultEconomy;
 
+    /**
+     * Cache of region and claim query results of WorldGuard, Towny and GriefDefender.
+     */
+    private final RegionQueryCache regionQueryCache;
+
+    /**
+     * The declared integrations by name, in load order.
+     * <p>
+     * Declared once in the constructor and only read afterwards, so lazy integrations can be looked up from any thread.
+     * </p>
+     */
+    private final Map<String, IntegrationLoader> loaderMap;
+
+    /**
+     * The load time of every loaded integration in nanoseconds, in load order.
+     */
+    private final Map<String, Long> loadTimeMap;
+
     /**
      * Initializes a new instance of the {@code IntegrationManager} class.
      *
@@ -238,45 +256,70 @@ public final class IntegrationManager {
      */
     public IntegrationManager(Graves plugin) {
         this.plugin = plugin;
+        this.regionQueryCache = new RegionQueryCache(plugin);
+        this.loaderMap = new LinkedHashMap<>();
+        this.loadTimeMap = Collections.synchronizedMap(new LinkedHashMap<>());
+
+        declare("MultiPaper", false, this::loadMultiPaper);
+        declare("Vault", false, this::loadVault);
+        declare("ProtocolLib", false, this::loadProtocolLib);
+        declare("WorldEdit", false, this::loadWorldEdit);
+        declare("WorldGuard", false, this::loadWorldGuard);
+        declare("Towny", false, this::loadTowny);
+        declare("GriefDefender", false, this::loadGriefDefender); // TODO: Integration enabled, test for possible issues.
+        declare("FurnitureLib", false, this::loadFurnitureLib);
+        declare("FurnitureEngine", false, this::loadFurnitureEngine);
+        declare("ProtectionLib", false, this::loadProtectionLib);
+        declare("ItemsAdder", false, this::loadItemsAdder);
+        declare("Oraxen", false, this::loadOraxen);
+        declare("MiniMessage", true, this::loadMiniMessage);
+        declare("MineDown", true, this::loadMineDown, "MiniMessage");
+        declare("ChestSort", true, this::loadChestSort);
+        declare("PlayerNPC", false, this::loadPlayerNPC);
+        declare("Citizens", false, this::loadCitizensNPC);
+        declare("ItemBridge", false, this::loadItemBridge);
+        declare("PlaceholderAPI", false, this::loadPlaceholderAPI);
+        declare("Compatibility", false, this::loadCompatibilityWarnings);
+        declare("LuckPerms", true, this::loadLuckPerms);
+        declare("CoreProtect", false, this::loadCoreProtect);
+        declare("NBTAPI", false, this::loadNBTAPI);
+        declare("Bedrock", false, this::loadBedrockSupport);
+        declare("FancyNpcs", false, this::loadFancyNpcs);
     }
 
     /**
      * Reloads all integrations by first unloading them and then loading them again.
      */
     public void reload() {
+        regionQueryCache.invalidateAll();
         unload();
         load();
     }
 
     /**
      * Loads all integrations for the Graves plugin.
+     * <p>
+     * Integrations that hook into events or other plugins are loaded now, in declaration order after their
+     * dependencies. Lazy integrations are only wrappers around an API and are loaded on first use. Work that does not
+     * need the Bukkit API, like reading schematics, runs on a bootstrap pool. The load times are logged at the end.
+     * </p>
      */
     public void load() {
-        loadMultiPaper();
-        loadVault();
-        loadProtocolLib();
-        loadWorldEdit();
-        loadWorldGuard();
-        loadTowny();
-        loadGriefDefender(); // TODO: Integration enabled, test for possible issues.
-        loadFurnitureLib();
-        loadFurnitureEngine();
-        loadProtectionLib();
-        loadItemsAdder();
-        loadOraxen();
-        loadMiniMessage();
-        loadMineDown();
-        loadChestSort();
-        loadPlayerNPC();
-        loadCitizensNPC();
-        loadItemBridge();
-        loadPlaceholderAPI();
-        loadCompatibilityWarnings();
-        loadLuckPerms();
-        loadCoreProtect();
-        loadNBTAPI();
-        loadBedrockSupport();
-        loadFancyNpcs();
+        long start = System.nanoTime();
+
+        loadTimeMap.clear();
+
+        for (IntegrationLoader integrationLoader : loaderMap.values()) {
+            integrationLoader.loaded = false;
+        }
+
+        for (IntegrationLoader integrationLoader : loaderMap.values()) {
+            if (!integrationLoader.lazy) {
+                activate(integrationLoader);
+            }
+        }
+
+        logLoadTimes(System.nanoTime() - start);
     }
 
     /**
@@ -326,6 +369,10 @@ public final class IntegrationManager {
         if (towny != null) {
             towny.unregisterListeners();
         }
+
+        if (worldEdit != null) {
+            worldEdit.unload();
+        }
     }
 
     /**
@@ -364,6 +411,15 @@ public final class IntegrationManager {
         return worldEdit;
     }
 
+    /**
+     * Returns the cache of region and claim query results shared by the protection integrations.
+     *
+     * @return The region query cache.
+     */
+    public RegionQueryCache getRegionQueryCache() {
+        return regionQueryCache;
+    }
+
     /**
      * Returns the instance of the WorldGuard integration, if it is loaded.
      *
@@ -451,6 +507,8 @@ public final class IntegrationManager {
      * @return The {@code MiniMessage} integration instance, or null if not loaded.
      */
     public MiniMessage getMiniMessage() {
+        activate("MiniMessage");
+
         return miniMessage;
     }
 
@@ -460,6 +518,8 @@ public final class IntegrationManager {
      * @return The {@code MineDown} integration instance, or null if not loaded.
      */
     public MineDown getMineDown() {
+        activate("MineDown");
+
         return mineDown;
     }
 
@@ -469,6 +529,8 @@ public final class IntegrationManager {
      * @return The {@code ChestSort} integration instance, or null if not loaded.
      */
     public ChestSort getChestSort() {
+        activate("ChestSort");
+
         return chestSort;
     }
 
@@ -523,6 +585,8 @@ public final class IntegrationManager {
      * @return The {@code LuckPermsHandler} instance, or null if not loaded.
      */
     public LuckPermsHandler getLuckPermsHandler() {
+        activate("LuckPerms");
+
         return luckPermsHandler;
     }
 
@@ -658,6 +722,8 @@ public final class IntegrationManager {
      * @return {@code true} if MiniMessage integration is loaded, {@code false} otherwise.
      */
     public boolean hasMiniMessage() {
+        activate("MiniMessage");
+
         return miniMessage != null;
     }
 
@@ -667,6 +733,8 @@ public final class IntegrationManager {
      * @return {@code true} if MineDown integration is loaded, {@code false} otherwise.
      */
     public boolean hasMineDown() {
+        activate("MineDown");
+
         return mineDown != null;
     }
 
@@ -676,6 +744,8 @@ public final class IntegrationManager {
      * @return {@code true} if ChestSort integration is loaded, {@code false} otherwise.
      */
     public boolean hasChestSort() {
+        activate("ChestSort");
+
         return chestSort != null;
     }
 
@@ -725,12 +795,134 @@ public final class IntegrationManager {
      * @return {@code true} if LuckPermsHandler is loaded, {@code false} otherwise.
      */
     public boolean hasLuckPermsHandler() {
+        activate("LuckPerms");
+
         return luckPermsHandler != null;
     }
 
     public boolean hasFancyNpcs() {
         return fancyNpcs != null;
     }
+
+    /**
+     * Gets the load time of every loaded integration, for the server dump. Lazy integrations are listed once used.
+     *
+     * @return The load time lines, in load order.
+     */
+    public List<String> getLoadTimeList() {
+        List<String> loadTimeList = new ArrayList<>();
+
+        synchronized (loadTimeMap) {
+            for (Map.Entry<String, Long> entry : loadTimeMap.entrySet()) {
+                loadTimeList.add(entry.getKey() + ": " + toMillis(entry.getValue()));
+            }
+        }
+
+        return loadTimeList;
+    }
+
+    /**
+     * Declares an integration.
+     *
+     * @param name         The name of the integration.
+     * @param lazy         Whether the integration is loaded on first use instead of on startup. Only for integrations
+     *                     that register nothing and can be created from any thread.
+     * @param loader       The load method of the integration.
+     * @param dependencies The integrations that have to be loaded first.
+     */
+    private void declare(String name, boolean lazy, Runnable loader, String... dependencies) {
+        loaderMap.put(name, new IntegrationLoader(name, lazy, loader, dependencies));
+    }
+
+    /**
+     * Loads a lazy integration if it was not used yet since the last load.
+     *
+     * @param name The name of the integration.
+     */
+    private void activate(String name) {
+        IntegrationLoader integrationLoader = loaderMap.get(name);
+
+        if (!integrationLoader.loaded) {
+            activate(integrationLoader);
+        }
+    }
+
+    /**
+     * Loads an integration after its dependencies and records how long it took.
+     *
+     * @param integrationLoader The integration.
+     */
+    private synchronized void activate(IntegrationLoader integrationLoader) {
+        if (integrationLoader.loaded) {
+            return;
+        }
+
+        for (String dependency : integrationLoader.dependencies) {
+            activate(loaderMap.get(dependency));
+        }
+
+        long start = System.nanoTime();
+
+        try {
+            integrationLoader.loader.run();
+        } catch (RuntimeException | LinkageError exception) {
+            plugin.integrationMessage("Failed to load " + integrationLoader.name + " integration: "
+                    + exception, "severe");
+            plugin.logStackTrace(exception);
+        }
+
+        integrationLoader.loaded = true;
+        loadTimeMap.put(integrationLoader.name, System.nanoTime() - start);
+    }
+
+    /**
+     * Logs the total load time with the slowest integrations, and every load time at debug level 1.
+     *
+     * @param nanos The total load time in nanoseconds.
+     */
+    private void logLoadTimes(long nanos) {
+        List<Map.Entry<String, Long>> entryList;
+
+        synchronized (loadTimeMap) {
+            entryList = new ArrayList<>(loadTimeMap.entrySet());
+        }
+
+        entryList.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+
+        StringJoiner slowest = new StringJoiner(", ");
+
+        for (int i = 0; i < Math.min(3, entryList.size()); i++) {
+            slowest.add(entryList.get(i).getKey() + " " + toMillis(entryList.get(i).getValue()));
+        }
+
+        plugin.getLogger().info("Loaded integrations in " + toMillis(nanos) + ", slowest: " + slowest + ".");
+
+        for (Map.Entry<String, Long> entry : entryList) {
+            plugin.debugMessage(String.format(Locale.ROOT, "  %-16s %s", entry.getKey(), toMillis(entry.getValue())), 1);
+        }
+    }
+
+    private String toMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.2fms", nanos / 1_000_000D);
+    }
+
+    /**
+     * Creates the pool used for integration work that does not need the Bukkit API. The pool is shut down right after
+     * its work is submitted, its threads end once the work is done.
+     *
+     * @return The bootstrap pool.
+     */
+    private ExecutorService createBootstrapExecutor() {
+        return Executors.newFixedThreadPool(Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() - 1)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "GravesX Bootstrap");
+
+                    thread.setDaemon(true);
+
+                    return thread;
+                });
+    }
+
     /**
      * Loads the MultiPaper integration if enabled in the configuration.
      */
@@ -887,7 +1079,7 @@ public final class IntegrationManager {
                     Class.forName("com.sk89q.worldguard.WorldGuard", false, getClass().getClassLoader());
                     Class.forName("com.sk89q.worldguard.protection.flags.registry.FlagConflictException", false, getClass().getClassLoader());
 
-                    worldGuard = new WorldGuard(plugin);
+                    worldGuard = new WorldGuard(plugin, regionQueryCache);
 
                     plugin.integrationMessage("Hooked into " + worldGuardPlugin.getName() + " " + worldGuardPlugin.getDescription().getVersion() + ".");
                 } catch (ClassNotFoundException ignored) {
@@ -907,7 +1099,7 @@ public final class IntegrationManager {
             Plugin townyPlugin = plugin.getServer().getPluginManager().getPlugin("Towny");
 
             if (townyPlugin != null) {
-                towny = new Towny(plugin, townyPlugin);
+                towny = new Towny(plugin, townyPlugin, regionQueryCache);
 
                 plugin.integrationMessage("Hooked into " + townyPlugin.getName() + " " + townyPlugin.getDescription().getVersion() + ".");
             }
@@ -929,6 +1121,13 @@ public final class IntegrationManager {
 
                     worldEdit = new WorldEdit(plugin, worldEditPlugin);
 
+                    long start = System.nanoTime();
+                    ExecutorService bootstrapExecutor = createBootstrapExecutor();
+
+                    worldEdit.loadData(bootstrapExecutor).thenAccept(count -> loadTimeMap.put("WorldEdit schematics",
+                            System.nanoTime() - start));
+                    bootstrapExecutor.shutdown();
+
                     plugin.integrationMessage("Hooked into " + worldEditPlugin.getName() + " " + worldEditPlugin.getDescription().getVersion() + ".");
                 } catch (ClassNotFoundException ignored) {
                     plugin.integrationMessage(worldEditPlugin.getName() + " " + worldEditPlugin.getDescription().getVersion() + " detected, Only WorldEdit 7+ is supported. Disabling WorldEdit support.", "severe");
@@ -970,7 +1169,7 @@ public final class IntegrationManager {
             Plugin griefDefenderPlugin = plugin.getServer().getPluginManager().getPlugin("GriefDefender");
 
             if (griefDefenderPlugin != null && griefDefenderPlugin.isEnabled()) {
-                griefDefender = new GriefDefender();
+                griefDefender = new GriefDefender(regionQueryCache);
 
                 plugin.integrationMessage("Hooked into " + griefDefenderPlugin.getName() + " " + griefDefenderPlugin.getDescription().getVersion() + ".");
             }
@@ -1382,4 +1581,22 @@ public final class IntegrationManager {
             plugin.compatibilityMessage(string + " Detected, Graves listens to the death event after " + string + ", and " + string + " clears the drop list. This means Graves will never be created for players if " + string + " is enabled, only non-player entities will create Graves if configured to do so.");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * A declared integration.
+     */
+    private static final class IntegrationLoader {
+        private final String name;
+        private final boolean lazy;
+        private final Runnable loader;
+        private final String[] dependencies;
+        private volatile boolean loaded;
+
+        private IntegrationLoader(String name, boolean lazy, Runnable loader, String[] dependencies) {
+            this.name = name;
+            this.lazy = lazy;
+            this.loader = loader;
+            this.dependencies = dependencies;
+        }
+    }
+}
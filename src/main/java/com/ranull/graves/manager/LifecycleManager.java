@@ -0,0 +1,277 @@
+package com.ranull.graves.manager;
+
+import com.ranull.graves.Graves;
+import org.bukkit.plugin.IllegalPluginAccessException;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks async work per subsystem and shuts the plugin down in order, exactly once.
+ * <p>
+ * Async work submitted through {@link #runAsync(String, Runnable)} stays tracked until it finished. Bukkit drops
+ * queued async tasks of a plugin when it is disabled, so on shutdown tracked work that did not start yet is run by the
+ * shutting down thread instead, and running work is waited for, both within a timeout. Work submitted from inside
+ * tracked work runs inline, it is already off the main thread.
+ * </p>
+ */
+public final class LifecycleManager {
+    /**
+     * Whether the current thread is running tracked work.
+     */
+    private static final ThreadLocal<Boolean> IN_TASK = ThreadLocal.withInitial(() -> false);
+
+    /**
+     * The main plugin instance associated with Graves.
+     * <p>
+     * This {@link Graves} instance represents the core plugin that this Graves is part of. It provides access
+     * to the plugin's functionality, configuration, and other services.
+     * </p>
+     */
+    private final Graves plugin;
+
+    private final Map<String, Queue<TrackedTask>> pendingMap;
+    private final Map<String, AtomicLong> abandonedMap;
+    private final List<Step> stepList;
+    private final AtomicBoolean shutdown;
+    private volatile boolean accepting;
+
+    /**
+     * Initializes the LifecycleManager with the specified plugin instance.
+     *
+     * @param plugin The Graves plugin instance.
+     */
+    public LifecycleManager(Graves plugin) {
+        this.plugin = plugin;
+        this.pendingMap = new ConcurrentHashMap<>();
+        this.abandonedMap = new ConcurrentHashMap<>();
+        this.stepList = new ArrayList<>();
+        this.shutdown = new AtomicBoolean();
+        this.accepting = true;
+    }
+
+    /**
+     * Runs work of a subsystem on an async thread and tracks it until it finished. Work submitted after the shutdown
+     * stopped accepting work is abandoned.
+     *
+     * @param subsystem The subsystem the work belongs to.
+     * @param runnable  The work.
+     */
+    public void runAsync(String subsystem, Runnable runnable) {
+        if (IN_TASK.get()) {
+            runnable.run();
+
+            return;
+        }
+
+        if (!accepting) {
+            abandonedMap.computeIfAbsent(subsystem, key -> new AtomicLong()).incrementAndGet();
+            plugin.debugMessage("Abandoned " + subsystem + " work submitted during shutdown.", 1);
+
+            return;
+        }
+
+        TrackedTask trackedTask = new TrackedTask(subsystem, runnable);
+
+        getPendingQueue(subsystem).add(trackedTask);
+
+        if (plugin.isEnabled()) {
+            try {
+                plugin.getServer().getScheduler().runTaskAsynchronously(plugin, trackedTask);
+            } catch (IllegalPluginAccessException ignored) {
+                // Plugin is being disabled, the work is run when the subsystem is drained
+            }
+        }
+    }
+
+    /**
+     * Gets the number of submitted works of a subsystem that did not finish yet.
+     *
+     * @param subsystem The subsystem.
+     * @return The number of works in flight.
+     */
+    public int getInFlight(String subsystem) {
+        Queue<TrackedTask> queue = pendingMap.get(subsystem);
+
+        return queue != null ? queue.size() : 0;
+    }
+
+    /**
+     * Adds a shutdown step. Steps run in the order they were added.
+     *
+     * @param name     The name of the step, for the log.
+     * @param task The step.
+     */
+    public void addStep(String name, ShutdownTask task) {
+        stepList.add(new Step(name, task, null));
+    }
+
+    /**
+     * Adds a step that stops accepting async work and drains the given subsystems, running their queued work on the
+     * shutting down thread and waiting for running work.
+     *
+     * @param subsystems The subsystems to drain.
+     */
+    public void addDrainStep(String... subsystems) {
+        stepList.add(new Step("async work", null, subsystems));
+    }
+
+    /**
+     * Runs the shutdown steps. Only the first call does anything, so it is safe to call from both the disable and the
+     * JVM shutdown hook.
+     *
+     * @return True if this call shut the plugin down.
+     */
+    public boolean shutdown() {
+        if (!shutdown.compareAndSet(false, true)) {
+            return false;
+        }
+
+        plugin.getLogger().info("Shutting Down GravesX...");
+
+        for (Step step : stepList) {
+            if (step.subsystems != null) {
+                drain(step.subsystems);
+
+                continue;
+            }
+
+            plugin.getLogger().info("Unloading " + step.name + "...");
+
+            try {
+                step.task.run();
+                plugin.getLogger().info("Unloaded " + step.name + " Successfully.");
+            } catch (Exception e) {
+                plugin.getLogger().severe("Failed to unload " + step.name + ". Cause: " + e.getCause());
+                plugin.logStackTrace(e);
+            }
+        }
+
+        plugin.getLogger().info("Shutdown Completed :)");
+
+        return true;
+    }
+
+    /**
+     * Stops accepting work and finishes the tracked work of the subsystems within
+     * {@code settings.shutdown.drain-timeout} milliseconds, then logs how much was flushed and abandoned.
+     *
+     * @param subsystems The subsystems.
+     */
+    private void drain(String[] subsystems) {
+        long timeout = Math.max(0, plugin.getConfig().getLong("settings.shutdown.drain-timeout", 10000));
+        long deadline = System.nanoTime() + timeout * 1_000_000L;
+
+        accepting = false;
+
+        for (String subsystem : subsystems) {
+            Queue<TrackedTask> queue = getPendingQueue(subsystem);
+            int flushed = 0;
+
+            while (!queue.isEmpty() && System.nanoTime() < deadline) {
+                boolean ranTask = false;
+
+                for (TrackedTask trackedTask : queue) {
+                    if (System.nanoTime() >= deadline) {
+                        break;
+                    }
+
+                    if (trackedTask.claim()) {
+                        trackedTask.execute();
+                        flushed++;
+                        ranTask = true;
+                    }
+                }
+
+                if (!ranTask && !queue.isEmpty()) {
+                    try {
+                        Thread.sleep(5); // Only work running on async threads is left
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+
+                        break;
+                    }
+                }
+            }
+
+            long abandoned = queue.size() + abandonedMap.getOrDefault(subsystem, new AtomicLong()).get();
+
+            if (abandoned > 0) {
+                plugin.getLogger().warning("Flushed " + flushed + " queued " + subsystem + " operations on shutdown, "
+                        + abandoned + " were abandoned after " + timeout + "ms.");
+            } else {
+                plugin.getLogger().info("Flushed " + flushed + " queued " + subsystem + " operations on shutdown.");
+            }
+        }
+    }
+
+    private Queue<TrackedTask> getPendingQueue(String subsystem) {
+        return pendingMap.computeIfAbsent(subsystem, key -> new ConcurrentLinkedQueue<>());
+    }
+
+    /**
+     * Tracked work, run exactly once by whichever thread claims it first.
+     */
+    private final class TrackedTask implements Runnable {
+        private final String subsystem;
+        private final Runnable runnable;
+        private final AtomicBoolean claimed;
+
+        private TrackedTask(String subsystem, Runnable runnable) {
+            this.subsystem = subsystem;
+            this.runnable = runnable;
+            this.claimed = new AtomicBoolean();
+        }
+
+        @Override
+        public void run() {
+            if (claim()) {
+                execute();
+            }
+        }
+
+        private boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        private void execute() {
+            IN_TASK.set(true);
+
+            try {
+                runnable.run();
+            } catch (RuntimeException exception) {
+                plugin.getLogger().severe("Error running " + subsystem + " work: " + exception.getMessage());
+                plugin.logStackTrace(exception);
+            } finally {
+                IN_TASK.set(false);
+                getPendingQueue(subsystem).remove(this);
+            }
+        }
+    }
+
+    /**
+     * A shutdown step, either a task or a drain of subsystems.
+     */
+    private static final class Step {
+        private final String name;
+        private final ShutdownTask task;
+        private final String[] subsystems;
+
+        private Step(String name, ShutdownTask task, String[] subsystems) {
+            this.name = name;
+            this.task = task;
+            this.subsystems = subsystems;
+        }
+    }
+
+    /**
+     * A shutdown step that may fail, the failure is logged and the next step runs.
+     */
+    @FunctionalInterface
+    public interface ShutdownTask {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,286 @@
+package com.ranull.graves.manager;
+
+import com.ranull.graves.Graves;
+import com.ranull.graves.metric.Counter;
+import com.ranull.graves.metric.Histogram;
+import com.sun.net.httpserver.HttpServer;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Keeps the internal counters, gauges and latency histograms of the plugin and exports them in the Prometheus text
+ * format.
+ * <p>
+ * Metrics are always recorded, recording is a few atomic operations. The export is optional, either through a local
+ * HTTP endpoint or a file written on an interval. Histograms are exported as summaries in seconds and recorded in
+ * nanoseconds.
+ * </p>
+ */
+public final class MetricManager {
+    /**
+     * The quantiles exported for every histogram.
+     */
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+
+    /**
+     * The main plugin instance associated with Graves.
+     * <p>
+     * This {@link Graves} instance represents the core plugin that this Graves is part of. It provides access
+     * to the plugin's functionality, configuration, and other services.
+     * </p>
+     */
+    private final Graves plugin;
+
+    private final Map<String, Counter> counterMap;
+    private final Map<String, Histogram> histogramMap;
+    private final Map<String, DoubleSupplier> gaugeMap;
+    private final Map<String, String> helpMap;
+    private HttpServer httpServer;
+    private ExecutorService httpExecutor;
+    private BukkitTask fileTask;
+
+    /**
+     * Initializes the MetricManager with the specified plugin instance and starts the configured exporters.
+     *
+     * @param plugin the Graves plugin instance.
+     */
+    public MetricManager(Graves plugin) {
+        this.plugin = plugin;
+        this.counterMap = new ConcurrentHashMap<>();
+        this.histogramMap = new ConcurrentHashMap<>();
+        this.gaugeMap = new ConcurrentHashMap<>();
+        this.helpMap = new ConcurrentHashMap<>();
+
+        reload();
+    }
+
+    /**
+     * Restarts the exporters with the current settings. Recorded values are kept.
+     */
+    public void reload() {
+        unload();
+
+        if (plugin.getConfig().getBoolean("settings.metrics.prometheus.http.enabled", false)) {
+            startHttpServer(plugin.getConfig().getString("settings.metrics.prometheus.http.bind", "127.0.0.1"),
+                    plugin.getConfig().getInt("settings.metrics.prometheus.http.port", 9464));
+        }
+
+        if (plugin.getConfig().getBoolean("settings.metrics.prometheus.file.enabled", false)) {
+            File file = new File(plugin.getDataFolder(), plugin.getConfig()
+                    .getString("settings.metrics.prometheus.file.path", "metrics.prom"));
+            long interval = Math.max(1L, plugin.getConfig().getLong("settings.metrics.prometheus.file.interval", 60L)) * 20L;
+
+            fileTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin,
+                    () -> writeFile(file), interval, interval);
+        }
+    }
+
+    /**
+     * Stops the exporters.
+     */
+    public void unload() {
+        if (httpServer != null) {
+            httpServer.stop(0);
+            httpServer = null;
+        }
+
+        if (httpExecutor != null) {
+            httpExecutor.shutdownNow();
+            httpExecutor = null;
+        }
+
+        if (fileTask != null) {
+            fileTask.cancel();
+            fileTask = null;
+        }
+    }
+
+    /**
+     * Gets a counter, creating it on first use.
+     *
+     * @param name The metric name, ending in _total.
+     * @param help The description of the metric.
+     * @return The counter.
+     */
+    public Counter getCounter(String name, String help) {
+        helpMap.putIfAbsent(name, help);
+
+        return counterMap.computeIfAbsent(name, key -> new Counter());
+    }
+
+    /**
+     * Gets a latency histogram, creating it on first use. Values are recorded in nanoseconds.
+     *
+     * @param name The metric name, ending in _seconds.
+     * @param help The description of the metric.
+     * @return The histogram.
+     */
+    public Histogram getHistogram(String name, String help) {
+        helpMap.putIfAbsent(name, help);
+
+        return histogramMap.computeIfAbsent(name, key -> new Histogram());
+    }
+
+    /**
+     * Registers a gauge, replacing an existing gauge with the same name. The supplier is called from the exporter
+     * threads and must not use the Bukkit API.
+     *
+     * @param name     The metric name.
+     * @param help     The description of the metric.
+     * @param supplier The supplier of the current value.
+     */
+    public void registerGauge(String name, String help, DoubleSupplier supplier) {
+        helpMap.put(name, help);
+        gaugeMap.put(name, supplier);
+    }
+
+    /**
+     * Writes every metric in the Prometheus text exposition format.
+     *
+     * @return The metrics.
+     */
+    public String getPrometheusText() {
+        StringBuilder stringBuilder = new StringBuilder();
+
+        for (String name : new TreeSet<>(counterMap.keySet())) {
+            appendHeader(stringBuilder, name, "counter");
+            stringBuilder.append(name).append(' ').append(counterMap.get(name).get()).append('\n');
+        }
+
+        for (String name : new TreeSet<>(gaugeMap.keySet())) {
+            appendHeader(stringBuilder, name, "gauge");
+            stringBuilder.append(name).append(' ').append(getGaugeValue(name)).append('\n');
+        }
+
+        for (String name : new TreeSet<>(histogramMap.keySet())) {
+            Histogram histogram = histogramMap.get(name);
+
+            appendHeader(stringBuilder, name, "summary");
+
+            for (double quantile : QUANTILES) {
+                stringBuilder.append(name).append("{quantile=\"").append(quantile).append("\"} ")
+                        .append(toSeconds(histogram.getQuantile(quantile))).append('\n');
+            }
+
+            stringBuilder.append(name).append("_sum ").append(toSeconds(histogram.getSum())).append('\n');
+            stringBuilder.append(name).append("_count ").append(histogram.getCount()).append('\n');
+        }
+
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Gets a line per metric for the server dump.
+     *
+     * @return The metric summary lines.
+     */
+    public List<String> getSummaryList() {
+        List<String> summaryList = new ArrayList<>();
+
+        for (String name : new TreeSet<>(counterMap.keySet())) {
+            summaryList.add(name + ": " + counterMap.get(name).get());
+        }
+
+        for (String name : new TreeSet<>(gaugeMap.keySet())) {
+            summaryList.add(name + ": " + getGaugeValue(name));
+        }
+
+        for (String name : new TreeSet<>(histogramMap.keySet())) {
+            Histogram histogram = histogramMap.get(name);
+
+            summaryList.add(name + ": count " + histogram.getCount()
+                    + ", p50 " + toMillis(histogram.getQuantile(0.5))
+                    + ", p99 " + toMillis(histogram.getQuantile(0.99))
+                    + ", max " + toMillis(histogram.getMax()));
+        }
+
+        return summaryList;
+    }
+
+    private void appendHeader(StringBuilder stringBuilder, String name, String type) {
+        stringBuilder.append("# HELP ").append(name).append(' ').append(helpMap.getOrDefault(name, name)).append('\n');
+        stringBuilder.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private double getGaugeValue(String name) {
+        try {
+            return gaugeMap.get(name).getAsDouble();
+        } catch (RuntimeException exception) {
+            return Double.NaN; // Source of the gauge is not available, for example the database is reconnecting
+        }
+    }
+
+    private double toSeconds(long nanos) {
+        return nanos / 1_000_000_000D;
+    }
+
+    private String toMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.2fms", nanos / 1_000_000D);
+    }
+
+    /**
+     * Starts the HTTP endpoint serving the metrics on /metrics.
+     *
+     * @param bind The address to bind to.
+     * @param port The port to listen on.
+     */
+    private void startHttpServer(String bind, int port) {
+        try {
+            httpServer = HttpServer.create(new InetSocketAddress(bind, port), 0);
+            httpExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "GravesX Metrics");
+
+                thread.setDaemon(true);
+
+                return thread;
+            });
+
+            httpServer.createContext("/metrics", exchange -> {
+                byte[] body = getPrometheusText().getBytes(StandardCharsets.UTF_8);
+
+                exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+                exchange.sendResponseHeaders(200, body.length);
+
+                try (OutputStream outputStream = exchange.getResponseBody()) {
+                    outputStream.write(body);
+                }
+            });
+            httpServer.setExecutor(httpExecutor);
+            httpServer.start();
+            plugin.getLogger().info("Serving metrics on http://" + bind + ":" + port + "/metrics.");
+        } catch (IOException | IllegalArgumentException exception) {
+            plugin.getLogger().warning("Failed to start metrics endpoint on " + bind + ":" + port + ": "
+                    + exception.getMessage());
+            unload();
+        }
+    }
+
+    /**
+     * Writes the metrics to a file, through a temporary file so readers never see a partial file.
+     *
+     * @param file The file to write.
+     */
+    private void writeFile(File file) {
+        File tempFile = new File(file.getPath() + ".tmp");
+
+        try {
+            Files.write(tempFile.toPath(), getPrometheusText().getBytes(StandardCharsets.UTF_8));
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException exception) {
+            plugin.debugMessage("Failed to write metrics file " + file.getPath() + ": " + exception.getMessage(), 1);
+        }
+    }
+}
@@ -0,0 +1,500 @@
+package com.ranull.graves.manager;
+
+import com.ranull.graves.Graves;
+import com.ranull.graves.metric.Counter;
+import com.ranull.graves.data.ChunkData;
+import com.ranull.graves.data.EntityData;
+import com.ranull.graves.integration.MiniMessage;
+import com.ranull.graves.integration.ProtocolLib;
+import com.ranull.graves.type.Grave;
+import com.ranull.graves.util.LocationUtil;
+import com.ranull.graves.util.StringUtil;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.*;
+
+/**
+ * Shows grave holograms as client-side armor stands sent through ProtocolLib, so no hologram entities exist on the
+ * server.
+ * <p>
+ * Holograms are indexed by chunk. Every update, the chunks around each player are checked and holograms that came
+ * into or went out of range are spawned or destroyed for that player only. Line text changes are sent as
+ * metadata-only packets to current viewers.
+ * </p>
+ */
+public final class PacketHologramManager {
+    /**
+     * How often, in ticks, viewers are tracked.
+     */
+    private static final long UPDATE_INTERVAL = 10L;
+
+    /**
+     * How many updates pass between line text refreshes.
+     */
+    private static final int LINE_REFRESH_UPDATES = 2;
+
+    /**
+     * The main plugin instance associated with Graves.
+     * <p>
+     * This {@link Graves} instance represents the core plugin that this Graves is part of. It provides access
+     * to the plugin's functionality, configuration, and other services.
+     * </p>
+     */
+    private final Graves plugin;
+
+    /**
+     * Packet holograms keyed by grave UUID.
+     */
+    private final Map<UUID, PacketHologram> hologramMap;
+
+    /**
+     * Grave UUIDs of packet holograms keyed by chunk string.
+     */
+    private final Map<String, Set<UUID>> chunkHologramMap;
+
+    /**
+     * Grave UUIDs of the holograms each player currently sees, keyed by player UUID.
+     */
+    private final Map<UUID, Set<UUID>> viewerMap;
+    private final Counter hologramUpdateCounter;
+
+    private boolean enabled;
+    private double viewDistanceSquared;
+    private int chunkRadius;
+    private int nextEntityId;
+    private long updateCount;
+    private BukkitTask task;
+
+    /**
+     * Initializes the PacketHologramManager with the specified plugin instance.
+     *
+     * @param plugin the Graves plugin instance.
+     */
+    public PacketHologramManager(Graves plugin) {
+        this.plugin = plugin;
+        this.hologramMap = new HashMap<>();
+        this.chunkHologramMap = new HashMap<>();
+        this.viewerMap = new HashMap<>();
+        this.nextEntityId = Integer.MAX_VALUE;
+        this.hologramUpdateCounter = plugin.getMetricManager().getCounter("graves_hologram_updates_total",
+                "Hologram text updates.");
+
+        reload();
+    }
+
+    /**
+     * Re-reads the hologram backend settings. Switching away from the packet backend destroys all packet holograms,
+     * switching to it restores packet holograms for graves that have no hologram entities.
+     */
+    public void reload() {
+        boolean wasEnabled = enabled;
+        String backend = plugin.getConfig().getString("settings.hologram.backend", "ENTITY").toUpperCase();
+        ProtocolLib protocolLib = plugin.getIntegrationManager().getProtocolLib();
+        double viewDistance = plugin.getConfig().getDouble("settings.hologram.view-distance", 48);
+
+        enabled = !backend.equals("ENTITY") && protocolLib != null && protocolLib.hasPacketHologramSupport();
+        viewDistanceSquared = viewDistance * viewDistance;
+        chunkRadius = (int) Math.ceil(viewDistance / 16);
+
+        if (backend.equals("PACKET") && !enabled) {
+            plugin.warningMessage("Hologram backend PACKET requires ProtocolLib on 1.19.3 or newer, using entity holograms.");
+        }
+
+        if (enabled && task == null) {
+            task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::update, UPDATE_INTERVAL, UPDATE_INTERVAL);
+        } else if (!enabled && task != null) {
+            task.cancel();
+            task = null;
+        }
+
+        if (wasEnabled && !enabled) {
+            removeAll();
+        } else if (!wasEnabled && enabled && !plugin.getCacheManager().getGraveMap().isEmpty()) {
+            restoreHolograms();
+        }
+    }
+
+    /**
+     * Stops the update task and destroys all packet holograms for their viewers.
+     */
+    public void unload() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+
+        removeAll();
+    }
+
+    /**
+     * Checks if holograms are sent as packets.
+     *
+     * @return true if the packet backend is active, false otherwise.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets the amount of packet holograms.
+     *
+     * @return the hologram count.
+     */
+    public int getHologramCount() {
+        return hologramMap.size();
+    }
+
+    /**
+     * Gets the amount of packet hologram lines.
+     *
+     * @return the line count.
+     */
+    public int getLineCount() {
+        int lineCount = 0;
+
+        for (PacketHologram packetHologram : hologramMap.values()) {
+            lineCount += packetHologram.entityIds.length;
+        }
+
+        return lineCount;
+    }
+
+    /**
+     * Creates a packet hologram at the specified location for a given grave.
+     *
+     * @param location The location of the grave.
+     * @param grave    The grave associated with the hologram.
+     */
+    public void createHologram(Location location, Grave grave) {
+        if (location == null || location.getWorld() == null || hologramMap.containsKey(grave.getUUID())
+                || !plugin.getConfig("hologram.enabled", grave).getBoolean("hologram.enabled")) {
+            return;
+        }
+
+        double offsetX = plugin.getConfig("hologram.offset.x", grave).getDouble("hologram.offset.x");
+        double offsetY = plugin.getConfig("hologram.offset.y", grave).getDouble("hologram.offset.y");
+        double offsetZ = plugin.getConfig("hologram.offset.z", grave).getDouble("hologram.offset.z");
+        boolean marker = plugin.getConfig("hologram.marker", grave).getBoolean("hologram.marker");
+        double lineHeight = plugin.getConfig("hologram.height-line", grave).getDouble("hologram.height-line");
+        int lineCount = plugin.getConfig("hologram.line", grave).getStringList("hologram.line").size();
+        Location lineLocation = LocationUtil.roundLocation(location)
+                .add(offsetX + 0.5, offsetY + (marker ? 0.49 : -0.49), offsetZ + 0.5);
+        PacketHologram packetHologram = new PacketHologram(grave.getUUID(), location.clone(), lineCount, marker);
+
+        for (int i = 0; i < lineCount; i++) {
+            lineLocation.add(0, lineHeight, 0);
+            packetHologram.lineLocations[i] = lineLocation.clone();
+            packetHologram.entityIds[i] = nextEntityId--;
+            packetHologram.entityUUIDs[i] = UUID.randomUUID();
+        }
+
+        hologramMap.put(grave.getUUID(), packetHologram);
+        chunkHologramMap.computeIfAbsent(packetHologram.chunkKey, key -> new HashSet<>()).add(grave.getUUID());
+    }
+
+    /**
+     * Removes the packet hologram of a grave and destroys it for its viewers.
+     *
+     * @param grave The grave whose hologram should be removed.
+     */
+    public void removeHologram(Grave grave) {
+        PacketHologram packetHologram = hologramMap.remove(grave.getUUID());
+
+        if (packetHologram == null) {
+            return;
+        }
+
+        Set<UUID> chunkHologramSet = chunkHologramMap.get(packetHologram.chunkKey);
+
+        if (chunkHologramSet != null) {
+            chunkHologramSet.remove(grave.getUUID());
+
+            if (chunkHologramSet.isEmpty()) {
+                chunkHologramMap.remove(packetHologram.chunkKey);
+            }
+        }
+
+        for (UUID viewerUUID : packetHologram.viewers) {
+            Set<UUID> visibleSet = viewerMap.get(viewerUUID);
+            Player player = plugin.getServer().getPlayer(viewerUUID);
+
+            if (visibleSet != null) {
+                visibleSet.remove(grave.getUUID());
+            }
+
+            if (player != null) {
+                hide(player, packetHologram);
+            }
+        }
+    }
+
+    /**
+     * Forgets the holograms a player was shown after they left, respawned or changed worlds. The client discards its
+     * entities by itself, the next update spawns holograms in range again.
+     *
+     * @param player The player.
+     */
+    public void removeViewer(Player player) {
+        Set<UUID> visibleSet = viewerMap.remove(player.getUniqueId());
+
+        if (visibleSet != null) {
+            for (UUID graveUUID : visibleSet) {
+                PacketHologram packetHologram = hologramMap.get(graveUUID);
+
+                if (packetHologram != null) {
+                    packetHologram.viewers.remove(player.getUniqueId());
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates packet holograms for loaded graves that have no hologram entities. Called once the hologram map has
+     * been loaded from the database, since packet holograms are not stored.
+     */
+    public void restoreHolograms() {
+        if (!enabled) {
+            return;
+        }
+
+        Set<UUID> entityHologramSet = new HashSet<>();
+
+        for (ChunkData chunkData : plugin.getCacheManager().getChunkMap().values()) {
+            for (EntityData entityData : chunkData.getEntityDataMap().values()) {
+                if (entityData != null && entityData.getType() == EntityData.Type.HOLOGRAM) {
+                    entityHologramSet.add(entityData.getUUIDGrave());
+                }
+            }
+        }
+
+        for (Grave grave : new ArrayList<>(plugin.getCacheManager().getGraveMap().values())) {
+            if (!entityHologramSet.contains(grave.getUUID())) {
+                createHologram(grave.getLocationDeath(), grave);
+            }
+        }
+    }
+
+    /**
+     * Tracks viewers of every player and refreshes line text on every other update.
+     */
+    private void update() {
+        updateCount++;
+
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            updateViewer(player);
+        }
+
+        if (updateCount % LINE_REFRESH_UPDATES == 0) {
+            refreshLines();
+        }
+    }
+
+    /**
+     * Spawns holograms that came into range of a player and destroys holograms that went out of range.
+     *
+     * @param player The player to update.
+     */
+    private void updateViewer(Player player) {
+        Location playerLocation = player.getLocation();
+        World world = playerLocation.getWorld();
+        Set<UUID> visibleSet = viewerMap.computeIfAbsent(player.getUniqueId(), uuid -> new HashSet<>());
+        Set<UUID> inRangeSet = new HashSet<>();
+
+        if (world != null) {
+            int chunkX = playerLocation.getBlockX() >> 4;
+            int chunkZ = playerLocation.getBlockZ() >> 4;
+
+            for (int x = chunkX - chunkRadius; x <= chunkX + chunkRadius; x++) {
+                for (int z = chunkZ - chunkRadius; z <= chunkZ + chunkRadius; z++) {
+                    Set<UUID> chunkHologramSet = chunkHologramMap.get(world.getName() + "|" + x + "|" + z);
+
+                    if (chunkHologramSet != null) {
+                        for (UUID graveUUID : chunkHologramSet) {
+                            PacketHologram packetHologram = hologramMap.get(graveUUID);
+
+                            if (packetHologram != null
+                                    && packetHologram.location.distanceSquared(playerLocation) <= viewDistanceSquared) {
+                                inRangeSet.add(graveUUID);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        for (Iterator<UUID> iterator = visibleSet.iterator(); iterator.hasNext(); ) {
+            UUID graveUUID = iterator.next();
+
+            if (!inRangeSet.contains(graveUUID)) {
+                PacketHologram packetHologram = hologramMap.get(graveUUID);
+
+                if (packetHologram != null) {
+                    packetHologram.viewers.remove(player.getUniqueId());
+                    hide(player, packetHologram);
+                }
+
+                iterator.remove();
+            }
+        }
+
+        for (UUID graveUUID : inRangeSet) {
+            if (visibleSet.add(graveUUID)) {
+                PacketHologram packetHologram = hologramMap.get(graveUUID);
+
+                packetHologram.viewers.add(player.getUniqueId());
+                show(player, packetHologram);
+            }
+        }
+    }
+
+    /**
+     * Re-parses the lines of holograms that have viewers and sends changed lines as metadata-only packets.
+     */
+    private void refreshLines() {
+        for (PacketHologram packetHologram : hologramMap.values()) {
+            if (packetHologram.viewers.isEmpty()) {
+                continue;
+            }
+
+            Grave grave = plugin.getCacheManager().getGraveMap().get(packetHologram.graveUUID);
+
+            if (grave == null) {
+                continue;
+            }
+
+            String[] lines = parseLines(packetHologram, grave);
+
+            for (int i = 0; i < lines.length; i++) {
+                if (!lines[i].equals(packetHologram.lines[i])) {
+                    packetHologram.lines[i] = lines[i];
+                    hologramUpdateCounter.increment();
+
+                    for (UUID viewerUUID : packetHologram.viewers) {
+                        Player player = plugin.getServer().getPlayer(viewerUUID);
+
+                        if (player != null) {
+                            plugin.getIntegrationManager().getProtocolLib()
+                                    .updateHologramLine(player, packetHologram.entityIds[i], lines[i]);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Spawns the lines of a hologram for a player.
+     *
+     * @param player         The player to show the hologram to.
+     * @param packetHologram The hologram to show.
+     */
+    private void show(Player player, PacketHologram packetHologram) {
+        Grave grave = plugin.getCacheManager().getGraveMap().get(packetHologram.graveUUID);
+
+        if (grave == null) {
+            return;
+        }
+
+        if (packetHologram.viewers.size() == 1) {
+            packetHologram.lines = parseLines(packetHologram, grave);
+        }
+
+        for (int i = 0; i < packetHologram.entityIds.length; i++) {
+            plugin.getIntegrationManager().getProtocolLib().spawnHologramLine(player, packetHologram.entityIds[i],
+                    packetHologram.entityUUIDs[i], packetHologram.lineLocations[i], packetHologram.lines[i],
+                    packetHologram.marker);
+        }
+    }
+
+    /**
+     * Destroys the lines of a hologram for a player.
+     *
+     * @param player         The player to hide the hologram from.
+     * @param packetHologram The hologram to hide.
+     */
+    private void hide(Player player, PacketHologram packetHologram) {
+        List<Integer> entityIdList = new ArrayList<>();
+
+        for (int entityId : packetHologram.entityIds) {
+            entityIdList.add(entityId);
+        }
+
+        plugin.getIntegrationManager().getProtocolLib().destroyEntities(player, entityIdList);
+    }
+
+    /**
+     * Destroys every packet hologram for its viewers and clears all holograms.
+     */
+    private void removeAll() {
+        if (plugin.getIntegrationManager().hasProtocolLib()) {
+            for (PacketHologram packetHologram : hologramMap.values()) {
+                for (UUID viewerUUID : packetHologram.viewers) {
+                    Player player = plugin.getServer().getPlayer(viewerUUID);
+
+                    if (player != null) {
+                        hide(player, packetHologram);
+                    }
+                }
+            }
+        }
+
+        hologramMap.clear();
+        chunkHologramMap.clear();
+        viewerMap.clear();
+    }
+
+    /**
+     * Parses the configured lines of a hologram, in the same bottom-up order as the line locations.
+     *
+     * @param packetHologram The hologram to parse lines for.
+     * @param grave          The grave associated with the hologram.
+     * @return The parsed lines.
+     */
+    private String[] parseLines(PacketHologram packetHologram, Grave grave) {
+        List<String> lineList = plugin.getConfig("hologram.line", grave).getStringList("hologram.line");
+        String[] lines = new String[packetHologram.entityIds.length];
+
+        Collections.reverse(lineList);
+
+        for (int i = 0; i < lines.length; i++) {
+            String line = i < lineList.size() ? lineList.get(i) : "";
+            Location location = packetHologram.lineLocations[i];
+
+            lines[i] = plugin.getIntegrationManager().hasMiniMessage()
+                    ? MiniMessage.parseString(StringUtil.parseString(line, location, grave, plugin))
+                    : StringUtil.parseString(line, location, grave, plugin);
+        }
+
+        return lines;
+    }
+
+    /**
+     * A grave hologram that only exists on the clients of its viewers.
+     */
+    private static final class PacketHologram {
+        private final UUID graveUUID;
+        private final Location location;
+        private final String chunkKey;
+        private final boolean marker;
+        private final Location[] lineLocations;
+        private final int[] entityIds;
+        private final UUID[] entityUUIDs;
+        private final Set<UUID> viewers;
+        private String[] lines;
+
+        private PacketHologram(UUID graveUUID, Location location, int lineCount, boolean marker) {
+            this.graveUUID = graveUUID;
+            this.location = location;
+            this.chunkKey = LocationUtil.chunkToString(location);
+            this.marker = marker;
+            this.lineLocations = new Location[lineCount];
+            this.entityIds = new int[lineCount];
+            this.entityUUIDs = new UUID[lineCount];
+            this.viewers = new HashSet<>();
+            this.lines = new String[lineCount];
+        }
+    }
+}
@@ -1,24 +1,119 @@
 package com.ranull.graves.manager;
 
 import com.ranull.graves.Graves;
+import com.ranull.graves.type.Grave;
+import com.ranull.graves.util.ColorUtil;
+import org.bukkit.Color;
 import org.bukkit.Location;
 import org.bukkit.Particle;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.util.Vector;
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.UUID;
 
 /**
  * Spawns particles to graves.
+ * <p>
+ * All particle effects, both compass trails and ambient grave particles, are driven by a single task that runs
+ * every tick. Active effects are kept in a flat array and spawned within a global per-tick particle budget.
+ * </p>
  */
 public class ParticleManager {
+    /**
+     * How long, in ticks, a one-shot ambient effect may wait for budget before it is dropped.
+     */
+    private static final int AMBIENT_MAX_WAIT_TICKS = 20;
+
+    /**
+     * How often, in ticks, expired cooldowns are evicted.
+     */
+    private static final int COOLDOWN_EVICT_INTERVAL = 20;
+
     private final Graves plugin;
-    private final HashMap<UUID, Long> cooldowns;
+
+    /**
+     * Cooldown expiry times in milliseconds, keyed by the UUID of the entity that triggered the trail.
+     */
+    private final Map<UUID, Long> cooldowns;
+
+    /**
+     * Resolved particle settings, keyed by the owner type and permission list used to resolve grave config.
+     */
+    private final Map<String, ParticleProfile> profileMap;
+
+    /**
+     * Active effects. Only the first {@link #effectCount} entries are live.
+     */
+    private ParticleEffect[] effects;
+    private int effectCount;
+    private int particleBudget;
+    private long tick;
+    private BukkitTask task;
 
     public ParticleManager(Graves plugin) {
         this.plugin = plugin;
         this.cooldowns = new HashMap<>();
+        this.profileMap = new HashMap<>();
+        this.effects = new ParticleEffect[64];
+
+        reload();
+        startTicker();
+    }
+
+    /**
+     * Clears resolved particle profiles and re-reads the particle budget. Called when the configuration reloads.
+     */
+    public void reload() {
+        profileMap.clear();
+        particleBudget = plugin.getConfig().getInt("settings.particle.budget", 500);
+    }
+
+    /**
+     * Stops the particle task and discards any active effects.
+     */
+    public void unload() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+
+        for (int i = 0; i < effectCount; i++) {
+            effects[i] = null;
+        }
+
+        effectCount = 0;
+        cooldowns.clear();
+    }
+
+    /**
+     * Starts the single tick task that drives all particle effects.
+     */
+    private void startTicker() {
+        task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    /**
+     * Plays a particle trail to the grave, using the compass particle settings of the grave.
+     *
+     * @param startLocation The start location.
+     * @param endLocation   The end location.
+     * @param grave         The grave the trail leads to.
+     * @param playerUUID    The UUID of the player triggering the effect.
+     */
+    public void startParticleTrail(Location startLocation, Location endLocation, Grave grave, UUID playerUUID) {
+        ParticleProfile profile = getProfile(grave);
+
+        if (profile.trailParticle == null) {
+            plugin.debugMessage(profile.trailParticleName + " is not a Particle ENUM", 1);
+            return;
+        }
+
+        startParticleTrail(startLocation, endLocation, profile.trailParticle, profile.trailCount, profile.trailSpeed,
+                profile.trailDuration, playerUUID);
     }
 
     /**
@@ -33,43 +128,381 @@ public class ParticleManager {
      */
     public void startParticleTrail(Location startLocation, Location endLocation, Particle particleType, int count, double speed, long durationTicks, UUID playerUUID) {
         long currentTime = System.currentTimeMillis();
-        if (cooldowns.containsKey(playerUUID)) {
-            long lastUsed = cooldowns.get(playerUUID);
-            if (currentTime - lastUsed < durationTicks) {
+        Long cooldownExpiry = cooldowns.get(playerUUID);
+
+        if (cooldownExpiry != null && currentTime < cooldownExpiry) {
+            return;
+        }
+
+        if (startLocation == null || endLocation == null || startLocation.getWorld() == null || speed <= 0) {
+            return;
+        }
+
+        cooldowns.put(playerUUID, currentTime + durationTicks * 50L); // 50ms per tick
+
+        double startX = startLocation.getX();
+        double startY = startLocation.getY() + 2.0;
+        double startZ = startLocation.getZ();
+        double deltaX = endLocation.getX() + 0.5 - startX;
+        double deltaY = endLocation.getY() + 0.3 - startY;
+        double deltaZ = endLocation.getZ() + 0.5 - startZ;
+        double distance = Math.sqrt(deltaX * deltaX + deltaY * deltaY + deltaZ * deltaZ);
+
+        if (distance < speed) {
+            return;
+        }
+
+        ParticleEffect effect = new ParticleEffect();
+
+        effect.world = startLocation.getWorld();
+        effect.x = startX;
+        effect.y = startY;
+        effect.z = startZ;
+        effect.stepX = deltaX / distance * speed;
+        effect.stepY = deltaY / distance * speed;
+        effect.stepZ = deltaZ / distance * speed;
+        effect.distanceRemaining = distance;
+        effect.speed = speed;
+        effect.ticksRemaining = durationTicks;
+        effect.particle = particleType;
+        effect.count = count;
+        effect.mode = ParticleMode.TRAIL;
+
+        addEffect(effect);
+    }
+
+    /**
+     * Queues ambient particles for a grave, to be spawned on the next tick within the particle budget.
+     *
+     * @param location the location of the grave.
+     * @param grave    the grave to spawn particles for.
+     */
+    public void spawnGraveParticle(Location location, Grave grave) {
+        if (!plugin.getVersionManager().hasParticle() || location == null || location.getWorld() == null) {
+            return;
+        }
+
+        ParticleProfile profile = getProfile(grave);
+
+        if (!profile.enabled) {
+            return;
+        }
+
+        ParticleEffect effect = new ParticleEffect();
+
+        effect.world = location.getWorld();
+        effect.x = location.getX() + profile.offsetX + 0.5;
+        effect.y = location.getY() + profile.offsetY + 0.5;
+        effect.z = location.getZ() + profile.offsetZ + 0.5;
+        effect.ticksRemaining = AMBIENT_MAX_WAIT_TICKS;
+        effect.particle = profile.particle;
+        effect.count = profile.count;
+        effect.dustOptions = profile.dustOptions;
+        effect.mode = profile.mode;
+
+        addEffect(effect);
+    }
+
+    /**
+     * Gets the number of particle effects currently queued or running.
+     *
+     * @return the active effect count.
+     */
+    public int getActiveEffectCount() {
+        return effectCount;
+    }
+
+    /**
+     * Gets the number of entities currently on a trail cooldown.
+     *
+     * @return the cooldown count.
+     */
+    public int getCooldownCount() {
+        return cooldowns.size();
+    }
+
+    /**
+     * Advances every active effect by one tick, spending at most the configured particle budget.
+     */
+    private void tick() {
+        tick++;
+
+        if (tick % COOLDOWN_EVICT_INTERVAL == 0) {
+            evictCooldowns();
+        }
+
+        if (effectCount == 0) {
+            return;
+        }
+
+        int fullBudget = particleBudget < 0 ? Integer.MAX_VALUE : particleBudget;
+        int budget = fullBudget;
+        int index = 0;
+
+        while (index < effectCount) {
+            ParticleEffect effect = effects[index];
+
+            // An effect larger than the whole budget may still run alone so it can never stall forever.
+            if (budget < effect.count && budget != fullBudget) {
+                ageSkipped(index);
                 return;
             }
+
+            budget -= Math.min(budget, effect.count);
+
+            if (runEffect(effect)) {
+                index++;
+            } else {
+                removeEffect(index);
+            }
         }
+    }
 
-        cooldowns.put(playerUUID, currentTime);
+    /**
+     * Ages effects that were skipped because the budget ran out, dropping ambient effects that waited too long.
+     *
+     * @param index the index of the first skipped effect.
+     */
+    private void ageSkipped(int index) {
+        while (index < effectCount) {
+            ParticleEffect effect = effects[index];
+
+            if (effect.mode != ParticleMode.TRAIL && --effect.ticksRemaining <= 0) {
+                removeEffect(index);
+            } else {
+                index++;
+            }
+        }
+    }
 
+    /**
+     * Spawns one tick worth of particles for an effect.
+     *
+     * @param effect the effect to run.
+     * @return true if the effect should keep running, false if it has finished.
+     */
+    private boolean runEffect(ParticleEffect effect) {
         try {
-            startLocation.add(0.0, 2.0, 0.0);
-            endLocation.add(0.5, 0.3, 0.5);
-            Vector direction = endLocation.clone().subtract(startLocation).toVector().normalize();
+            switch (effect.mode) {
+                case TRAIL: {
+                    if (effect.ticksRemaining <= 0 || effect.distanceRemaining < effect.speed) {
+                        return false;
+                    }
 
-            new BukkitRunnable() {
-                long ticksElapsed = 0;
+                    effect.world.spawnParticle(effect.particle, effect.x, effect.y, effect.z, effect.count,
+                            0, 0, 0, 0);
+                    effect.x += effect.stepX;
+                    effect.y += effect.stepY;
+                    effect.z += effect.stepZ;
+                    effect.distanceRemaining -= effect.speed;
+                    effect.ticksRemaining--;
 
-                @Override
-                public void run() {
+                    return true;
+                }
+                case DUST: {
                     try {
-                        if (ticksElapsed >= durationTicks || startLocation.distance(endLocation) < speed) {
-                            cancel();
-                            return;
-                        }
-
-                        startLocation.getWorld().spawnParticle(particleType, startLocation, count, 0, 0, 0, 0);
+                        effect.world.spawnParticle(effect.particle, effect.x, effect.y, effect.z, effect.count,
+                                effect.dustOptions);
+                    } catch (IllegalArgumentException exception) {
+                        effect.world.spawnParticle(effect.particle, effect.x, effect.y, effect.z, effect.count,
+                                1);
+                    }
 
-                        startLocation.add(direction.clone().multiply(speed));
+                    return false;
+                }
+                case SHRIEK: {
+                    effect.world.spawnParticle(effect.particle, effect.x, effect.y, effect.z, effect.count, 1);
 
-                        ticksElapsed++;
-                    } catch (Exception e) {
-                        cancel();
+                    return false;
+                }
+                default: {
+                    try {
+                        effect.world.spawnParticle(effect.particle, effect.x, effect.y, effect.z, effect.count);
+                    } catch (IllegalArgumentException exception) {
+                        // May not work for all forks and versions, but will try again
+                        effect.world.spawnParticle(effect.particle, effect.x, effect.y, effect.z, effect.count,
+                                0, 0, 0, 0);
                     }
+
+                    return false;
+                }
+            }
+        } catch (Exception exception) {
+            return false;
+        }
+    }
+
+    /**
+     * Removes cooldowns that have already expired.
+     */
+    private void evictCooldowns() {
+        long currentTime = System.currentTimeMillis();
+        Iterator<Long> iterator = cooldowns.values().iterator();
+
+        while (iterator.hasNext()) {
+            if (iterator.next() <= currentTime) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private void addEffect(ParticleEffect effect) {
+        if (effectCount == effects.length) {
+            ParticleEffect[] grown = new ParticleEffect[effects.length * 2];
+
+            System.arraycopy(effects, 0, grown, 0, effectCount);
+            effects = grown;
+        }
+
+        effects[effectCount++] = effect;
+    }
+
+    /**
+     * Removes an effect by moving the last live effect into its slot.
+     *
+     * @param index the index to remove.
+     */
+    private void removeEffect(int index) {
+        effectCount--;
+        effects[index] = effects[effectCount];
+        effects[effectCount] = null;
+    }
+
+    /**
+     * Gets the resolved particle settings for a grave, resolving them on first use.
+     *
+     * @param grave the grave.
+     * @return the particle profile.
+     */
+    private ParticleProfile getProfile(Grave grave) {
+        String key = (grave.getOwnerType() != null ? grave.getOwnerType().name() : "")
+                + "|" + (grave.getPermissionList() != null ? String.join(",", grave.getPermissionList()) : "");
+        ParticleProfile profile = profileMap.get(key);
+
+        if (profile == null) {
+            profile = resolveProfile(grave);
+            profileMap.put(key, profile);
+        }
+
+        return profile;
+    }
+
+    /**
+     * Resolves every particle setting for a grave from the configuration.
+     *
+     * @param grave the grave.
+     * @return the resolved profile.
+     */
+    private ParticleProfile resolveProfile(Grave grave) {
+        ParticleProfile profile = new ParticleProfile();
+
+        profile.enabled = plugin.getConfig("particle.enabled", grave).getBoolean("particle.enabled");
+
+        if (plugin.getVersionManager().hasParticle()) {
+            Particle particle = plugin.getVersionManager().getParticleForVersion("REDSTONE");
+            String particleType = plugin.getConfig("particle.type", grave).getString("particle.type");
+
+            if (particleType != null && !particleType.equals("")) {
+                try {
+                    particle = Particle.valueOf(particleType);
+                } catch (IllegalArgumentException ignored) {
+                    plugin.debugMessage(particleType + " is not a Particle ENUM", 1);
+                }
+            }
+
+            profile.particle = particle;
+            profile.count = plugin.getConfig("particle.count", grave).getInt("particle.count");
+            profile.offsetX = plugin.getConfig("particle.offset.x", grave).getDouble("particle.offset.x");
+            profile.offsetY = plugin.getConfig("particle.offset.y", grave).getDouble("particle.offset.y");
+            profile.offsetZ = plugin.getConfig("particle.offset.z", grave).getDouble("particle.offset.z");
+
+            switch (particle.name()) {
+                case "DUST":
+                case "REDSTONE": {
+                    float size = (float) plugin.getConfig("particle.dust-size", grave).getInt("particle.dust-size");
+                    Color color = ColorUtil.getColor(plugin.getConfig("particle.dust-color", grave)
+                            .getString("particle.dust-color", "RED"));
+
+                    profile.dustOptions = new Particle.DustOptions(color != null ? color : Color.RED, size);
+                    profile.mode = ParticleMode.DUST;
+                    break;
+                }
+                case "SHRIEK": {
+                    profile.mode = ParticleMode.SHRIEK;
+                    break;
+                }
+                default: {
+                    profile.mode = ParticleMode.DEFAULT;
+                    break;
                 }
-            }.runTaskTimer(plugin, 0L, 1L);
+            }
+        } else {
+            profile.enabled = false;
+        }
+
+        ConfigurationSection trailSection = plugin.getConfig("compass.particles.particle", grave);
+
+        profile.trailParticleName = trailSection.getString("compass.particles.particle", "");
+
+        try {
+            profile.trailParticle = Particle.valueOf(profile.trailParticleName.toUpperCase());
         } catch (IllegalArgumentException | NullPointerException ignored) {
-            // ignored
+            profile.trailParticle = null;
         }
+
+        profile.trailCount = plugin.getConfig("compass.particles.count", grave).getInt("compass.particles.count", 5);
+        profile.trailSpeed = plugin.getConfig("compass.particles.speed", grave).getDouble("compass.particles.speed", 0.3);
+        profile.trailDuration = plugin.getConfig("compass.particles.duration", grave).getInt("compass.particles.duration");
+
+        return profile;
+    }
+
+    /**
+     * How an effect is spawned.
+     */
+    private enum ParticleMode {
+        TRAIL,
+        DUST,
+        SHRIEK,
+        DEFAULT
+    }
+
+    /**
+     * Particle settings resolved once per config profile.
+     */
+    private static final class ParticleProfile {
+        private boolean enabled;
+        private Particle particle;
+        private ParticleMode mode = ParticleMode.DEFAULT;
+        private Particle.DustOptions dustOptions;
+        private int count;
+        private double offsetX;
+        private double offsetY;
+        private double offsetZ;
+        private String trailParticleName;
+        private Particle trailParticle;
+        private int trailCount;
+        private double trailSpeed;
+        private long trailDuration;
+    }
+
+    /**
+     * The state of a single active effect.
+     */
+    private static final class ParticleEffect {
+        private World world;
+        private double x;
+        private double y;
+        private double z;
+        private double stepX;
+        private double stepY;
+        private double stepZ;
+        private double distanceRemaining;
+        private double speed;
+        private long ticksRemaining;
+        private Particle particle;
+        private Particle.DustOptions dustOptions;
+        private int count;
+        private ParticleMode mode;
     }
 }
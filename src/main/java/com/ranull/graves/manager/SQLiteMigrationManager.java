@@ -0,0 +1,541 @@
+package com.ranull.graves.manager;
+
+import com.ranull.graves.Graves;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.io.File;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Copies an old SQLite database into the configured database.
+ * <p>
+ * Tables are copied in parallel, each streamed from SQLite in rowid order and inserted in batches. Every batch is
+ * committed together with a checkpoint row holding the last copied rowid, so a migration that was interrupted
+ * continues after the last committed batch on the next startup. Values are bound with their own types instead of
+ * as strings.
+ * </p>
+ */
+public final class SQLiteMigrationManager {
+    /**
+     * The name of the checkpoint table in the target database.
+     */
+    private static final String CHECKPOINT_TABLE = "gravesx_migration";
+
+    /**
+     * How often, in milliseconds, progress is logged per table.
+     */
+    private static final long PROGRESS_INTERVAL = 5000L;
+
+    /**
+     * The main plugin instance associated with Graves.
+     * <p>
+     * This {@link Graves} instance represents the core plugin that this Graves is part of. It provides access
+     * to the plugin's functionality, configuration, and other services.
+     * </p>
+     */
+    private final Graves plugin;
+
+    /**
+     * The data manager of the target database.
+     */
+    private final DataManager dataManager;
+
+    /**
+     * The type of the target database.
+     */
+    private final DataManager.Type type;
+
+    private final int batchSize;
+    private final int threads;
+
+    /**
+     * Initializes a new instance of the SQLiteMigrationManager class.
+     *
+     * @param plugin      The plugin instance.
+     * @param dataManager The data manager of the target database.
+     * @param type        The type of the target database.
+     */
+    public SQLiteMigrationManager(Graves plugin, DataManager dataManager, DataManager.Type type) {
+        this.plugin = plugin;
+        this.dataManager = dataManager;
+        this.type = type;
+        this.batchSize = Math.max(1, plugin.getConfig().getInt("settings.storage.sqlite.migration-batch-size", 1000));
+        this.threads = Math.max(1, plugin.getConfig().getInt("settings.storage.sqlite.migration-threads", 4));
+    }
+
+    /**
+     * Migrates the SQLite database in the data folder, if there is one, and renames it to data.old.db once every
+     * table was copied. Blocks until the migration is done.
+     */
+    public void migrate() {
+        File dataFolder = new File(plugin.getDataFolder(), "data");
+        File sqliteFile = new File(dataFolder, "data.db");
+
+        if (!sqliteFile.exists() || !dataFolder.exists()) {
+            plugin.getLogger().warning("SQLite database file or folder does not exist in \"" + dataFolder.getPath()
+                    + "\". Skipping database migration.");
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+        boolean migrationSuccess;
+
+        try (HikariDataSource sqliteDataSource = new HikariDataSource(getSQLiteConfig(sqliteFile))) {
+            List<String> tableList = getTableList(sqliteDataSource);
+
+            createCheckpointTable();
+            migrationSuccess = migrateTables(sqliteDataSource, tableList);
+        } catch (SQLException exception) {
+            plugin.getLogger().severe("Error migrating SQLite to target DB: " + exception.getMessage());
+            plugin.logStackTrace(exception);
+            return;
+        }
+
+        if (migrationSuccess) {
+            File renamedFile = new File(dataFolder, "data.old.db");
+
+            dropCheckpointTable();
+            plugin.getLogger().info("Migrated SQLite database to " + type + " in "
+                    + (System.currentTimeMillis() - startTime) + "ms.");
+
+            if (sqliteFile.renameTo(renamedFile)) {
+                plugin.getLogger().info("SQLite database successfully renamed to data.old.db");
+            } else {
+                plugin.getLogger().severe("Failed to rename SQLite database to data.old.db");
+            }
+        } else {
+            plugin.getLogger().severe("SQLite migration did not finish, it will continue from the last checkpoint on the next startup.");
+        }
+    }
+
+    /**
+     * Copies every table on a thread pool and waits for all of them.
+     *
+     * @param sqliteDataSource The SQLite data source.
+     * @param tableList        The tables to copy.
+     * @return true if every table was copied.
+     */
+    private boolean migrateTables(HikariDataSource sqliteDataSource, List<String> tableList) {
+        ExecutorService executorService = Executors.newFixedThreadPool(Math.min(threads, Math.max(1, tableList.size())));
+        List<Future<Boolean>> futureList = new ArrayList<>();
+        boolean migrationSuccess = true;
+
+        for (String table : tableList) {
+            futureList.add(executorService.submit(() -> migrateTable(sqliteDataSource, table)));
+        }
+
+        try {
+            for (Future<Boolean> future : futureList) {
+                if (!future.get()) {
+                    migrationSuccess = false;
+                }
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            migrationSuccess = false;
+        } catch (ExecutionException exception) {
+            plugin.getLogger().severe("Error migrating SQLite table: " + exception.getCause());
+            migrationSuccess = false;
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        return migrationSuccess;
+    }
+
+    /**
+     * Copies a single table, starting after its checkpoint.
+     *
+     * @param sqliteDataSource The SQLite data source.
+     * @param table            The table to copy.
+     * @return true if the table was copied completely.
+     */
+    private boolean migrateTable(HikariDataSource sqliteDataSource, String table) {
+        try (Connection sqliteConnection = sqliteDataSource.getConnection();
+             Connection connection = dataManager.getConnection()) {
+            if (connection == null) {
+                return false;
+            }
+
+            long lastRowId = getCheckpoint(connection, table);
+
+            if (lastRowId == Long.MAX_VALUE) {
+                plugin.debugMessage("Table " + table + " was already migrated.", 1);
+                return true;
+            }
+
+            long totalRows = countRows(sqliteConnection, table, lastRowId);
+            long migratedRows = 0;
+            long startTime = System.currentTimeMillis();
+            long lastProgressTime = startTime;
+
+            try (PreparedStatement selectStatement = sqliteConnection.prepareStatement("SELECT rowid AS gravesx_rowid, * FROM "
+                    + table + " WHERE rowid > ? ORDER BY rowid")) {
+                selectStatement.setFetchSize(batchSize);
+                selectStatement.setLong(1, lastRowId);
+
+                try (ResultSet resultSet = selectStatement.executeQuery()) {
+                    List<Column> columnList = getColumnList(resultSet.getMetaData());
+
+                    if (columnList.isEmpty()) {
+                        plugin.getLogger().warning("No valid columns found for table " + table + ". Skipping table creation.");
+                        return true;
+                    }
+
+                    createTable(connection, table, columnList);
+
+                    boolean autoCommit = connection.getAutoCommit();
+
+                    connection.setAutoCommit(false);
+
+                    try (PreparedStatement insertStatement = connection.prepareStatement(getInsertQuery(table, columnList))) {
+                        int batchRows = 0;
+
+                        while (resultSet.next()) {
+                            for (int i = 0; i < columnList.size(); i++) {
+                                bind(insertStatement, i + 1, columnList.get(i), resultSet);
+                            }
+
+                            insertStatement.addBatch();
+                            lastRowId = resultSet.getLong("gravesx_rowid");
+                            batchRows++;
+
+                            if (batchRows >= batchSize) {
+                                commitBatch(connection, insertStatement, table, lastRowId);
+                                migratedRows += batchRows;
+                                batchRows = 0;
+
+                                if (System.currentTimeMillis() - lastProgressTime >= PROGRESS_INTERVAL) {
+                                    logProgress(table, migratedRows, totalRows, startTime);
+                                    lastProgressTime = System.currentTimeMillis();
+                                }
+                            }
+                        }
+
+                        if (batchRows > 0) {
+                            commitBatch(connection, insertStatement, table, lastRowId);
+                            migratedRows += batchRows;
+                        }
+
+                        setCheckpoint(connection, table, Long.MAX_VALUE);
+                        connection.commit();
+                    } catch (SQLException exception) {
+                        connection.rollback();
+
+                        throw exception;
+                    } finally {
+                        connection.setAutoCommit(autoCommit);
+                    }
+                }
+            }
+
+            logProgress(table, migratedRows, totalRows, startTime);
+
+            return true;
+        } catch (SQLException exception) {
+            plugin.getLogger().severe("Error migrating table " + table + ": " + exception.getMessage());
+            plugin.logStackTrace(exception);
+
+            return false;
+        }
+    }
+
+    /**
+     * Executes the pending batch and commits it together with the checkpoint.
+     *
+     * @param connection      The target database connection.
+     * @param insertStatement The insert statement holding the batch.
+     * @param table           The table being copied.
+     * @param lastRowId       The rowid of the last row in the batch.
+     * @throws SQLException if a database access error occurs.
+     */
+    private void commitBatch(Connection connection, PreparedStatement insertStatement, String table, long lastRowId)
+            throws SQLException {
+        insertStatement.executeBatch();
+        setCheckpoint(connection, table, lastRowId);
+        connection.commit();
+    }
+
+    /**
+     * Logs the progress of a table.
+     *
+     * @param table        The table being copied.
+     * @param migratedRows The rows copied so far.
+     * @param totalRows    The rows to copy.
+     * @param startTime    The time copying started.
+     */
+    private void logProgress(String table, long migratedRows, long totalRows, long startTime) {
+        long elapsedTime = Math.max(1, System.currentTimeMillis() - startTime);
+        long percent = totalRows > 0 ? migratedRows * 100 / totalRows : 100;
+
+        plugin.getLogger().info("Migrating " + table + ": " + migratedRows + "/" + totalRows + " rows (" + percent
+                + "%), " + (migratedRows * 1000 / elapsedTime) + " rows/sec.");
+    }
+
+    /**
+     * Binds a value with its own type.
+     *
+     * @param statement The statement to bind to.
+     * @param index     The parameter index.
+     * @param column    The column of the value.
+     * @param resultSet The result set positioned on the row.
+     * @throws SQLException if a database access error occurs.
+     */
+    private void bind(PreparedStatement statement, int index, Column column, ResultSet resultSet) throws SQLException {
+        Object value = resultSet.getObject(column.name);
+
+        if (value == null) {
+            statement.setNull(index, column.sqlType);
+        } else if (column.targetBoolean) {
+            statement.setBoolean(index, value instanceof Number ? ((Number) value).intValue() != 0
+                    : Boolean.parseBoolean(value.toString()));
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short) {
+            statement.setLong(index, ((Number) value).longValue());
+        } else if (value instanceof Number) {
+            statement.setDouble(index, ((Number) value).doubleValue());
+        } else if (value instanceof byte[]) {
+            statement.setBytes(index, (byte[]) value);
+        } else {
+            statement.setString(index, value.toString());
+        }
+    }
+
+    /**
+     * Creates the target table from the SQLite columns.
+     *
+     * @param connection The target database connection.
+     * @param table      The table name.
+     * @param columnList The columns of the table.
+     * @throws SQLException if a database access error occurs.
+     */
+    private void createTable(Connection connection, String table, List<Column> columnList) throws SQLException {
+        StringJoiner columnJoiner = new StringJoiner(", ");
+
+        for (Column column : columnList) {
+            columnJoiner.add(column.name + " " + column.targetType);
+        }
+
+        String query = type == DataManager.Type.MSSQL
+                ? "IF OBJECT_ID('" + table + "', 'U') IS NULL CREATE TABLE " + table + " (" + columnJoiner + ")"
+                : "CREATE TABLE IF NOT EXISTS " + table + " (" + columnJoiner + ")";
+
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate(query);
+        }
+
+        if ("grave".equals(table)) {
+            dataManager.adjustGraveTableForTargetDB();
+        }
+    }
+
+    /**
+     * Builds the insert statement of a table.
+     *
+     * @param table      The table name.
+     * @param columnList The columns of the table.
+     * @return The insert statement.
+     */
+    private String getInsertQuery(String table, List<Column> columnList) {
+        StringJoiner columnJoiner = new StringJoiner(", ");
+
+        for (Column column : columnList) {
+            columnJoiner.add(column.name);
+        }
+
+        return "INSERT INTO " + table + " (" + columnJoiner + ") VALUES ("
+                + String.join(", ", Collections.nCopies(columnList.size(), "?")) + ")";
+    }
+
+    /**
+     * Gets the columns of a SQLite table that have a target type, leaving out the rowid.
+     *
+     * @param metaData The result set metadata of the table.
+     * @return The columns of the table.
+     * @throws SQLException if a database access error occurs.
+     */
+    private List<Column> getColumnList(ResultSetMetaData metaData) throws SQLException {
+        List<Column> columnList = new ArrayList<>();
+
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            String columnName = metaData.getColumnName(i);
+
+            if (!"gravesx_rowid".equals(columnName)) {
+                String targetType = dataManager.mapSQLiteTypeToTargetDB(metaData.getColumnTypeName(i), columnName);
+
+                if (targetType != null) {
+                    columnList.add(new Column(columnName, metaData.getColumnType(i), targetType));
+                }
+            }
+        }
+
+        return columnList;
+    }
+
+    /**
+     * Gets the tables of the SQLite database, leaving out internal and schema tables.
+     *
+     * @param sqliteDataSource The SQLite data source.
+     * @return The table names.
+     * @throws SQLException if a database access error occurs.
+     */
+    private List<String> getTableList(HikariDataSource sqliteDataSource) throws SQLException {
+        List<String> tableList = new ArrayList<>();
+
+        try (Connection connection = sqliteDataSource.getConnection();
+             ResultSet resultSet = connection.getMetaData().getTables(null, null, "%", new String[]{"TABLE"})) {
+            while (resultSet.next()) {
+                String table = resultSet.getString("TABLE_NAME");
+
+                if (!table.startsWith("sqlite_") && !table.startsWith("gravesx_")) {
+                    tableList.add(table);
+                }
+            }
+        }
+
+        return tableList;
+    }
+
+    /**
+     * Counts the rows of a SQLite table after a rowid.
+     *
+     * @param connection The SQLite connection.
+     * @param table      The table name.
+     * @param lastRowId  The rowid to count after.
+     * @return The row count.
+     * @throws SQLException if a database access error occurs.
+     */
+    private long countRows(Connection connection, String table, long lastRowId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT COUNT(*) FROM " + table + " WHERE rowid > ?")) {
+            statement.setLong(1, lastRowId);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getLong(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * Gets the last copied rowid of a table.
+     *
+     * @param connection The target database connection.
+     * @param table      The table name.
+     * @return The last copied rowid, 0 if copying has not started or {@link Long#MAX_VALUE} if it is done.
+     * @throws SQLException if a database access error occurs.
+     */
+    private long getCheckpoint(Connection connection, String table) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT last_rowid FROM " + CHECKPOINT_TABLE
+                + " WHERE table_name = ?")) {
+            statement.setString(1, table);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getLong(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * Stores the last copied rowid of a table, as part of the current transaction.
+     *
+     * @param connection The target database connection.
+     * @param table      The table name.
+     * @param lastRowId  The last copied rowid.
+     * @throws SQLException if a database access error occurs.
+     */
+    private void setCheckpoint(Connection connection, String table, long lastRowId) throws SQLException {
+        try (PreparedStatement updateStatement = connection.prepareStatement("UPDATE " + CHECKPOINT_TABLE
+                + " SET last_rowid = ? WHERE table_name = ?")) {
+            updateStatement.setLong(1, lastRowId);
+            updateStatement.setString(2, table);
+
+            if (updateStatement.executeUpdate() == 0) {
+                try (PreparedStatement insertStatement = connection.prepareStatement("INSERT INTO " + CHECKPOINT_TABLE
+                        + " (table_name, last_rowid) VALUES (?, ?)")) {
+                    insertStatement.setString(1, table);
+                    insertStatement.setLong(2, lastRowId);
+                    insertStatement.executeUpdate();
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates the checkpoint table in the target database if it does not exist.
+     *
+     * @throws SQLException if a database access error occurs.
+     */
+    private void createCheckpointTable() throws SQLException {
+        String query = type == DataManager.Type.MSSQL
+                ? "IF OBJECT_ID('" + CHECKPOINT_TABLE + "', 'U') IS NULL CREATE TABLE " + CHECKPOINT_TABLE
+                + " (table_name NVARCHAR(255) PRIMARY KEY, last_rowid BIGINT)"
+                : "CREATE TABLE IF NOT EXISTS " + CHECKPOINT_TABLE
+                + " (table_name VARCHAR(255) PRIMARY KEY, last_rowid BIGINT)";
+
+        try (Connection connection = dataManager.getConnection();
+             Statement statement = connection != null ? connection.createStatement() : null) {
+            if (statement == null) {
+                throw new SQLException("No database connection available.");
+            }
+
+            statement.executeUpdate(query);
+        }
+    }
+
+    /**
+     * Drops the checkpoint table after a finished migration.
+     */
+    private void dropCheckpointTable() {
+        try (Connection connection = dataManager.getConnection();
+             Statement statement = connection != null ? connection.createStatement() : null) {
+            if (statement != null) {
+                statement.executeUpdate("DROP TABLE " + CHECKPOINT_TABLE);
+            }
+        } catch (SQLException exception) {
+            plugin.getLogger().warning("Failed to drop " + CHECKPOINT_TABLE + " table: " + exception.getMessage());
+        }
+    }
+
+    /**
+     * Builds the configuration of the SQLite data source.
+     *
+     * @param sqliteFile The SQLite database file.
+     * @return The data source configuration.
+     */
+    private HikariConfig getSQLiteConfig(File sqliteFile) {
+        HikariConfig config = new HikariConfig();
+        String journalMode = plugin.getConfig().getString("settings.storage.sqlite.journal-mode", "WAL");
+        String synchronous = plugin.getConfig().getString("settings.storage.sqlite.synchronous", "OFF");
+
+        config.setJdbcUrl("jdbc:sqlite:" + sqliteFile.getPath());
+        config.setConnectionTimeout(30000); // 30 seconds
+        config.setIdleTimeout(600000); // 10 minutes
+        config.setMaxLifetime(1800000); // 30 minutes
+        config.setMaximumPoolSize(threads + 1);
+        config.addDataSourceProperty("dataSource.journalMode", journalMode);
+        config.addDataSourceProperty("dataSource.synchronous", synchronous);
+        config.setConnectionInitSql("PRAGMA busy_timeout = 30000; PRAGMA journal_mode=" + journalMode + "; PRAGMA synchronous=" + synchronous + ";");
+        config.setPoolName("Graves SQLite to " + type + " Migration");
+        config.setDriverClassName("org.sqlite.JDBC");
+
+        return config;
+    }
+
+    /**
+     * A column of a SQLite table and its type in the target database.
+     */
+    private static final class Column {
+        private final String name;
+        private final int sqlType;
+        private final String targetType;
+        private final boolean targetBoolean;
+
+        private Column(String name, int sqlType, String targetType) {
+            this.name = name;
+            this.sqlType = sqlType;
+            this.targetType = targetType;
+            this.targetBoolean = targetType.equals("BOOLEAN") || targetType.equals("BIT");
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.ranull.graves.manager;
+
+import com.ranull.graves.Graves;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Tracks the database schema version in the {@code gravesx_schema} table and applies numbered migrations.
+ * <p>
+ * A startup on the latest version only reads the stored version. When the stored version is behind, each newer
+ * migration runs in its own transaction together with the row recording its version, so a failed migration is
+ * rolled back and retried on the next startup. Migration steps must run their statements on the given connection
+ * and let failures propagate, otherwise a failed step is still recorded. MySQL, MariaDB and H2 commit DDL statements
+ * implicitly, on those databases only the version row is transactional and migrations are written to be safe to run
+ * again.
+ * </p>
+ */
+public final class SchemaManager {
+    /**
+     * The name of the schema version table.
+     */
+    public static final String TABLE = "gravesx_schema";
+
+    /**
+     * The main plugin instance associated with Graves.
+     * <p>
+     * This {@link Graves} instance represents the core plugin that this Graves is part of. It provides access
+     * to the plugin's functionality, configuration, and other services.
+     * </p>
+     */
+    private final Graves plugin;
+
+    /**
+     * The type of database the schema is in.
+     */
+    private final DataManager.Type type;
+
+    /**
+     * The registered migrations, in version order.
+     */
+    private final List<Migration> migrationList;
+
+    /**
+     * Initializes a new instance of the SchemaManager class.
+     *
+     * @param plugin The plugin instance.
+     * @param type   The type of database.
+     */
+    public SchemaManager(Graves plugin, DataManager.Type type) {
+        this.plugin = plugin;
+        this.type = type;
+        this.migrationList = new ArrayList<>();
+    }
+
+    /**
+     * Registers a migration.
+     *
+     * @param version     The version the schema is at after the migration, starting at 1.
+     * @param description A short description of the migration.
+     * @param step        The migration itself.
+     */
+    public void addMigration(int version, String description, Step step) {
+        migrationList.add(new Migration(version, description, step));
+        migrationList.sort(Comparator.comparingInt(migration -> migration.version));
+    }
+
+    /**
+     * Gets the version of the newest registered migration.
+     *
+     * @return The latest schema version.
+     */
+    public int getLatestVersion() {
+        return migrationList.isEmpty() ? 0 : migrationList.get(migrationList.size() - 1).version;
+    }
+
+    /**
+     * Gets the stored schema version.
+     *
+     * @param connection The database connection to use.
+     * @return The stored version, or 0 if the version table does not exist or is empty.
+     */
+    public int getVersion(Connection connection) {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT MAX(version) FROM " + TABLE + ";")) {
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        } catch (SQLException ignored) {
+            return 0; // Version table does not exist yet
+        }
+    }
+
+    /**
+     * Applies every migration newer than the stored version.
+     *
+     * @param connection The database connection to use.
+     * @return true if the schema is at the latest version, false if a migration failed.
+     */
+    public boolean migrate(Connection connection) {
+        int version = getVersion(connection);
+
+        if (version >= getLatestVersion()) {
+            plugin.debugMessage("Database schema is at version " + version + ".", 2);
+
+            return true;
+        }
+
+        try {
+            createVersionTable(connection);
+        } catch (SQLException exception) {
+            plugin.getLogger().severe("Failed to create " + TABLE + " table: " + exception.getMessage());
+            plugin.logStackTrace(exception);
+
+            return false;
+        }
+
+        for (Migration migration : migrationList) {
+            if (migration.version > version && !apply(connection, migration)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Applies a single migration and records its version in one transaction.
+     *
+     * @param connection The database connection to use.
+     * @param migration  The migration to apply.
+     * @return true if the migration was applied, false otherwise.
+     */
+    private boolean apply(Connection connection, Migration migration) {
+        long startTime = System.currentTimeMillis();
+
+        try {
+            boolean autoCommit = connection.getAutoCommit();
+
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement statement = connection.prepareStatement("INSERT INTO " + TABLE
+                    + " (version, description, time_applied) VALUES (?, ?, ?);")) {
+                migration.step.apply(connection);
+                statement.setInt(1, migration.version);
+                statement.setString(2, migration.description);
+                statement.setLong(3, System.currentTimeMillis());
+                statement.executeUpdate();
+                connection.commit();
+            } catch (SQLException exception) {
+                connection.rollback();
+
+                throw exception;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException exception) {
+            plugin.getLogger().severe("Failed to apply database migration " + migration.version + " ("
+                    + migration.description + "): " + exception.getMessage());
+            plugin.logStackTrace(exception);
+
+            return false;
+        }
+
+        plugin.getLogger().info("Applied database migration " + migration.version + " (" + migration.description
+                + ") in " + (System.currentTimeMillis() - startTime) + "ms.");
+
+        return true;
+    }
+
+    /**
+     * Creates the version table if it does not exist.
+     *
+     * @param connection The database connection to use.
+     * @throws SQLException if a database access error occurs.
+     */
+    private void createVersionTable(Connection connection) throws SQLException {
+        String query;
+
+        if (type == DataManager.Type.MSSQL) {
+            query = "IF OBJECT_ID('" + TABLE + "', 'U') IS NULL CREATE TABLE " + TABLE + " ("
+                    + "version INT PRIMARY KEY, "
+                    + "description NVARCHAR(255), "
+                    + "time_applied BIGINT);";
+        } else {
+            query = "CREATE TABLE IF NOT EXISTS " + TABLE + " ("
+                    + "version INT PRIMARY KEY, "
+                    + "description VARCHAR(255), "
+                    + "time_applied BIGINT);";
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate(query);
+        }
+    }
+
+    /**
+     * A single schema migration.
+     */
+    @FunctionalInterface
+    public interface Step {
+        /**
+         * Applies the migration. Statements should use the given connection so they are part of the migration
+         * transaction.
+         *
+         * @param connection The database connection to use.
+         * @throws SQLException if a database access error occurs.
+         */
+        void apply(Connection connection) throws SQLException;
+    }
+
+    /**
+     * A registered migration and its version.
+     */
+    private static final class Migration {
+        private final int version;
+        private final String description;
+        private final Step step;
+
+        private Migration(int version, String description, Step step) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+        }
+    }
+}
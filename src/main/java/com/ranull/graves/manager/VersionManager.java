@@ -131,6 +131,23 @@ public final class VersionManager {
 
     private boolean isPaper;
 
+    /**
+     * Indicates whether display entities are supported.
+     * <p>
+     * This {@code boolean} flag shows if the server supports text, item and block display entities, added in 1.19.4.
+     * </p>
+     */
+    private boolean hasDisplayEntities;
+
+    /**
+     * Indicates whether entities load separately from chunks.
+     * <p>
+     * This {@code boolean} flag shows if the server calls EntitiesLoadEvent, added in 1.17 when entity loading was
+     * split from chunk loading.
+     * </p>
+     */
+    private boolean hasEntitiesLoadEvent;
+
     private final boolean isPost1_20_5;
 
     /**
@@ -187,6 +204,20 @@ public final class VersionManager {
         } catch (ClassNotFoundException ignored) {
             this.isPaper = false;
         }
+
+        try {
+            Class.forName("org.bukkit.entity.TextDisplay", false, getClass().getClassLoader());
+            this.hasDisplayEntities = true;
+        } catch (ClassNotFoundException ignored) {
+            this.hasDisplayEntities = false;
+        }
+
+        try {
+            Class.forName("org.bukkit.event.world.EntitiesLoadEvent", false, getClass().getClassLoader());
+            this.hasEntitiesLoadEvent = true;
+        } catch (ClassNotFoundException ignored) {
+            this.hasEntitiesLoadEvent = false;
+        }
     }
 
     /**
@@ -239,6 +270,24 @@ public final class VersionManager {
         return isMohist;
     }
 
+    /**
+     * Checks if the server version has display entity support.
+     *
+     * @return True if the server version has display entity support, otherwise false.
+     */
+    public boolean hasDisplayEntities() {
+        return hasDisplayEntities;
+    }
+
+    /**
+     * Checks if the server version loads entities separately from chunks.
+     *
+     * @return True if the server version has the entities load event, otherwise false.
+     */
+    public boolean hasEntitiesLoadEvent() {
+        return hasEntitiesLoadEvent;
+    }
+
     /**
      * Checks if the server version has the config contains method.
      *
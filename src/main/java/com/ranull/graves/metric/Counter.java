@@ -0,0 +1,42 @@
+package com.ranull.graves.metric;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A monotonically increasing count, safe to increment from any thread.
+ */
+public final class Counter {
+    private final LongAdder value;
+
+    /**
+     * Creates a counter starting at 0.
+     */
+    public Counter() {
+        this.value = new LongAdder();
+    }
+
+    /**
+     * Increments the counter by one.
+     */
+    public void increment() {
+        value.increment();
+    }
+
+    /**
+     * Increments the counter.
+     *
+     * @param amount The amount to add, must not be negative.
+     */
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    /**
+     * Gets the current count.
+     *
+     * @return The count.
+     */
+    public long get() {
+        return value.sum();
+    }
+}
@@ -3,13 +3,13 @@ package com.ranull.graves.type;
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import com.ranull.graves.util.LocationUtil;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.block.BlockFace;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
 
 @Deprecated
 public class Graveyard {
@@ -21,6 +21,12 @@ public class Graveyard {
     private String title;
     private String description;
     private boolean isPublic;
+    // Occupancy of the grave locations, slot index to location and grave, so a free location never needs a lookup
+    private final List<Location> slotList;
+    private final List<UUID> slotGraveList;
+    private final Map<String, Integer> slotIndexMap;
+    private final Map<UUID, Integer> graveSlotMap;
+    private final Deque<Integer> freeSlotDeque;
     private static final Gson gson = new Gson();
 
     public Graveyard(String name, World world, Type type) {
@@ -28,6 +34,11 @@ public class Graveyard {
         this.world = world;
         this.type = type;
         this.graveLocationMap = new HashMap<>();
+        this.slotList = new ArrayList<>();
+        this.slotGraveList = new ArrayList<>();
+        this.slotIndexMap = new HashMap<>();
+        this.graveSlotMap = new HashMap<>();
+        this.freeSlotDeque = new ArrayDeque<>();
     }
 
     public String getKey() {
@@ -46,12 +57,139 @@ public class Graveyard {
         return type;
     }
 
-    public void addGraveLocation(Location location, BlockFace blockFace) {
+    public synchronized void addGraveLocation(Location location, BlockFace blockFace) {
         graveLocationMap.put(location, blockFace);
+
+        String key = LocationUtil.locationToString(location);
+
+        if (key != null && !slotIndexMap.containsKey(key)) {
+            int index = slotList.size();
+
+            slotList.add(location);
+            slotGraveList.add(null);
+            slotIndexMap.put(key, index);
+            freeSlotDeque.addLast(index);
+        }
     }
 
-    public void removeGraveLocation(Location location) {
+    public synchronized void removeGraveLocation(Location location) {
         graveLocationMap.remove(location);
+
+        String key = LocationUtil.locationToString(location);
+        Integer index = key != null ? slotIndexMap.remove(key) : null;
+
+        if (index != null) {
+            // The index is left empty rather than reused, stale free-list entries are skipped when polled
+            UUID graveUUID = slotGraveList.set(index, null);
+
+            slotList.set(index, null);
+
+            if (graveUUID != null) {
+                graveSlotMap.remove(graveUUID);
+            }
+        }
+    }
+
+    /**
+     * Gets a grave location that has no grave, in the order the locations became free.
+     *
+     * @return The free grave location, or null if every location has a grave.
+     */
+    public synchronized Location getFreeGraveLocation() {
+        Integer index;
+
+        while ((index = freeSlotDeque.peekFirst()) != null) {
+            if (slotList.get(index) != null && slotGraveList.get(index) == null) {
+                return slotList.get(index);
+            }
+
+            freeSlotDeque.pollFirst();
+        }
+
+        return null;
+    }
+
+    /**
+     * Marks a grave location as used by a grave.
+     *
+     * @param location  The grave location.
+     * @param graveUUID The UUID of the grave.
+     * @return true if the location is a grave location of this graveyard and was free, false otherwise.
+     */
+    public synchronized boolean occupyGraveLocation(Location location, UUID graveUUID) {
+        String key = LocationUtil.locationToString(location);
+        Integer index = key != null ? slotIndexMap.get(key) : null;
+
+        if (index == null || slotGraveList.get(index) != null || graveSlotMap.containsKey(graveUUID)) {
+            return false;
+        }
+
+        slotGraveList.set(index, graveUUID);
+        graveSlotMap.put(graveUUID, index);
+
+        return true;
+    }
+
+    /**
+     * Frees the grave location used by a grave.
+     *
+     * @param graveUUID The UUID of the grave.
+     * @return true if the grave was in this graveyard, false otherwise.
+     */
+    public synchronized boolean releaseGraveLocation(UUID graveUUID) {
+        Integer index = graveSlotMap.remove(graveUUID);
+
+        if (index == null) {
+            return false;
+        }
+
+        slotGraveList.set(index, null);
+
+        if (slotList.get(index) != null) {
+            freeSlotDeque.addLast(index);
+        }
+
+        return true;
+    }
+
+    /**
+     * Gets the grave using a grave location.
+     *
+     * @param location The grave location.
+     * @return The UUID of the grave, or null if the location is free or not a grave location of this graveyard.
+     */
+    public synchronized UUID getGraveAtLocation(Location location) {
+        String key = LocationUtil.locationToString(location);
+        Integer index = key != null ? slotIndexMap.get(key) : null;
+
+        return index != null ? slotGraveList.get(index) : null;
+    }
+
+    /**
+     * Rebuilds the occupancy of the grave locations from the given graves.
+     *
+     * @param graveCollection The graves to check, usually every cached grave.
+     */
+    public synchronized void loadOccupancy(Collection<Grave> graveCollection) {
+        graveSlotMap.clear();
+        freeSlotDeque.clear();
+        Collections.fill(slotGraveList, null);
+
+        for (Grave grave : graveCollection) {
+            if (grave.getLocationDeath() != null) {
+                occupyGraveLocation(grave.getLocationDeath(), grave.getUUID());
+            }
+        }
+
+        for (int index = 0; index < slotList.size(); index++) {
+            if (slotList.get(index) != null && slotGraveList.get(index) == null) {
+                freeSlotDeque.addLast(index);
+            }
+        }
+    }
+
+    public synchronized int getUsedGraveLocationCount() {
+        return graveSlotMap.size();
     }
 
     public boolean hasGraveLocation(Location location) {
@@ -107,9 +245,7 @@ public class Graveyard {
             json.addProperty("pitch", location.getPitch());
             jsonArray.add(json);
         }
-        String serialized = gson.toJson(jsonArray);
-        System.out.println("Serialized locations: " + serialized); // Add debug logging
-        return serialized;
+        return gson.toJson(jsonArray);
     }
 
     public static Map<Location, BlockFace> deserializeLocations(String serializedLocations) {
@@ -2,20 +2,41 @@ package com.ranull.graves.util;
 
 import com.alessiodp.libby.BukkitLibraryManager;
 import com.alessiodp.libby.Library;
-import com.alessiodp.libby.LibraryManager;
 import com.ranull.graves.Graves;
-import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * Utility class for loading external libraries dynamically using BukkitLibraryManager.
  * <p>
- * This class provides methods to load libraries from Maven repositories, with support for
- * relocation and isolation of the loaded libraries.
+ * Libraries are added first and loaded together with {@link #loadLibraries()}. Every loaded library is recorded in a
+ * manifest in the library directory, with the jars it consists of including its transitive dependencies and their
+ * checksums. For relocated libraries both the downloaded and the relocated jar are recorded. On the next start a
+ * library whose jars all still match is loaded straight from the directory, without resolving its dependencies or
+ * contacting a repository. With {@code settings.libraries.offline} the directory is the only source, it can be filled
+ * by an earlier start or copied from another server.
  * </p>
  */
 public class LibraryLoaderUtil {
+    private static final String MANIFEST_FILE = "manifest.properties";
+
     private final Graves plugin;
+    private final String directoryName;
+    private final Path directory;
+    private final boolean offline;
+    private final Properties manifest;
+    private final List<LibraryRequest> requestList;
+    private final Map<String, RecordingLibraryManager> libraryManagerMap;
 
     /**
      * Constructs a new LibraryLoaderUtil instance.
@@ -24,10 +45,18 @@ public class LibraryLoaderUtil {
      */
     public LibraryLoaderUtil(Graves plugin) {
         this.plugin = plugin;
+        this.directoryName = plugin.getConfig().getString("settings.libraries.directory", "lib");
+        this.directory = plugin.getDataFolder().toPath().resolve(directoryName);
+        this.offline = plugin.getConfig().getBoolean("settings.libraries.offline", false);
+        this.manifest = new Properties();
+        this.requestList = new ArrayList<>();
+        this.libraryManagerMap = new HashMap<>();
+
+        loadManifest();
     }
 
     /**
-     * Loads a library with the specified group ID, artifact ID, and version.
+     * Adds a library with the specified group ID, artifact ID, and version.
      * <p>
      * Uses default settings for relocation, ID, and isolation.
      * </p>
@@ -36,12 +65,12 @@ public class LibraryLoaderUtil {
      * @param artifactID The artifact ID of the library.
      * @param version    The version of the library.
      */
-    public void loadLibrary(String groupID, String artifactID, String version) {
-        loadLibrary(groupID, artifactID, version, null, null, null, false, null, true);
+    public void addLibrary(String groupID, String artifactID, String version) {
+        addLibrary(groupID, artifactID, version, null, null, null, false, null, true);
     }
 
     /**
-     * Loads a library with the specified group ID, artifact ID, version, and isolation setting.
+     * Adds a library with the specified group ID, artifact ID, version, and isolation setting.
      * <p>
      * Uses default settings for relocation and ID.
      * </p>
@@ -51,12 +80,12 @@ public class LibraryLoaderUtil {
      * @param version    The version of the library.
      * @param isIsolated Whether to load the library in an isolated class loader.
      */
-    public void loadLibrary(String groupID, String artifactID, String version, boolean isIsolated) {
-        loadLibrary(groupID, artifactID, version, null, null, null, isIsolated, null, true);
+    public void addLibrary(String groupID, String artifactID, String version, boolean isIsolated) {
+        addLibrary(groupID, artifactID, version, null, null, null, isIsolated, null, true);
     }
 
     /**
-     * Loads a library with the specified group ID, artifact ID, version, relocation patterns, and isolation setting.
+     * Adds a library with the specified group ID, artifact ID, version, relocation patterns, and isolation setting.
      * <p>
      * Uses default settings for ID.
      * </p>
@@ -68,12 +97,12 @@ public class LibraryLoaderUtil {
      * @param relocateRelocatedPattern  The relocated package pattern.
      * @param isIsolated                Whether to load the library in an isolated class loader.
      */
-    public void loadLibrary(String groupID, String artifactID, String version, String relocatePattern, String relocateRelocatedPattern, boolean isIsolated) {
-        loadLibrary(groupID, artifactID, version, null, relocatePattern, relocateRelocatedPattern, isIsolated, null, true);
+    public void addLibrary(String groupID, String artifactID, String version, String relocatePattern, String relocateRelocatedPattern, boolean isIsolated) {
+        addLibrary(groupID, artifactID, version, null, relocatePattern, relocateRelocatedPattern, isIsolated, null, true);
     }
 
     /**
-     * Loads a library with the specified group ID, artifact ID, version, relocation patterns, and isolation setting.
+     * Adds a library with the specified group ID, artifact ID, version, relocation patterns, and isolation setting.
      * <p>
      * Uses default settings for ID.
      * </p>
@@ -86,12 +115,12 @@ public class LibraryLoaderUtil {
      * @param isIsolated                    Whether to load the library in an isolated class loader.
      * @param resolveTransitiveDependencies Determines whether to resolve Transitive Dependencies.
      */
-    public void loadLibrary(String groupID, String artifactID, String version, String relocatePattern, String relocateRelocatedPattern, boolean isIsolated, boolean resolveTransitiveDependencies) {
-        loadLibrary(groupID, artifactID, version, null, relocatePattern, relocateRelocatedPattern, isIsolated, null, resolveTransitiveDependencies);
+    public void addLibrary(String groupID, String artifactID, String version, String relocatePattern, String relocateRelocatedPattern, boolean isIsolated, boolean resolveTransitiveDependencies) {
+        addLibrary(groupID, artifactID, version, null, relocatePattern, relocateRelocatedPattern, isIsolated, null, resolveTransitiveDependencies);
     }
 
     /**
-     * Loads a library with the specified group ID, artifact ID, version, relocation patterns, and isolation setting.
+     * Adds a library with the specified group ID, artifact ID, version, relocation patterns, and isolation setting.
      * <p>
      * Uses default settings for ID.
      * </p>
@@ -104,12 +133,12 @@ public class LibraryLoaderUtil {
      * @param isIsolated                Whether to load the library in an isolated class loader.
      * @param libraryURL                Points to an external library URL to a repository.
      */
-    public void loadLibrary(String groupID, String artifactID, String version, String relocatePattern, String relocateRelocatedPattern, boolean isIsolated, String libraryURL) {
-        loadLibrary(groupID, artifactID, version, null, relocatePattern, relocateRelocatedPattern, isIsolated, libraryURL, true);
+    public void addLibrary(String groupID, String artifactID, String version, String relocatePattern, String relocateRelocatedPattern, boolean isIsolated, String libraryURL) {
+        addLibrary(groupID, artifactID, version, null, relocatePattern, relocateRelocatedPattern, isIsolated, libraryURL, true);
     }
 
     /**
-     * Loads a library with the specified group ID, artifact ID, version, relocation patterns, and isolation setting.
+     * Adds a library with the specified group ID, artifact ID, version, relocation patterns, and isolation setting.
      * <p>
      * Uses default settings for ID.
      * </p>
@@ -123,16 +152,12 @@ public class LibraryLoaderUtil {
      * @param libraryURL                    Points to an external library URL to a repository.
      * @param resolveTransitiveDependencies Determines whether to resolve Transitive Dependencies.
      */
-    public void loadLibrary(String groupID, String artifactID, String version, String relocatePattern, String relocateRelocatedPattern, boolean isIsolated, String libraryURL, boolean resolveTransitiveDependencies) {
-        loadLibrary(groupID, artifactID, version, null, relocatePattern, relocateRelocatedPattern, isIsolated, libraryURL, resolveTransitiveDependencies);
+    public void addLibrary(String groupID, String artifactID, String version, String relocatePattern, String relocateRelocatedPattern, boolean isIsolated, String libraryURL, boolean resolveTransitiveDependencies) {
+        addLibrary(groupID, artifactID, version, null, relocatePattern, relocateRelocatedPattern, isIsolated, libraryURL, resolveTransitiveDependencies);
     }
 
-
     /**
-     * Loads a library with the specified group ID, artifact ID, version, ID, relocation patterns, and isolation setting.
-     * <p>
-     * Configures the library with optional ID and relocation settings, and loads it using the BukkitLibraryManager.
-     * </p>
+     * Adds a library with the specified group ID, artifact ID, version, ID, relocation patterns, and isolation setting.
      *
      * @param groupID                       The group ID of the library.
      * @param artifactID                    The artifact ID of the library.
@@ -144,124 +169,347 @@ public class LibraryLoaderUtil {
      * @param libraryURL                    Points to an external library URL to a repository.
      * @param resolveTransitiveDependencies Determines whether to resolve Transitive Dependencies.
      */
-    public void loadLibrary(String groupID, String artifactID, String version, String ID, String relocatePattern, String relocateRelocatedPattern, boolean isIsolated, String libraryURL, boolean resolveTransitiveDependencies) {
+    public void addLibrary(String groupID, String artifactID, String version, String ID, String relocatePattern, String relocateRelocatedPattern, boolean isIsolated, String libraryURL, boolean resolveTransitiveDependencies) {
+        requestList.add(new LibraryRequest(groupID, artifactID, version, ID, relocatePattern, relocateRelocatedPattern,
+                isIsolated, libraryURL, resolveTransitiveDependencies));
+    }
+
+    /**
+     * Loads every added library, in the order they were added.
+     * <p>
+     * The cached jars of all libraries are verified in parallel first. Libraries with matching jars are loaded from
+     * the library directory, the others are resolved through their repository and recorded in the manifest.
+     * </p>
+     */
+    public void loadLibraries() {
+        long start = System.nanoTime();
+        List<Boolean> cachedList = requestList.parallelStream().map(this::isCached).collect(Collectors.toList());
+        int cachedCount = 0;
+        long savedMillis = 0;
+
+        for (int i = 0; i < requestList.size(); i++) {
+            LibraryRequest libraryRequest = requestList.get(i);
+            long libraryStart = System.nanoTime();
+
+            try {
+                if (cachedList.get(i)) {
+                    loadCached(libraryRequest);
+
+                    long elapsedMillis = (System.nanoTime() - libraryStart) / 1_000_000L;
+
+                    cachedCount++;
+                    savedMillis += Math.max(0, getRecordedMillis(libraryRequest) - elapsedMillis);
+                } else {
+                    loadResolved(libraryRequest, libraryStart);
+                }
+            } catch (Exception e) {
+                plugin.getLogger().severe("Failed to download or load library " + libraryRequest.getName() + " version "
+                        + libraryRequest.version + "." + (offline ? " Offline mode is enabled, make sure the library is in the "
+                        + directoryName + " directory." : "") + " Cause: " + e.getCause());
+                plugin.logStackTrace(e);
+            }
+        }
+
+        saveManifest();
+        plugin.getLogger().info("Loaded " + requestList.size() + " libraries in "
+                + (System.nanoTime() - start) / 1_000_000L + "ms, " + cachedCount + " from the local cache"
+                + (cachedCount > 0 ? " (about " + savedMillis + "ms faster than resolving them)" : "") + ".");
+    }
+
+    /**
+     * Checks whether every jar recorded for a library still matches its checksum. Jars that no longer match are
+     * deleted so they are downloaded and relocated again.
+     *
+     * @param libraryRequest The library.
+     * @return True if the library can be loaded from the library directory.
+     */
+    private boolean isCached(LibraryRequest libraryRequest) {
+        String files = manifest.getProperty(libraryRequest.key + ".files");
+
+        if (files == null || manifest.getProperty(libraryRequest.key + ".libraries") == null) {
+            return false;
+        }
+
+        boolean cached = true;
+
+        for (String entry : files.split(";")) {
+            int index = entry.lastIndexOf('=');
+            Path path = directory.resolve(entry.substring(0, index));
+
+            try {
+                if (!Files.isRegularFile(path) || !getChecksum(path).equals(entry.substring(index + 1))) {
+                    Files.deleteIfExists(path);
+
+                    cached = false;
+                }
+            } catch (IOException exception) {
+                cached = false;
+            }
+        }
+
+        return cached;
+    }
+
+    /**
+     * Loads a library and its recorded transitive dependencies from the library directory.
+     *
+     * @param libraryRequest The library.
+     */
+    private void loadCached(LibraryRequest libraryRequest) {
+        RecordingLibraryManager libraryManager = getLibraryManager(libraryRequest.libraryURL);
+
+        plugin.debugMessage("Loading library " + libraryRequest.getName() + " version " + libraryRequest.version
+                + " from the local cache.", 1);
+
+        for (String coordinates : manifest.getProperty(libraryRequest.key + ".libraries").split(";")) {
+            String[] parts = coordinates.split(":", -1);
+
+            libraryManager.loadLibrary(libraryRequest.toLibrary(parts[0], parts[1], parts[2],
+                    parts.length > 3 && !parts[3].isEmpty() ? parts[3] : null, false));
+        }
+
+        checkIsolated(libraryRequest);
+    }
+
+    /**
+     * Resolves and loads a library through its repository, and records the jars it consists of in the manifest.
+     *
+     * @param libraryRequest The library.
+     * @param start          When loading the library started, in nanoseconds.
+     */
+    private void loadResolved(LibraryRequest libraryRequest, long start) throws IOException {
+        RecordingLibraryManager libraryManager = getLibraryManager(libraryRequest.libraryURL);
+        List<Library> loadedList = new ArrayList<>();
+
+        plugin.getLogger().info("Loading library " + libraryRequest.getName() + " version " + libraryRequest.version
+                + (libraryRequest.ID != null ? " with ID " + libraryRequest.ID : "") + ".");
+        libraryManager.loadedList = loadedList;
+
         try {
-            LibraryManager libraryManager = new BukkitLibraryManager(plugin);
-            if (libraryURL != null) {
-                libraryManager.addRepository(libraryURL);
+            libraryManager.loadLibrary(libraryRequest.toLibrary(libraryRequest.groupID, libraryRequest.artifactID,
+                    libraryRequest.version, null, libraryRequest.resolveTransitiveDependencies));
+        } finally {
+            libraryManager.loadedList = null;
+        }
+
+        checkIsolated(libraryRequest);
+
+        StringJoiner libraries = new StringJoiner(";");
+        StringJoiner files = new StringJoiner(";");
+
+        for (Library library : loadedList) {
+            libraries.add(library.getGroupId() + ":" + library.getArtifactId() + ":" + library.getVersion() + ":"
+                    + (library.getClassifier() != null ? library.getClassifier() : ""));
+
+            if (library.hasRelocations()) {
+                // The downloaded jar is relocated again when the relocated jar is missing, so it is verified too
+                if (Files.isRegularFile(directory.resolve(library.getPath()))) {
+                    files.add(library.getPath() + "=" + getChecksum(directory.resolve(library.getPath())));
+                }
+
+                files.add(library.getRelocatedPath() + "=" + getChecksum(directory.resolve(library.getRelocatedPath())));
             } else {
-                libraryManager.addMavenCentral();
-                libraryManager.addSonatype();
-                libraryManager.addJCenter();
-                libraryManager.addJitPack();
+                files.add(library.getPath() + "=" + getChecksum(directory.resolve(library.getPath())));
             }
-            libraryManager.getRepositories();
-            if (ID != null) {
-                plugin.getLogger().info("Loading library " + groupID.replace("{}", ".") + "." + artifactID + " version " + version + " with ID " + ID + ".");
-                if (relocatePattern != null) {
-                    libraryManager.loadLibrary(Library.builder()
-                            .groupId(groupID)
-                            .artifactId(artifactID)
-                            .version(version)
-                            .loaderId(ID)
-                            .relocate(relocatePattern, relocateRelocatedPattern)
-                            .isolatedLoad(isIsolated)
-                            .resolveTransitiveDependencies(resolveTransitiveDependencies)
-                            .build()
-                    );
-                    if (isIsolated) {
-                        try {
-                            Class<?> clazz = Class.forName(relocateRelocatedPattern.replace("{}", "."));
-                            clazz.getClassLoader();
-                            plugin.getLogger().info("Loaded library " + groupID.replace("{}", ".") + "." + artifactID + " version " + version + " and shaded successfully with ID " + ID + ".");
-                        } catch (ClassNotFoundException e) {
-                            Bukkit.getLogger().severe("Shaded library could not be loaded.");
-                        } catch (Exception e) {
-                            Bukkit.getLogger().severe("Shaded library could not be loaded.");
-                            e.printStackTrace();
-                        }
-                    } else {
-                        plugin.getLogger().info("Loaded library " + groupID.replace("{}", ".") + "." + artifactID + " version " + version + " and shaded successfully with ID " + ID + ".");
-                    }
+        }
+
+        manifest.setProperty(libraryRequest.key + ".libraries", libraries.toString());
+        manifest.setProperty(libraryRequest.key + ".files", files.toString());
+        manifest.setProperty(libraryRequest.key + ".time", String.valueOf((System.nanoTime() - start) / 1_000_000L));
+        plugin.getLogger().info("Loaded library " + libraryRequest.getName() + " version " + libraryRequest.version
+                + (libraryRequest.relocatePattern != null ? " and shaded" : "") + " successfully"
+                + (libraryRequest.ID != null ? " with ID " + libraryRequest.ID : "") + ".");
+    }
+
+    /**
+     * Gets how long resolving a library took when it was recorded in the manifest.
+     *
+     * @param libraryRequest The library.
+     * @return The time in milliseconds, or 0 if unknown.
+     */
+    private long getRecordedMillis(LibraryRequest libraryRequest) {
+        try {
+            return Long.parseLong(manifest.getProperty(libraryRequest.key + ".time", "0"));
+        } catch (NumberFormatException exception) {
+            return 0;
+        }
+    }
+
+    /**
+     * Checks that the relocated package of an isolated library can be found.
+     *
+     * @param libraryRequest The library.
+     */
+    private void checkIsolated(LibraryRequest libraryRequest) {
+        if (libraryRequest.isIsolated && libraryRequest.relocateRelocatedPattern != null) {
+            try {
+                Class.forName(libraryRequest.relocateRelocatedPattern.replace("{}", "."));
+            } catch (ClassNotFoundException e) {
+                plugin.getLogger().severe("Shaded library could not be loaded.");
+            }
+        }
+    }
+
+    /**
+     * Gets the library manager for a repository, shared by every library of that repository.
+     *
+     * @param libraryURL The repository, or null for the default repositories.
+     * @return The library manager.
+     */
+    private RecordingLibraryManager getLibraryManager(String libraryURL) {
+        return libraryManagerMap.computeIfAbsent(libraryURL != null ? libraryURL : "", key -> {
+            RecordingLibraryManager libraryManager = new RecordingLibraryManager(plugin, directoryName);
+
+            if (!offline) {
+                if (libraryURL != null) {
+                    libraryManager.addRepository(libraryURL);
                 } else {
-                    libraryManager.loadLibrary(Library.builder()
-                            .groupId(groupID)
-                            .artifactId(artifactID)
-                            .version(version)
-                            .loaderId(ID)
-                            .isolatedLoad(isIsolated)
-                            .resolveTransitiveDependencies(resolveTransitiveDependencies)
-                            .build()
-                    );
-                    if (isIsolated) {
-                        try {
-                            Class<?> clazz = Class.forName(relocateRelocatedPattern.replace("{}", "."));
-                            clazz.getClassLoader();
-                            plugin.getLogger().info("Loaded library " + groupID.replace("{}", ".") + "." + artifactID + " version " + version + " successfully with ID " + ID + ".");
-                        } catch (ClassNotFoundException e) {
-                            Bukkit.getLogger().severe("Shaded library could not be loaded.");
-                        } catch (Exception e) {
-                            Bukkit.getLogger().severe("Shaded library could not be loaded.");
-                            e.printStackTrace();
-                        }
-                    } else {
-                        plugin.getLogger().info("Loaded library " + groupID.replace("{}", ".") + "." + artifactID + " version " + version + " successfully with ID " + ID + ".");
-                    }
+                    libraryManager.addMavenCentral();
+                    libraryManager.addSonatype();
+                    libraryManager.addJCenter();
+                    libraryManager.addJitPack();
                 }
-            } else {
-                plugin.getLogger().info("Loading library " + groupID.replace("{}", ".") + "." + artifactID + " version " + version + ".");
-                if (relocatePattern != null) {
-                    libraryManager.loadLibrary(Library.builder()
-                            .groupId(groupID)
-                            .artifactId(artifactID)
-                            .version(version)
-                            .relocate(relocatePattern, relocateRelocatedPattern)
-                            .isolatedLoad(isIsolated)
-                            .resolveTransitiveDependencies(resolveTransitiveDependencies)
-                            .build()
-                    );
-                    if (isIsolated) {
-                        try {
-                            Class<?> clazz = Class.forName(relocateRelocatedPattern.replace("{}", "."));
-                            clazz.getClassLoader();
-                            plugin.getLogger().info("Loaded library " + groupID.replace("{}", ".") + "." + artifactID + " version " + version + " and shaded successfully.");
-                        } catch (ClassNotFoundException e) {
-                            Bukkit.getLogger().severe("Shaded library could not be loaded.");
-                        } catch (Exception e) {
-                            Bukkit.getLogger().severe("Shaded library could not be loaded.");
-                            e.printStackTrace();
-                        }
-                    } else {
-                        plugin.getLogger().info("Loaded library " + groupID.replace("{}", ".") + "." + artifactID + " version " + version + " and shaded successfully.");
-                    }
-                } else {
-                    libraryManager.loadLibrary(Library.builder()
-                            .groupId(groupID)
-                            .artifactId(artifactID)
-                            .version(version)
-                            .isolatedLoad(isIsolated)
-                            .resolveTransitiveDependencies(resolveTransitiveDependencies)
-                            .build()
-                    );
-                    if (isIsolated) {
-                        try {
-                            Class<?> clazz = Class.forName(relocateRelocatedPattern.replace("{}", "."));
-                            clazz.getClassLoader();
-                            plugin.getLogger().info("Loaded library " + groupID.replace("{}", ".") + "." + artifactID + " version " + version + " successfully.");
-                        } catch (ClassNotFoundException e) {
-                            Bukkit.getLogger().severe("Shaded library could not be loaded.");
-                        } catch (Exception e) {
-                            Bukkit.getLogger().severe("Shaded library could not be loaded.");
-                            e.printStackTrace();
-                        }
-                    } else {
-                        plugin.getLogger().info("Loaded library " + groupID.replace("{}", ".") + "." + artifactID + " version " + version + " successfully.");
-                    }
+            }
+
+            return libraryManager;
+        });
+    }
+
+    private void loadManifest() {
+        Path path = directory.resolve(MANIFEST_FILE);
+
+        if (Files.isRegularFile(path)) {
+            try (InputStream inputStream = Files.newInputStream(path)) {
+                manifest.load(inputStream);
+            } catch (IOException | IllegalArgumentException exception) {
+                manifest.clear(); // Corrupt manifest, every library is resolved again
+                plugin.getLogger().warning("Failed to read library manifest, resolving every library again.");
+            }
+        }
+    }
+
+    /**
+     * Writes the manifest, through a temporary file so a crash never leaves a partial manifest.
+     */
+    private void saveManifest() {
+        Path path = directory.resolve(MANIFEST_FILE);
+        Path tempPath = directory.resolve(MANIFEST_FILE + ".tmp");
+
+        try {
+            Files.createDirectories(directory);
+
+            try (OutputStream outputStream = Files.newOutputStream(tempPath)) {
+                manifest.store(outputStream, "Libraries loaded by " + plugin.getDescription().getName()
+                        + ", do not edit");
+            }
+
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException exception) {
+            plugin.getLogger().warning("Failed to write library manifest: " + exception.getMessage());
+        }
+    }
+
+    private static String getChecksum(Path path) throws IOException {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+
+            try (InputStream inputStream = Files.newInputStream(path)) {
+                byte[] buffer = new byte[65536];
+                int read;
+
+                while ((read = inputStream.read(buffer)) != -1) {
+                    messageDigest.update(buffer, 0, read);
                 }
             }
-        } catch (Exception e) {
-            plugin.getLogger().severe("Failed to download or load library " + groupID.replace("{}", ".") + "." + artifactID + " version " + version + ". Cause: " + e.getCause());
-            plugin.logStackTrace(e);
+
+            return Base64.getEncoder().encodeToString(messageDigest.digest());
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IOException(exception);
+        }
+    }
+
+    /**
+     * A library added for loading.
+     */
+    private static final class LibraryRequest {
+        private final String groupID;
+        private final String artifactID;
+        private final String version;
+        private final String ID;
+        private final String relocatePattern;
+        private final String relocateRelocatedPattern;
+        private final boolean isIsolated;
+        private final String libraryURL;
+        private final boolean resolveTransitiveDependencies;
+        private final String key;
+
+        private LibraryRequest(String groupID, String artifactID, String version, String ID, String relocatePattern,
+                               String relocateRelocatedPattern, boolean isIsolated, String libraryURL,
+                               boolean resolveTransitiveDependencies) {
+            this.groupID = groupID;
+            this.artifactID = artifactID;
+            this.version = version;
+            this.ID = ID;
+            this.relocatePattern = relocatePattern;
+            this.relocateRelocatedPattern = relocateRelocatedPattern;
+            this.isIsolated = isIsolated;
+            this.libraryURL = libraryURL;
+            this.resolveTransitiveDependencies = resolveTransitiveDependencies;
+            // Everything that changes the resulting jars is part of the key, a changed library is resolved again
+            this.key = (getName() + ":" + version + ":" + relocatePattern + ":" + relocateRelocatedPattern + ":"
+                    + resolveTransitiveDependencies).replace("{}", ".");
+        }
+
+        private String getName() {
+            return groupID.replace("{}", ".") + "." + artifactID;
+        }
+
+        /**
+         * Builds a library with the relocations, ID and isolation of this library. Transitive dependencies are built
+         * the same way, they inherit the settings of the library that pulled them in.
+         */
+        private Library toLibrary(String groupID, String artifactID, String version, String classifier,
+                                  boolean resolveTransitiveDependencies) {
+            Library.Builder builder = Library.builder()
+                    .groupId(groupID)
+                    .artifactId(artifactID)
+                    .version(version)
+                    .isolatedLoad(isIsolated)
+                    .resolveTransitiveDependencies(resolveTransitiveDependencies);
+
+            if (classifier != null) {
+                builder.classifier(classifier);
+            }
+
+            if (ID != null) {
+                builder.loaderId(ID);
+            }
+
+            if (relocatePattern != null) {
+                builder.relocate(relocatePattern, relocateRelocatedPattern);
+            }
+
+            return builder.build();
+        }
+    }
+
+    /**
+     * A library manager that can record every library it loads, including transitive dependencies.
+     */
+    private static final class RecordingLibraryManager extends BukkitLibraryManager {
+        private List<Library> loadedList;
+
+        private RecordingLibraryManager(Plugin plugin, String directoryName) {
+            super(plugin, directoryName);
+        }
+
+        @Override
+        public void loadLibrary(Library library) {
+            if (loadedList != null) {
+                loadedList.add(library);
+            }
+
+            super.loadLibrary(library);
         }
     }
-}
\ No newline at end of file
+}
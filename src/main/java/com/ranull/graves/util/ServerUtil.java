@@ -1,6 +1,7 @@
 package com.ranull.graves.util;
 
 import com.ranull.graves.Graves;
+import com.ranull.graves.integration.SchematicUndoStore;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
@@ -195,6 +196,44 @@ public final class ServerUtil {
         } else {
             stringList.add(plugin.getDescription().getName() + " Permissions Provider: Bukkit");
         }
+        if (plugin.getEntityLODManager() != null && plugin.getEntityLODManager().isEnabled()) {
+            stringList.add(plugin.getDescription().getName() + " LOD Live Entities: " + plugin.getEntityLODManager().getLiveCount());
+            stringList.add(plugin.getDescription().getName() + " LOD Dormant Entities: " + plugin.getEntityLODManager().getDormantCount());
+        } else {
+            stringList.add(plugin.getDescription().getName() + " LOD: Disabled");
+        }
+        if (plugin.getPacketHologramManager() != null && plugin.getPacketHologramManager().isEnabled()) {
+            stringList.add(plugin.getDescription().getName() + " Hologram Backend: Packet");
+            stringList.add(plugin.getDescription().getName() + " Packet Holograms: " + plugin.getPacketHologramManager().getHologramCount()
+                    + " (" + plugin.getPacketHologramManager().getLineCount() + " Lines)");
+        } else {
+            stringList.add(plugin.getDescription().getName() + " Hologram Backend: Entity");
+        }
+        if (plugin.getIntegrationManager() != null && plugin.getIntegrationManager().hasWorldEdit()) {
+            SchematicUndoStore undoStore = plugin.getIntegrationManager().getWorldEdit().getUndoStore();
+
+            stringList.add(plugin.getDescription().getName() + " Schematic Undos: " + undoStore.getUndoCount()
+                    + " (" + undoStore.getTotalDiskBytes() + " Disk Bytes, " + undoStore.getTotalHeapBytes()
+                    + " Heap Bytes)");
+            stringList.add(plugin.getDescription().getName() + " Schematic Pastes Queued: "
+                    + plugin.getIntegrationManager().getWorldEdit().getPasteScheduler().getQueuedPasteCount() + " ("
+                    + plugin.getIntegrationManager().getWorldEdit().getPasteScheduler().getQueuedBlockCount()
+                    + " Blocks)");
+        }
+        if (plugin.getIntegrationManager() != null) {
+            for (String line : plugin.getIntegrationManager().getRegionQueryCache().getSummaryList()) {
+                stringList.add(plugin.getDescription().getName() + " Region Cache " + line);
+            }
+
+            for (String line : plugin.getIntegrationManager().getLoadTimeList()) {
+                stringList.add(plugin.getDescription().getName() + " Integration Load Time " + line);
+            }
+        }
+        if (plugin.getMetricManager() != null) {
+            for (String metric : plugin.getMetricManager().getSummaryList()) {
+                stringList.add(plugin.getDescription().getName() + " Metric " + metric);
+            }
+        }
         stringList.add(plugin.getDescription().getName() + " Plugin Release: " + plugin.getPluginReleaseType());
         stringList.add(plugin.getDescription().getName() + " Config Version: " + plugin.getConfig().getInt("config-version"));
 
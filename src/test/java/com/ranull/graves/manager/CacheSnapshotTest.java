@@ -0,0 +1,183 @@
+package com.ranull.graves.manager;
+
+import com.ranull.graves.Graves;
+import com.ranull.graves.data.BlockData;
+import com.ranull.graves.data.ChunkData;
+import com.ranull.graves.data.EntityData;
+import com.ranull.graves.data.HologramData;
+import com.ranull.graves.type.Grave;
+import com.ranull.graves.util.LocationUtil;
+import com.zaxxer.hikari.HikariDataSource;
+import org.bukkit.Location;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CacheSnapshotTest {
+    @TempDir
+    File dataFolder;
+
+    private Graves plugin;
+    private HikariDataSource dataSource;
+    private DataManager dataManager;
+    private CacheSnapshot cacheSnapshot;
+    private File snapshotFile;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        plugin = TestSupport.mockPlugin(dataFolder, new YamlConfiguration());
+
+        dataSource = TestSupport.createDataSource();
+        dataManager = new DataManager(plugin, DataManager.Type.H2, dataSource);
+        dataManager.loadTables();
+        cacheSnapshot = new CacheSnapshot(plugin, dataManager);
+        snapshotFile = new File(dataFolder, "data" + File.separator + "cache.snapshot");
+        assertTrue(snapshotFile.getParentFile().mkdirs());
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void watermarkChangesWhenGraveIsUpdated() throws SQLException {
+        UUID uuid = UUID.randomUUID();
+        Grave grave = mock(Grave.class);
+
+        when(grave.getUUID()).thenReturn(uuid);
+        TestSupport.execute(dataSource, "INSERT INTO grave (uuid, experience, protection, is_abandoned, "
+                + "time_creation) VALUES (?, ?, ?, ?, ?)", uuid.toString(), 10, 0, 0, 1000L);
+
+        Map<String, Long> watermarkMap = cacheSnapshot.getDatabaseWatermark();
+
+        // An inventory or experience update changes no count or aggregate, only the revision
+        dataManager.updateGrave(grave, "experience", 20);
+
+        Map<String, Long> updatedWatermarkMap = cacheSnapshot.getDatabaseWatermark();
+
+        assertNotEquals(watermarkMap, updatedWatermarkMap);
+        assertEquals(watermarkMap.get("grave.count"), updatedWatermarkMap.get("grave.count"));
+        assertEquals(watermarkMap.get("grave.revision") + 1, updatedWatermarkMap.get("grave.revision"));
+    }
+
+    @Test
+    void snapshotIsLoadedWhileDatabaseIsUnchanged() {
+        cacheSnapshot.save();
+
+        assertTrue(snapshotFile.isFile());
+        assertTrue(cacheSnapshot.load());
+        assertFalse(snapshotFile.exists());
+        assertFalse(cacheSnapshot.load());
+    }
+
+    @Test
+    void snapshotKeepsBlocksAndHolograms() throws SQLException {
+        Location blockLocation = new Location(TestSupport.getWorld(), 10, 64, -20);
+        Location hologramLocation = new Location(TestSupport.getWorld(), 10, 65, -20);
+        UUID graveUUID = UUID.randomUUID();
+        UUID entityUUID = UUID.randomUUID();
+
+        insertBlock(blockLocation, graveUUID);
+        TestSupport.execute(dataSource, "INSERT INTO hologram (uuid_entity, uuid_grave, line, location) "
+                + "VALUES (?, ?, ?, ?)", entityUUID.toString(), graveUUID.toString(), 2,
+                LocationUtil.locationToString(hologramLocation));
+        dataManager.getChunkData(blockLocation).addBlockData(new BlockData(blockLocation, graveUUID, "STONE",
+                "minecraft:stone"));
+        dataManager.getChunkData(hologramLocation).addEntityData(new HologramData(hologramLocation, entityUUID,
+                graveUUID, 2));
+
+        cacheSnapshot.save();
+        plugin.getCacheManager().getChunkMap().clear();
+
+        assertTrue(cacheSnapshot.load());
+
+        ChunkData chunkData = plugin.getCacheManager().getChunkMap().get(LocationUtil.chunkToString(blockLocation));
+
+        assertNotNull(chunkData);
+        assertEquals(1, chunkData.getBlockDataMap().size());
+        assertEquals(1, chunkData.getEntityDataMap().size());
+
+        BlockData blockData = chunkData.getBlockDataMap().get(blockLocation);
+
+        assertNotNull(blockData);
+        assertEquals(graveUUID, blockData.getGraveUUID());
+        assertEquals("STONE", blockData.getReplaceMaterial());
+        assertEquals("minecraft:stone", blockData.getReplaceData());
+
+        EntityData entityData = chunkData.getEntityDataMap().get(entityUUID);
+
+        assertInstanceOf(HologramData.class, entityData);
+        assertEquals(EntityData.Type.HOLOGRAM, entityData.getType());
+        assertEquals(hologramLocation, entityData.getLocation());
+        assertEquals(graveUUID, entityData.getUUIDGrave());
+        assertEquals(2, ((HologramData) entityData).getLine());
+    }
+
+    @Test
+    void snapshotIsLoadedAfterCleanShutdownWithJournal() throws SQLException {
+        Location location = new Location(TestSupport.getWorld(), 0, 64, 0);
+        UUID graveUUID = UUID.randomUUID();
+        GraveJournal graveJournal = new GraveJournal(plugin, dataManager);
+
+        graveJournal.start();
+        assertTrue(graveJournal.append(Collections.singletonList(new GraveJournal.Statement("INSERT INTO block "
+                + "(location, uuid_grave, replace_material, replace_data) VALUES (?, ?, ?, ?)",
+                LocationUtil.locationToString(location), graveUUID, "AIR", "minecraft:air"))));
+        dataManager.getChunkData(location).addBlockData(new BlockData(location, graveUUID, "AIR", "minecraft:air"));
+
+        // Shutdown in the order of the data manager
+        assertTrue(graveJournal.close(5000));
+        cacheSnapshot.save();
+        plugin.getCacheManager().getChunkMap().clear();
+
+        // The next start only uses the snapshot if the journal had nothing to replay
+        GraveJournal restartedJournal = new GraveJournal(plugin, dataManager);
+
+        assertEquals(0, restartedJournal.start());
+        assertTrue(new CacheSnapshot(plugin, dataManager).load());
+        assertEquals(1, plugin.getCacheManager().getChunkMap().get(LocationUtil.chunkToString(location))
+                .getBlockDataMap().size());
+        assertTrue(restartedJournal.close(5000));
+    }
+
+    @Test
+    void snapshotIsDiscardedWhenDatabaseChanged() throws SQLException {
+        cacheSnapshot.save();
+
+        // Written by another server after the shutdown
+        insertBlock(new Location(TestSupport.getWorld(), 0, 64, 0), UUID.randomUUID());
+
+        assertTrue(snapshotFile.isFile());
+        assertFalse(cacheSnapshot.load());
+        assertFalse(snapshotFile.exists());
+    }
+
+    @Test
+    void snapshotIsNotWrittenWhenCacheDoesNotMatchDatabase() throws SQLException {
+        TestSupport.execute(dataSource, "INSERT INTO grave (uuid, experience, protection, is_abandoned, "
+                + "time_creation) VALUES (?, ?, ?, ?, ?)", UUID.randomUUID().toString(), 0, 0, 0, 1000L);
+
+        cacheSnapshot.save();
+
+        assertFalse(snapshotFile.exists());
+    }
+
+    private void insertBlock(Location location, UUID graveUUID) throws SQLException {
+        TestSupport.execute(dataSource, "INSERT INTO block (location, uuid_grave, replace_material, replace_data) "
+                + "VALUES (?, ?, ?, ?)", LocationUtil.locationToString(location), graveUUID.toString(), "STONE",
+                "minecraft:stone");
+    }
+}
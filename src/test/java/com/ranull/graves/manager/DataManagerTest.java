@@ -0,0 +1,155 @@
+package com.ranull.graves.manager;
+
+import com.ranull.graves.Graves;
+import com.ranull.graves.type.Grave;
+import com.zaxxer.hikari.HikariDataSource;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.io.File;
+import java.sql.*;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class DataManagerTest {
+    private static final int LATEST_VERSION = 6;
+
+    @TempDir
+    File dataFolder;
+
+    private Graves plugin;
+    private HikariDataSource dataSource;
+    private DataManager dataManager;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        plugin = TestSupport.mockPlugin(dataFolder, new YamlConfiguration());
+
+        dataSource = TestSupport.createDataSource();
+        dataManager = new DataManager(plugin, DataManager.Type.H2, dataSource);
+        dataManager.loadTables();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void loadTablesCreatesLatestSchema() throws SQLException {
+        assertEquals(LATEST_VERSION, TestSupport.queryLong(dataSource, "SELECT MAX(version) FROM "
+                + SchemaManager.TABLE));
+        assertEquals(0, TestSupport.queryLong(dataSource, "SELECT COUNT(*) FROM grave_change"));
+        assertEquals(0, TestSupport.queryLong(dataSource, "SELECT COUNT(*) FROM grave_change_node"));
+        assertEquals(0, TestSupport.queryLong(dataSource, "SELECT COUNT(*) FROM graveyard_plot"));
+        assertEquals(0, TestSupport.queryLong(dataSource, "SELECT COUNT(*) FROM citizensnpc"));
+
+        insertGrave(UUID.randomUUID());
+
+        assertEquals(0, TestSupport.queryLong(dataSource, "SELECT SUM(revision) FROM grave"));
+    }
+
+    @Test
+    void loadTablesOnLatestVersionChangesNothing() throws SQLException {
+        dataManager.loadTables();
+
+        assertEquals(LATEST_VERSION, TestSupport.queryLong(dataSource, "SELECT COUNT(*) FROM "
+                + SchemaManager.TABLE));
+    }
+
+    @Test
+    void loadTablesMigratesOlderSchema() throws SQLException {
+        TestSupport.execute(dataSource, "ALTER TABLE grave DROP COLUMN revision");
+        TestSupport.execute(dataSource, "DELETE FROM " + SchemaManager.TABLE + " WHERE version = ?", LATEST_VERSION);
+
+        dataManager.loadTables();
+
+        assertEquals(LATEST_VERSION, TestSupport.queryLong(dataSource, "SELECT MAX(version) FROM "
+                + SchemaManager.TABLE));
+
+        insertGrave(UUID.randomUUID());
+
+        assertEquals(0, TestSupport.queryLong(dataSource, "SELECT SUM(revision) FROM grave"));
+    }
+
+    @Test
+    void loadTablesOnMicrosoftSqlServerUsesItsSyntax() throws SQLException {
+        HikariDataSource sqlServerDataSource = mock(HikariDataSource.class);
+        Connection connection = mock(Connection.class, RETURNS_DEEP_STUBS);
+        Statement statement = mock(Statement.class);
+
+        // Every table and column is missing, so every create statement runs
+        when(sqlServerDataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(mock(ResultSet.class));
+
+        new DataManager(plugin, DataManager.Type.MSSQL, sqlServerDataSource).loadTables();
+
+        ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+
+        verify(statement, atLeastOnce()).executeUpdate(sqlCaptor.capture());
+
+        List<String> sqlList = sqlCaptor.getAllValues();
+
+        for (String sql : sqlList) {
+            assertFalse(sql.contains("CREATE TABLE IF NOT EXISTS"), sql);
+            assertFalse(sql.matches("(?s).*\\bINT\\(\\d+\\).*"), sql);
+        }
+
+        for (String table : Arrays.asList("grave", "block", "hologram", "graveyards", "armorstand", "itemframe")) {
+            assertTrue(sqlList.stream().anyMatch(sql -> sql.contains("CREATE TABLE " + table + " (")), table);
+        }
+    }
+
+    @Test
+    void updateGraveRaisesRevision() throws SQLException {
+        UUID uuid = UUID.randomUUID();
+        Grave grave = mock(Grave.class);
+
+        when(grave.getUUID()).thenReturn(uuid);
+        insertGrave(uuid);
+
+        dataManager.updateGrave(grave, "experience", 5);
+        dataManager.updateGrave(grave, "owner_name", "Ranull");
+
+        assertEquals(5, TestSupport.queryLong(dataSource, "SELECT experience FROM grave WHERE uuid = ?",
+                uuid.toString()));
+        assertEquals(2, TestSupport.queryLong(dataSource, "SELECT revision FROM grave WHERE uuid = ?",
+                uuid.toString()));
+    }
+
+    @Test
+    void applyStatementsIsAtomic() throws SQLException {
+        UUID uuid = UUID.randomUUID();
+        SQLException exception = assertThrows(SQLException.class, () -> dataManager.applyStatements(Arrays.asList(
+                new GraveJournal.Statement("INSERT INTO grave (uuid, time_creation) VALUES (?, ?)", uuid, 1L),
+                new GraveJournal.Statement("INSERT INTO missing_table (uuid) VALUES (?)", uuid))));
+
+        assertEquals(0, TestSupport.queryLong(dataSource, "SELECT COUNT(*) FROM grave"));
+        assertTrue(GraveJournal.isPermanent(exception, dataManager.getType()));
+    }
+
+    @Test
+    void applyStatementsWithoutConnectionIsTransient() {
+        dataSource.close();
+
+        SQLException exception = assertThrows(SQLTransientConnectionException.class, () -> dataManager
+                .applyStatements(Arrays.asList(new GraveJournal.Statement("DELETE FROM grave"))));
+
+        assertFalse(GraveJournal.isPermanent(exception, dataManager.getType()));
+    }
+
+    private void insertGrave(UUID uuid) throws SQLException {
+        TestSupport.execute(dataSource, "INSERT INTO grave (uuid, owner_name, experience, protection, is_abandoned, "
+                + "time_creation) VALUES (?, ?, ?, ?, ?, ?)", uuid.toString(), "Steve", 0, 0, 0, 1000L);
+    }
+}
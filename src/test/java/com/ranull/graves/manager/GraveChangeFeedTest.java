@@ -0,0 +1,211 @@
+package com.ranull.graves.manager;
+
+import com.ranull.graves.Graves;
+import com.ranull.graves.metric.Counter;
+import com.ranull.graves.type.Grave;
+import com.zaxxer.hikari.HikariDataSource;
+import org.bukkit.Server;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.io.File;
+import java.sql.SQLException;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class GraveChangeFeedTest {
+    private static final String SERVER_ID = "server-a";
+    private static final String OTHER_SERVER_ID = "server-b";
+
+    @TempDir
+    File dataFolder;
+
+    private Graves plugin;
+    private HikariDataSource dataSource;
+    private DataManager dataManager;
+    private GUIManager guiManager;
+    private Counter appliedCounter;
+    private GraveChangeFeed graveChangeFeed;
+    private Runnable pollTask;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        YamlConfiguration config = new YamlConfiguration();
+
+        config.set("settings.storage.change-feed.server-id", SERVER_ID);
+
+        plugin = TestSupport.mockPlugin(dataFolder, config);
+        guiManager = mock(GUIManager.class);
+        appliedCounter = new Counter();
+
+        Server server = mock(Server.class);
+        BukkitScheduler scheduler = mock(BukkitScheduler.class);
+
+        when(plugin.getServer()).thenReturn(server);
+        when(plugin.getGUIManager()).thenReturn(guiManager);
+        when(plugin.getMetricManager().getCounter(eq("graves_change_feed_applied_total"), anyString()))
+                .thenReturn(appliedCounter);
+        when(server.getScheduler()).thenReturn(scheduler);
+        when(scheduler.runTaskTimerAsynchronously(any(Plugin.class), any(Runnable.class), anyLong(), anyLong()))
+                .thenReturn(mock(BukkitTask.class));
+        // Changes are applied on the main thread, here on the polling thread
+        when(scheduler.runTask(any(Plugin.class), any(Runnable.class))).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+
+            return null;
+        });
+
+        dataSource = TestSupport.createDataSource();
+        dataManager = new DataManager(plugin, DataManager.Type.H2, dataSource);
+        dataManager.loadTables();
+        graveChangeFeed = new GraveChangeFeed(plugin, dataManager);
+        graveChangeFeed.start(0);
+
+        ArgumentCaptor<Runnable> pollCaptor = ArgumentCaptor.forClass(Runnable.class);
+
+        verify(scheduler).runTaskTimerAsynchronously(eq(plugin), pollCaptor.capture(), anyLong(), anyLong());
+        pollTask = pollCaptor.getValue();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void ownChangesAreReadButNotApplied() throws SQLException {
+        UUID uuid = UUID.randomUUID();
+
+        dataManager.applyStatements(Collections.singletonList(graveChangeFeed.getChangeStatement(uuid, "ADD", "*")));
+        dataManager.applyStatements(Collections.singletonList(graveChangeFeed.getChangeStatement(uuid, "UPDATE",
+                "experience")));
+        pollTask.run();
+
+        assertEquals(2, graveChangeFeed.getLastId());
+        assertEquals(2, graveChangeFeed.getMaxId());
+        assertEquals(0, appliedCounter.get());
+        assertEquals(2, TestSupport.queryLong(dataSource, "SELECT last_id FROM grave_change_node "
+                + "WHERE server_id = ?", SERVER_ID));
+    }
+
+    @Test
+    void removeOfOtherServerIsAppliedOnce() throws SQLException {
+        UUID uuid = UUID.randomUUID();
+        Grave grave = mock(Grave.class);
+
+        when(grave.getUUID()).thenReturn(uuid);
+        when(grave.getInventory()).thenReturn(mock(Inventory.class));
+        plugin.getCacheManager().getGraveMap().put(uuid, grave);
+
+        insertChange(1, uuid, "REMOVE", null, OTHER_SERVER_ID);
+        pollTask.run();
+
+        assertFalse(plugin.getCacheManager().getGraveMap().containsKey(uuid));
+        assertEquals(1, graveChangeFeed.getLastId());
+        assertEquals(1, appliedCounter.get());
+        verify(guiManager).removeGraveListItem(grave);
+        verify(guiManager).refreshGrave(grave);
+
+        // Nothing new, nothing applied
+        pollTask.run();
+
+        assertEquals(1, appliedCounter.get());
+
+        // The same change again, the grave is already gone
+        insertChange(2, uuid, "REMOVE", null, OTHER_SERVER_ID);
+        pollTask.run();
+
+        assertEquals(2, graveChangeFeed.getLastId());
+        assertFalse(plugin.getCacheManager().getGraveMap().containsKey(uuid));
+        verify(guiManager, times(1)).removeGraveListItem(grave);
+    }
+
+    @Test
+    void readPositionWaitsForMissingId() throws SQLException {
+        insertChange(1, UUID.randomUUID(), "REMOVE", null, OTHER_SERVER_ID);
+        insertChange(3, UUID.randomUUID(), "REMOVE", null, OTHER_SERVER_ID);
+        pollTask.run();
+
+        assertEquals(1, graveChangeFeed.getLastId());
+
+        // Id 2 is still in an open transaction of another server
+        pollTask.run();
+
+        assertEquals(1, graveChangeFeed.getLastId());
+
+        insertChange(2, UUID.randomUUID(), "REMOVE", null, OTHER_SERVER_ID);
+        pollTask.run();
+
+        assertEquals(3, graveChangeFeed.getLastId());
+    }
+
+    @Test
+    void stopAcknowledgesOwnChanges() throws SQLException {
+        dataManager.applyStatements(Collections.singletonList(graveChangeFeed.getChangeStatement(UUID.randomUUID(),
+                "REMOVE", null)));
+        graveChangeFeed.stop();
+
+        assertEquals(1, graveChangeFeed.getLastId());
+        assertEquals(1, TestSupport.queryLong(dataSource, "SELECT last_id FROM grave_change_node "
+                + "WHERE server_id = ?", SERVER_ID));
+    }
+
+    @Test
+    void advanceMovesOverContiguousIds() {
+        Map<Long, Long> gapSeenMap = new HashMap<>();
+
+        assertEquals(3, GraveChangeFeed.advance(0, Arrays.asList(1L, 2L, 3L), gapSeenMap, 0, 10000));
+        assertTrue(gapSeenMap.isEmpty());
+    }
+
+    @Test
+    void advanceSkipsGapAfterTimeoutSinceFirstSeen() {
+        Map<Long, Long> gapSeenMap = new HashMap<>();
+        List<Long> idList = Arrays.asList(3L, 4L);
+
+        assertEquals(1, GraveChangeFeed.advance(1, idList, gapSeenMap, 1000, 10000));
+        assertEquals(Collections.singletonMap(2L, 1000L), gapSeenMap);
+
+        // The gap is timed from when this server first saw it, not from when the rows were written
+        assertEquals(1, GraveChangeFeed.advance(1, idList, gapSeenMap, 10999, 10000));
+        assertEquals(4, GraveChangeFeed.advance(1, idList, gapSeenMap, 11000, 10000));
+        assertTrue(gapSeenMap.isEmpty());
+    }
+
+    @Test
+    void advanceTimesEveryGapSeparately() {
+        Map<Long, Long> gapSeenMap = new HashMap<>();
+        List<Long> idList = Arrays.asList(1L, 3L, 5L);
+
+        assertEquals(1, GraveChangeFeed.advance(0, idList, gapSeenMap, 0, 100));
+        assertEquals(3, GraveChangeFeed.advance(1, idList.subList(1, 3), gapSeenMap, 100, 100));
+        assertEquals(Collections.singletonMap(4L, 100L), gapSeenMap);
+    }
+
+    @Test
+    void advanceForgetsGapThatWasFilled() {
+        Map<Long, Long> gapSeenMap = new HashMap<>();
+
+        assertEquals(1, GraveChangeFeed.advance(1, Collections.singletonList(3L), gapSeenMap, 0, 10000));
+        assertEquals(3, GraveChangeFeed.advance(1, Arrays.asList(2L, 3L), gapSeenMap, 5, 10000));
+        assertTrue(gapSeenMap.isEmpty());
+    }
+
+    private void insertChange(long id, UUID uuid, String operation, String columns, String serverId)
+            throws SQLException {
+        TestSupport.execute(dataSource, "INSERT INTO grave_change (id, uuid_grave, operation, changed_columns, "
+                + "server_id, time_created) VALUES (?, ?, ?, ?, ?, ?)", id, uuid.toString(), operation, columns,
+                serverId, System.currentTimeMillis());
+    }
+}
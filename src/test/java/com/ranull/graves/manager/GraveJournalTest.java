@@ -0,0 +1,235 @@
+package com.ranull.graves.manager;
+
+import com.ranull.graves.Graves;
+import com.zaxxer.hikari.HikariDataSource;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class GraveJournalTest {
+    @TempDir
+    File dataFolder;
+
+    private Graves plugin;
+    private HikariDataSource dataSource;
+    private DataManager dataManager;
+    private File journalFolder;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        YamlConfiguration config = new YamlConfiguration();
+
+        config.set("settings.storage.journal.sync", true);
+
+        plugin = TestSupport.mockPlugin(dataFolder, config);
+        dataSource = TestSupport.createDataSource();
+        dataManager = spy(new DataManager(plugin, DataManager.Type.H2, dataSource));
+        dataManager.loadTables();
+        journalFolder = new File(dataFolder, "data" + File.separator + "journal");
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void appendedEntriesAreApplied() throws SQLException {
+        GraveJournal graveJournal = new GraveJournal(plugin, dataManager);
+        UUID uuid = UUID.randomUUID();
+
+        assertEquals(0, graveJournal.start());
+        assertTrue(graveJournal.append(insertGrave(uuid)));
+        assertTrue(graveJournal.append(updateExperience(uuid, 7)));
+        assertTrue(graveJournal.close(5000));
+
+        assertEquals(7, experience(uuid));
+        assertFalse(graveJournal.append(updateExperience(uuid, 8)));
+    }
+
+    @Test
+    void cleanShutdownLeavesNothingToReplay() throws SQLException {
+        GraveJournal graveJournal = new GraveJournal(plugin, dataManager);
+        UUID uuid = UUID.randomUUID();
+
+        graveJournal.start();
+        assertTrue(graveJournal.append(insertGrave(uuid)));
+        assertTrue(graveJournal.append(updateExperience(uuid, 7)));
+        assertTrue(graveJournal.close(5000));
+        assertEquals(0, segmentCount());
+
+        // Looted on another server after the shutdown
+        TestSupport.execute(dataSource, "DELETE FROM grave WHERE uuid = ?", uuid.toString());
+
+        GraveJournal restartedJournal = new GraveJournal(plugin, dataManager);
+
+        assertEquals(0, restartedJournal.start());
+        assertEquals(0, TestSupport.queryLong(dataSource, "SELECT COUNT(*) FROM grave"));
+        assertTrue(restartedJournal.close(5000));
+    }
+
+    @Test
+    void replaySkipsEntriesAppliedBeforeShutdown() throws SQLException {
+        UUID uuid = UUID.randomUUID();
+        List<GraveJournal.Statement> update = updateExperience(uuid, 5);
+
+        doThrow(new SQLTransientConnectionException("database is down")).when(dataManager).applyStatements(update);
+
+        GraveJournal stoppedJournal = new GraveJournal(plugin, dataManager);
+
+        stoppedJournal.start();
+        assertTrue(stoppedJournal.append(insertGrave(uuid)));
+        assertTrue(stoppedJournal.append(update));
+        assertFalse(stoppedJournal.close(2000));
+        assertEquals(1, TestSupport.queryLong(dataSource, "SELECT COUNT(*) FROM grave"));
+
+        TestSupport.execute(dataSource, "DELETE FROM grave WHERE uuid = ?", uuid.toString());
+
+        GraveJournal graveJournal = new GraveJournal(plugin, dataManager);
+
+        // Only the update is applied again, the grave is not created again
+        assertEquals(1, graveJournal.start());
+        assertEquals(0, TestSupport.queryLong(dataSource, "SELECT COUNT(*) FROM grave"));
+        assertTrue(graveJournal.close(5000));
+    }
+
+    @Test
+    void replayAppliesEntriesLeftByLastRun() throws SQLException {
+        UUID uuid = UUID.randomUUID();
+
+        failTransiently();
+
+        GraveJournal crashedJournal = new GraveJournal(plugin, dataManager);
+
+        crashedJournal.start();
+        assertTrue(crashedJournal.append(insertGrave(uuid)));
+        assertTrue(crashedJournal.append(updateExperience(uuid, 3)));
+        assertTrue(crashedJournal.append(updateExperience(uuid, 9)));
+        assertFalse(crashedJournal.close(2000));
+        assertEquals(0, TestSupport.queryLong(dataSource, "SELECT COUNT(*) FROM grave"));
+
+        doCallRealMethod().when(dataManager).applyStatements(anyList());
+
+        GraveJournal graveJournal = new GraveJournal(plugin, dataManager);
+
+        // Applied in the order they were appended
+        assertEquals(3, graveJournal.start());
+        assertEquals(9, experience(uuid));
+        assertEquals(1, segmentCount());
+
+        // Applying an entry again gives the same result
+        assertTrue(graveJournal.append(insertGrave(uuid)));
+        assertTrue(graveJournal.close(5000));
+        assertEquals(1, TestSupport.queryLong(dataSource, "SELECT COUNT(*) FROM grave"));
+    }
+
+    @Test
+    void replayIgnoresRecordThatWasCutOff() throws Exception {
+        UUID uuid = UUID.randomUUID();
+
+        failTransiently();
+
+        GraveJournal crashedJournal = new GraveJournal(plugin, dataManager);
+
+        crashedJournal.start();
+        assertTrue(crashedJournal.append(insertGrave(uuid)));
+        assertTrue(crashedJournal.append(updateExperience(uuid, 4)));
+        crashedJournal.close(2000);
+
+        File[] segments = journalFolder.listFiles((dir, name) -> name.endsWith(".log"));
+
+        assertNotNull(segments);
+        assertEquals(1, segments.length);
+
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(segments[0], "rw")) {
+            randomAccessFile.setLength(randomAccessFile.length() - 3);
+        }
+
+        doCallRealMethod().when(dataManager).applyStatements(anyList());
+
+        GraveJournal graveJournal = new GraveJournal(plugin, dataManager);
+
+        assertEquals(1, graveJournal.start());
+        assertEquals(0, experience(uuid));
+        assertTrue(graveJournal.close(5000));
+    }
+
+    @Test
+    void rejectedEntryIsMovedToDeadLetterFile() throws SQLException {
+        UUID uuid = UUID.randomUUID();
+        List<GraveJournal.Statement> rejected = Collections.singletonList(new GraveJournal.Statement(
+                "INSERT INTO grave (uuid, time_creation) VALUES (?, ?)", uuid, 1L));
+
+        doThrow(new SQLIntegrityConstraintViolationException("duplicate", "23505"))
+                .when(dataManager).applyStatements(rejected);
+
+        GraveJournal graveJournal = new GraveJournal(plugin, dataManager);
+
+        graveJournal.start();
+        assertTrue(graveJournal.append(rejected));
+        assertTrue(graveJournal.append(insertGrave(uuid)));
+        assertTrue(graveJournal.close(5000));
+
+        // The next entry is not held up by the rejected one
+        assertEquals(1, TestSupport.queryLong(dataSource, "SELECT COUNT(*) FROM grave"));
+
+        File deadLetterFile = new File(journalFolder, "dead-letter.journal");
+
+        assertTrue(deadLetterFile.isFile());
+        assertTrue(deadLetterFile.length() > 0);
+    }
+
+    @Test
+    void permanentFailuresAreRecognized() {
+        assertTrue(GraveJournal.isPermanent(new SQLIntegrityConstraintViolationException(), "H2"));
+        assertTrue(GraveJournal.isPermanent(new SQLException("constraint", "23505"), "PostgreSQL"));
+        assertTrue(GraveJournal.isPermanent(new SQLException("syntax", "42000"), "MySQL"));
+        assertTrue(GraveJournal.isPermanent(new SQLException("constraint", null, 19), "SQLite"));
+        assertFalse(GraveJournal.isPermanent(new SQLException("busy", null, 5), "SQLite"));
+        assertFalse(GraveJournal.isPermanent(new SQLException("unknown", null, 19), "MySQL"));
+        assertFalse(GraveJournal.isPermanent(new SQLException("connection", "08006"), "PostgreSQL"));
+        assertFalse(GraveJournal.isPermanent(new SQLTransientConnectionException("timeout"), "H2"));
+    }
+
+    private void failTransiently() throws SQLException {
+        doThrow(new SQLTransientConnectionException("database is down")).when(dataManager).applyStatements(anyList());
+    }
+
+    private List<GraveJournal.Statement> insertGrave(UUID uuid) {
+        // Journaled writes are idempotent, like the writes of the data manager
+        return Arrays.asList(new GraveJournal.Statement("DELETE FROM grave WHERE uuid = ?", uuid),
+                new GraveJournal.Statement("INSERT INTO grave (uuid, experience, time_creation) VALUES (?, ?, ?)",
+                        uuid, 0, 1000L));
+    }
+
+    private List<GraveJournal.Statement> updateExperience(UUID uuid, int experience) {
+        return Collections.singletonList(new GraveJournal.Statement("UPDATE grave SET experience = ?, "
+                + "revision = revision + 1 WHERE uuid = ?", experience, uuid));
+    }
+
+    private long experience(UUID uuid) throws SQLException {
+        return TestSupport.queryLong(dataSource, "SELECT experience FROM grave WHERE uuid = ?", uuid.toString());
+    }
+
+    private int segmentCount() {
+        File[] segments = journalFolder.listFiles((dir, name) -> name.endsWith(".log"));
+
+        return segments != null ? segments.length : 0;
+    }
+}
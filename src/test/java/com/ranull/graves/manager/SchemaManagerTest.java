@@ -0,0 +1,137 @@
+package com.ranull.graves.manager;
+
+import com.ranull.graves.Graves;
+import com.zaxxer.hikari.HikariDataSource;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaManagerTest {
+    @TempDir
+    File dataFolder;
+
+    private Graves plugin;
+    private HikariDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        plugin = TestSupport.mockPlugin(dataFolder, new YamlConfiguration());
+        dataSource = TestSupport.createDataSource();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void versionIsZeroWithoutVersionTable() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            assertEquals(0, new SchemaManager(plugin, DataManager.Type.H2).getVersion(connection));
+        }
+    }
+
+    @Test
+    void migrationsRunInVersionOrderAndAreRecorded() throws SQLException {
+        SchemaManager schemaManager = new SchemaManager(plugin, DataManager.Type.H2);
+
+        // Registered out of order, version 2 depends on the table of version 1
+        schemaManager.addMigration(2, "Add column", connection -> update(connection,
+                "ALTER TABLE test ADD COLUMN name VARCHAR(255)"));
+        schemaManager.addMigration(1, "Create table", connection -> update(connection,
+                "CREATE TABLE test (id INT PRIMARY KEY)"));
+
+        try (Connection connection = dataSource.getConnection()) {
+            assertTrue(schemaManager.migrate(connection));
+            assertEquals(2, schemaManager.getVersion(connection));
+        }
+
+        assertEquals(2, TestSupport.queryLong(dataSource, "SELECT COUNT(*) FROM " + SchemaManager.TABLE));
+        assertEquals(1, TestSupport.execute(dataSource, "INSERT INTO test (id, name) VALUES (1, 'grave')"));
+    }
+
+    @Test
+    void appliedMigrationsDoNotRunAgain() throws SQLException {
+        AtomicInteger runs = new AtomicInteger();
+        SchemaManager schemaManager = new SchemaManager(plugin, DataManager.Type.H2);
+
+        schemaManager.addMigration(1, "Create table", connection -> {
+            runs.incrementAndGet();
+            update(connection, "CREATE TABLE test (id INT PRIMARY KEY)");
+        });
+
+        try (Connection connection = dataSource.getConnection()) {
+            assertTrue(schemaManager.migrate(connection));
+            assertTrue(schemaManager.migrate(connection));
+
+            schemaManager.addMigration(2, "Add column", migrationConnection -> update(migrationConnection,
+                    "ALTER TABLE test ADD COLUMN name VARCHAR(255)"));
+
+            assertTrue(schemaManager.migrate(connection));
+            assertEquals(2, schemaManager.getVersion(connection));
+        }
+
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void failedMigrationIsNotRecordedAndRetried() throws SQLException {
+        AtomicInteger attempts = new AtomicInteger();
+        SchemaManager schemaManager = new SchemaManager(plugin, DataManager.Type.H2);
+
+        schemaManager.addMigration(1, "Create table", connection -> update(connection,
+                "CREATE TABLE test (id INT PRIMARY KEY)"));
+        schemaManager.addMigration(2, "Fails once", connection -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new SQLException("failed on purpose");
+            }
+        });
+        schemaManager.addMigration(3, "Add column", connection -> update(connection,
+                "ALTER TABLE test ADD COLUMN name VARCHAR(255)"));
+
+        try (Connection connection = dataSource.getConnection()) {
+            assertFalse(schemaManager.migrate(connection));
+            assertEquals(1, schemaManager.getVersion(connection));
+            assertTrue(connection.getAutoCommit());
+
+            assertTrue(schemaManager.migrate(connection));
+            assertEquals(3, schemaManager.getVersion(connection));
+        }
+
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void failedIndexMigrationIsNotRecorded() throws SQLException {
+        SchemaManager schemaManager = new SchemaManager(plugin, DataManager.Type.H2);
+
+        schemaManager.addMigration(1, "Create table", connection -> update(connection,
+                "CREATE TABLE grave (uuid_grave VARCHAR(255) PRIMARY KEY, owner_uuid VARCHAR(255))"));
+        // The SQL Server create index statement is rejected by H2, standing in for any failed index
+        schemaManager.addMigration(2, "Add secondary indexes", connection ->
+                new DatabaseIndexManager(plugin, DataManager.Type.MSSQL)
+                        .setupIndexes(connection, Collections.emptyList()));
+
+        try (Connection connection = dataSource.getConnection()) {
+            assertFalse(schemaManager.migrate(connection));
+            assertEquals(1, schemaManager.getVersion(connection));
+        }
+    }
+
+    private static void update(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate(sql);
+        }
+    }
+}
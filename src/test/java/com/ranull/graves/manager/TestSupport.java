@@ -0,0 +1,154 @@
+package com.ranull.graves.manager;
+
+import com.ranull.graves.Graves;
+import com.ranull.graves.metric.Counter;
+import com.ranull.graves.metric.Histogram;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.scheduler.BukkitScheduler;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Mocked plugin and in-memory H2 databases for the storage tests.
+ */
+final class TestSupport {
+    static final String WORLD_NAME = "world";
+
+    private static Server server;
+
+    private TestSupport() {
+    }
+
+    /**
+     * Gets the mocked server, registered with Bukkit once so locations can be read back. It has one world.
+     *
+     * @return The server.
+     */
+    static synchronized Server getServer() {
+        if (server == null) {
+            World world = mock(World.class);
+
+            server = mock(Server.class);
+            when(world.getName()).thenReturn(WORLD_NAME);
+            when(server.getLogger()).thenReturn(Logger.getLogger("GravesTest"));
+            when(server.getWorld(WORLD_NAME)).thenReturn(world);
+            when(server.getScheduler()).thenReturn(mock(BukkitScheduler.class));
+            Bukkit.setServer(server);
+        }
+
+        return server;
+    }
+
+    /**
+     * Gets the world of the mocked server.
+     *
+     * @return The world.
+     */
+    static World getWorld() {
+        return getServer().getWorld(WORLD_NAME);
+    }
+
+    /**
+     * Mocks the plugin with a data folder, a config and the managers the storage classes use. Async work submitted to
+     * the lifecycle manager runs on the calling thread.
+     *
+     * @param dataFolder The data folder.
+     * @param config     The config.
+     * @return The plugin.
+     */
+    static Graves mockPlugin(File dataFolder, YamlConfiguration config) {
+        Server server = getServer();
+        Graves plugin = mock(Graves.class);
+        MetricManager metricManager = mock(MetricManager.class);
+        LifecycleManager lifecycleManager = mock(LifecycleManager.class);
+
+        when(metricManager.getCounter(anyString(), anyString())).thenAnswer(invocation -> new Counter());
+        when(metricManager.getHistogram(anyString(), anyString())).thenAnswer(invocation -> new Histogram());
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+
+            return null;
+        }).when(lifecycleManager).runAsync(anyString(), any(Runnable.class));
+
+        when(plugin.getServer()).thenReturn(server);
+        when(plugin.getDataFolder()).thenReturn(dataFolder);
+        when(plugin.getConfig()).thenReturn(config);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("GravesTest"));
+        when(plugin.getMetricManager()).thenReturn(metricManager);
+        when(plugin.getLifecycleManager()).thenReturn(lifecycleManager);
+        when(plugin.getCacheManager()).thenReturn(new CacheManager());
+        when(plugin.getIntegrationManager()).thenReturn(mock(IntegrationManager.class));
+
+        return plugin;
+    }
+
+    /**
+     * Creates a data source on a new in-memory H2 database, dropped once the data source is closed.
+     *
+     * @return The data source.
+     */
+    static HikariDataSource createDataSource() {
+        HikariConfig config = new HikariConfig();
+
+        config.setJdbcUrl("jdbc:h2:mem:" + UUID.randomUUID());
+        config.setMaximumPoolSize(4);
+        config.setMinimumIdle(1);
+
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * Runs a statement outside of the data manager, like another server sharing the database would.
+     *
+     * @param dataSource The data source.
+     * @param sql        The statement.
+     * @param parameters The parameters.
+     * @return The number of changed rows.
+     */
+    static int execute(HikariDataSource dataSource, String sql, Object... parameters) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+
+            return statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Reads a single number.
+     *
+     * @param dataSource The data source.
+     * @param sql        The query.
+     * @param parameters The parameters.
+     * @return The first column of the first row, 0 if there is none.
+     */
+    static long queryLong(HikariDataSource dataSource, String sql, Object... parameters) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getLong(1) : 0;
+            }
+        }
+    }
+}